@@ -0,0 +1,50 @@
+#!/bin/bash
+
+# JMH benchmark runner for Helidon MP Host Information Application
+# Compiles the test sources (benchmarks live in src/test/java/com/oracle/demo/benchmark)
+# and runs the JMH harness with the test classpath
+#
+# Usage: ./benchmark.sh [BenchmarkRegex] [JMH options]
+#   e.g. ./benchmark.sh SessionServiceBenchmark -p population=400000 -t 8
+
+set -e
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+cd "${SCRIPT_DIR}"
+
+if [ "$1" = "--help" ]; then
+    echo "Usage: ./benchmark.sh [BenchmarkRegex] [JMH options]"
+    echo ""
+    echo "Available benchmarks:"
+    for source in src/test/java/com/oracle/demo/benchmark/*Benchmark.java; do
+        echo "  $(basename "${source}" .java)"
+    done
+    echo ""
+    echo "Common JMH options:"
+    echo "  -p name=value   Override a @Param"
+    echo "  -t N            Number of benchmark threads"
+    echo "  -prof gc        Report allocation rate and GC counts"
+    exit 0
+fi
+
+# Check if Maven is installed
+if ! command -v mvn &> /dev/null; then
+    echo "ERROR: Maven is not installed or not in PATH"
+    exit 1
+fi
+
+# Install the shared session store first
+(cd ../session-store && mvn -q install -DskipTests)
+
+echo "================================================"
+echo "Compiling benchmarks"
+echo "================================================"
+mvn -q test-compile dependency:build-classpath \
+    -Dmdep.includeScope=test -Dmdep.outputFile=target/benchmark-classpath.txt
+
+echo ""
+echo "================================================"
+echo "Running JMH"
+echo "================================================"
+java -cp "target/test-classes:target/classes:$(cat target/benchmark-classpath.txt)" \
+    org.openjdk.jmh.Main "$@"
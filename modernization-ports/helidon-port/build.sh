@@ -103,6 +103,10 @@ if [ "$BUILD_JAR" = true ]; then
     mvn --version
     echo ""
 
+    # Install the shared session store first
+    echo "Installing ../session-store..."
+    (cd ../session-store && mvn -q install -DskipTests)
+
     # Clean and build the project
     echo "Running Maven clean package..."
     mvn clean package -DskipTests
@@ -0,0 +1,252 @@
+package com.oracle.demo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Static files loaded once from the classpath, with precompressed variants
+ *
+ * Each file is read into a byte array at startup, together with a gzip variant
+ * (compressed here, at the best level) and a brotli variant when the build put
+ * a precompressed name.br next to it; the JDK has no brotli encoder. A variant
+ * that is not smaller than the file is dropped. Every variant has its own
+ * strong ETag, derived from the file's SHA-256, so caches never confuse them.
+ *
+ * select() and Variant.matches() do not allocate, so a request costs a map
+ * lookup and a scan of two headers. The byte arrays are shared by all requests
+ * and must not be modified.
+ */
+public final class StaticAssets {
+
+    private static final String GZIP = "gzip";
+    private static final String BROTLI = "br";
+
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    /**
+     * Load the named files from a classpath directory; missing files are skipped
+     */
+    public StaticAssets(ClassLoader classLoader, String directory, List<String> names) {
+        for (String name : names) {
+            byte[] content = read(classLoader, directory + "/" + name);
+            if (content == null) {
+                continue;
+            }
+            String tag = hash(content);
+            String contentType = contentType(name);
+            Variant identity = new Variant(content, contentType, null, "\"" + tag + "\"");
+            Variant gzip = smaller(new Variant(gzip(content), contentType, GZIP, "\"" + tag + "-gz\""), content);
+            byte[] brotliContent = read(classLoader, directory + "/" + name + ".br");
+            Variant brotli = brotliContent == null ? null
+                    : smaller(new Variant(brotliContent, contentType, BROTLI, "\"" + tag + "-br\""), content);
+            assets.put(name, new Asset(identity, gzip, brotli));
+        }
+    }
+
+    /**
+     * The best variant of a file for an Accept-Encoding header, or null for an unknown file
+     */
+    public Variant select(String name, String acceptEncoding) {
+        Asset asset = assets.get(name);
+        if (asset == null) {
+            return null;
+        }
+        if (acceptEncoding != null) {
+            if (asset.brotli != null && accepts(acceptEncoding, BROTLI)) {
+                return asset.brotli;
+            }
+            if (asset.gzip != null && accepts(acceptEncoding, GZIP)) {
+                return asset.gzip;
+            }
+        }
+        return asset.identity;
+    }
+
+    /**
+     * Whether an Accept-Encoding header accepts a content coding, without allocating
+     *
+     * A listed coding is accepted unless its q is zero; "*" stands for codings not listed.
+     */
+    static boolean accepts(String header, String coding) {
+        Boolean wildcard = null;
+        int length = header.length();
+        int start = 0;
+        while (start < length) {
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int tokenStart = skipSpaces(header, start, end);
+            int parameters = header.indexOf(';', tokenStart);
+            if (parameters < 0 || parameters > end) {
+                parameters = end;
+            }
+            int tokenEnd = parameters;
+            while (tokenEnd > tokenStart && header.charAt(tokenEnd - 1) == ' ') {
+                tokenEnd--;
+            }
+            int tokenLength = tokenEnd - tokenStart;
+            if (tokenLength == coding.length() && header.regionMatches(true, tokenStart, coding, 0, tokenLength)) {
+                return !zeroQuality(header, parameters, end);
+            }
+            if (tokenLength == 1 && header.charAt(tokenStart) == '*') {
+                wildcard = !zeroQuality(header, parameters, end);
+            }
+            start = end + 1;
+        }
+        return wildcard != null && wildcard;
+    }
+
+    private static boolean zeroQuality(String header, int from, int to) {
+        int q = header.indexOf("q=", from);
+        if (q < 0 || q >= to) {
+            return false;
+        }
+        for (int i = q + 2; i < to; i++) {
+            char c = header.charAt(i);
+            if (c != '0' && c != '.') {
+                return c == ' ' || c == ';';
+            }
+        }
+        return true;
+    }
+
+    private static int skipSpaces(String header, int from, int to) {
+        while (from < to && header.charAt(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static Variant smaller(Variant variant, byte[] content) {
+        return variant.body.length < content.length ? variant : null;
+    }
+
+    private static byte[] read(ClassLoader classLoader, String resource) {
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            return in == null ? null : in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + resource, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String contentType(String name) {
+        String extension = name.substring(name.lastIndexOf('.') + 1);
+        switch (extension) {
+            case "html":
+                return "text/html; charset=UTF-8";
+            case "css":
+                return "text/css; charset=UTF-8";
+            case "js":
+                return "text/javascript; charset=UTF-8";
+            case "json":
+                return "application/json";
+            case "svg":
+                return "image/svg+xml";
+            case "png":
+                return "image/png";
+            case "ico":
+                return "image/x-icon";
+            default:
+                return "application/octet-stream";
+        }
+    }
+
+    private static final class Asset {
+        private final Variant identity;
+        private final Variant gzip;
+        private final Variant brotli;
+
+        Asset(Variant identity, Variant gzip, Variant brotli) {
+            this.identity = identity;
+            this.gzip = gzip;
+            this.brotli = brotli;
+        }
+    }
+
+    /**
+     * One encoding of a file, ready to send
+     */
+    public static final class Variant {
+        private final byte[] body;
+        private final String contentType;
+        private final String contentEncoding;
+        private final String etag;
+
+        Variant(byte[] body, String contentType, String contentEncoding, String etag) {
+            this.body = body;
+            this.contentType = contentType;
+            this.contentEncoding = contentEncoding;
+            this.etag = etag;
+        }
+
+        /**
+         * The encoded content, shared: do not modify
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Content-Encoding of the body, null when it is not encoded
+         */
+        public String getContentEncoding() {
+            return contentEncoding;
+        }
+
+        /**
+         * Strong entity tag, quoted
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Whether an If-None-Match header names this variant, so the client's copy is current
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            // If-None-Match uses the weak comparison, so W/"tag" matches "tag" too
+            return ifNoneMatch.indexOf(etag) >= 0 || "*".equals(ifNoneMatch.trim());
+        }
+    }
+}
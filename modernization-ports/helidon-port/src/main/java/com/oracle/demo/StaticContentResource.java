@@ -1,51 +1,75 @@
 package com.oracle.demo;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
-import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import java.io.InputStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
 
 /**
  * JAX-RS resource to serve static content from classpath.
  * Serves index.html and swagger-ui.html from /static directory.
+ *
+ * The files are loaded once at startup (StaticAssets), with gzip and brotli
+ * variants chosen by Accept-Encoding. Responses carry a strong ETag, Vary and
+ * Cache-Control; a matching If-None-Match gets 304 without a body.
  */
 @Path("/")
+@ApplicationScoped
 public class StaticContentResource {
 
+    @Inject
+    @ConfigProperty(name = "app.static.cache-control", defaultValue = "public, no-cache")
+    private String cacheControl;
+
+    private StaticAssets assets;
+
+    @PostConstruct
+    void initialize() {
+        assets = new StaticAssets(getClass().getClassLoader(), "static", List.of("index.html", "swagger-ui.html"));
+    }
+
     @GET
     @Produces(MediaType.TEXT_HTML)
-    public Response getIndex() {
-        return serveStaticFile("index.html");
+    public Response getIndex(@HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                             @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        return serveStaticFile("index.html", acceptEncoding, ifNoneMatch);
     }
 
     @GET
     @Path("swagger-ui.html")
     @Produces(MediaType.TEXT_HTML)
-    public Response getSwaggerUI() {
-        return serveStaticFile("swagger-ui.html");
+    public Response getSwaggerUI(@HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                                 @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        return serveStaticFile("swagger-ui.html", acceptEncoding, ifNoneMatch);
     }
 
-    private Response serveStaticFile(String filename) {
-        try {
-            InputStream is = getClass().getClassLoader().getResourceAsStream("static/" + filename);
-            if (is == null) {
-                return Response.status(Response.Status.NOT_FOUND)
-                        .entity("File not found: " + filename)
-                        .build();
-            }
-            
-            String contentType = filename.endsWith(".html") ? MediaType.TEXT_HTML : MediaType.TEXT_PLAIN;
-            return Response.ok(is)
-                    .type(contentType)
-                    .build();
-                    
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity("Error loading file: " + e.getMessage())
+    private Response serveStaticFile(String filename, String acceptEncoding, String ifNoneMatch) {
+        StaticAssets.Variant variant = assets.select(filename, acceptEncoding);
+        if (variant == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("File not found: " + filename)
                     .build();
         }
+
+        Response.ResponseBuilder response = variant.matches(ifNoneMatch)
+                ? Response.notModified()
+                : Response.ok(variant.getBody(), variant.getContentType());
+        if (variant.getContentEncoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.getContentEncoding());
+        }
+        return response
+                .header(HttpHeaders.ETAG, variant.getEtag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
     }
 }
@@ -20,6 +20,7 @@ public class DatabaseInfo {
     private String driverName;
     private String driverVersion;
     private PoolStatistics poolStatistics;
+    private String checkedAt;
 
     public DatabaseInfo() {
     }
@@ -136,6 +137,17 @@ public class DatabaseInfo {
         this.poolStatistics = poolStatistics;
     }
 
+    /**
+     * When this information was taken (ISO-8601), which may be before the request
+     */
+    public String getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(String checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+
     /**
      * Connection pool statistics
      */
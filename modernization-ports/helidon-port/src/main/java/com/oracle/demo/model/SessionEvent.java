@@ -0,0 +1,86 @@
+package com.oracle.demo.model;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for one session lifecycle event of the SSE stream
+ *
+ * Events are immutable and shared by all subscribers of the stream.
+ */
+public class SessionEvent {
+
+    /**
+     * Event types, also the SSE event names (in lower case)
+     */
+    public enum Type {
+        CREATED,
+        TOUCHED,
+        USER,
+        ATTRIBUTE_SET,
+        ATTRIBUTE_REMOVED,
+        INVALIDATED,
+        REMOVED;
+
+        private final String eventName = name().toLowerCase().replace('_', '-');
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+
+    private final Type type;
+    private final String sessionId;
+    private final long time;
+    private final long visitCount;
+    private final String userName;
+    private final String key;
+
+    public SessionEvent(Type type, String sessionId, long time, long visitCount, String userName, String key) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.time = time;
+        this.visitCount = visitCount;
+        this.userName = userName;
+        this.key = key;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Time of the change in epoch milliseconds; for touches, the last access time
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public String getTimestamp() {
+        return Instant.ofEpochMilli(time).toString();
+    }
+
+    /**
+     * Visit count after a touch, 0 for other events
+     */
+    public long getVisitCount() {
+        return visitCount;
+    }
+
+    /**
+     * New user name of a USER event
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * Attribute key of an ATTRIBUTE_SET or ATTRIBUTE_REMOVED event; values are not published
+     */
+    public String getKey() {
+        return key;
+    }
+}
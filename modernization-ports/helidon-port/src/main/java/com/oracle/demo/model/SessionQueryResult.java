@@ -0,0 +1,48 @@
+package com.oracle.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for one page of an admin session query
+ */
+public class SessionQueryResult {
+
+    private List<SessionInfo> sessions;
+    private String nextCursor;
+    private int scanned;
+
+    public SessionQueryResult() {
+        this.sessions = new ArrayList<>();
+    }
+
+    public List<SessionInfo> getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(List<SessionInfo> sessions) {
+        this.sessions = sessions;
+    }
+
+    /**
+     * Cursor for the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Index entries examined for this page, including those the filters rejected
+     */
+    public int getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(int scanned) {
+        this.scanned = scanned;
+    }
+}
@@ -4,16 +4,25 @@ import com.oracle.demo.model.DatabaseInfo;
 import com.oracle.demo.service.DatabaseService;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.util.concurrent.CompletionException;
+
 /**
  * JAX-RS Resource for database information
  * Migrated from DatabaseInfoServlet to Helidon MP JAX-RS
@@ -27,6 +36,12 @@ import org.eclipse.microprofile.openapi.annotations.tags.Tag;
  *   @Path("/api/database-info")
  *   public class DatabaseResource
  *   - Uses HikariCP for connection pooling
+ * 
+ * Both endpoints answer from DatabaseService's latest snapshot, a memory read.
+ * /test?probe=true checks the database now, asynchronously: the request thread
+ * is released while DatabaseService borrows a connection on its offload executor.
+ * A probe that would exceed the bulkhead gets 503 instead of waiting for the pool;
+ * when the database itself is slow or down, the last good result comes back as STALE.
  */
 @Path("/api/database-info")
 @RequestScoped
@@ -39,7 +54,7 @@ public class DatabaseResource {
     /**
      * Get database connection information
      * 
-     * @return DatabaseInfo containing connection status and details
+     * @return DatabaseInfo containing connection status and details, as of the last refresh
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -62,24 +77,54 @@ public class DatabaseResource {
     /**
      * Test database connectivity
      * 
-     * @return Connection test result
+     * @param probe Check the database now instead of returning the latest snapshot
+     * @param response Resumed with the connection test result
      */
     @GET
     @Path("/test")
     @Produces(MediaType.APPLICATION_JSON)
     @Operation(
         summary = "Test database connection",
-        description = "Tests the database connection and returns the result"
+        description = "Returns the latest connection check, or checks the database now with probe=true"
     )
     @APIResponse(
         responseCode = "200",
-        description = "Connection test completed",
+        description = "Connection test completed (status STALE when a probe gets no answer from the database)",
         content = @Content(
             mediaType = MediaType.APPLICATION_JSON,
             schema = @Schema(implementation = DatabaseInfo.class)
         )
     )
-    public DatabaseInfo testConnection() {
-        return databaseService.getDatabaseInfo();
+    @APIResponse(
+        responseCode = "503",
+        description = "Too many probes waiting for a connection"
+    )
+    public void testConnection(
+            @Parameter(description = "Check the database now instead of returning the latest snapshot")
+            @QueryParam("probe") @DefaultValue("false") boolean probe,
+            @Suspended AsyncResponse response) {
+        if (probe) {
+            resume(response);
+        } else {
+            response.resume(databaseService.getDatabaseInfo());
+        }
+    }
+
+    /**
+     * Resume the suspended request with the result of an offloaded database probe
+     * 
+     * @param response Suspended request
+     */
+    private void resume(AsyncResponse response) {
+        databaseService.getDatabaseInfoAsync().whenComplete((info, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause == null) {
+                response.resume(info);
+            } else if (cause instanceof BulkheadException) {
+                response.resume(new ServiceUnavailableException(cause.getMessage()));
+            } else {
+                response.resume(cause);
+            }
+        });
     }
 }
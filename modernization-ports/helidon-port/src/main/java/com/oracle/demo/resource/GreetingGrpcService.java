@@ -0,0 +1,129 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.grpc.GreetBatchReply;
+import com.oracle.demo.grpc.GreetEachRequest;
+import com.oracle.demo.grpc.GreetReply;
+import com.oracle.demo.grpc.GreetRequest;
+import com.oracle.demo.grpc.GreetingServiceGrpc;
+import com.oracle.demo.model.GreetingResponse;
+import com.oracle.demo.service.GreetingServiceImpl;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import jakarta.enterprise.context.Dependent;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.logging.Logger;
+
+/**
+ * gRPC endpoint for greeting operations, next to the REST GreetingResource
+ *
+ * Both delegate to the same GreetingServiceImpl bean; this one speaks protobuf
+ * over HTTP/2 (src/main/proto/greeting.proto) for service-to-service callers.
+ * Helidon's gRPC server deploys CDI beans that implement BindableService, on
+ * the port configured under grpc.port. It looks the bean up once, when it
+ * starts. The bean is @Dependent and not @ApplicationScoped: the generated
+ * base class has a final bindService(), so CDI cannot create a client proxy.
+ *
+ * Before (WebLogic EJB + SOAP):
+ *   @WebService(name = "GreetingService", ...)
+ *   public class GreetingServiceBean
+ *
+ * After (Helidon MP gRPC):
+ *   @Dependent
+ *   public class GreetingGrpcService extends GreetingServiceGrpc.GreetingServiceImplBase
+ */
+@Dependent
+public class GreetingGrpcService extends GreetingServiceGrpc.GreetingServiceImplBase {
+
+    private static final Logger LOGGER = Logger.getLogger(GreetingGrpcService.class.getName());
+
+    @Inject
+    private GreetingServiceImpl greetingService;
+
+    @Inject
+    @ConfigProperty(name = "app.greeting.grpc.max-batch", defaultValue = "1000")
+    private int maxBatch;
+
+    public GreetingGrpcService() {
+    }
+
+    /**
+     * Endpoint on the given greeting service, for use outside the container
+     */
+    GreetingGrpcService(GreetingServiceImpl greetingService, int maxBatch) {
+        this.greetingService = greetingService;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * One greeting, as GET /api/greet
+     */
+    @Override
+    public void greet(GreetRequest request, StreamObserver<GreetReply> responseObserver) {
+        responseObserver.onNext(reply(request.getName()));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * One greeting per requested name, each sent as soon as it is built
+     */
+    @Override
+    public void greetEach(GreetEachRequest request, StreamObserver<GreetReply> responseObserver) {
+        for (String name : request.getNamesList()) {
+            responseObserver.onNext(reply(name));
+        }
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Greetings for the names the client streams, sent back together when it completes
+     *
+     * A batch is held in memory until then, so it is limited to
+     * app.greeting.grpc.max-batch names; one more fails the call with RESOURCE_EXHAUSTED.
+     */
+    @Override
+    public StreamObserver<GreetRequest> greetBatch(StreamObserver<GreetBatchReply> responseObserver) {
+        GreetBatchReply.Builder batch = GreetBatchReply.newBuilder();
+        return new StreamObserver<>() {
+            private boolean failed;
+
+            @Override
+            public void onNext(GreetRequest request) {
+                if (failed) {
+                    return;
+                }
+                if (batch.getRepliesCount() >= maxBatch) {
+                    failed = true;
+                    responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                            .withDescription("A batch may have at most " + maxBatch + " names")
+                            .asRuntimeException());
+                    return;
+                }
+                batch.addReplies(reply(request.getName()));
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                LOGGER.fine("Greeting batch cancelled by the client: " + t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                if (!failed) {
+                    responseObserver.onNext(batch.build());
+                    responseObserver.onCompleted();
+                }
+            }
+        };
+    }
+
+    private GreetReply reply(String name) {
+        GreetingResponse response = greetingService.getGreetingResponse(name);
+        return GreetReply.newBuilder()
+                .setMessage(response.getMessage())
+                .setTimestamp(response.getTimestamp())
+                .setServiceInfo(response.getServiceInfo())
+                .build();
+    }
+}
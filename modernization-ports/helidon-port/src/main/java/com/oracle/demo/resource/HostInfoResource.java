@@ -2,18 +2,30 @@ package com.oracle.demo.resource;
 
 import com.oracle.demo.model.HostInfo;
 import com.oracle.demo.service.HostInfoService;
+import com.oracle.demo.service.HostMetricsSampler;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 /**
  * JAX-RS Resource for host information
  * Migrated from HostInfoServlet to Helidon MP JAX-RS
@@ -34,10 +46,14 @@ public class HostInfoResource {
     @Inject
     private HostInfoService hostInfoService;
 
+    @Inject
+    private HostMetricsSampler hostMetricsSampler;
+
     /**
      * Get comprehensive host information
      * 
-     * @return HostInfo containing system, network, and runtime details
+     * @return HostInfo JSON containing system, network, and runtime details; the
+     *         static part is precomputed by HostInfoService
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
@@ -53,7 +69,80 @@ public class HostInfoResource {
             schema = @Schema(implementation = HostInfo.class)
         )
     )
-    public HostInfo getHostInfo() {
-        return hostInfoService.getHostInfo();
+    public String getHostInfo() {
+        return hostInfoService.getHostInfoJson();
+    }
+
+    /**
+     * Stream heap, non-heap, GC, thread and CPU figures as Server-Sent Events
+     *
+     * The first "metrics" event has every field; later ones only the fields that
+     * changed, and none is sent while nothing changed.
+     *
+     * @param intervalMillis Interval between events, rounded up to the sampler's tick
+     * @param eventSink SSE connection
+     * @param sse SSE event factory
+     */
+    @GET
+    @Path("/metrics")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(
+        summary = "Stream host metrics",
+        description = "Streams the memory, GC, thread and CPU load fields that changed since the previous event"
+    )
+    @APIResponse(
+        responseCode = "200",
+        description = "Event stream"
+    )
+    @APIResponse(
+        responseCode = "503",
+        description = "Too many subscribers"
+    )
+    public void streamMetrics(
+            @Parameter(description = "Interval between events in milliseconds", required = false)
+            @QueryParam("intervalMillis") @DefaultValue("1000") long intervalMillis,
+            @Context SseEventSink eventSink,
+            @Context Sse sse) {
+        if (!hostMetricsSampler.subscribe(intervalMillis, new SseSink(eventSink, sse))) {
+            throw new ServiceUnavailableException("Too many host metrics subscribers");
+        }
+    }
+
+    /**
+     * Writes sampler events to one SSE connection without waiting for them
+     */
+    private static final class SseSink implements HostMetricsSampler.Sink {
+        private final SseEventSink eventSink;
+        private final Sse sse;
+
+        SseSink(SseEventSink eventSink, Sse sse) {
+            this.eventSink = eventSink;
+            this.sse = sse;
+        }
+
+        @Override
+        public CompletionStage<?> send(String json) {
+            if (eventSink.isClosed()) {
+                return CompletableFuture.failedFuture(new IOException("SSE connection closed"));
+            }
+            return eventSink.send(sse.newEventBuilder()
+                    .name("metrics")
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(String.class, json)
+                    .build());
+        }
+
+        @Override
+        public CompletionStage<?> heartbeat() {
+            if (eventSink.isClosed()) {
+                return CompletableFuture.failedFuture(new IOException("SSE connection closed"));
+            }
+            return eventSink.send(sse.newEventBuilder().comment("keep-alive").build());
+        }
+
+        @Override
+        public void close() {
+            eventSink.close();
+        }
     }
 }
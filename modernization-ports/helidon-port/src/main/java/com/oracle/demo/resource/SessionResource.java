@@ -1,20 +1,37 @@
 package com.oracle.demo.resource;
 
+import com.oracle.demo.model.SessionEvent;
 import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.model.SessionQueryResult;
+import com.oracle.demo.service.SessionAdminAccess;
+import com.oracle.demo.service.SessionEventBroadcaster;
+import com.oracle.demo.service.SessionRouter;
 import com.oracle.demo.service.SessionService;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.ForbiddenException;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -22,7 +39,14 @@ import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
 
 /**
  * JAX-RS Resource for session management
@@ -42,6 +66,12 @@ import java.util.Map;
  *   - JWT tokens for stateless authentication
  *   - Redis/Hazelcast for distributed session storage
  *   - Database-backed sessions for persistence
+ * 
+ * With app.session.routing.enabled, requests for a session owned by another
+ * replica are forwarded to it (see SessionRouter). The admin query at /query is
+ * not forwarded and only searches the replica that serves it; the same holds
+ * for the event stream at /events. The admin query requires the admin secret
+ * (see SessionAdminAccess), and so does an event stream of more than one session.
  */
 @Path("/api/session-info")
 @RequestScoped
@@ -53,6 +83,21 @@ public class SessionResource {
     @Inject
     private SessionService sessionService;
 
+    @Inject
+    private SessionRouter sessionRouter;
+
+    @Inject
+    private SessionEventBroadcaster sessionEvents;
+
+    @Inject
+    private SessionAdminAccess adminAccess;
+
+    @Context
+    private UriInfo uriInfo;
+
+    @Context
+    private HttpHeaders headers;
+
     /**
      * Get or create a session
      * 
@@ -73,10 +118,160 @@ public class SessionResource {
             schema = @Schema(implementation = SessionInfo.class)
         )
     )
-    public SessionInfo getOrCreateSession(
+    public Response getOrCreateSession(
             @Parameter(description = "Existing session ID", required = false)
             @QueryParam("sessionId") String sessionId) {
-        return sessionService.getOrCreateSession(sessionId);
+        Response forwarded = forwardToOwner(sessionId, HttpMethod.GET);
+        if (forwarded != null) {
+            return forwarded;
+        }
+        return Response.ok(sessionService.getOrCreateSession(sessionId)).build();
+    }
+
+    /**
+     * Query sessions by user name, idle time and attribute presence
+     * 
+     * @param userName Only this user's sessions
+     * @param minIdleSeconds Only sessions idle for at least this many seconds
+     * @param maxIdleSeconds Only sessions idle for at most this many seconds
+     * @param attribute Only sessions that have this attribute
+     * @param cursor nextCursor of the previous page
+     * @param limit Page size, capped at app.session.query.max-results
+     * @return One page of matching sessions, or 400 for an invalid cursor or limit,
+     *         401 without the admin secret and 403 if no admin secret is configured
+     */
+    @GET
+    @Path("/query")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Query sessions",
+        description = "Returns one page of the sessions with a user name on this replica, "
+                + "filtered by user name, idle time and attribute presence"
+    )
+    @APIResponse(
+        responseCode = "200",
+        description = "Page of matching sessions",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_JSON,
+            schema = @Schema(implementation = SessionQueryResult.class)
+        )
+    )
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid cursor or limit"
+    )
+    @APIResponse(
+        responseCode = "401",
+        description = "Missing or wrong X-Session-Admin-Secret header"
+    )
+    @APIResponse(
+        responseCode = "403",
+        description = "No admin secret configured"
+    )
+    public Response querySessions(
+            @Parameter(description = "User name", required = false)
+            @QueryParam("userName") String userName,
+            @Parameter(description = "Minimum idle time in seconds", required = false)
+            @QueryParam("minIdleSeconds") Long minIdleSeconds,
+            @Parameter(description = "Maximum idle time in seconds", required = false)
+            @QueryParam("maxIdleSeconds") Long maxIdleSeconds,
+            @Parameter(description = "Attribute the session must have", required = false)
+            @QueryParam("attribute") String attribute,
+            @Parameter(description = "Cursor returned by the previous page", required = false)
+            @QueryParam("cursor") String cursor,
+            @Parameter(description = "Page size", required = false)
+            @QueryParam("limit") Integer limit) {
+        requireAdmin();
+        try {
+            return Response.ok(sessionService.querySessions(userName, minIdleSeconds, maxIdleSeconds,
+                    attribute, cursor, limit)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(Map.of("error", e.getMessage()))
+                    .build();
+        }
+    }
+
+    /**
+     * Stream session lifecycle events as Server-Sent Events
+     * 
+     * @param types Comma-separated event names (created, touched, user, attribute-set,
+     *              attribute-removed, invalidated, removed); all if absent
+     * @param sessionIds Comma-separated session IDs; all sessions if absent. Without
+     *                   the admin secret, exactly one, which must be a live session
+     * @param eventSink SSE connection
+     * @param sse SSE event factory
+     */
+    @GET
+    @Path("/events")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @Operation(
+        summary = "Stream session events",
+        description = "Streams create, touch, user, attribute and invalidation events of this replica's "
+                + "sessions; touches are coalesced, and events are dropped for clients that fall behind"
+    )
+    @APIResponse(
+        responseCode = "200",
+        description = "Event stream"
+    )
+    @APIResponse(
+        responseCode = "400",
+        description = "Unknown event type"
+    )
+    @APIResponse(
+        responseCode = "401",
+        description = "Not exactly one session ID, and a missing or wrong X-Session-Admin-Secret header"
+    )
+    @APIResponse(
+        responseCode = "403",
+        description = "Not exactly one session ID, and no admin secret configured"
+    )
+    @APIResponse(
+        responseCode = "404",
+        description = "Session not found"
+    )
+    @APIResponse(
+        responseCode = "503",
+        description = "Too many subscribers"
+    )
+    public void streamEvents(
+            @Parameter(description = "Event types, comma-separated", required = false)
+            @QueryParam("types") String types,
+            @Parameter(description = "Session IDs, comma-separated", required = false)
+            @QueryParam("sessionId") String sessionIds,
+            @Context SseEventSink eventSink,
+            @Context Sse sse) {
+        Set<SessionEvent.Type> typeFilter = null;
+        if (types != null && !types.isBlank()) {
+            typeFilter = EnumSet.noneOf(SessionEvent.Type.class);
+            for (String name : types.split(",")) {
+                typeFilter.add(Arrays.stream(SessionEvent.Type.values())
+                        .filter(type -> type.eventName().equals(name.trim()))
+                        .findFirst()
+                        .orElseThrow(() -> new BadRequestException("Unknown session event type: " + name)));
+            }
+        }
+        Set<String> sessionFilter = null;
+        if (sessionIds != null && !sessionIds.isBlank()) {
+            sessionFilter = Arrays.stream(sessionIds.split(","))
+                    .map(String::trim)
+                    .collect(Collectors.toUnmodifiableSet());
+        }
+        if (!adminAccess.isAdmin(headers.getHeaderString(SessionAdminAccess.ADMIN_HEADER))) {
+            // Events carry session IDs and user names; a client that is not an admin
+            // may only follow its own session, whose ID it proves it holds
+            if (sessionFilter == null || sessionFilter.size() != 1) {
+                requireAdmin();
+            } else {
+                String sessionId = sessionFilter.iterator().next();
+                if (sessionService.getSession(sessionId) == null) {
+                    throw new NotFoundException(buildSessionNotFoundResponse(sessionId));
+                }
+            }
+        }
+        if (!sessionEvents.subscribe(typeFilter, sessionFilter, new SseSink(eventSink, sse))) {
+            throw new ServiceUnavailableException("Too many session event subscribers");
+        }
     }
 
     /**
@@ -107,6 +302,10 @@ public class SessionResource {
     public Response getSession(
             @Parameter(description = "Session ID", required = true)
             @PathParam("sessionId") String sessionId) {
+        Response forwarded = forwardToOwner(sessionId, HttpMethod.GET);
+        if (forwarded != null) {
+            return forwarded;
+        }
         SessionInfo session = sessionService.getSession(sessionId);
         if (session == null) {
             return buildSessionNotFoundResponse(sessionId);
@@ -146,6 +345,10 @@ public class SessionResource {
             @Parameter(description = "Attribute value", required = true)
             @QueryParam("value") String value) {
         
+        Response forwarded = forwardToOwner(sessionId, HttpMethod.PUT);
+        if (forwarded != null) {
+            return forwarded;
+        }
         sessionService.setAttribute(sessionId, key, value);
         SessionInfo session = sessionService.getSession(sessionId);
         
@@ -184,6 +387,10 @@ public class SessionResource {
             @Parameter(description = "Username", required = true)
             @QueryParam("userName") String userName) {
         
+        Response forwarded = forwardToOwner(sessionId, HttpMethod.POST);
+        if (forwarded != null) {
+            return forwarded;
+        }
         sessionService.setUserName(sessionId, userName);
         SessionInfo session = sessionService.getSession(sessionId);
         
@@ -215,6 +422,10 @@ public class SessionResource {
             @Parameter(description = "Session ID", required = true)
             @PathParam("sessionId") String sessionId) {
         
+        Response forwarded = forwardToOwner(sessionId, HttpMethod.DELETE);
+        if (forwarded != null) {
+            return forwarded;
+        }
         sessionService.invalidateSession(sessionId);
         return Response.ok(Map.of(
                 "message", "Session invalidated",
@@ -222,6 +433,45 @@ public class SessionResource {
         )).build();
     }
 
+    /**
+     * Forward the request if another replica owns the session
+     * 
+     * @param sessionId Session ID from the request
+     * @param method HTTP method of the request
+     * @return The owner's response, or null to serve the request here
+     */
+    private Response forwardToOwner(String sessionId, String method) {
+        String owner = sessionRouter.ownerOf(sessionId);
+        if (owner == null) {
+            return null;
+        }
+        // A forwarded request is served here, but only if another member signed the header
+        if (sessionRouter.isForwardedByMember(headers.getHeaderString(SessionRouter.FORWARDED_HEADER),
+                method, uriInfo.getRequestUri())) {
+            return null;
+        }
+        return sessionRouter.forward(owner, method, uriInfo.getRequestUri());
+    }
+
+    /**
+     * Reject the request unless it carries the admin secret
+     *
+     * @throws ForbiddenException if no admin secret is configured
+     * @throws NotAuthorizedException if the secret is missing or wrong
+     */
+    private void requireAdmin() {
+        if (!adminAccess.isEnabled()) {
+            throw new ForbiddenException(Response.status(Response.Status.FORBIDDEN)
+                    .entity(Map.of("error", "Session admin access is disabled"))
+                    .build());
+        }
+        if (!adminAccess.isAdmin(headers.getHeaderString(SessionAdminAccess.ADMIN_HEADER))) {
+            throw new NotAuthorizedException(Response.status(Response.Status.UNAUTHORIZED)
+                    .entity(Map.of("error", "Missing or wrong " + SessionAdminAccess.ADMIN_HEADER))
+                    .build());
+        }
+    }
+
     /**
      * Build a session not found error response
      * 
@@ -233,4 +483,43 @@ public class SessionResource {
                 .entity(Map.of("error", ERROR_SESSION_NOT_FOUND, "sessionId", sessionId))
                 .build();
     }
+
+    /**
+     * Writes broadcaster events to one SSE connection, as JSON with the event type as SSE name
+     */
+    private static final class SseSink implements SessionEventBroadcaster.Sink {
+        private final SseEventSink eventSink;
+        private final Sse sse;
+
+        SseSink(SseEventSink eventSink, Sse sse) {
+            this.eventSink = eventSink;
+            this.sse = sse;
+        }
+
+        @Override
+        public CompletionStage<?> send(SessionEvent event) {
+            return write(sse.newEventBuilder()
+                    .name(event.getType().eventName())
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(SessionEvent.class, event)
+                    .build());
+        }
+
+        @Override
+        public CompletionStage<?> heartbeat() {
+            return write(sse.newEventBuilder().comment("keep-alive").build());
+        }
+
+        @Override
+        public void close() {
+            eventSink.close();
+        }
+
+        private CompletionStage<?> write(OutboundSseEvent event) {
+            if (eventSink.isClosed()) {
+                return CompletableFuture.failedFuture(new IOException("SSE connection closed"));
+            }
+            return eventSink.send(event);
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package com.oracle.demo.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable consistent-hash ring that maps session IDs to the member that owns them
+ *
+ * Each member is placed on a 64-bit ring at virtualNodes points; a key belongs to
+ * the first point at or after its hash, wrapping around. Adding or removing one of
+ * n members therefore moves only about 1/n of the keys, all to or from that member,
+ * and the virtual nodes keep every member's share close to 1/n.
+ *
+ * Lookups are a binary search over a sorted long[]; membership changes build a new ring.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * @param members Member names, e.g. host:port; duplicates are ignored
+     * @param virtualNodes Points per member
+     */
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        this.members = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(members)));
+        int count = this.members.size() * virtualNodes;
+        long[] memberPoints = new long[count];
+        Integer[] order = new Integer[count];
+        for (int m = 0; m < this.members.size(); m++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                int index = m * virtualNodes + v;
+                memberPoints[index] = hash(this.members.get(m) + "#" + v);
+                order[index] = index;
+            }
+        }
+        // Members are sorted, so ties on a point resolve the same way on every node
+        Arrays.sort(order, (a, b) -> a.equals(b) ? 0
+                : memberPoints[a] != memberPoints[b] ? Long.compare(memberPoints[a], memberPoints[b]) : Integer.compare(a, b));
+        this.points = new long[count];
+        this.owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = memberPoints[order[i]];
+            owners[i] = this.members.get(order[i] / virtualNodes);
+        }
+    }
+
+    /**
+     * Owner of a key, or null if the ring is empty
+     */
+    public String ownerOf(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Members in sorted order
+     */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer so that
+     * similar strings such as "host#1" and "host#2" spread over the whole ring
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -3,16 +3,42 @@ package com.oracle.demo.service;
 import com.oracle.demo.model.DatabaseInfo;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Fallback;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
 
 import java.sql.Connection;
+import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * CDI Service for database connectivity using HikariCP
@@ -26,12 +52,42 @@ import java.util.logging.Logger;
  *   - CDI @ApplicationScoped bean
  *   - HikariCP connection pool
  *   - MicroProfile Config injection
+ *   - HikariCP metrics in the MicroProfile Metrics registry (database.pool.*)
+ *
+ * Snapshots (getDatabaseInfo):
+ *   Product and driver metadata do not change while the pool lives, so they are
+ *   read once. A background refresher checks connectivity (one isValid round
+ *   trip) and reads the pool statistics every app.database.refresh.interval-millis
+ *   and publishes the result as an immutable-by-convention DatabaseInfo. Requests
+ *   return that snapshot without touching the pool; probeDatabaseInfo() and
+ *   getDatabaseInfoAsync() still check the database on demand.
+ *
+ * Blocking offload (getDatabaseInfoAsync):
+ *   The pool borrow and the metadata round trips run on a separate executor, so
+ *   they do not hold a server request thread. At most maximum-pool-size tasks
+ *   touch the pool at once (a Semaphore sized to it). On Java 21+ the executor
+ *   starts a virtual thread per task, so a waiting request costs a few hundred
+ *   bytes. On Java 17 it is a fixed pool of maximum-pool-size platform threads.
+ *   With app.database.offload.pinning-monitor, a JFR stream reports virtual
+ *   threads pinned to their carrier (a blocking call inside synchronized) in this path.
+ *
+ * Fault tolerance (getDatabaseInfoAsync, MicroProfile Fault Tolerance):
+ *   @Timeout bounds the wait for a slow database well below Hikari's connection
+ *   timeout, @Bulkhead limits the requests in flight and waiting, and
+ *   @CircuitBreaker stops calling a failing database for a while. When the
+ *   database fails, is too slow or the circuit is open, @Fallback returns the
+ *   last successful DatabaseInfo marked STALE. A full bulkhead is not a database
+ *   problem, so its BulkheadException reaches the caller (503). The values in the annotations are
+ *   defaults; application.yaml overrides them with the standard
+ *   <annotation>/<parameter> keys.
  */
 @ApplicationScoped
 public class DatabaseService {
     
     private static final Logger LOGGER = Logger.getLogger(DatabaseService.class.getName());
     
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    
     @Inject
     @ConfigProperty(name = "app.database.mock-mode", defaultValue = "true")
     private boolean mockMode;
@@ -64,8 +120,61 @@ public class DatabaseService {
     @ConfigProperty(name = "app.database.pool.minimum-idle", defaultValue = "2")
     private int minIdle;
     
+    @Inject
+    @ConfigProperty(name = "app.database.offload.pinning-monitor", defaultValue = "false")
+    private boolean pinningMonitorEnabled;
+    
+    @Inject
+    @ConfigProperty(name = "app.database.refresh.interval-millis", defaultValue = "5000")
+    private long refreshIntervalMillis;
+    
+    // Application registry for the pool metrics; null when constructed outside the container
+    @Inject
+    private MetricRegistry metricRegistry;
+    
     private HikariDataSource dataSource;
     
+    // Offload of blocking JDBC work, created with the pool
+    private ExecutorService blockingExecutor;
+    private Semaphore connectionPermits;
+    private final AtomicInteger offloadedTasks = new AtomicInteger();
+    
+    // Product and driver metadata, read on the first successful probe of the pool
+    private volatile ProductMetadata productMetadata;
+    
+    // Latest probe of the refresher, served to requests; null when the refresher is disabled
+    private volatile DatabaseInfo snapshot;
+    private ScheduledExecutorService refresher;
+    
+    // Latest successful probe, returned by the fallback while the database is failing
+    private volatile DatabaseInfo lastGoodInfo;
+    private volatile long lastGoodTime;
+    
+    // JFR stream reporting pinned virtual threads, null when disabled
+    private RecordingStream pinningMonitor;
+    private final LongAdder pinnedEvents = new LongAdder();
+    
+    public DatabaseService() {
+    }
+    
+    /**
+     * Service with the given connection and pool settings and no pool metrics
+     */
+    DatabaseService(boolean mockMode, String databaseUrl, String username, String password, String serviceName,
+            String walletLocation, int maxPoolSize, int minIdle, boolean pinningMonitorEnabled,
+            long refreshIntervalMillis) {
+        this.mockMode = mockMode;
+        this.databaseUrl = databaseUrl;
+        this.username = username;
+        this.password = password;
+        this.serviceName = serviceName;
+        this.walletLocation = walletLocation;
+        this.maxPoolSize = maxPoolSize;
+        this.minIdle = minIdle;
+        this.pinningMonitorEnabled = pinningMonitorEnabled;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+    
     @PostConstruct
     void initialize() {
         LOGGER.info("Initializing database service...");
@@ -76,10 +185,41 @@ public class DatabaseService {
         } else {
             LOGGER.info("Running in MOCK mode - no real database connection");
         }
+        
+        if (dataSource != null) {
+            connectionPermits = new Semaphore(maxPoolSize);
+            blockingExecutor = newBlockingExecutor();
+            if (pinningMonitorEnabled) {
+                startPinningMonitor();
+            }
+        }
+        
+        if (refreshIntervalMillis > 0) {
+            // The first snapshot is taken before the service is used
+            refreshSnapshot();
+            if (dataSource != null) {
+                refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "database-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                refresher.scheduleWithFixedDelay(this::refreshSnapshot,
+                        refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
     }
     
     @PreDestroy
     void cleanup() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        if (pinningMonitor != null) {
+            pinningMonitor.close();
+        }
+        if (blockingExecutor != null) {
+            blockingExecutor.shutdownNow();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             LOGGER.info("Closing HikariCP connection pool...");
             dataSource.close();
@@ -96,7 +236,10 @@ public class DatabaseService {
             config.setJdbcUrl(databaseUrl);
             config.setUsername(username);
             config.setPassword(password);
-            config.setDriverClassName("oracle.jdbc.OracleDriver");
+            // Other URLs (e.g. a stand-in database in tests) find their driver through DriverManager
+            if (databaseUrl.startsWith("jdbc:oracle:")) {
+                config.setDriverClassName("oracle.jdbc.OracleDriver");
+            }
             
             // Pool settings
             config.setMaximumPoolSize(maxPoolSize);
@@ -114,6 +257,12 @@ public class DatabaseService {
             
             config.addDataSourceProperty("oracle.jdbc.fanEnabled", "false");
             
+            // Borrow, usage and creation timers and pool gauges, tagged pool=database
+            config.setPoolName("database");
+            if (metricRegistry != null) {
+                config.setMetricsTrackerFactory(new MicroProfileMetricsTrackerFactory(metricRegistry));
+            }
+            
             dataSource = new HikariDataSource(config);
             LOGGER.info("HikariCP connection pool initialized successfully");
             
@@ -122,6 +271,69 @@ public class DatabaseService {
         }
     }
     
+    /**
+     * Executor for blocking JDBC work: a virtual thread per task where available
+     */
+    private ExecutorService newBlockingExecutor() {
+        try {
+            // Java 21+; looked up reflectively since the application is compiled for Java 17
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            LOGGER.info("Blocking JDBC work runs on virtual threads, " + maxPoolSize + " at a time");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            LOGGER.info("Blocking JDBC work runs on " + maxPoolSize + " platform threads");
+            return Executors.newFixedThreadPool(maxPoolSize, task -> {
+                Thread thread = new Thread(task, "database-io-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    /**
+     * Log virtual threads that block while pinned to their carrier for more than 20 ms
+     */
+    private void startPinningMonitor() {
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            stream.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinnedEvents.increment();
+                String frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                        .limit(8)
+                        .map(RecordedFrame::getMethod)
+                        .map(method -> method.getType().getName() + "." + method.getName())
+                        .collect(Collectors.joining(" <- "));
+                LOGGER.warning("Virtual thread pinned for " + event.getDuration().toMillis() + " ms: " + frames);
+            });
+            stream.startAsync();
+            pinningMonitor = stream;
+            LOGGER.info("JFR pinning monitor started");
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Cannot start the JFR pinning monitor", e);
+        }
+    }
+    
+    /**
+     * Offloaded tasks holding or waiting for a connection permit
+     */
+    @Gauge(name = "database.offload.tasks", unit = MetricUnits.NONE, absolute = true,
+           description = "Offloaded JDBC tasks running or waiting for a connection permit")
+    public int getOffloadedTaskCount() {
+        return offloadedTasks.get();
+    }
+    
+    /**
+     * Pinned virtual thread events reported by JFR (Java 21+, pinning monitor enabled)
+     */
+    @Gauge(name = "database.offload.pinned", unit = MetricUnits.NONE, absolute = true,
+           description = "Virtual threads pinned to their carrier for more than 20 ms, as reported by JFR")
+    public long getPinnedEventCount() {
+        return pinnedEvents.sum();
+    }
+    
     /**
      * Get a connection from the pool
      */
@@ -136,16 +348,105 @@ public class DatabaseService {
     }
     
     /**
-     * Test database connectivity and return information
+     * Latest database information, as of the last refresh
+     *
+     * A memory read when the refresher is enabled; otherwise the same as probeDatabaseInfo().
+     * The returned object is shared and must not be modified.
      */
     public DatabaseInfo getDatabaseInfo() {
-        DatabaseInfo info = new DatabaseInfo();
-        info.setMockMode(mockMode);
-        info.setConfigured(dataSource != null || mockMode);
-        info.setDatabaseUrl(databaseUrl);
-        info.setUsername(username);
-        info.setServiceName(serviceName);
-        info.setWalletLocation(walletLocation);
+        DatabaseInfo current = snapshot;
+        return current != null ? current : probeDatabaseInfo();
+    }
+    
+    /**
+     * Test database connectivity now and return information
+     */
+    public DatabaseInfo probeDatabaseInfo() {
+        try {
+            return probe();
+        } catch (SQLException e) {
+            return errorInfo(e);
+        }
+    }
+    
+    /**
+     * probeDatabaseInfo() off the caller's thread, bounded by the pool size and guarded by fault tolerance
+     *
+     * Unlike probeDatabaseInfo(), a failed connection completes the stage exceptionally,
+     * so that the circuit breaker counts it and the fallback answers instead.
+     */
+    @Asynchronous
+    @Timeout(5000)
+    @Bulkhead(value = 10, waitingTaskQueue = 100)
+    @CircuitBreaker(requestVolumeThreshold = 10, failureRatio = 0.5, delay = 10000, successThreshold = 2)
+    @Fallback(fallbackMethod = "getLastGoodDatabaseInfo", skipOn = BulkheadException.class)
+    public CompletionStage<DatabaseInfo> getDatabaseInfoAsync() {
+        if (blockingExecutor == null) {
+            // Mock mode or no pool: nothing blocks
+            return CompletableFuture.completedFuture(probeDatabaseInfo());
+        }
+        offloadedTasks.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    connectionPermits.acquireUninterruptibly();
+                    try {
+                        return probe();
+                    } finally {
+                        connectionPermits.release();
+                    }
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    offloadedTasks.decrementAndGet();
+                }
+            }, blockingExecutor);
+        } catch (RuntimeException e) {
+            offloadedTasks.decrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+    
+    /**
+     * Fallback of getDatabaseInfoAsync(): the last successful result, marked STALE
+     */
+    public CompletionStage<DatabaseInfo> getLastGoodDatabaseInfo() {
+        DatabaseInfo lastGood = lastGoodInfo;
+        DatabaseInfo info = newDatabaseInfo();
+        if (lastGood == null) {
+            info.setStatus("UNAVAILABLE");
+            info.setMessage("The database is not responding and there is no earlier result");
+            return CompletableFuture.completedFuture(info);
+        }
+        info.setStatus("STALE");
+        info.setMessage("The database is not responding; last connected at " + Instant.ofEpochMilli(lastGoodTime));
+        info.setDatabaseProductName(lastGood.getDatabaseProductName());
+        info.setDatabaseProductVersion(lastGood.getDatabaseProductVersion());
+        info.setDriverName(lastGood.getDriverName());
+        info.setDriverVersion(lastGood.getDriverVersion());
+        info.setPoolStatistics(lastGood.getPoolStatistics());
+        return CompletableFuture.completedFuture(info);
+    }
+    
+    /**
+     * Probe the database and publish the result to requests
+     */
+    private void refreshSnapshot() {
+        try {
+            snapshot = probeDatabaseInfo();
+        } catch (RuntimeException e) {
+            // Keep the refresher scheduled
+            LOGGER.log(Level.WARNING, "Database snapshot refresh failed", e);
+        }
+    }
+    
+    /**
+     * Borrow a connection, check it and read the pool statistics
+     *
+     * The product metadata round trips happen only on the first successful probe.
+     */
+    private DatabaseInfo probe() throws SQLException {
+        DatabaseInfo info = newDatabaseInfo();
         
         if (mockMode) {
             info.setStatus("MOCK MODE");
@@ -159,32 +460,92 @@ public class DatabaseService {
             return info;
         }
         
+        ProductMetadata metadata;
         try (Connection conn = dataSource.getConnection()) {
-            info.setStatus("CONNECTED");
-            info.setMessage("Successfully connected to Oracle Autonomous Database");
-            info.setDatabaseProductName(conn.getMetaData().getDatabaseProductName());
-            info.setDatabaseProductVersion(conn.getMetaData().getDatabaseProductVersion());
-            info.setDriverName(conn.getMetaData().getDriverName());
-            info.setDriverVersion(conn.getMetaData().getDriverVersion());
-            
-            // Pool statistics
-            DatabaseInfo.PoolStatistics stats = new DatabaseInfo.PoolStatistics();
-            stats.setActiveConnections(dataSource.getHikariPoolMXBean().getActiveConnections());
-            stats.setIdleConnections(dataSource.getHikariPoolMXBean().getIdleConnections());
-            stats.setTotalConnections(dataSource.getHikariPoolMXBean().getTotalConnections());
-            stats.setMaxPoolSize(maxPoolSize);
-            info.setPoolStatistics(stats);
-            
-        } catch (SQLException e) {
-            info.setStatus("ERROR");
-            info.setMessage("Failed to connect: " + e.getMessage());
-            info.setError(e.toString());
+            metadata = productMetadata;
+            if (metadata == null) {
+                metadata = new ProductMetadata(conn.getMetaData());
+                productMetadata = metadata;
+            } else if (!conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection validation failed");
+            }
         }
         
+        info.setStatus("CONNECTED");
+        info.setMessage("Successfully connected to Oracle Autonomous Database");
+        metadata.copyTo(info);
+        info.setPoolStatistics(poolStatistics());
+        
+        lastGoodTime = System.currentTimeMillis();
+        lastGoodInfo = info;
+        return info;
+    }
+    
+    private DatabaseInfo.PoolStatistics poolStatistics() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        DatabaseInfo.PoolStatistics stats = new DatabaseInfo.PoolStatistics();
+        stats.setActiveConnections(pool.getActiveConnections());
+        stats.setIdleConnections(pool.getIdleConnections());
+        stats.setTotalConnections(pool.getTotalConnections());
+        stats.setMaxPoolSize(maxPoolSize);
+        return stats;
+    }
+    
+    private DatabaseInfo errorInfo(SQLException e) {
+        DatabaseInfo info = newDatabaseInfo();
+        info.setStatus("ERROR");
+        info.setMessage("Failed to connect: " + e.getMessage());
+        info.setError(e.toString());
+        ProductMetadata metadata = productMetadata;
+        if (metadata != null) {
+            metadata.copyTo(info);
+        }
+        if (dataSource != null) {
+            info.setPoolStatistics(poolStatistics());
+        }
+        return info;
+    }
+    
+    /**
+     * DatabaseInfo with the configuration fields filled in
+     */
+    private DatabaseInfo newDatabaseInfo() {
+        DatabaseInfo info = new DatabaseInfo();
+        info.setMockMode(mockMode);
+        info.setConfigured(dataSource != null || mockMode);
+        info.setDatabaseUrl(databaseUrl);
+        info.setUsername(username);
+        info.setServiceName(serviceName);
+        info.setWalletLocation(walletLocation);
+        info.setCheckedAt(Instant.now().toString());
         return info;
     }
     
     public boolean isMockMode() {
         return mockMode;
     }
+    
+    /**
+     * Database product and driver, fixed for the lifetime of the pool
+     */
+    private static final class ProductMetadata {
+        private final String productName;
+        private final String productVersion;
+        private final String driverName;
+        private final String driverVersion;
+        
+        ProductMetadata(DatabaseMetaData metaData) throws SQLException {
+            productName = metaData.getDatabaseProductName();
+            productVersion = metaData.getDatabaseProductVersion();
+            driverName = metaData.getDriverName();
+            driverVersion = metaData.getDriverVersion();
+        }
+        
+        void copyTo(DatabaseInfo info) {
+            info.setDatabaseProductName(productName);
+            info.setDatabaseProductVersion(productVersion);
+            info.setDriverName(driverName);
+            info.setDriverVersion(driverVersion);
+        }
+    }
 }
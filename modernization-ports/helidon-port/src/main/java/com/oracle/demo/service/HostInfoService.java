@@ -1,72 +1,189 @@
 package com.oracle.demo.service;
 
 import com.oracle.demo.model.HostInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.net.InetAddress;
 import java.net.NetworkInterface;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * CDI Service for host information
  * Migrated from HostInfoServlet to Helidon MP CDI service
+ *
+ * Snapshot:
+ *   Host name and address (from HostNameResolver's cache), network interfaces,
+ *   OS, Java and user properties do not change between requests. They are
+ *   collected once into an immutable snapshot, together with their JSON. A
+ *   watcher enumerates the network interfaces every
+ *   app.host-info.watch-interval-seconds and rebuilds the snapshot only when an
+ *   interface or address, or the resolved host name, changed. A request adds the memory figures and the
+ *   server time (formatted once per second) to the snapshot.
  */
 @ApplicationScoped
 public class HostInfoService {
     
     private static final Logger LOGGER = Logger.getLogger(HostInfoService.class.getName());
-
+    
+    private static final String SERVER_NAME = "Helidon MP Server";
+    
+    @Inject
+    @ConfigProperty(name = "app.host-info.watch-interval-seconds", defaultValue = "10")
+    private long watchIntervalSeconds;
+    
+    @Inject
+    private HostNameResolver hostNameResolver;
+    
+    private volatile HostSnapshot snapshot;
+    private volatile ServerTime serverTime = new ServerTime(Long.MIN_VALUE, null);
+    private ScheduledExecutorService watcher;
+    
+    public HostInfoService() {
+    }
+    
+    /**
+     * Service on the given resolver; a watch interval of 0 disables the watcher
+     */
+    HostInfoService(HostNameResolver hostNameResolver, long watchIntervalSeconds) {
+        this.hostNameResolver = hostNameResolver;
+        this.watchIntervalSeconds = watchIntervalSeconds;
+    }
+    
+    @PostConstruct
+    void initialize() {
+        refresh();
+        if (watchIntervalSeconds > 0) {
+            watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "host-info-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::refreshIfChanged,
+                    watchIntervalSeconds, watchIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+    
+    @PreDestroy
+    void cleanup() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+    
     /**
      * Collects and returns comprehensive host information
-     * 
+     *
+     * The network, OS, Java and user parts are shared between calls and must not be modified.
+     *
      * @return HostInfo containing system, network, and runtime details
      */
     public HostInfo getHostInfo() {
+        HostSnapshot current = snapshot;
         HostInfo hostInfo = new HostInfo();
+        hostInfo.setHostname(current.hostname);
+        hostInfo.setHostAddress(current.hostAddress);
+        hostInfo.setServerName(SERVER_NAME);
+        hostInfo.setServerTime(getServerTime());
+        hostInfo.setNetworkInterfaces(current.networkInterfaces);
+        hostInfo.setOsInfo(current.osInfo);
+        hostInfo.setJavaInfo(current.javaInfo);
+        hostInfo.setMemoryInfo(getMemoryInfo());
+        hostInfo.setUserInfo(current.userInfo);
+        return hostInfo;
+    }
+    
+    /**
+     * getHostInfo() as JSON, built from the snapshot's precomputed JSON
+     *
+     * Same members and values as JSON-B's serialization of getHostInfo(), but not in
+     * the same order: serverName, serverTime and memoryInfo come last. A field added
+     * to HostInfo has to be added here too; HostInfoServiceTest compares the two.
+     */
+    public String getHostInfoJson() {
+        HostSnapshot current = snapshot;
+        Runtime runtime = Runtime.getRuntime();
+        long maxMemory = runtime.maxMemory() / (1024 * 1024);
+        long totalMemory = runtime.totalMemory() / (1024 * 1024);
+        long freeMemory = runtime.freeMemory() / (1024 * 1024);
+        String time = getServerTime();
         
+        StringBuilder json = new StringBuilder(current.json.length() + time.length() + 160);
+        json.append('{').append(current.json)
+                .append(",\"serverName\":\"").append(SERVER_NAME)
+                .append("\",\"serverTime\":\"").append(time)
+                .append("\",\"memoryInfo\":{\"freeMemoryMB\":").append(freeMemory)
+                .append(",\"maxMemoryMB\":").append(maxMemory)
+                .append(",\"totalMemoryMB\":").append(totalMemory)
+                .append(",\"usedMemoryMB\":").append(totalMemory - freeMemory)
+                .append("}}");
+        return json.toString();
+    }
+    
+    /**
+     * Rebuild the snapshot now
+     */
+    public void refresh() {
+        Map<String, String> interfaces = getNetworkInterfaces();
+        snapshot = new HostSnapshot(hostNameResolver.getLocalHostName(null),
+                hostNameResolver.getLocalHostAddress(null), interfaces);
+        LOGGER.fine("Host information snapshot built, interfaces " + interfaces);
+    }
+    
+    /**
+     * Rebuild the snapshot if the network interfaces, their addresses or the host name changed
+     *
+     * @return whether the snapshot was rebuilt
+     */
+    boolean refreshIfChanged() {
         try {
-            // Get host information
-            InetAddress localhost = InetAddress.getLocalHost();
-            hostInfo.setHostname(localhost.getHostName());
-            hostInfo.setHostAddress(localhost.getHostAddress());
-            
-            // Server info (Helidon instead of WebLogic)
-            hostInfo.setServerName("Helidon MP Server");
-            hostInfo.setServerTime(new Date().toString());
-            
-            // Network interfaces
-            hostInfo.setNetworkInterfaces(getNetworkInterfaces());
-            
-            // OS Information
-            hostInfo.setOsInfo(getOsInfo());
-            
-            // Java Information
-            hostInfo.setJavaInfo(getJavaInfo());
-            
-            // Memory Information
-            hostInfo.setMemoryInfo(getMemoryInfo());
-            
-            // User Information
-            hostInfo.setUserInfo(getUserInfo());
-            
-        } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Error collecting host info", e);
-            hostInfo.setServerName("Helidon MP Server");
-            hostInfo.setServerTime(new Date().toString());
+            HostSnapshot current = snapshot;
+            if (getNetworkInterfaces().equals(current.networkInterfaces)
+                    && Objects.equals(hostNameResolver.getLocalHostName(null), current.hostname)
+                    && Objects.equals(hostNameResolver.getLocalHostAddress(null), current.hostAddress)) {
+                return false;
+            }
+            LOGGER.info("Network interfaces or host name changed, rebuilding host information");
+            refresh();
+            return true;
+        } catch (RuntimeException e) {
+            // Keep the watcher scheduled
+            LOGGER.log(Level.WARNING, "Error refreshing host info", e);
+            return false;
         }
-        
-        return hostInfo;
+    }
+    
+    /**
+     * Date.toString() of the current time, formatted at most once per second
+     */
+    private String getServerTime() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        ServerTime current = serverTime;
+        if (current.second != second) {
+            current = new ServerTime(second, new Date(now).toString());
+            serverTime = current;
+        }
+        return current.text;
     }
     
     /**
      * Get all network interfaces
      */
-    private Map<String, String> getNetworkInterfaces() {
+    private static Map<String, String> getNetworkInterfaces() {
         Map<String, String> interfaces = new LinkedHashMap<>();
         
         try {
@@ -93,7 +210,7 @@ public class HostInfoService {
     /**
      * Get OS information
      */
-    private HostInfo.OsInfo getOsInfo() {
+    private static HostInfo.OsInfo getOsInfo() {
         HostInfo.OsInfo osInfo = new HostInfo.OsInfo();
         osInfo.setName(System.getProperty("os.name"));
         osInfo.setVersion(System.getProperty("os.version"));
@@ -105,7 +222,7 @@ public class HostInfoService {
     /**
      * Get Java runtime information
      */
-    private HostInfo.JavaInfo getJavaInfo() {
+    private static HostInfo.JavaInfo getJavaInfo() {
         HostInfo.JavaInfo javaInfo = new HostInfo.JavaInfo();
         javaInfo.setVersion(System.getProperty("java.version"));
         javaInfo.setVendor(System.getProperty("java.vendor"));
@@ -116,7 +233,7 @@ public class HostInfoService {
     /**
      * Get memory information
      */
-    private HostInfo.MemoryInfo getMemoryInfo() {
+    private static HostInfo.MemoryInfo getMemoryInfo() {
         Runtime runtime = Runtime.getRuntime();
         HostInfo.MemoryInfo memoryInfo = new HostInfo.MemoryInfo();
         
@@ -136,11 +253,138 @@ public class HostInfoService {
     /**
      * Get user information
      */
-    private HostInfo.UserInfo getUserInfo() {
+    private static HostInfo.UserInfo getUserInfo() {
         HostInfo.UserInfo userInfo = new HostInfo.UserInfo();
         userInfo.setName(System.getProperty("user.name"));
         userInfo.setHome(System.getProperty("user.home"));
         userInfo.setWorkingDirectory(System.getProperty("user.dir"));
         return userInfo;
     }
+    
+    /**
+     * JSON string literal, or null for a null value
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+    
+    /**
+     * The parts of HostInfo that only change with the network configuration
+     */
+    private static final class HostSnapshot {
+        private final String hostname;
+        private final String hostAddress;
+        private final Map<String, String> networkInterfaces;
+        private final HostInfo.OsInfo osInfo;
+        private final HostInfo.JavaInfo javaInfo;
+        private final HostInfo.UserInfo userInfo;
+        // The members above as JSON, without braces, sorted by name; nulls are left out
+        private final String json;
+        
+        HostSnapshot(String hostname, String hostAddress, Map<String, String> interfaces) {
+            this.hostname = hostname;
+            this.hostAddress = hostAddress;
+            networkInterfaces = Collections.unmodifiableMap(interfaces);
+            osInfo = getOsInfo();
+            javaInfo = getJavaInfo();
+            userInfo = getUserInfo();
+            json = toJson();
+        }
+        
+        private String toJson() {
+            JsonMembers members = new JsonMembers();
+            members.add("hostAddress", quote(hostAddress));
+            members.add("hostname", quote(hostname));
+            members.add("javaInfo", new JsonMembers()
+                    .add("home", quote(javaInfo.getHome()))
+                    .add("vendor", quote(javaInfo.getVendor()))
+                    .add("version", quote(javaInfo.getVersion()))
+                    .toObject());
+            JsonMembers interfaceMembers = new JsonMembers();
+            networkInterfaces.forEach((interfaceName, interfaceAddress) ->
+                    interfaceMembers.add(interfaceName, quote(interfaceAddress)));
+            members.add("networkInterfaces", interfaceMembers.toObject());
+            members.add("osInfo", new JsonMembers()
+                    .add("architecture", quote(osInfo.getArchitecture()))
+                    .add("name", quote(osInfo.getName()))
+                    .add("processors", String.valueOf(osInfo.getProcessors()))
+                    .add("version", quote(osInfo.getVersion()))
+                    .toObject());
+            members.add("userInfo", new JsonMembers()
+                    .add("home", quote(userInfo.getHome()))
+                    .add("name", quote(userInfo.getName()))
+                    .add("workingDirectory", quote(userInfo.getWorkingDirectory()))
+                    .toObject());
+            return members.toString();
+        }
+    }
+    
+    /**
+     * Comma-separated "name":value members, skipping null values
+     */
+    private static final class JsonMembers {
+        private final StringBuilder members = new StringBuilder();
+        
+        JsonMembers add(String name, String jsonValue) {
+            if (jsonValue != null) {
+                if (members.length() > 0) {
+                    members.append(',');
+                }
+                members.append(quote(name)).append(':').append(jsonValue);
+            }
+            return this;
+        }
+        
+        String toObject() {
+            return "{" + members + "}";
+        }
+        
+        @Override
+        public String toString() {
+            return members.toString();
+        }
+    }
+    
+    /**
+     * Formatted server time and the second it stands for
+     */
+    private static final class ServerTime {
+        private final long second;
+        private final String text;
+        
+        ServerTime(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
 }
@@ -0,0 +1,338 @@
+package com.oracle.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Samples JVM metrics once for all live host metrics streams and pushes what changed
+ *
+ * Clients that poll /api/host-info each cost a request and a full JSON document.
+ * Here one "host-metrics-sampler" thread wakes every app.host-metrics.tick-millis;
+ * on a tick where at least one subscriber is due it reads the MXBeans once (heap,
+ * non-heap, GC count and time, thread count, process CPU load) into an immutable
+ * sample. Each subscriber gets a JSON object with only the fields that differ from
+ * the sample it was last sent, and nothing when none do. Subscribers at the same
+ * interval share their previous sample, so that delta is encoded once per tick and
+ * the same String is handed to all of them.
+ *
+ * Writes do not block the sampler: a subscriber whose previous event is still being
+ * written skips the tick, and its next event carries everything that changed since
+ * the last one it received. A failed write, or a heartbeat on an unchanged stream,
+ * ends the subscription.
+ */
+@ApplicationScoped
+public class HostMetricsSampler {
+
+    private static final Logger LOGGER = Logger.getLogger(HostMetricsSampler.class.getName());
+
+    private static final long HEARTBEAT_MILLIS = 15_000;
+    private static final long MAX_INTERVAL_MILLIS = 60_000;
+
+    // Fields of a sample, in JSON order; PROCESS_CPU_LOAD is in thousandths, negative when unknown
+    static final int HEAP_USED = 0;
+    static final int HEAP_COMMITTED = 1;
+    static final int NON_HEAP_USED = 2;
+    static final int GC_COUNT = 3;
+    static final int GC_TIME = 4;
+    static final int THREAD_COUNT = 5;
+    static final int PROCESS_CPU_LOAD = 6;
+    private static final String[] FIELDS = {
+            "heapUsedBytes", "heapCommittedBytes", "nonHeapUsedBytes",
+            "gcCount", "gcTimeMillis", "threadCount", "processCpuLoad"
+    };
+    // Previous sample of a subscriber that has not been sent one
+    private static final long[] NONE = new long[0];
+
+    /**
+     * Client side of a stream, e.g. an SSE connection
+     */
+    public interface Sink {
+
+        /**
+         * Start writing one event without waiting for it
+         *
+         * @param json Changed fields and the sample time, shared with other subscribers
+         * @return Completes when the event is written, exceptionally if the client is gone
+         */
+        CompletionStage<?> send(String json);
+
+        /**
+         * Start writing a keep-alive comment, to detect clients that went away
+         */
+        CompletionStage<?> heartbeat();
+
+        void close();
+    }
+
+    @Inject
+    @ConfigProperty(name = "app.host-metrics.tick-millis", defaultValue = "250")
+    private long tickMillis;
+
+    @Inject
+    @ConfigProperty(name = "app.host-metrics.max-subscribers", defaultValue = "1000")
+    private int maxSubscribers;
+
+    // The MXBean reads, replaced in tests
+    Supplier<long[]> probe = HostMetricsSampler::readJvm;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Delta JSON by previous sample, for the current tick only
+    private final Map<long[], String> deltas = new IdentityHashMap<>();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder events = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private Thread sampler;
+    private volatile boolean running;
+    private long tick;
+
+    public HostMetricsSampler() {
+    }
+
+    /**
+     * Sampler outside the container; with tickMillis 0 there is no thread and each publish() is one tick
+     */
+    HostMetricsSampler(long tickMillis, int maxSubscribers, Supplier<long[]> probe) {
+        this.tickMillis = tickMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.probe = probe;
+    }
+
+    @PostConstruct
+    void initialize() {
+        running = true;
+        if (tickMillis > 0) {
+            sampler = new Thread(this::sample, "host-metrics-sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+    }
+
+    @PreDestroy
+    void cleanup() {
+        running = false;
+        if (sampler != null) {
+            sampler.interrupt();
+        }
+        for (Subscriber subscriber : subscribers) {
+            unsubscribe(subscriber);
+        }
+    }
+
+    /**
+     * Start streaming to a client; its first event has every field
+     *
+     * @param intervalMillis Requested interval, rounded up to whole ticks and capped at a minute
+     * @param sink Connection to write the events to
+     * @return false if app.host-metrics.max-subscribers are already connected
+     */
+    public boolean subscribe(long intervalMillis, Sink sink) {
+        long clamped = Math.min(Math.max(intervalMillis, 1), MAX_INTERVAL_MILLIS);
+        long everyTicks = tickMillis > 0 ? Math.max(1, (clamped + tickMillis - 1) / tickMillis) : 1;
+        synchronized (subscribers) {
+            if (!running || subscribers.size() >= maxSubscribers) {
+                return false;
+            }
+            subscribers.add(new Subscriber(everyTicks, sink));
+        }
+        LOGGER.fine("Host metrics subscriber added, now " + subscribers.size());
+        return true;
+    }
+
+    @Gauge(name = "host.metrics.subscribers", unit = MetricUnits.NONE, absolute = true,
+           description = "Clients of the host metrics stream")
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Gauge(name = "host.metrics.samples", unit = MetricUnits.NONE, absolute = true,
+           description = "JVM samples taken for the host metrics stream")
+    public long getSampleCount() {
+        return samples.sum();
+    }
+
+    @Gauge(name = "host.metrics.events", unit = MetricUnits.NONE, absolute = true,
+           description = "Host metrics events sent to clients")
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    @Gauge(name = "host.metrics.skipped", unit = MetricUnits.NONE, absolute = true,
+           description = "Host metrics events skipped because the client was still writing the previous one")
+    public long getSkippedCount() {
+        return skipped.sum();
+    }
+
+    /**
+     * One tick: sample if a subscriber is due and push the changes to the due subscribers
+     *
+     * Called by the sampler thread, or directly when app.host-metrics.tick-millis is 0.
+     *
+     * @return Number of events started
+     */
+    public synchronized int publish() {
+        long current = tick++;
+        long now = System.currentTimeMillis();
+        long[] sample = null;
+        int started = 0;
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.sent != null && current % subscriber.everyTicks != 0) {
+                continue;
+            }
+            if (subscriber.writing.get()) {
+                skipped.increment();
+                continue;
+            }
+            if (sample == null) {
+                sample = probe.get();
+                samples.increment();
+            }
+            long[] latest = sample;
+            String json = deltas.computeIfAbsent(subscriber.sent == null ? NONE : subscriber.sent,
+                    previous -> toJson(previous == NONE ? null : previous, latest, now));
+            if (json != null) {
+                subscriber.sent = sample;
+                subscriber.write(subscriber.sink.send(json), now);
+                events.increment();
+                started++;
+            } else if (now - subscriber.lastWrite >= HEARTBEAT_MILLIS) {
+                subscriber.write(subscriber.sink.heartbeat(), now);
+            }
+        }
+        deltas.clear();
+        return started;
+    }
+
+    /**
+     * Sampler loop
+     */
+    private void sample() {
+        while (running) {
+            try {
+                Thread.sleep(tickMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                publish();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Host metrics sampling failed", e);
+            }
+        }
+    }
+
+    /**
+     * The fields of a sample that differ from the previous one (all when there is none),
+     * or null when nothing changed
+     */
+    static String toJson(long[] previous, long[] sample, long time) {
+        StringBuilder json = null;
+        for (int i = 0; i < FIELDS.length; i++) {
+            long value = sample[i];
+            if (value < 0 || (previous != null && previous[i] == value)) {
+                continue;
+            }
+            json = json == null ? new StringBuilder(192).append('{') : json.append(',');
+            json.append('"').append(FIELDS[i]).append("\":");
+            if (i == PROCESS_CPU_LOAD) {
+                json.append(value / 1000).append('.');
+                long fraction = value % 1000;
+                json.append(fraction < 100 ? (fraction < 10 ? "00" : "0") : "").append(fraction);
+            } else {
+                json.append(value);
+            }
+        }
+        return json == null ? null : json.append(",\"time\":").append(time).append('}').toString();
+    }
+
+    private static long[] readJvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcTime += Math.max(0, gc.getCollectionTime());
+        }
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        double cpuLoad = os instanceof com.sun.management.OperatingSystemMXBean
+                ? ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad()
+                : -1;
+        long[] sample = new long[FIELDS.length];
+        sample[HEAP_USED] = memory.getHeapMemoryUsage().getUsed();
+        sample[HEAP_COMMITTED] = memory.getHeapMemoryUsage().getCommitted();
+        sample[NON_HEAP_USED] = memory.getNonHeapMemoryUsage().getUsed();
+        sample[GC_COUNT] = gcCount;
+        sample[GC_TIME] = gcTime;
+        sample[THREAD_COUNT] = threads.getThreadCount();
+        sample[PROCESS_CPU_LOAD] = cpuLoad < 0 ? -1 : Math.round(cpuLoad * 1000);
+        return sample;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            try {
+                subscriber.sink.close();
+            } catch (RuntimeException e) {
+                LOGGER.fine("Closing host metrics subscriber failed: " + e.getMessage());
+            }
+            LOGGER.fine("Host metrics subscriber removed, now " + subscribers.size());
+        }
+    }
+
+    /**
+     * One client: its interval, the sample it was last sent, and whether a write is in progress
+     */
+    private final class Subscriber {
+        private final long everyTicks;
+        private final Sink sink;
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private long[] sent;
+        private long lastWrite;
+
+        Subscriber(long everyTicks, Sink sink) {
+            this.everyTicks = everyTicks;
+            this.sink = sink;
+        }
+
+        void write(CompletionStage<?> result, long now) {
+            lastWrite = now;
+            if (result instanceof CompletableFuture
+                    && ((CompletableFuture<?>) result).isDone()
+                    && !((CompletableFuture<?>) result).isCompletedExceptionally()) {
+                // Already written, as with a fast client: no callback to allocate
+                return;
+            }
+            writing.set(true);
+            result.whenComplete((ignored, failure) -> {
+                writing.set(false);
+                if (failure != null) {
+                    LOGGER.fine("Host metrics subscriber failed: " + failure.getMessage());
+                    unsubscribe(this);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.oracle.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Timer;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local host name and address, resolved off the request threads and cached
+ *
+ * InetAddress.getLocalHost() may ask DNS, and a misbehaving resolver (e.g. a
+ * Kubernetes ndots search list) can make it take seconds. Here the lookup runs
+ * on a "host-resolver" thread, one at a time:
+ *
+ *   - Fresh cache entry: returned at once.
+ *   - Expired entry: returned at once as well (stale while refreshing), and a
+ *     background lookup replaces it.
+ *   - No entry yet: the caller waits at most app.resolver.timeout-millis, then
+ *     gets the fallback value; the lookup still completes into the cache.
+ *
+ * A successful lookup is kept for app.resolver.positive-ttl-seconds, a failure
+ * for app.resolver.negative-ttl-seconds, during which callers get the fallback
+ * without a new lookup. Answers from a cached failure are counted apart from hits.
+ */
+@ApplicationScoped
+public class HostNameResolver {
+
+    private static final Logger LOGGER = Logger.getLogger(HostNameResolver.class.getName());
+
+    @Inject
+    @ConfigProperty(name = "app.resolver.timeout-millis", defaultValue = "1000")
+    private long timeoutMillis;
+
+    @Inject
+    @ConfigProperty(name = "app.resolver.positive-ttl-seconds", defaultValue = "300")
+    private long positiveTtlSeconds;
+
+    @Inject
+    @ConfigProperty(name = "app.resolver.negative-ttl-seconds", defaultValue = "10")
+    private long negativeTtlSeconds;
+
+    // Lookup time histogram; null when constructed outside the container
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    // The lookup itself, replaced in tests
+    Callable<InetAddress> lookup = InetAddress::getLocalHost;
+
+    private volatile Entry entry;
+    private final AtomicReference<CompletableFuture<Entry>> inFlight = new AtomicReference<>();
+    private ExecutorService executor;
+    private Timer lookupTimer;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastLookupNanos;
+
+    public HostNameResolver() {
+    }
+
+    /**
+     * Resolver with the given timeout and cache lifetimes and no lookup timer
+     */
+    HostNameResolver(long timeoutMillis, long positiveTtlSeconds, long negativeTtlSeconds) {
+        this.timeoutMillis = timeoutMillis;
+        this.positiveTtlSeconds = positiveTtlSeconds;
+        this.negativeTtlSeconds = negativeTtlSeconds;
+    }
+
+    @PostConstruct
+    void initialize() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "host-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (metricRegistry != null) {
+            lookupTimer = metricRegistry.timer(Metadata.builder()
+                    .withName("resolver.lookup.time")
+                    .withUnit(MetricUnits.NANOSECONDS)
+                    .withDescription("Time of local host name lookups, including failed ones")
+                    .build());
+        }
+        // Warm the cache so that the first request does not wait
+        refresh();
+    }
+
+    @PreDestroy
+    void cleanup() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Local host name, or the fallback while it is unknown
+     */
+    public String getLocalHostName(String fallback) {
+        InetAddress address = localHost();
+        return address != null ? address.getHostName() : fallback;
+    }
+
+    /**
+     * Local host address, or the fallback while it is unknown
+     */
+    public String getLocalHostAddress(String fallback) {
+        InetAddress address = localHost();
+        return address != null ? address.getHostAddress() : fallback;
+    }
+
+    @Gauge(name = "resolver.cache.hits", unit = MetricUnits.NONE, absolute = true,
+           description = "Host name requests answered with the name from a fresh cache entry")
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Gauge(name = "resolver.cache.stale", unit = MetricUnits.NONE, absolute = true,
+           description = "Host name requests answered with the name from an expired entry while it was being refreshed")
+    public long getStaleHitCount() {
+        return staleHits.sum();
+    }
+
+    @Gauge(name = "resolver.cache.negative", unit = MetricUnits.NONE, absolute = true,
+           description = "Host name requests answered with the fallback from a cached failed lookup")
+    public long getNegativeHitCount() {
+        return negativeHits.sum();
+    }
+
+    @Gauge(name = "resolver.cache.misses", unit = MetricUnits.NONE, absolute = true,
+           description = "Host name requests that found no entry and waited for a lookup")
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Gauge(name = "resolver.timeouts", unit = MetricUnits.NONE, absolute = true,
+           description = "Host name requests that gave up waiting and used the fallback")
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    @Gauge(name = "resolver.lookup.failures", unit = MetricUnits.NONE, absolute = true,
+           description = "Host name lookups that failed and were cached as negative")
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Gauge(name = "resolver.lookup.last", unit = MetricUnits.MILLISECONDS, absolute = true,
+           description = "Duration of the latest host name lookup")
+    public long getLastLookupMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastLookupNanos);
+    }
+
+    private InetAddress localHost() {
+        Entry current = entry;
+        if (current != null) {
+            boolean fresh = System.nanoTime() - current.expiresAt < 0;
+            if (current.address == null) {
+                // A cached failure only provides the fallback
+                negativeHits.increment();
+            } else if (fresh) {
+                hits.increment();
+            } else {
+                staleHits.increment();
+            }
+            if (!fresh) {
+                refresh();
+            }
+            return current.address;
+        }
+
+        misses.increment();
+        try {
+            return refresh().get(timeoutMillis, TimeUnit.MILLISECONDS).address;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Start a lookup unless one is running
+     */
+    private CompletableFuture<Entry> refresh() {
+        CompletableFuture<Entry> running = inFlight.get();
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<Entry> started = new CompletableFuture<>();
+        if (!inFlight.compareAndSet(null, started)) {
+            return inFlight.get();
+        }
+        try {
+            executor.execute(() -> {
+                Entry result = lookupNow();
+                entry = result;
+                inFlight.set(null);
+                started.complete(result);
+            });
+        } catch (RuntimeException e) {
+            // Shut down
+            inFlight.set(null);
+            started.completeExceptionally(e);
+        }
+        return started;
+    }
+
+    private Entry lookupNow() {
+        long start = System.nanoTime();
+        InetAddress address = null;
+        try {
+            address = lookup.call();
+            // Resolve the name now, on this thread, so that getHostName() never blocks a caller
+            address = InetAddress.getByAddress(address.getHostName(), address.getAddress());
+        } catch (Exception e) {
+            failures.increment();
+            LOGGER.log(Level.WARNING, "Cannot resolve the local host name: " + e);
+        }
+        long elapsed = System.nanoTime() - start;
+        lastLookupNanos = elapsed;
+        if (lookupTimer != null) {
+            lookupTimer.update(Duration.ofNanos(elapsed));
+        }
+        long ttlNanos = TimeUnit.SECONDS.toNanos(address != null ? positiveTtlSeconds : negativeTtlSeconds);
+        return new Entry(address, System.nanoTime() + ttlNanos);
+    }
+
+    /**
+     * A lookup result, null for a failed lookup, and when it expires (System.nanoTime())
+     */
+    private static final class Entry {
+        private final InetAddress address;
+        private final long expiresAt;
+
+        Entry(InetAddress address, long expiresAt) {
+            this.address = address;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
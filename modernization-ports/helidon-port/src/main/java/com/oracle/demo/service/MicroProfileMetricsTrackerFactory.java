@@ -0,0 +1,106 @@
+package com.oracle.demo.service;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricID;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * HikariCP metrics tracker that records into a MicroProfile Metrics registry
+ *
+ * HikariCP calls the tracker on every borrow, return, connection creation and
+ * borrow timeout; this turns those calls into timers and a counter. The pool
+ * state (pending threads, active, idle and total connections) is exposed as
+ * gauges over HikariCP's PoolStats, which refreshes itself at most once a second.
+ * All metrics carry a pool tag, and are removed when the pool closes.
+ */
+final class MicroProfileMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final MetricRegistry registry;
+
+    MicroProfileMetricsTrackerFactory(MetricRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new Tracker(new Tag("pool", poolName), poolStats);
+    }
+
+    private final class Tracker implements IMetricsTracker {
+        private final Tag poolTag;
+        private final List<MetricID> registered = new ArrayList<>();
+        private final Timer acquire;
+        private final Timer usage;
+        private final Timer creation;
+        private final Counter timeouts;
+
+        Tracker(Tag poolTag, PoolStats poolStats) {
+            this.poolTag = poolTag;
+            acquire = timer("database.pool.acquire", "Time to borrow a connection from the pool");
+            usage = timer("database.pool.usage", "Time a borrowed connection is held before it is returned");
+            creation = timer("database.pool.creation", "Time to open a new physical connection");
+            timeouts = registry.counter(metadata("database.pool.timeouts", MetricUnits.NONE,
+                    "Borrows that gave up after the connection timeout"), poolTag);
+            registered.add(new MetricID("database.pool.timeouts", poolTag));
+            gauge("database.pool.pending", "Threads waiting for a connection", poolStats::getPendingThreads);
+            gauge("database.pool.active", "Connections borrowed", poolStats::getActiveConnections);
+            gauge("database.pool.idle", "Connections idle in the pool", poolStats::getIdleConnections);
+            gauge("database.pool.total", "Connections open, borrowed or idle", poolStats::getTotalConnections);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquire.update(Duration.ofNanos(elapsedAcquiredNanos));
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usage.update(Duration.ofMillis(elapsedBorrowedMillis));
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            creation.update(Duration.ofMillis(connectionCreatedMillis));
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.inc();
+        }
+
+        @Override
+        public void close() {
+            registered.forEach(registry::remove);
+        }
+
+        private Timer timer(String name, String description) {
+            registered.add(new MetricID(name, poolTag));
+            return registry.timer(metadata(name, MetricUnits.NANOSECONDS, description), poolTag);
+        }
+
+        private void gauge(String name, String description, Supplier<Integer> value) {
+            registered.add(new MetricID(name, poolTag));
+            registry.gauge(metadata(name, MetricUnits.NONE, description), value, poolTag);
+        }
+    }
+
+    private static Metadata metadata(String name, String unit, String description) {
+        return Metadata.builder()
+                .withName(name)
+                .withUnit(unit)
+                .withDescription(description)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.oracle.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Default SessionIdGenerator: compact URL-safe IDs from per-thread CSPRNGs
+ *
+ * Each request thread owns a DRBG SecureRandom (256-bit strength), so creating
+ * sessions on many threads never contends on a shared generator the way
+ * UUID.randomUUID() does. Random bytes are drawn in batches of ID_BATCH IDs.
+ * Every generator is reseeded from the system entropy source after
+ * app.session.id.reseed-seconds.
+ *
+ * Format: [node-prefix.]base64url(entropy-bits / 8 random bytes), without padding.
+ * 128 bits (the default) give 22 characters. The optional prefix, e.g. a pod
+ * ordinal, lets a proxy route by ID without a hash ring; the dot cannot occur in
+ * base64url, so the prefix is unambiguous.
+ */
+@ApplicationScoped
+public class SecureSessionIdGenerator implements SessionIdGenerator {
+
+    private static final Logger LOGGER = Logger.getLogger(SecureSessionIdGenerator.class.getName());
+
+    private static final int ID_BATCH = 32;
+    private static final int MIN_ENTROPY_BITS = 64;
+    private static final Pattern PREFIX = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Inject
+    @ConfigProperty(name = "app.session.id.entropy-bits", defaultValue = "128")
+    private int entropyBits;
+
+    @Inject
+    @ConfigProperty(name = "app.session.id.reseed-seconds", defaultValue = "600")
+    private long reseedSeconds;
+
+    @Inject
+    @ConfigProperty(name = "app.session.id.node-prefix", defaultValue = "none")
+    private String nodePrefix;
+
+    private int idBytes;
+    private String prefix;
+    private final ThreadLocal<Source> sources = ThreadLocal.withInitial(this::newSource);
+
+    public SecureSessionIdGenerator() {
+    }
+
+    /**
+     * Generator with the given settings, for use outside the container
+     */
+    SecureSessionIdGenerator(int entropyBits, long reseedSeconds, String nodePrefix) {
+        this.entropyBits = entropyBits;
+        this.reseedSeconds = reseedSeconds;
+        this.nodePrefix = nodePrefix;
+    }
+
+    @PostConstruct
+    void initialize() {
+        if (entropyBits < MIN_ENTROPY_BITS) {
+            throw new IllegalArgumentException("app.session.id.entropy-bits must be at least " + MIN_ENTROPY_BITS
+                    + ", got " + entropyBits);
+        }
+        if (!"none".equals(nodePrefix) && !PREFIX.matcher(nodePrefix).matches()) {
+            throw new IllegalArgumentException("app.session.id.node-prefix must match " + PREFIX + ", got " + nodePrefix);
+        }
+        idBytes = (entropyBits + 7) / 8;
+        prefix = "none".equals(nodePrefix) ? "" : nodePrefix + ".";
+        LOGGER.info("Session IDs: " + idBytes * 8 + " random bits" + (prefix.isEmpty() ? "" : ", prefix " + nodePrefix));
+    }
+
+    @Override
+    public String newSessionId() {
+        Source source = sources.get();
+        byte[] id = new byte[idBytes];
+        source.next(id);
+        return prefix.isEmpty() ? ENCODER.encodeToString(id) : prefix + ENCODER.encodeToString(id);
+    }
+
+    private Source newSource() {
+        return new Source(idBytes * ID_BATCH, TimeUnit.SECONDS.toNanos(reseedSeconds));
+    }
+
+    /**
+     * One thread's generator and its buffer of random bytes
+     */
+    private static final class Source {
+        private final SecureRandom random = newDrbg();
+        private final byte[] buffer;
+        private final long reseedNanos;
+        private int position;
+        private long reseedAt;
+
+        Source(int bufferBytes, long reseedNanos) {
+            this.buffer = new byte[bufferBytes];
+            this.reseedNanos = reseedNanos;
+            this.position = bufferBytes;
+            this.reseedAt = System.nanoTime() + reseedNanos;
+        }
+
+        void next(byte[] id) {
+            if (position + id.length > buffer.length) {
+                refill();
+            }
+            System.arraycopy(buffer, position, id, 0, id.length);
+            position += id.length;
+        }
+
+        /**
+         * Draw the next batch; the clock is only read here, once per ID_BATCH IDs
+         */
+        private void refill() {
+            long now = System.nanoTime();
+            if (now - reseedAt >= 0) {
+                try {
+                    random.reseed();
+                } catch (UnsupportedOperationException e) {
+                    random.setSeed(SecureRandom.getSeed(32));
+                }
+                reseedAt = now + reseedNanos;
+            }
+            random.nextBytes(buffer);
+            position = 0;
+        }
+
+        private static SecureRandom newDrbg() {
+            try {
+                return SecureRandom.getInstance("DRBG",
+                        DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, null));
+            } catch (NoSuchAlgorithmException e) {
+                LOGGER.warning("DRBG not available, using the default SecureRandom: " + e.getMessage());
+                return new SecureRandom();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.oracle.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.logging.Logger;
+
+/**
+ * CDI Service that decides which requests may use the session admin endpoints
+ *
+ * The admin query lists the sessions of every user, with their IDs, and a
+ * session ID is all a client needs to act as that session. The same goes for
+ * an event stream that is not limited to the client's own session. Both are
+ * therefore only served to requests whose ADMIN_HEADER carries
+ * app.session.admin.secret. Without a configured secret they are disabled.
+ */
+@ApplicationScoped
+public class SessionAdminAccess {
+
+    /**
+     * Carries the admin secret
+     */
+    public static final String ADMIN_HEADER = "X-Session-Admin-Secret";
+
+    private static final Logger LOGGER = Logger.getLogger(SessionAdminAccess.class.getName());
+
+    @Inject
+    @ConfigProperty(name = "app.session.admin.secret", defaultValue = "")
+    private String secret;
+
+    private byte[] expected;
+
+    public SessionAdminAccess() {
+    }
+
+    /**
+     * Access check with the given secret, for use outside the container
+     */
+    SessionAdminAccess(String secret) {
+        this.secret = secret;
+    }
+
+    @PostConstruct
+    void initialize() {
+        if (secret == null || secret.isEmpty()) {
+            LOGGER.info("No app.session.admin.secret, the session admin endpoints are disabled");
+            return;
+        }
+        expected = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether an admin secret is configured
+     */
+    public boolean isEnabled() {
+        return expected != null;
+    }
+
+    /**
+     * Whether a request's ADMIN_HEADER value is the admin secret
+     *
+     * @param headerValue Header value, or null if the request has none
+     * @return false if it is not, or if no secret is configured
+     */
+    public boolean isAdmin(String headerValue) {
+        return expected != null && headerValue != null
+                && MessageDigest.isEqual(headerValue.getBytes(StandardCharsets.UTF_8), expected);
+    }
+}
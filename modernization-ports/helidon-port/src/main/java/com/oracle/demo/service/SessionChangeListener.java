@@ -0,0 +1,33 @@
+package com.oracle.demo.service;
+
+/**
+ * Receives every change SessionService makes to a session, after the store has applied it
+ *
+ * Implemented by SessionJournal (persistence), SessionReplicator (backup peer) and
+ * SessionUserIndex (query index). Called on request threads, so implementations
+ * only enqueue or update in-memory structures. Every method defaults to doing nothing.
+ */
+public interface SessionChangeListener {
+
+    default void created(String sessionId, long creationTime) {
+    }
+
+    default void touched(String sessionId, long lastAccessedTime, long visitCount) {
+    }
+
+    default void userNameSet(String sessionId, String userName) {
+    }
+
+    default void attributeSet(String sessionId, String key, Object value) {
+    }
+
+    default void attributeRemoved(String sessionId, String key) {
+    }
+
+    /**
+     * @param invalidated true if the application invalidated the session, false if
+     *                    this node's store expired or evicted it
+     */
+    default void removed(String sessionId, boolean invalidated) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.session.AttributeCodec;
+import com.oracle.demo.session.SessionRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One session mutation in binary form, written by SessionJournal and SessionReplicator
+ *
+ * Which fields are used depends on the type. A SNAPSHOT delta carries the full
+ * state of a session (time is the last access time, key the user name), and is
+ * also how replay keeps the state it has rebuilt so far.
+ */
+final class SessionDelta {
+
+    static final byte CREATE = 1;
+    static final byte TOUCH = 2;
+    static final byte SET_USER_NAME = 3;
+    static final byte SET_ATTRIBUTE = 4;
+    static final byte REMOVE_ATTRIBUTE = 5;
+    static final byte INVALIDATE = 6;
+    static final byte SNAPSHOT_BEGIN = 7;
+    static final byte SNAPSHOT = 8;
+    static final byte SNAPSHOT_END = 9;
+
+    final byte type;
+    final String sessionId;
+    long time;
+    long created;
+    long visits;
+    String key;
+    byte[] value;
+    Map<String, byte[]> attributes;
+
+    SessionDelta(byte type, String sessionId, long time) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.time = time;
+    }
+
+    static SessionDelta touch(String sessionId, long lastAccessedTime, long visitCount) {
+        SessionDelta delta = new SessionDelta(TOUCH, sessionId, lastAccessedTime);
+        delta.visits = visitCount;
+        return delta;
+    }
+
+    static SessionDelta userName(String sessionId, String userName) {
+        SessionDelta delta = new SessionDelta(SET_USER_NAME, sessionId, 0);
+        delta.key = userName;
+        return delta;
+    }
+
+    static SessionDelta setAttribute(String sessionId, String key, Object value) {
+        SessionDelta delta = new SessionDelta(SET_ATTRIBUTE, sessionId, 0);
+        delta.key = key;
+        delta.value = AttributeCodec.encode(key, value);
+        return delta;
+    }
+
+    static SessionDelta removeAttribute(String sessionId, String key) {
+        SessionDelta delta = new SessionDelta(REMOVE_ATTRIBUTE, sessionId, 0);
+        delta.key = key;
+        return delta;
+    }
+
+    static SessionDelta snapshotOf(SessionRecord session) {
+        SessionDelta delta = new SessionDelta(SNAPSHOT, session.getId(), session.getLastAccessedTime());
+        delta.created = session.getCreationTime();
+        delta.visits = session.getVisitCount();
+        delta.key = session.getUserName();
+        delta.attributes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> attribute : session.getAttributes().entrySet()) {
+            delta.attributes.put(attribute.getKey(), AttributeCodec.encode(attribute.getKey(), attribute.getValue()));
+        }
+        return delta;
+    }
+
+    /**
+     * Full state of a new session
+     */
+    static SessionDelta snapshotOfNew(String sessionId, long creationTime) {
+        SessionDelta delta = new SessionDelta(SNAPSHOT, sessionId, creationTime);
+        delta.created = creationTime;
+        delta.visits = 1;
+        delta.attributes = new LinkedHashMap<>();
+        return delta;
+    }
+
+    /**
+     * Bytes of session state in this delta: IDs, keys, values and timestamps, without framing
+     */
+    int logicalSize() {
+        int size = sessionId.length() + 8 + (key != null ? key.length() : 0) + (value != null ? value.length : 0);
+        if (attributes != null) {
+            for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                size += attribute.getKey().length() + attribute.getValue().length;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Upper bound of the encoded size
+     */
+    int maxEncodedSize() {
+        int size = 64 + logicalSize() * 3;
+        if (attributes != null) {
+            size += 8 * attributes.size();
+        }
+        return size;
+    }
+
+    /**
+     * Encode at the buffer position; the buffer must have maxEncodedSize() bytes left
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.put(type);
+        putString(buffer, sessionId);
+        switch (type) {
+            case TOUCH:
+                buffer.putLong(time);
+                buffer.putLong(visits);
+                break;
+            case SET_USER_NAME:
+            case REMOVE_ATTRIBUTE:
+                putString(buffer, key);
+                break;
+            case SET_ATTRIBUTE:
+                putString(buffer, key);
+                putBytes(buffer, value);
+                break;
+            case SNAPSHOT:
+                buffer.putLong(created);
+                buffer.putLong(time);
+                buffer.putLong(visits);
+                putString(buffer, key);
+                buffer.putInt(attributes.size());
+                for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                    putString(buffer, attribute.getKey());
+                    putBytes(buffer, attribute.getValue());
+                }
+                break;
+            default:
+                // CREATE, INVALIDATE and the snapshot markers carry the time only
+                buffer.putLong(time);
+        }
+    }
+
+    static SessionDelta readFrom(ByteBuffer buffer) {
+        byte type = buffer.get();
+        SessionDelta delta = new SessionDelta(type, getString(buffer), 0);
+        switch (type) {
+            case TOUCH:
+                delta.time = buffer.getLong();
+                delta.visits = buffer.getLong();
+                break;
+            case SET_USER_NAME:
+            case REMOVE_ATTRIBUTE:
+                delta.key = getString(buffer);
+                break;
+            case SET_ATTRIBUTE:
+                delta.key = getString(buffer);
+                delta.value = getBytes(buffer);
+                break;
+            case SNAPSHOT:
+                delta.created = buffer.getLong();
+                delta.time = buffer.getLong();
+                delta.visits = buffer.getLong();
+                delta.key = getString(buffer);
+                int count = buffer.getInt();
+                delta.attributes = new LinkedHashMap<>();
+                for (int i = 0; i < count; i++) {
+                    delta.attributes.put(getString(buffer), getBytes(buffer));
+                }
+                break;
+            default:
+                delta.time = buffer.getLong();
+        }
+        return delta;
+    }
+
+    /**
+     * View of a SNAPSHOT delta for SessionStore.restore()
+     */
+    SessionRecord asRecord() {
+        return new SessionRecord() {
+            @Override
+            public String getId() {
+                return sessionId;
+            }
+
+            @Override
+            public long getCreationTime() {
+                return created;
+            }
+
+            @Override
+            public long getLastAccessedTime() {
+                return time;
+            }
+
+            @Override
+            public long getVisitCount() {
+                return visits;
+            }
+
+            @Override
+            public String getUserName() {
+                return key;
+            }
+
+            @Override
+            public Map<String, Object> getAttributes() {
+                Map<String, Object> decoded = new HashMap<>();
+                for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                    decoded.put(attribute.getKey(), AttributeCodec.decode(attribute.getValue()));
+                }
+                return Collections.unmodifiableMap(decoded);
+            }
+        };
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        putBytes(buffer, value != null ? value.getBytes(StandardCharsets.UTF_8) : null);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = getBytes(buffer);
+        return bytes != null ? new String(bytes, StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,427 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.SessionEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fans session lifecycle events out to SSE subscribers without slowing down requests
+ *
+ * SessionService notifies it of every change like any other SessionChangeListener.
+ * On the request thread an event costs one allocation and one offer to a bounded
+ * queue, or nothing at all while there are no subscribers. Touches are not queued:
+ * the latest touch of each session is kept in a map and published once per
+ * app.session.events.coalesce-millis, so a busy session yields one event per interval.
+ *
+ * A "session-events" thread drains the queue, applies each subscriber's filter and
+ * offers the event to the subscriber's own bounded buffer. A small pool of
+ * "session-events-delivery" threads writes the buffers to the clients without
+ * waiting for the writes: a subscriber whose event is still being written is busy,
+ * and its buffer is drained again from the write's completion, so a pool thread
+ * never parks on a slow client. Every stage is lossy: when the queue or a buffer is
+ * full the event is dropped and counted, so a slow client only loses its own events
+ * and never blocks a request thread or the other subscribers. A client that fails a
+ * write, a heartbeat on an idle stream, or takes MAX_WRITE_MILLIS for one write, is
+ * unsubscribed.
+ */
+@ApplicationScoped
+public class SessionEventBroadcaster implements SessionChangeListener {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionEventBroadcaster.class.getName());
+
+    private static final long DISPATCH_MILLIS = 20;
+    private static final long HEARTBEAT_MILLIS = 15_000;
+    private static final long MAX_WRITE_MILLIS = 10_000;
+    private static final int DELIVERY_BATCH = 64;
+    // Marker in a subscriber's buffer; only its identity matters
+    private static final SessionEvent HEARTBEAT = new SessionEvent(SessionEvent.Type.TOUCHED, "", 0, 0, null, null);
+
+    /**
+     * Client side of a subscription, e.g. an SSE connection
+     */
+    public interface Sink {
+
+        /**
+         * Start writing one event without waiting for it
+         *
+         * @return Completes when the event is written, exceptionally if the client is gone;
+         *         the subscription is then closed
+         */
+        CompletionStage<?> send(SessionEvent event);
+
+        /**
+         * Start writing a keep-alive comment, to detect clients that went away while idle
+         */
+        CompletionStage<?> heartbeat();
+
+        void close();
+    }
+
+    @Inject
+    @ConfigProperty(name = "app.session.events.queue-size", defaultValue = "65536")
+    private int queueSize;
+
+    @Inject
+    @ConfigProperty(name = "app.session.events.subscriber-buffer", defaultValue = "256")
+    private int subscriberBuffer;
+
+    @Inject
+    @ConfigProperty(name = "app.session.events.coalesce-millis", defaultValue = "500")
+    private long coalesceMillis;
+
+    @Inject
+    @ConfigProperty(name = "app.session.events.max-subscribers", defaultValue = "1000")
+    private int maxSubscribers;
+
+    @Inject
+    @ConfigProperty(name = "app.session.events.delivery-threads", defaultValue = "4")
+    private int deliveryThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Queue<SessionEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<String, SessionEvent> pendingTouches = new ConcurrentHashMap<>();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private ExecutorService delivery;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    public SessionEventBroadcaster() {
+    }
+
+    /**
+     * Broadcaster with the given settings, for use outside the container
+     */
+    SessionEventBroadcaster(int queueSize, int subscriberBuffer, long coalesceMillis, int maxSubscribers,
+            int deliveryThreads) {
+        this.queueSize = queueSize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.coalesceMillis = coalesceMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.deliveryThreads = deliveryThreads;
+    }
+
+    @PostConstruct
+    void initialize() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        delivery = Executors.newFixedThreadPool(deliveryThreads, task -> {
+            Thread thread = new Thread(task, "session-events-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        dispatcher = new Thread(this::dispatch, "session-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    void cleanup() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        for (Subscriber subscriber : subscribers) {
+            unsubscribe(subscriber);
+        }
+        if (delivery != null) {
+            delivery.shutdownNow();
+        }
+    }
+
+    /**
+     * Start streaming events to a client
+     *
+     * @param types Event types to receive, or null for all
+     * @param sessionIds Sessions to receive events of, or null for all. The events
+     *                   name their session and its user, so the caller decides who
+     *                   may follow which sessions (see SessionAdminAccess)
+     * @param sink Connection to write the events to
+     * @return false if app.session.events.max-subscribers are already connected
+     */
+    public boolean subscribe(Set<SessionEvent.Type> types, Set<String> sessionIds, Sink sink) {
+        synchronized (subscribers) {
+            if (!running || subscribers.size() >= maxSubscribers) {
+                return false;
+            }
+            subscribers.add(new Subscriber(types, sessionIds, sink));
+        }
+        LOGGER.fine("Session event subscriber added, now " + subscribers.size());
+        return true;
+    }
+
+    /**
+     * Number of connected subscribers
+     */
+    @Gauge(name = "sessions.events.subscribers", unit = MetricUnits.NONE, absolute = true,
+           description = "Clients subscribed to the session event stream")
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Events accepted for fan-out, after touch coalescing
+     */
+    @Gauge(name = "sessions.events.published", unit = MetricUnits.NONE, absolute = true,
+           description = "Session events accepted for fan-out, after touch coalescing")
+    public long getPublishedEventCount() {
+        return publishedEvents.sum();
+    }
+
+    /**
+     * Events dropped because the queue or a subscriber's buffer was full
+     */
+    @Gauge(name = "sessions.events.dropped", unit = MetricUnits.NONE, absolute = true,
+           description = "Session events dropped because the queue or a subscriber buffer was full")
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public void created(String sessionId, long creationTime) {
+        publish(SessionEvent.Type.CREATED, sessionId, creationTime, null, null);
+    }
+
+    @Override
+    public void touched(String sessionId, long lastAccessedTime, long visitCount) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        // Latest touch wins; a new session ID only gets a slot while there is room
+        SessionEvent event = new SessionEvent(SessionEvent.Type.TOUCHED, sessionId, lastAccessedTime, visitCount, null, null);
+        if (pendingTouches.replace(sessionId, event) == null) {
+            if (pendingTouches.size() >= queueSize) {
+                droppedEvents.increment();
+            } else {
+                pendingTouches.put(sessionId, event);
+            }
+        }
+    }
+
+    @Override
+    public void userNameSet(String sessionId, String userName) {
+        publish(SessionEvent.Type.USER, sessionId, System.currentTimeMillis(), userName, null);
+    }
+
+    @Override
+    public void attributeSet(String sessionId, String key, Object value) {
+        publish(SessionEvent.Type.ATTRIBUTE_SET, sessionId, System.currentTimeMillis(), null, key);
+    }
+
+    @Override
+    public void attributeRemoved(String sessionId, String key) {
+        publish(SessionEvent.Type.ATTRIBUTE_REMOVED, sessionId, System.currentTimeMillis(), null, key);
+    }
+
+    @Override
+    public void removed(String sessionId, boolean invalidated) {
+        publish(invalidated ? SessionEvent.Type.INVALIDATED : SessionEvent.Type.REMOVED, sessionId,
+                System.currentTimeMillis(), null, null);
+    }
+
+    private void publish(SessionEvent.Type type, String sessionId, long time, String userName, String key) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > queueSize) {
+            pendingCount.decrementAndGet();
+            droppedEvents.increment();
+            return;
+        }
+        pending.offer(new SessionEvent(type, sessionId, time, 0, userName, key));
+    }
+
+    /**
+     * Dispatcher loop: queued events first, so a session's CREATED precedes its touches
+     */
+    private void dispatch() {
+        long nextFlush = System.currentTimeMillis() + coalesceMillis;
+        long nextHeartbeat = System.currentTimeMillis() + HEARTBEAT_MILLIS;
+        while (running) {
+            try {
+                Thread.sleep(DISPATCH_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                SessionEvent event;
+                while ((event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    if (event.getType() == SessionEvent.Type.INVALIDATED || event.getType() == SessionEvent.Type.REMOVED) {
+                        pendingTouches.remove(event.getSessionId());
+                    }
+                    fanOut(event);
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextFlush) {
+                    for (String sessionId : pendingTouches.keySet()) {
+                        SessionEvent touch = pendingTouches.remove(sessionId);
+                        if (touch != null) {
+                            fanOut(touch);
+                        }
+                    }
+                    nextFlush = now + coalesceMillis;
+                }
+                if (now >= nextHeartbeat) {
+                    for (Subscriber subscriber : subscribers) {
+                        if (subscriber.isStalled(now)) {
+                            LOGGER.fine("Session event subscriber stalled for " + MAX_WRITE_MILLIS + " ms");
+                            unsubscribe(subscriber);
+                        } else {
+                            subscriber.enqueue(HEARTBEAT);
+                        }
+                    }
+                    nextHeartbeat = now + HEARTBEAT_MILLIS;
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Session event dispatch failed", e);
+            }
+        }
+    }
+
+    private void fanOut(SessionEvent event) {
+        publishedEvents.increment();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event)) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.closed = true;
+        if (subscribers.remove(subscriber)) {
+            try {
+                subscriber.sink.close();
+            } catch (RuntimeException e) {
+                LOGGER.fine("Closing session event subscriber failed: " + e.getMessage());
+            }
+            LOGGER.fine("Session event subscriber removed, now " + subscribers.size());
+        }
+    }
+
+    /**
+     * One client: its filter, its buffer, and a delivery task that runs on the pool
+     * whenever the buffer is not empty and no write is in flight (at most one at a
+     * time per subscriber, so events stay in order)
+     */
+    private final class Subscriber implements Runnable {
+        private final Set<SessionEvent.Type> types;
+        private final Set<String> sessionIds;
+        private final Sink sink;
+        private final ArrayBlockingQueue<SessionEvent> buffer;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // Start of the write in flight, or 0 when there is none
+        private volatile long writeStarted;
+        private volatile boolean closed;
+
+        Subscriber(Set<SessionEvent.Type> types, Set<String> sessionIds, Sink sink) {
+            this.types = types;
+            this.sessionIds = sessionIds;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(subscriberBuffer);
+        }
+
+        boolean accepts(SessionEvent event) {
+            return (types == null || types.contains(event.getType()))
+                    && (sessionIds == null || sessionIds.contains(event.getSessionId()));
+        }
+
+        void enqueue(SessionEvent event) {
+            if (!buffer.offer(event) && event != HEARTBEAT) {
+                droppedEvents.increment();
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                delivery.execute(this);
+            }
+        }
+
+        boolean isStalled(long now) {
+            long started = writeStarted;
+            return started != 0 && now - started >= MAX_WRITE_MILLIS;
+        }
+
+        @Override
+        public void run() {
+            CompletionStage<?> inFlight = null;
+            try {
+                SessionEvent event;
+                int delivered = 0;
+                // Bounded batch, so that one busy subscriber cannot starve the others
+                while (!closed && delivered < DELIVERY_BATCH && (event = buffer.poll()) != null) {
+                    CompletionStage<?> result = event == HEARTBEAT ? sink.heartbeat() : sink.send(event);
+                    delivered++;
+                    if (!isWritten(result)) {
+                        inFlight = result;
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+            if (inFlight == null) {
+                done();
+                return;
+            }
+            // Busy until the client has taken the event; the pool thread is free meanwhile
+            writeStarted = System.currentTimeMillis();
+            inFlight.whenComplete((ignored, failure) -> {
+                writeStarted = 0;
+                if (failure != null) {
+                    fail(failure);
+                }
+                done();
+            });
+        }
+
+        /**
+         * Whether a write already completed normally, as with a fast client
+         */
+        private boolean isWritten(CompletionStage<?> result) {
+            return result instanceof CompletableFuture
+                    && ((CompletableFuture<?>) result).isDone()
+                    && !((CompletableFuture<?>) result).isCompletedExceptionally();
+        }
+
+        private void fail(Throwable failure) {
+            LOGGER.fine("Session event subscriber failed: " + failure.getMessage());
+            unsubscribe(this);
+        }
+
+        /**
+         * End this delivery task, and schedule the next one if events arrived meanwhile
+         */
+        private void done() {
+            scheduled.set(false);
+            if (!closed && !buffer.isEmpty() && scheduled.compareAndSet(false, true)) {
+                delivery.execute(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.oracle.demo.service;
+
+/**
+ * Source of new session IDs for SessionService
+ *
+ * The default bean is SecureSessionIdGenerator. To plug in another scheme, provide
+ * an @Alternative @Priority bean implementing this interface. IDs must be
+ * unguessable and URL-safe, since they travel in query strings and paths.
+ */
+public interface SessionIdGenerator {
+
+    String newSessionId();
+}
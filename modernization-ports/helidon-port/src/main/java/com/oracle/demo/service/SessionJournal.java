@@ -0,0 +1,487 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.session.SessionStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of session mutations, replayed on startup (app.session.journal.enabled)
+ *
+ * Layout:
+ *   The journal is a directory of fixed-size segment files (journal-<index>.log),
+ *   each memory-mapped while it is written. Every record is framed as
+ *   [int length][int CRC32C][body]. A zero length marks the unwritten tail of a
+ *   segment; a CRC mismatch marks a torn write, and replay stops reading that
+ *   segment there.
+ *
+ * Group commit:
+ *   Request threads only enqueue mutations. A single writer thread drains the queue
+ *   every group-commit interval, appends the records and forces the mapped pages to
+ *   disk once per batch. Touches are coalesced per session within a batch, so a busy
+ *   session costs one touch record per interval, not one per request. A crash loses
+ *   at most the mutations of the last interval. If more than MAX_PENDING records are
+ *   queued, the enqueuing thread writes the batch itself, which slows callers down
+ *   to the speed of the disk instead of growing the queue.
+ *
+ * Compaction:
+ *   When compact-after-segments segments were written since the last snapshot, the
+ *   writer starts a new segment with a snapshot of every live session, taken from the
+ *   SessionStore, and deletes the older segments once the snapshot is on disk.
+ *   Mutations made while the snapshot is written follow it in the journal, and
+ *   replaying them on top of the snapshot is idempotent.
+ *
+ * Replay:
+ *   Segments are read, CRC-checked and decoded in parallel. The decoded records are
+ *   then applied in order, starting at the newest complete snapshot, and the
+ *   sessions that have not timed out are restored into the store.
+ *
+ * Directory:
+ *   Replay restores sessions and decodes attribute values from every segment it
+ *   finds, so nobody else may be able to write there. A missing directory is
+ *   created with owner-only access. On POSIX file systems, an existing directory
+ *   that belongs to another user or can be written by group or others is refused,
+ *   and so is a segment file that belongs to another user.
+ */
+public final class SessionJournal implements SessionChangeListener, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionJournal.class.getName());
+
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MIN_SEGMENT_BYTES = 1 << 20;
+    private static final int MAX_PENDING = 1 << 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long groupCommitMillis;
+    private final int compactAfterSegments;
+
+    private final Queue<SessionDelta> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<String, long[]> pendingTouches = new ConcurrentHashMap<>();
+    private final LongAdder logicalBytes = new LongAdder();
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    // Owned by the writer thread
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer body = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private long snapshotSegmentIndex;
+    private int forcedPosition;
+    private SessionStore store;
+    private ScheduledExecutorService writer;
+
+    /**
+     * @param directory Directory of the segment files, created with owner-only access if missing
+     * @param segmentBytes Size of each segment file
+     * @param groupCommitMillis Interval between batches
+     * @param compactAfterSegments Segments written since the last snapshot that trigger a new one
+     */
+    public SessionJournal(Path directory, int segmentBytes, long groupCommitMillis, int compactAfterSegments) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(MIN_SEGMENT_BYTES, segmentBytes);
+        this.groupCommitMillis = groupCommitMillis;
+        this.compactAfterSegments = Math.max(1, compactAfterSegments);
+    }
+
+    /**
+     * Replay the journal into the store. Call before start().
+     *
+     * @param maxInactiveInterval Idle timeout in seconds; sessions idle for longer are not restored
+     * @return Number of sessions restored
+     */
+    public int recover(SessionStore store, int maxInactiveInterval) throws IOException {
+        long start = System.nanoTime();
+        prepareDirectory();
+        List<Path> files = listSegments();
+        for (Path file : files) {
+            checkOwner(file);
+        }
+
+        // Read, verify and decode every segment in parallel; the stream keeps segment order
+        List<List<SessionDelta>> segments = files.parallelStream()
+                .map(SessionJournal::scan)
+                .collect(Collectors.toList());
+
+        // Start at the newest snapshot that has its end marker; every snapshot starts a segment
+        int first = 0;
+        boolean endSeen = false;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            List<SessionDelta> segmentDeltas = segments.get(i);
+            endSeen |= segmentDeltas.stream().anyMatch(delta -> delta.type == SessionDelta.SNAPSHOT_END);
+            if (endSeen && !segmentDeltas.isEmpty() && segmentDeltas.get(0).type == SessionDelta.SNAPSHOT_BEGIN) {
+                first = i;
+                break;
+            }
+        }
+
+        Map<String, SessionDelta> sessions = new LinkedHashMap<>();
+        long records = 0;
+        for (List<SessionDelta> segmentDeltas : segments.subList(first, segments.size())) {
+            for (SessionDelta delta : segmentDeltas) {
+                apply(sessions, delta);
+                records++;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        int restored = 0;
+        for (SessionDelta session : sessions.values()) {
+            if (maxInactiveInterval <= 0 || session.time + maxInactiveInterval * 1000L > now) {
+                store.restore(session.asRecord());
+                restored++;
+            }
+        }
+
+        long lastIndex = files.isEmpty() ? 0 : segmentIndexOf(files.get(files.size() - 1));
+        segmentIndex = lastIndex;
+        snapshotSegmentIndex = files.isEmpty() ? 1 : segmentIndexOf(files.get(first));
+        LOGGER.info("Session journal replayed: " + restored + " sessions from " + files.size() + " segments ("
+                + records + " records) in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return restored;
+    }
+
+    /**
+     * Open a new segment and start the writer thread
+     *
+     * @param store Source of the live sessions for compaction
+     */
+    public void start(SessionStore store) throws IOException {
+        this.store = store;
+        prepareDirectory();
+        openSegment(segmentIndex + 1);
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flush, groupCommitMillis, groupCommitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void created(String sessionId, long creationTime) {
+        enqueue(new SessionDelta(SessionDelta.CREATE, sessionId, creationTime));
+    }
+
+    @Override
+    public void touched(String sessionId, long lastAccessedTime, long visitCount) {
+        pendingTouches.put(sessionId, new long[] {lastAccessedTime, visitCount});
+        logicalBytes.add(sessionId.length() + 16L);
+    }
+
+    @Override
+    public void userNameSet(String sessionId, String userName) {
+        enqueue(SessionDelta.userName(sessionId, userName));
+    }
+
+    @Override
+    public void attributeSet(String sessionId, String key, Object value) {
+        enqueue(SessionDelta.setAttribute(sessionId, key, value));
+    }
+
+    @Override
+    public void attributeRemoved(String sessionId, String key) {
+        enqueue(SessionDelta.removeAttribute(sessionId, key));
+    }
+
+    @Override
+    public void removed(String sessionId, boolean invalidated) {
+        enqueue(new SessionDelta(SessionDelta.INVALIDATE, sessionId, 0));
+    }
+
+    /**
+     * Bytes of session state handed to the journal (IDs, keys, values, timestamps)
+     */
+    public long getLogicalBytes() {
+        return logicalBytes.sum();
+    }
+
+    /**
+     * Bytes appended to segment files, including framing and snapshots
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    /**
+     * Stop the writer after a final batch
+     */
+    @Override
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Cannot close session journal segment", e);
+        }
+    }
+
+    private void enqueue(SessionDelta delta) {
+        pending.add(delta);
+        logicalBytes.add(delta.logicalSize());
+        if (pendingCount.incrementAndGet() > MAX_PENDING && writer != null) {
+            flush();
+        }
+    }
+
+    /**
+     * Writer tick: append the pending records, force them to disk, compact if due
+     */
+    private synchronized void flush() {
+        try {
+            SessionDelta delta;
+            while ((delta = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                append(delta);
+            }
+            for (String sessionId : pendingTouches.keySet()) {
+                long[] touch = pendingTouches.remove(sessionId);
+                if (touch != null) {
+                    append(SessionDelta.touch(sessionId, touch[0], touch[1]));
+                }
+            }
+            force();
+            if (segmentIndex - snapshotSegmentIndex >= compactAfterSegments) {
+                compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            LOGGER.log(Level.WARNING, "Session journal flush failed", e);
+        }
+    }
+
+    /**
+     * Write a snapshot of every live session into a new segment, then drop the older segments
+     */
+    private void compact() throws IOException {
+        long start = System.nanoTime();
+        openSegment(segmentIndex + 1);
+        long snapshotIndex = segmentIndex;
+        append(new SessionDelta(SessionDelta.SNAPSHOT_BEGIN, "", System.currentTimeMillis()));
+        int[] sessions = {0};
+        store.forEach(session -> {
+            append(SessionDelta.snapshotOf(session));
+            sessions[0]++;
+        });
+        append(new SessionDelta(SessionDelta.SNAPSHOT_END, "", System.currentTimeMillis()));
+        force();
+
+        snapshotSegmentIndex = snapshotIndex;
+        for (Path file : listSegments()) {
+            if (segmentIndexOf(file) < snapshotIndex) {
+                Files.deleteIfExists(file);
+            }
+        }
+        LOGGER.fine("Session journal compacted: " + sessions[0] + " sessions in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    private void append(SessionDelta delta) {
+        body.clear();
+        if (delta.maxEncodedSize() > body.capacity()) {
+            body = ByteBuffer.allocate(Integer.highestOneBit(delta.maxEncodedSize()) << 1);
+        }
+        delta.writeTo(body);
+        int length = body.position();
+        if (FRAME_HEADER_BYTES + length > segmentBytes) {
+            LOGGER.warning("Session journal record of " + length + " bytes does not fit a segment, dropped: "
+                    + delta.sessionId);
+            return;
+        }
+        if (segment.remaining() < FRAME_HEADER_BYTES + length) {
+            try {
+                openSegment(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        crc.reset();
+        crc.update(body.array(), 0, length);
+        segment.putInt(length);
+        segment.putInt((int) crc.getValue());
+        segment.put(body.array(), 0, length);
+        writtenBytes.addAndGet(FRAME_HEADER_BYTES + length);
+    }
+
+    private void force() {
+        int position = segment.position();
+        if (position > forcedPosition) {
+            segment.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        if (segment != null) {
+            force();
+            channel.close();
+        }
+        Path file = directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentIndex = index;
+        forcedPosition = 0;
+    }
+
+    /**
+     * Create the directory with owner-only access, or check that an existing one is private to this user
+     */
+    private void prepareDirectory() throws IOException {
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory);
+            return;
+        }
+        if (Files.notExists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Path parent = directory.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+            return;
+        }
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Session journal directory " + directory + " is not a directory");
+        }
+        checkOwner(directory);
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(directory, LinkOption.NOFOLLOW_LINKS);
+        if (permissions.contains(PosixFilePermission.GROUP_WRITE) || permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+            throw new IOException("Session journal directory " + directory + " is writable by group or others ("
+                    + PosixFilePermissions.toString(permissions) + "); restrict it to rwx------");
+        }
+    }
+
+    private static void checkOwner(Path path) throws IOException {
+        if (!path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        UserPrincipal owner = Files.getOwner(path, LinkOption.NOFOLLOW_LINKS);
+        UserPrincipal self = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!owner.equals(self)) {
+            throw new IOException("Session journal file " + path + " belongs to " + owner.getName()
+                    + ", not to " + self.getName());
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long segmentIndexOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Read and verify the frames of one segment file
+     */
+    private static List<SessionDelta> scan(Path file) {
+        List<SessionDelta> deltas = new ArrayList<>();
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0, fileChannel.size());
+            CRC32C checksum = new CRC32C();
+            while (buffer.remaining() >= FRAME_HEADER_BYTES) {
+                int length = buffer.getInt();
+                int expected = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer frame = buffer.slice(buffer.position(), length);
+                checksum.reset();
+                checksum.update(frame.duplicate());
+                if ((int) checksum.getValue() != expected) {
+                    LOGGER.warning("Session journal " + file.getFileName() + ": torn record at offset "
+                            + (buffer.position() - FRAME_HEADER_BYTES) + ", ignoring the rest of the segment");
+                    break;
+                }
+                deltas.add(SessionDelta.readFrom(frame));
+                buffer.position(buffer.position() + length);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read session journal " + file, e);
+        }
+        return deltas;
+    }
+
+    /**
+     * Apply one replayed delta to the recovered state, which is kept as SNAPSHOT deltas
+     */
+    private static void apply(Map<String, SessionDelta> sessions, SessionDelta delta) {
+        SessionDelta session = sessions.get(delta.sessionId);
+        switch (delta.type) {
+            case SessionDelta.CREATE:
+                sessions.put(delta.sessionId, SessionDelta.snapshotOfNew(delta.sessionId, delta.time));
+                break;
+            case SessionDelta.SNAPSHOT:
+                sessions.put(delta.sessionId, delta);
+                break;
+            case SessionDelta.INVALIDATE:
+                sessions.remove(delta.sessionId);
+                break;
+            default:
+                if (session == null) {
+                    // Mutation of a session that was removed, or created before the replayed segments
+                    return;
+                }
+                if (delta.type == SessionDelta.TOUCH) {
+                    session.time = Math.max(session.time, delta.time);
+                    session.visits = Math.max(session.visits, delta.visits);
+                } else if (delta.type == SessionDelta.SET_USER_NAME) {
+                    session.key = delta.key;
+                } else if (delta.type == SessionDelta.SET_ATTRIBUTE) {
+                    session.attributes.put(delta.key, delta.value);
+                } else if (delta.type == SessionDelta.REMOVE_ATTRIBUTE) {
+                    session.attributes.remove(delta.key);
+                }
+        }
+    }
+}
@@ -0,0 +1,706 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.session.AttributeCodec;
+import com.oracle.demo.session.SessionRecord;
+import com.oracle.demo.session.SessionStore;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.UnresolvedAddressException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Asynchronous delta replication of sessions to a backup peer (app.session.replication.enabled)
+ *
+ * Sender (thread session-replicator):
+ *   Changes are queued by request threads and shipped every batch interval as one
+ *   frame over a TCP SocketChannel to the configured peer. Touches are coalesced per
+ *   session within a batch. Each delta carries a per-session version, assigned when
+ *   it is written, so versions follow stream order. After every (re)connect, and
+ *   whenever the queue overflowed, the sender first ships a snapshot of every session
+ *   it has changed, so deltas lost with a broken connection are made up for. Deltas
+ *   still queued are sent after the snapshot; they re-apply changes the snapshot
+ *   already contains, in order, so the peer ends up with the current state.
+ *
+ * Receiver (thread session-replication-receiver):
+ *   A non-blocking ServerSocketChannel and Selector, bound to the configured
+ *   address, accept any number of senders. Connections from hosts other than the
+ *   configured senders are closed right away. Deltas are applied to the local store
+ *   directly, not through SessionService, so they are never replicated again. A
+ *   delta is skipped if the session already has the same or a newer version from
+ *   the same sender epoch (a random ID chosen at sender start), which makes the
+ *   resync snapshots idempotent.
+ *
+ * Authentication:
+ *   Both sides share a secret. The receiver sends a random challenge to every
+ *   connection it accepts, and each frame ends with an HMAC-SHA256, keyed with the
+ *   secret, of the challenge, the frame's sequence number on the connection and
+ *   the frame. A frame that fails the check drops the connection before any of
+ *   its deltas is read, so only holders of the secret can create, change or
+ *   invalidate sessions, and frames cannot be replayed on another connection.
+ *
+ * Frame: [int length][long epoch][long sentAtMillis][int count] then per delta
+ * [long version][SessionDelta], then [32-byte HMAC]. An idle sender sends an empty frame every second,
+ * which is how it notices that the peer is gone. The lag metric compares sentAtMillis with the
+ * receiver's clock, so it is exact in-process and only as good as clock sync
+ * across hosts.
+ *
+ * Sessions that expire or are evicted are not replicated; each node applies its own
+ * timeout and capacity.
+ */
+public final class SessionReplicator implements SessionChangeListener, AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionReplicator.class.getName());
+
+    private static final int FRAME_HEADER_BYTES = 4 + 8 + 8 + 4;
+    private static final int MAC_BYTES = 32;
+    private static final int CHALLENGE_BYTES = 16;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int CHALLENGE_TIMEOUT_MILLIS = 5000;
+    private static final int MAX_FRAME_BYTES = 16 << 20;
+    private static final int TARGET_FRAME_BYTES = 256 << 10;
+    private static final int MAX_PENDING = 1 << 16;
+    private static final long RECONNECT_MILLIS = 1000;
+    private static final long HEARTBEAT_MILLIS = 1000;
+
+    private final SessionStore store;
+    private final InetSocketAddress listenAddress;
+    private final List<String> senders;
+    private final InetSocketAddress peer;
+    private final SecretKeySpec secret;
+    private final long batchMillis;
+    private final SessionChangeListener appliedListener;
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+
+    // Sender state
+    private final Queue<SessionDelta> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final Map<String, long[]> pendingTouches = new ConcurrentHashMap<>();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private volatile boolean resyncNeeded = true;
+    private volatile boolean overflowed;
+    private SocketChannel channel;
+    private byte[] channelChallenge;
+    private long channelSequence;
+    private Mac senderMac;
+    private long nextConnectAttempt;
+    private ByteBuffer frame = ByteBuffer.allocateDirect(TARGET_FRAME_BYTES * 2);
+    private int frameCount;
+    private long lastSentMillis;
+    private ScheduledExecutorService sender;
+
+    // Receiver state
+    private final Map<String, long[]> appliedVersions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private ServerSocketChannel server;
+    private Selector selector;
+    private Mac receiverMac;
+    private Thread receiver;
+    private volatile boolean running;
+
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final LongAdder skippedDeltas = new LongAdder();
+    private final LongAdder rejectedConnections = new LongAdder();
+    private volatile long lagMillis;
+
+    /**
+     * @param store Local store that received deltas are applied to, and the source of resync snapshots
+     * @param listenAddress Address to accept deltas on (port 0 for any free port), or null to not receive
+     * @param senders Hosts allowed to send deltas; connections from any other address are closed
+     * @param peer Backup peer to send deltas to, or null to not send
+     * @param secret Secret shared by all replicas, authenticates every frame
+     * @param batchMillis Interval between frames
+     */
+    public SessionReplicator(SessionStore store, InetSocketAddress listenAddress, List<String> senders,
+                             InetSocketAddress peer, String secret, long batchMillis) {
+        this(store, listenAddress, senders, peer, secret, batchMillis, null);
+    }
+
+    /**
+     * @param appliedListener Notified of every received change applied to the store, or null
+     * @throws IllegalArgumentException if the secret is empty, or there is an address to listen on but no sender
+     */
+    public SessionReplicator(SessionStore store, InetSocketAddress listenAddress, List<String> senders,
+                             InetSocketAddress peer, String secret, long batchMillis,
+                             SessionChangeListener appliedListener) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("Session replication needs a shared secret");
+        }
+        if (listenAddress != null && senders.isEmpty()) {
+            throw new IllegalArgumentException("Session replication listens on " + listenAddress + " but accepts no sender");
+        }
+        this.store = store;
+        this.listenAddress = listenAddress;
+        this.senders = List.copyOf(senders);
+        this.peer = peer;
+        this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        this.batchMillis = batchMillis;
+        this.appliedListener = appliedListener != null ? appliedListener : new SessionChangeListener() { };
+    }
+
+    public void start() throws IOException {
+        running = true;
+        if (listenAddress != null) {
+            receiverMac = newMac();
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            server.bind(listenAddress);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            receiver = new Thread(this::receive, "session-replication-receiver");
+            receiver.setDaemon(true);
+            receiver.start();
+            LOGGER.info("Session replication listening on " + server.getLocalAddress() + " for " + senders);
+        }
+        if (peer != null) {
+            senderMac = newMac();
+            sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-replicator");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sender.scheduleWithFixedDelay(this::ship, batchMillis, batchMillis, TimeUnit.MILLISECONDS);
+            LOGGER.info("Session replication to " + peer + " every " + batchMillis + " ms");
+        }
+    }
+
+    @Override
+    public void created(String sessionId, long creationTime) {
+        enqueue(new SessionDelta(SessionDelta.CREATE, sessionId, creationTime));
+    }
+
+    @Override
+    public void touched(String sessionId, long lastAccessedTime, long visitCount) {
+        if (sender != null) {
+            pendingTouches.put(sessionId, new long[] {lastAccessedTime, visitCount});
+        }
+    }
+
+    @Override
+    public void userNameSet(String sessionId, String userName) {
+        enqueue(SessionDelta.userName(sessionId, userName));
+    }
+
+    @Override
+    public void attributeSet(String sessionId, String key, Object value) {
+        if (sender != null) {
+            enqueue(SessionDelta.setAttribute(sessionId, key, value));
+        }
+    }
+
+    @Override
+    public void attributeRemoved(String sessionId, String key) {
+        enqueue(SessionDelta.removeAttribute(sessionId, key));
+    }
+
+    @Override
+    public void removed(String sessionId, boolean invalidated) {
+        if (invalidated) {
+            enqueue(new SessionDelta(SessionDelta.INVALIDATE, sessionId, 0));
+        } else {
+            // Expired or evicted here; the peer decides on its own
+            versions.remove(sessionId);
+            appliedVersions.remove(sessionId);
+        }
+    }
+
+    /**
+     * Bytes written to the peer, including framing
+     */
+    public long getSentBytes() {
+        return sentBytes.sum();
+    }
+
+    /**
+     * Bytes read from senders, including framing
+     */
+    public long getReceivedBytes() {
+        return receivedBytes.sum();
+    }
+
+    /**
+     * Delay between sending and applying the most recent frame
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    /**
+     * Deltas not applied because the session already had that version
+     */
+    public long getSkippedDeltas() {
+        return skippedDeltas.sum();
+    }
+
+    /**
+     * Connections closed because they came from an unknown host or failed authentication
+     */
+    public long getRejectedConnections() {
+        return rejectedConnections.sum();
+    }
+
+    /**
+     * Port the receiver is bound to, or -1
+     */
+    public int getListenPort() {
+        return server != null ? server.socket().getLocalPort() : -1;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (sender != null) {
+            sender.shutdown();
+            try {
+                sender.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeChannel();
+        }
+        if (receiver != null) {
+            selector.wakeup();
+            try {
+                receiver.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void enqueue(SessionDelta delta) {
+        if (sender == null) {
+            return;
+        }
+        if (pendingCount.incrementAndGet() > MAX_PENDING) {
+            // The peer cannot keep up; drop the backlog and resync once it does
+            pendingCount.decrementAndGet();
+            versions.putIfAbsent(delta.sessionId, 0L);
+            overflowed = true;
+            return;
+        }
+        pending.add(delta);
+    }
+
+    /**
+     * Sender tick: connect if needed, resync if needed, then ship the queued deltas
+     */
+    private void ship() {
+        try {
+            if (channel == null && !connect()) {
+                return;
+            }
+            if (overflowed) {
+                // Queued deltas would re-apply older values over the snapshot; the snapshot replaces them
+                overflowed = false;
+                SessionDelta dropped;
+                while ((dropped = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    versions.putIfAbsent(dropped.sessionId, 0L);
+                }
+                resyncNeeded = true;
+            }
+            if (resyncNeeded) {
+                resyncNeeded = false;
+                resync();
+            }
+            SessionDelta delta;
+            while ((delta = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                add(delta, nextVersion(delta));
+            }
+            for (String sessionId : pendingTouches.keySet()) {
+                long[] touch = pendingTouches.remove(sessionId);
+                if (touch != null) {
+                    SessionDelta touchDelta = SessionDelta.touch(sessionId, touch[0], touch[1]);
+                    add(touchDelta, nextVersion(touchDelta));
+                }
+            }
+            if (frameCount == 0 && System.currentTimeMillis() - lastSentMillis >= HEARTBEAT_MILLIS) {
+                // An empty frame, so that a peer that went away is noticed while idle
+                frame.clear();
+                frame.position(FRAME_HEADER_BYTES);
+                writeFrame();
+            } else {
+                flushFrame();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Session replication to " + peer + " failed, will reconnect and resync", e);
+            closeChannel();
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            LOGGER.log(Level.WARNING, "Session replication tick failed", e);
+            resyncNeeded = true;
+        }
+    }
+
+    private boolean connect() {
+        long now = System.currentTimeMillis();
+        if (now < nextConnectAttempt) {
+            return false;
+        }
+        try {
+            // Resolve on every attempt; the peer's address may change across restarts
+            InetSocketAddress address = new InetSocketAddress(peer.getHostString(), peer.getPort());
+            channel = SocketChannel.open();
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.connect(address);
+            // The receiver's challenge is the first thing on the connection
+            channel.socket().setSoTimeout(CHALLENGE_TIMEOUT_MILLIS);
+            channelChallenge = new byte[CHALLENGE_BYTES];
+            new DataInputStream(channel.socket().getInputStream()).readFully(channelChallenge);
+            channelSequence = 0;
+            resyncNeeded = true;
+            LOGGER.info("Session replication connected to " + peer);
+            return true;
+        } catch (SocketTimeoutException e) {
+            LOGGER.warning("Session replication peer " + peer + " sent no challenge; is it a replication port?");
+            closeChannel();
+            nextConnectAttempt = now + RECONNECT_MILLIS;
+            return false;
+        } catch (IOException | UnresolvedAddressException e) {
+            LOGGER.fine("Session replication peer " + peer + " not reachable: " + e.getMessage());
+            closeChannel();
+            nextConnectAttempt = now + RECONNECT_MILLIS;
+            return false;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Cannot close replication channel", e);
+            }
+            channel = null;
+        }
+        frame.clear();
+        frameCount = 0;
+        resyncNeeded = true;
+    }
+
+    /**
+     * Ship the current state of every session changed on this node, at its current version
+     */
+    private void resync() throws IOException {
+        int[] sessions = {0};
+        IOException[] failure = {null};
+        store.forEach(session -> {
+            Long version = versions.get(session.getId());
+            if (version == null || failure[0] != null) {
+                return;
+            }
+            try {
+                add(SessionDelta.snapshotOf(session), version);
+                sessions[0]++;
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        LOGGER.fine("Session replication resync: " + sessions[0] + " sessions");
+    }
+
+    private long nextVersion(SessionDelta delta) {
+        if (delta.type == SessionDelta.INVALIDATE) {
+            Long version = versions.remove(delta.sessionId);
+            return version != null ? version + 1 : 1;
+        }
+        return versions.merge(delta.sessionId, 1L, Long::sum);
+    }
+
+    /**
+     * Append a delta to the current frame, sending the frame first if it is full
+     */
+    private void add(SessionDelta delta, long version) throws IOException {
+        int size = 8 + delta.maxEncodedSize();
+        if (size > MAX_FRAME_BYTES - FRAME_HEADER_BYTES - MAC_BYTES) {
+            LOGGER.warning("Session " + delta.sessionId + " too large to replicate (" + size + " bytes), skipped");
+            return;
+        }
+        if (frameCount > 0 && frame.position() + size > TARGET_FRAME_BYTES) {
+            flushFrame();
+        }
+        if (frame.capacity() < FRAME_HEADER_BYTES + size + MAC_BYTES) {
+            frame = ByteBuffer.allocateDirect(Integer.highestOneBit(FRAME_HEADER_BYTES + size + MAC_BYTES) << 1);
+        }
+        if (frameCount == 0) {
+            frame.clear();
+            frame.position(FRAME_HEADER_BYTES);
+        }
+        frame.putLong(version);
+        delta.writeTo(frame);
+        frameCount++;
+    }
+
+    private void flushFrame() throws IOException {
+        if (frameCount > 0) {
+            writeFrame();
+        }
+    }
+
+    private void writeFrame() throws IOException {
+        int length = frame.position() + MAC_BYTES;
+        frame.putInt(0, length - 4);
+        frame.putLong(4, epoch);
+        frame.putLong(12, System.currentTimeMillis());
+        frame.putInt(20, frameCount);
+        frame.put(sign(senderMac, channelChallenge, channelSequence++, frame.duplicate().flip().position(4)));
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        sentBytes.add(length);
+        lastSentMillis = System.currentTimeMillis();
+        frame.clear();
+        frameCount = 0;
+    }
+
+    /**
+     * Receiver loop: accept senders and apply complete frames as they arrive
+     */
+    private void receive() {
+        while (running) {
+            try {
+                selector.select(1000);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isAcceptable()) {
+                        SocketChannel accepted = server.accept();
+                        if (accepted != null) {
+                            accept(accepted);
+                        }
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Session replication receiver failed", e);
+            }
+        }
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Cannot close replication receiver", e);
+        }
+    }
+
+    /**
+     * Send a new connection its challenge, or close it if it does not come from a configured sender
+     */
+    private void accept(SocketChannel accepted) throws IOException {
+        InetAddress remote = ((InetSocketAddress) accepted.getRemoteAddress()).getAddress();
+        if (!isSender(remote)) {
+            rejectedConnections.increment();
+            LOGGER.warning("Refusing session replication connection from " + remote + ", not one of " + senders);
+            accepted.close();
+            return;
+        }
+        Connection connection = new Connection();
+        random.nextBytes(connection.challenge);
+        accepted.configureBlocking(false);
+        // 16 bytes on a fresh connection always fit into the socket buffer
+        accepted.write(ByteBuffer.wrap(connection.challenge));
+        accepted.register(selector, SelectionKey.OP_READ, connection);
+    }
+
+    /**
+     * Whether an address belongs to one of the configured senders, resolved now since addresses change across restarts
+     */
+    private boolean isSender(InetAddress remote) {
+        for (String sender : senders) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(sender)) {
+                    if (address.equals(remote)) {
+                        return true;
+                    }
+                }
+            } catch (UnknownHostException e) {
+                LOGGER.fine("Session replication sender " + sender + " does not resolve: " + e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private void read(SelectionKey key) {
+        SocketChannel connection = (SocketChannel) key.channel();
+        Connection state = (Connection) key.attachment();
+        ByteBuffer buffer = state.buffer;
+        try {
+            int read = connection.read(buffer);
+            if (read < 0) {
+                connection.close();
+                return;
+            }
+            receivedBytes.add(read);
+            buffer.flip();
+            while (buffer.remaining() >= 4) {
+                int length = buffer.getInt(buffer.position());
+                if (length < FRAME_HEADER_BYTES - 4 + MAC_BYTES || length > MAX_FRAME_BYTES) {
+                    throw new IOException("Invalid replication frame length " + length);
+                }
+                if (buffer.remaining() < 4 + length) {
+                    break;
+                }
+                ByteBuffer signed = buffer.slice(buffer.position() + 4, length - MAC_BYTES);
+                byte[] mac = new byte[MAC_BYTES];
+                buffer.get(buffer.position() + 4 + length - MAC_BYTES, mac);
+                buffer.position(buffer.position() + 4 + length);
+                if (!MessageDigest.isEqual(mac, sign(receiverMac, state.challenge, state.sequence++, signed.duplicate()))) {
+                    rejectedConnections.increment();
+                    throw new IOException("Replication frame failed authentication");
+                }
+                applyFrame(signed);
+            }
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                // A frame larger than the buffer: grow it
+                ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_FRAME_BYTES + 4, buffer.capacity() * 2));
+                buffer.flip();
+                grown.put(buffer);
+                state.buffer = grown;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Dropping replication connection from " + connection.socket().getRemoteSocketAddress(), e);
+            try {
+                connection.close();
+            } catch (IOException closeFailure) {
+                LOGGER.log(Level.FINE, "Cannot close replication connection", closeFailure);
+            }
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot authenticate session replication with " + MAC_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * HMAC of a connection's challenge, the frame's sequence number on that connection and the frame content
+     */
+    private static byte[] sign(Mac mac, byte[] challenge, long sequence, ByteBuffer content) {
+        mac.update(challenge);
+        mac.update(ByteBuffer.allocate(8).putLong(0, sequence));
+        mac.update(content);
+        return mac.doFinal();
+    }
+
+    private void applyFrame(ByteBuffer frameBuffer) {
+        long senderEpoch = frameBuffer.getLong();
+        long sentAt = frameBuffer.getLong();
+        int count = frameBuffer.getInt();
+        for (int i = 0; i < count; i++) {
+            long version = frameBuffer.getLong();
+            apply(SessionDelta.readFrom(frameBuffer), senderEpoch, version);
+        }
+        lagMillis = Math.max(0, System.currentTimeMillis() - sentAt);
+    }
+
+    /**
+     * Apply a delta unless the session already has this or a newer version from the same sender epoch
+     */
+    private void apply(SessionDelta delta, long senderEpoch, long version) {
+        String sessionId = delta.sessionId;
+        long[] applied = appliedVersions.get(sessionId);
+        if (applied != null && applied[0] == senderEpoch && applied[1] >= version) {
+            skippedDeltas.increment();
+            return;
+        }
+        SessionChangeListener listener = appliedListener;
+        switch (delta.type) {
+            case SessionDelta.CREATE:
+                store.restore(SessionDelta.snapshotOfNew(sessionId, delta.time).asRecord());
+                listener.created(sessionId, delta.time);
+                break;
+            case SessionDelta.SNAPSHOT:
+                SessionRecord record = delta.asRecord();
+                store.restore(record);
+                listener.userNameSet(sessionId, record.getUserName());
+                break;
+            case SessionDelta.TOUCH:
+                if (store.touch(sessionId, delta.time, delta.visits)) {
+                    listener.touched(sessionId, delta.time, delta.visits);
+                }
+                break;
+            case SessionDelta.SET_USER_NAME:
+                if (store.setUserName(sessionId, delta.key)) {
+                    listener.userNameSet(sessionId, delta.key);
+                }
+                break;
+            case SessionDelta.SET_ATTRIBUTE:
+                Object value = AttributeCodec.decode(delta.value);
+                if (store.setAttribute(sessionId, delta.key, value)) {
+                    listener.attributeSet(sessionId, delta.key, value);
+                }
+                break;
+            case SessionDelta.REMOVE_ATTRIBUTE:
+                if (store.removeAttribute(sessionId, delta.key)) {
+                    listener.attributeRemoved(sessionId, delta.key);
+                }
+                break;
+            case SessionDelta.INVALIDATE:
+                if (store.invalidate(sessionId)) {
+                    listener.removed(sessionId, true);
+                }
+                appliedVersions.remove(sessionId);
+                return;
+            default:
+                LOGGER.warning("Unknown replication delta type " + delta.type);
+                return;
+        }
+        appliedVersions.put(sessionId, new long[] {senderEpoch, version});
+    }
+
+    /**
+     * Receiver state of one accepted connection
+     */
+    private static final class Connection {
+        private final byte[] challenge = new byte[CHALLENGE_BYTES];
+        private ByteBuffer buffer = ByteBuffer.allocate(64 << 10);
+        private long sequence;
+    }
+}
@@ -0,0 +1,407 @@
+package com.oracle.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.Metric;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * CDI Service that routes session requests to the replica owning the session
+ * (app.session.routing.enabled)
+ *
+ * Ownership is decided by a ConsistentHashRing over the members, which come
+ * either from a static list (app.session.routing.members) or from resolving a
+ * DNS name, such as a Kubernetes headless service, every refresh interval
+ * (app.session.routing.dns-name). When a replica joins or leaves, only the
+ * sessions it gains or loses change owner.
+ *
+ * Requests for another member's session are forwarded over one shared
+ * java.net.http.HttpClient, which keeps persistent connections to each member.
+ * Forwarded requests carry FORWARDED_HEADER and are always served where they
+ * arrive, so members with briefly different views of the ring cannot loop.
+ * The header is signed with app.session.routing.secret, shared by all members:
+ * it names the forwarding member and the time, with an HMAC-SHA256 over both and
+ * the request's method and URI. It is only trusted if the signature matches, the
+ * member is on the ring and the time is within MAX_FORWARD_AGE_MILLIS, so a
+ * client cannot set it to keep a request off its owner.
+ * If the owner cannot be reached, the request is served locally, which finds
+ * the session if it was replicated here (app.session.replication).
+ *
+ * New session IDs are drawn until they hash to this replica, so a session is
+ * created where it is owned.
+ */
+@ApplicationScoped
+public class SessionRouter {
+
+    /**
+     * Marks a request forwarded by another replica
+     */
+    public static final String FORWARDED_HEADER = "X-Session-Forwarded-By";
+
+    private static final Logger LOGGER = Logger.getLogger(SessionRouter.class.getName());
+
+    private static final int MAX_ID_ATTEMPTS = 64;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    // Largest clock difference between members, and time a forward can take, before its header is refused
+    private static final long MAX_FORWARD_AGE_MILLIS = 30_000;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.enabled", defaultValue = "false")
+    private boolean enabled;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.members", defaultValue = "none")
+    private String staticMembers;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.dns-name", defaultValue = "none")
+    private String dnsName;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.port", defaultValue = "8081")
+    private int port;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.self", defaultValue = "none")
+    private String configuredSelf;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.virtual-nodes", defaultValue = "160")
+    private int virtualNodes;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.refresh-seconds", defaultValue = "10")
+    private int refreshSeconds;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.forward-timeout-millis", defaultValue = "2000")
+    private long forwardTimeoutMillis;
+
+    @Inject
+    @ConfigProperty(name = "app.session.routing.secret", defaultValue = "")
+    private String secret;
+
+    @Inject
+    @Metric(name = "sessions.routing.forwarded", absolute = true,
+            description = "Session requests forwarded to the owning replica")
+    private Counter forwardedRequests;
+
+    @Inject
+    @Metric(name = "sessions.routing.forward.failures", absolute = true,
+            description = "Forwards that failed and were served locally instead")
+    private Counter forwardFailures;
+
+    @Inject
+    @Metric(name = "sessions.routing.forward.rejected", absolute = true,
+            description = "Requests whose forwarded header did not verify, routed as if they had none")
+    private Counter rejectedForwards;
+
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of(), 1);
+    private volatile String self;
+    private HttpClient client;
+    private ScheduledExecutorService refresher;
+    private SecretKeySpec key;
+
+    public SessionRouter() {
+    }
+
+    /**
+     * Router with the given membership and forwarding settings, for use outside the container
+     */
+    SessionRouter(boolean enabled, String staticMembers, String dnsName, int port, String configuredSelf,
+            int virtualNodes, int refreshSeconds, long forwardTimeoutMillis, String secret,
+            Counter forwardedRequests, Counter forwardFailures, Counter rejectedForwards) {
+        this.enabled = enabled;
+        this.staticMembers = staticMembers;
+        this.dnsName = dnsName;
+        this.port = port;
+        this.configuredSelf = configuredSelf;
+        this.virtualNodes = virtualNodes;
+        this.refreshSeconds = refreshSeconds;
+        this.forwardTimeoutMillis = forwardTimeoutMillis;
+        this.secret = secret;
+        this.forwardedRequests = forwardedRequests;
+        this.forwardFailures = forwardFailures;
+        this.rejectedForwards = rejectedForwards;
+    }
+
+    /**
+     * @throws IllegalArgumentException if routing is enabled without a secret
+     */
+    @PostConstruct
+    void initialize() {
+        if (!enabled) {
+            return;
+        }
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("Session routing needs a shared secret (app.session.routing.secret)");
+        }
+        key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(forwardTimeoutMillis))
+                .build();
+        refreshMembers();
+        if (!"none".equals(dnsName)) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-ring-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(this::refreshMembers, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    void cleanup() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Number of members on the ring
+     */
+    @Gauge(name = "sessions.routing.members", unit = MetricUnits.NONE, absolute = true,
+           description = "Replicas on the session ownership ring")
+    public int getMemberCount() {
+        return ring.getMembers().size();
+    }
+
+    /**
+     * Whether this replica owns the session. True when routing is disabled or
+     * this replica is not on the ring.
+     */
+    public boolean isLocal(String sessionId) {
+        return ownerOf(sessionId) == null;
+    }
+
+    /**
+     * Member (host:port) owning the session, or null if it is served locally
+     */
+    public String ownerOf(String sessionId) {
+        if (!enabled || self == null || sessionId == null) {
+            return null;
+        }
+        String owner = ring.ownerOf(sessionId);
+        return self.equals(owner) ? null : owner;
+    }
+
+    /**
+     * Pick a new session ID owned by this replica
+     */
+    public String newSessionId(Supplier<String> generator) {
+        String sessionId = generator.get();
+        for (int attempt = 1; attempt < MAX_ID_ATTEMPTS && !isLocal(sessionId); attempt++) {
+            sessionId = generator.get();
+        }
+        return sessionId;
+    }
+
+    /**
+     * Send a request to the owning member and relay its response
+     *
+     * @param owner Member from ownerOf()
+     * @param method HTTP method
+     * @param requestUri Full URI of the incoming request; scheme, host and port are replaced
+     * @return The owner's response, or null if the owner could not be reached
+     */
+    public Response forward(String owner, String method, URI requestUri) {
+        try {
+            String query = requestUri.getRawQuery();
+            URI target = new URI("http://" + owner + requestUri.getRawPath() + (query != null ? "?" + query : ""));
+            HttpRequest request = HttpRequest.newBuilder(target)
+                    .timeout(Duration.ofMillis(forwardTimeoutMillis))
+                    .header(FORWARDED_HEADER, forwardedHeader(self, System.currentTimeMillis(), method, requestUri))
+                    .method(method, HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            forwardedRequests.inc();
+            Response.ResponseBuilder builder = Response.status(response.statusCode()).entity(response.body());
+            response.headers().firstValue("Content-Type").ifPresent(builder::type);
+            return builder.build();
+        } catch (IOException | URISyntaxException e) {
+            forwardFailures.inc();
+            LOGGER.log(Level.WARNING, "Cannot forward session request to " + owner + ", serving it locally", e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            forwardFailures.inc();
+            return null;
+        }
+    }
+
+    /**
+     * Whether a request's FORWARDED_HEADER was signed by a member of the ring
+     *
+     * @param header Value of FORWARDED_HEADER, or null if the request has none
+     * @param method HTTP method of the request
+     * @param requestUri Full URI of the request
+     * @return True if the request was forwarded by a member and is to be served here
+     */
+    public boolean isForwardedByMember(String header, String method, URI requestUri) {
+        if (header == null || !enabled) {
+            return false;
+        }
+        String[] parts = header.split(";", -1);
+        if (parts.length == 3 && ring.getMembers().contains(parts[0])) {
+            try {
+                long timestamp = Long.parseLong(parts[1]);
+                if (Math.abs(System.currentTimeMillis() - timestamp) <= MAX_FORWARD_AGE_MILLIS
+                        && MessageDigest.isEqual(Base64.getUrlDecoder().decode(parts[2]),
+                                sign(parts[0], timestamp, method, requestUri))) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a number or not Base64, rejected below
+            }
+        }
+        rejectedForwards.inc();
+        LOGGER.fine("Ignoring unverified " + FORWARDED_HEADER + " on " + method + " " + requestUri.getRawPath());
+        return false;
+    }
+
+    /**
+     * FORWARDED_HEADER value: member;timestamp;signature
+     */
+    private String forwardedHeader(String member, long timestamp, String method, URI requestUri) {
+        return member + ";" + timestamp + ";"
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(member, timestamp, method, requestUri));
+    }
+
+    /**
+     * HMAC of the forwarding member, the time and the request line; the owner sees the same path and query
+     */
+    private byte[] sign(String member, long timestamp, String method, URI requestUri) {
+        String query = requestUri.getRawQuery();
+        String signed = member + "\n" + timestamp + "\n" + method + "\n"
+                + requestUri.getRawPath() + (query != null ? "?" + query : "");
+        try {
+            // Mac is not thread-safe and forwards run on request threads
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signed.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign forwarded session requests with " + MAC_ALGORITHM, e);
+        }
+    }
+
+    /**
+     * Rebuild the ring if the member list changed
+     */
+    private void refreshMembers() {
+        try {
+            List<String> members = resolveMembers();
+            if (members.isEmpty()) {
+                LOGGER.warning("No session routing members found, keeping " + ring.getMembers());
+                return;
+            }
+            ConsistentHashRing current = ring;
+            ConsistentHashRing updated = new ConsistentHashRing(members, virtualNodes);
+            if (updated.getMembers().equals(current.getMembers())) {
+                return;
+            }
+            self = "none".equals(configuredSelf) ? findSelf(updated.getMembers()) : configuredSelf;
+            if (self == null || !updated.getMembers().contains(self)) {
+                LOGGER.warning("This replica is not among the session routing members " + updated.getMembers()
+                        + "; serving all sessions locally");
+            }
+            ring = updated;
+            LOGGER.info("Session routing ring: " + updated.getMembers() + ", this replica " + self);
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            LOGGER.log(Level.WARNING, "Cannot refresh session routing members", e);
+        }
+    }
+
+    private List<String> resolveMembers() {
+        List<String> members = new ArrayList<>();
+        if (!"none".equals(dnsName)) {
+            try {
+                for (InetAddress address : InetAddress.getAllByName(dnsName)) {
+                    String host = address.getHostAddress();
+                    members.add((address instanceof Inet6Address ? "[" + host + "]" : host) + ":" + port);
+                }
+            } catch (UnknownHostException e) {
+                LOGGER.fine("Cannot resolve " + dnsName + ": " + e.getMessage());
+            }
+        } else if (!"none".equals(staticMembers)) {
+            for (String member : staticMembers.split(",")) {
+                if (!member.isBlank()) {
+                    members.add(member.trim());
+                }
+            }
+        }
+        return members;
+    }
+
+    /**
+     * The member whose host is an address of this machine and whose port is ours
+     */
+    private String findSelf(List<String> members) {
+        for (String member : members) {
+            if (portOf(member) != port) {
+                continue;
+            }
+            try {
+                for (InetAddress address : InetAddress.getAllByName(hostOf(member))) {
+                    if (address.isLoopbackAddress() || NetworkInterface.getByInetAddress(address) != null) {
+                        return member;
+                    }
+                }
+            } catch (IOException e) {
+                LOGGER.fine("Cannot resolve member " + member + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static String hostOf(String member) {
+        return member.substring(0, member.lastIndexOf(':'));
+    }
+
+    private static int portOf(String member) {
+        return Integer.parseInt(member.substring(member.lastIndexOf(':') + 1));
+    }
+
+    /**
+     * Members currently on the ring
+     */
+    public List<String> getMembers() {
+        return ring.getMembers();
+    }
+}
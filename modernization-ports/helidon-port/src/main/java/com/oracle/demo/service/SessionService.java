@@ -1,16 +1,31 @@
 package com.oracle.demo.service;
 
 import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.model.SessionQueryResult;
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.OffHeapSessionStore;
+import com.oracle.demo.session.SessionRecord;
+import com.oracle.demo.session.SessionStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.annotation.Gauge;
+import org.eclipse.microprofile.metrics.annotation.Metric;
 
-import java.net.InetAddress;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-import java.util.Map;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiPredicate;
 import java.util.logging.Logger;
 
 /**
@@ -28,6 +43,41 @@ import java.util.logging.Logger;
  *   - CDI managed session service
  *   - Consider JWT tokens for stateless architecture
  *   - Or external session store for clustering
+ *
+ * Storage (app.session.store):
+ *   - heap (default): HeapSessionStore, timing-wheel expiry and W-TinyLFU capacity
+ *   - off-heap: OffHeapSessionStore, records in direct memory so that a large
+ *     number of sessions does not add to the heap the GC has to trace
+ *   Both enforce app.session.max-inactive-interval, app.session.max-sessions and
+ *   app.session.max-attribute-bytes, and report expired and evicted sessions back
+ *   to this service for the metrics.
+ *
+ * Persistence (app.session.journal.enabled):
+ *   Every mutation is also appended to a SessionJournal, which is replayed into the
+ *   store on startup, so sessions survive a restart of the process.
+ *
+ * Replication (app.session.replication.enabled):
+ *   Every mutation is also shipped asynchronously to a backup peer by a
+ *   SessionReplicator, and deltas received from other replicas are applied to the
+ *   store, so a session created on one replica survives its failure. Replicas only
+ *   accept deltas from the configured senders, authenticated with the shared
+ *   app.session.replication.secret.
+ *
+ * Routing (app.session.routing.enabled):
+ *   New session IDs are drawn from the SessionRouter so that they hash to this
+ *   replica; SessionResource forwards requests for other replicas' sessions.
+ *
+ * Admin query (querySessions):
+ *   A SessionUserIndex maps user names to session IDs and is updated with every
+ *   change, including replicated ones. Queries walk it in (user name, session ID)
+ *   order without locking, read sessions with SessionStore.peek() so they do not
+ *   count as accesses, and stop after app.session.query.max-results matches or
+ *   app.session.query.max-scan index entries, returning a cursor to resume from.
+ *   Only sessions with a user name are indexed, and only this replica's store is searched.
+ *
+ * Events:
+ *   Every mutation, expiry and eviction is also published to the
+ *   SessionEventBroadcaster, which streams it to SSE subscribers.
  */
 @ApplicationScoped
 public class SessionService {
@@ -38,53 +88,378 @@ public class SessionService {
     @ConfigProperty(name = "app.session.max-inactive-interval", defaultValue = "1800")
     private int maxInactiveInterval;
     
-    // Simple in-memory session store (for demo purposes)
+    @Inject
+    @ConfigProperty(name = "app.session.expiry-tick-millis", defaultValue = "1000")
+    private long expiryTickMillis;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.max-sessions", defaultValue = "100000")
+    private int maxSessions;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.max-attribute-bytes", defaultValue = "67108864")
+    private long maxAttributeBytes;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.store", defaultValue = "heap")
+    private String storeType;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.off-heap.slab-bytes", defaultValue = "1048576")
+    private int offHeapSlabBytes;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.journal.enabled", defaultValue = "false")
+    private boolean journalEnabled;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.journal.directory", defaultValue = "data/session-journal")
+    private String journalDirectory;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.journal.segment-bytes", defaultValue = "16777216")
+    private int journalSegmentBytes;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.journal.group-commit-millis", defaultValue = "10")
+    private long journalGroupCommitMillis;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.journal.compact-after-segments", defaultValue = "4")
+    private int journalCompactAfterSegments;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.enabled", defaultValue = "false")
+    private boolean replicationEnabled;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.listen-port", defaultValue = "7800")
+    private int replicationListenPort;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.bind-address", defaultValue = "127.0.0.1")
+    private String replicationBindAddress;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.peer", defaultValue = "none")
+    private String replicationPeer;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.senders", defaultValue = "none")
+    private String replicationSenders;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.secret", defaultValue = "")
+    private String replicationSecret;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.replication.batch-millis", defaultValue = "20")
+    private long replicationBatchMillis;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.query.max-results", defaultValue = "100")
+    private int queryMaxResults;
+    
+    @Inject
+    @ConfigProperty(name = "app.session.query.max-scan", defaultValue = "10000")
+    private int queryMaxScan;
+    
+    @Inject
+    private SessionRouter sessionRouter;
+    
+    @Inject
+    private SessionIdGenerator sessionIdGenerator;
+    
+    @Inject
+    private SessionEventBroadcaster sessionEvents;
+    
+    @Inject
+    private HostNameResolver hostNameResolver;
+    
+    @Inject
+    @Metric(name = "sessions.expired", absolute = true,
+            description = "Sessions removed after exceeding the max inactive interval")
+    private Counter expiredSessions;
+    
+    @Inject
+    @Metric(name = "sessions.evicted", absolute = true,
+            description = "Sessions evicted to stay within the session count or attribute size limit")
+    private Counter evictedSessions;
+    
+    @Inject
+    @Metric(name = "sessions.lookup.hits", absolute = true,
+            description = "Lookups of an existing session ID that found a live session")
+    private Counter lookupHits;
+    
+    @Inject
+    @Metric(name = "sessions.lookup.misses", absolute = true,
+            description = "Lookups of a session ID that was unknown, expired or evicted")
+    private Counter lookupMisses;
+    
+    // In-memory session store (for demo purposes)
     // In production, use Redis, database, or JWT tokens
-    private final Map<String, InternalSession> sessions = new ConcurrentHashMap<>();
+    private SessionStore store;
+    
+    // Optional persistence across restarts, null when disabled
+    private SessionJournal journal;
+    
+    // Optional replication to a backup peer, null when disabled
+    private SessionReplicator replicator;
+    
+    // Sessions by user name, for querySessions()
+    private final SessionUserIndex userIndex = new SessionUserIndex();
+    
+    // Index, event stream, journal and replicator, notified of every mutation made through this service
+    private List<SessionChangeListener> changeListeners = List.of();
+    
+    // Rebuilt when the resolver's answer changes
+    private volatile ServerNode serverNode = new ServerNode(null, "Helidon MP Server");
+    
+    @PostConstruct
+    void initialize() {
+        SessionStore.Listener listener = new SessionStore.Listener() {
+            @Override
+            public void onExpired(String sessionId) {
+                expiredSessions.inc();
+                notifyRemoved(sessionId, false);
+                LOGGER.fine("Expired session: " + sessionId);
+            }
+            
+            @Override
+            public void onEvicted(String sessionId) {
+                evictedSessions.inc();
+                notifyRemoved(sessionId, false);
+                LOGGER.fine("Evicted session: " + sessionId);
+            }
+        };
+        switch (storeType) {
+            case "heap":
+                store = new HeapSessionStore(maxInactiveInterval, expiryTickMillis, maxSessions, maxAttributeBytes, listener);
+                break;
+            case "off-heap":
+                store = new OffHeapSessionStore(maxInactiveInterval, expiryTickMillis, maxSessions, maxAttributeBytes,
+                        offHeapSlabBytes, listener);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown app.session.store: " + storeType + " (expected heap or off-heap)");
+        }
+        LOGGER.info("Session store: " + storeType + ", capacity " + maxSessions + " sessions, "
+                + maxAttributeBytes + " attribute bytes");
+        if (maxInactiveInterval <= 0) {
+            LOGGER.info("Session expiry disabled (max-inactive-interval <= 0)");
+        } else {
+            LOGGER.info("Session expiry started: timeout " + maxInactiveInterval + "s, tick " + expiryTickMillis + " ms");
+        }
+        
+        if (journalEnabled) {
+            SessionJournal sessionJournal = new SessionJournal(Paths.get(journalDirectory), journalSegmentBytes,
+                    journalGroupCommitMillis, journalCompactAfterSegments);
+            try {
+                sessionJournal.recover(store, maxInactiveInterval);
+                sessionJournal.start(store);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open session journal in " + journalDirectory, e);
+            }
+            journal = sessionJournal;
+            LOGGER.info("Session journal started in " + journalDirectory);
+        }
+        
+        // Recovered sessions bypass the listeners; index them before any request or replica can change them
+        store.forEach(session -> {
+            if (session.getUserName() != null) {
+                userIndex.userNameSet(session.getId(), session.getUserName());
+            }
+        });
+        
+        if (replicationEnabled) {
+            InetSocketAddress peer = null;
+            if (!"none".equals(replicationPeer) && !replicationPeer.isBlank()) {
+                int colon = replicationPeer.lastIndexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("app.session.replication.peer must be host:port, got " + replicationPeer);
+                }
+                peer = InetSocketAddress.createUnresolved(replicationPeer.substring(0, colon),
+                        Integer.parseInt(replicationPeer.substring(colon + 1)));
+            }
+            InetSocketAddress listenAddress = replicationListenPort >= 0
+                    ? new InetSocketAddress(replicationBindAddress, replicationListenPort) : null;
+            // Only the peer may send, unless other senders are configured (a ring of more than two replicas)
+            List<String> senders = new ArrayList<>();
+            if (!"none".equals(replicationSenders) && !replicationSenders.isBlank()) {
+                for (String sender : replicationSenders.split(",")) {
+                    senders.add(sender.trim());
+                }
+            } else if (peer != null) {
+                senders.add(peer.getHostString());
+            }
+            SessionReplicator sessionReplicator = new SessionReplicator(store, listenAddress, senders, peer,
+                    replicationSecret, replicationBatchMillis, userIndex);
+            try {
+                sessionReplicator.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot listen for session replication on " + listenAddress, e);
+            }
+            replicator = sessionReplicator;
+        }
+        
+        List<SessionChangeListener> listeners = new ArrayList<>();
+        listeners.add(userIndex);
+        listeners.add(sessionEvents);
+        if (journal != null) {
+            listeners.add(journal);
+        }
+        if (replicator != null) {
+            listeners.add(replicator);
+        }
+        changeListeners = List.copyOf(listeners);
+    }
+    
+    @PreDestroy
+    void cleanup() {
+        if (replicator != null) {
+            replicator.close();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+        if (store != null) {
+            store.close();
+        }
+    }
+    
+    /**
+     * Number of sessions currently held in memory
+     */
+    @Gauge(name = "sessions.live", unit = MetricUnits.NONE, absolute = true,
+           description = "Sessions currently held in memory")
+    public int getLiveSessionCount() {
+        return store.size();
+    }
+    
+    /**
+     * Number of sessions tracked for expiry
+     */
+    @Gauge(name = "sessions.expiry.scheduled", unit = MetricUnits.NONE, absolute = true,
+           description = "Sessions tracked by the expiry timing wheel or sweeper")
+    public int getScheduledSessionCount() {
+        return store.getScheduledExpiryCount();
+    }
+    
+    /**
+     * Size of all session attributes (estimated on the heap, exact off-heap)
+     */
+    @Gauge(name = "sessions.attribute.bytes", unit = MetricUnits.BYTES, absolute = true,
+           description = "Estimated size of all session attributes")
+    public long getAttributeBytes() {
+        return store.getAttributeBytes();
+    }
+    
+    /**
+     * Bytes appended to the session journal, including framing and compaction snapshots
+     */
+    @Gauge(name = "sessions.journal.written.bytes", unit = MetricUnits.BYTES, absolute = true,
+           description = "Bytes appended to the session journal, including framing and snapshots")
+    public long getJournalWrittenBytes() {
+        return journal != null ? journal.getWrittenBytes() : 0;
+    }
+    
+    /**
+     * Bytes of session state handed to the journal; written / logical is the write amplification
+     */
+    @Gauge(name = "sessions.journal.logical.bytes", unit = MetricUnits.BYTES, absolute = true,
+           description = "Bytes of session state handed to the session journal")
+    public long getJournalLogicalBytes() {
+        return journal != null ? journal.getLogicalBytes() : 0;
+    }
+    
+    /**
+     * Bytes sent to the replication peer, including framing and resync snapshots
+     */
+    @Gauge(name = "sessions.replication.sent.bytes", unit = MetricUnits.BYTES, absolute = true,
+           description = "Bytes sent to the session replication peer")
+    public long getReplicationSentBytes() {
+        return replicator != null ? replicator.getSentBytes() : 0;
+    }
+    
+    /**
+     * Bytes received from other replicas
+     */
+    @Gauge(name = "sessions.replication.received.bytes", unit = MetricUnits.BYTES, absolute = true,
+           description = "Bytes received from session replication senders")
+    public long getReplicationReceivedBytes() {
+        return replicator != null ? replicator.getReceivedBytes() : 0;
+    }
+    
+    /**
+     * Delay between a replica sending the last batch and this replica applying it
+     */
+    @Gauge(name = "sessions.replication.lag", unit = MetricUnits.MILLISECONDS, absolute = true,
+           description = "Delay between sending and applying the most recent replication batch")
+    public long getReplicationLagMillis() {
+        return replicator != null ? replicator.getLagMillis() : 0;
+    }
+    
+    /**
+     * Replication connections closed for coming from an unknown host or failing authentication
+     */
+    @Gauge(name = "sessions.replication.rejected.connections", unit = MetricUnits.NONE, absolute = true,
+           description = "Session replication connections refused or dropped as unauthenticated")
+    public long getReplicationRejectedConnections() {
+        return replicator != null ? replicator.getRejectedConnections() : 0;
+    }
+    
+    /**
+     * Number of sessions in the user name index
+     */
+    @Gauge(name = "sessions.query.indexed", unit = MetricUnits.NONE, absolute = true,
+           description = "Sessions with a user name, indexed for the admin session query")
+    public int getIndexedSessionCount() {
+        return userIndex.size();
+    }
     
     /**
      * Get or create a session
      */
     public SessionInfo getOrCreateSession(String sessionId) {
-        InternalSession internalSession;
         boolean isNew = false;
         
-        if (sessionId == null || !sessions.containsKey(sessionId)) {
-            sessionId = UUID.randomUUID().toString();
-            internalSession = new InternalSession(sessionId);
-            sessions.put(sessionId, internalSession);
+        SessionRecord session = findLiveSession(sessionId, true);
+        if (session == null) {
+            // create() claims the ID atomically; draw another one in the unlikely case it is taken
+            do {
+                sessionId = sessionRouter.newSessionId(sessionIdGenerator::newSessionId);
+                session = store.create(sessionId);
+            } while (session == null);
+            for (SessionChangeListener changeListener : changeListeners) {
+                changeListener.created(sessionId, session.getCreationTime());
+            }
             isNew = true;
             LOGGER.info("Created new session: " + sessionId);
-        } else {
-            internalSession = sessions.get(sessionId);
-            internalSession.touch();
         }
         
-        internalSession.incrementVisitCount();
-        
-        return buildSessionInfo(internalSession, isNew);
+        return buildSessionInfo(session, isNew);
     }
     
     /**
      * Get session by ID
      */
     public SessionInfo getSession(String sessionId) {
-        if (sessionId == null || !sessions.containsKey(sessionId)) {
+        SessionRecord session = findLiveSession(sessionId, false);
+        if (session == null) {
             return null;
         }
         
-        InternalSession internalSession = sessions.get(sessionId);
-        internalSession.touch();
-        
-        return buildSessionInfo(internalSession, false);
+        return buildSessionInfo(session, false);
     }
     
     /**
      * Set session attribute
      */
     public void setAttribute(String sessionId, String key, Object value) {
-        if (sessionId != null && sessions.containsKey(sessionId)) {
-            sessions.get(sessionId).setAttribute(key, value);
+        if (sessionId != null && store.setAttribute(sessionId, key, value)) {
+            for (SessionChangeListener changeListener : changeListeners) {
+                changeListener.attributeSet(sessionId, key, value);
+            }
         }
     }
     
@@ -92,8 +467,10 @@ public class SessionService {
      * Set username for session
      */
     public void setUserName(String sessionId, String userName) {
-        if (sessionId != null && sessions.containsKey(sessionId)) {
-            sessions.get(sessionId).setUserName(userName);
+        if (sessionId != null && store.setUserName(sessionId, userName)) {
+            for (SessionChangeListener changeListener : changeListeners) {
+                changeListener.userNameSet(sessionId, userName);
+            }
         }
     }
     
@@ -101,8 +478,10 @@ public class SessionService {
      * Remove session attribute
      */
     public void removeAttribute(String sessionId, String key) {
-        if (sessionId != null && sessions.containsKey(sessionId)) {
-            sessions.get(sessionId).removeAttribute(key);
+        if (sessionId != null && store.removeAttribute(sessionId, key)) {
+            for (SessionChangeListener changeListener : changeListeners) {
+                changeListener.attributeRemoved(sessionId, key);
+            }
         }
     }
     
@@ -111,105 +490,187 @@ public class SessionService {
      */
     public void invalidateSession(String sessionId) {
         if (sessionId != null) {
-            sessions.remove(sessionId);
+            if (store.invalidate(sessionId)) {
+                notifyRemoved(sessionId, true);
+            }
             LOGGER.info("Invalidated session: " + sessionId);
         }
     }
     
     /**
-     * Build SessionInfo DTO from internal session
+     * Find sessions by user name, idle time and attribute presence, one page at a time
+     *
+     * @param userName Only this user's sessions, or null for all sessions with a user name
+     * @param minIdleSeconds Only sessions idle for at least this long, or null
+     * @param maxIdleSeconds Only sessions idle for at most this long, or null
+     * @param attribute Only sessions that have this attribute, or null
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param limit Page size, or null for app.session.query.max-results; capped at that value
+     * @throws IllegalArgumentException if the cursor or the limit is invalid
      */
-    private SessionInfo buildSessionInfo(InternalSession internal, boolean isNew) {
-        SessionInfo info = new SessionInfo();
-        info.setSessionId(internal.getId());
-        info.setCreationTime(internal.getCreationTime().toString());
-        info.setLastAccessedTime(internal.getLastAccessedTime().toString());
-        info.setMaxInactiveInterval(maxInactiveInterval);
-        info.setNew(isNew);
-        info.setVisitCount(internal.getVisitCount());
-        info.setUserName(internal.getUserName());
-        info.setAttributes(internal.getAttributes());
-        
-        // Calculate times
-        long sessionAge = ChronoUnit.SECONDS.between(internal.getCreationTime(), Instant.now());
-        long idleTime = ChronoUnit.SECONDS.between(internal.getLastAccessedTime(), Instant.now());
-        long remainingTime = Math.max(0, maxInactiveInterval - idleTime);
+    public SessionQueryResult querySessions(String userName, Long minIdleSeconds, Long maxIdleSeconds,
+                                            String attribute, String cursor, Integer limit) {
+        int pageSize = limit == null ? queryMaxResults : Math.min(limit, queryMaxResults);
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("limit must be positive, got " + limit);
+        }
+        String afterUserName = null;
+        String afterSessionId = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String position;
+            try {
+                position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            int separator = position.indexOf('\0');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            afterUserName = position.substring(0, separator);
+            afterSessionId = position.substring(separator + 1);
+        }
         
-        info.setSessionAgeSeconds(sessionAge);
-        info.setIdleTimeSeconds(idleTime);
-        info.setRemainingTimeSeconds(remainingTime);
+        QueryScan scan = new QueryScan(System.currentTimeMillis(), minIdleSeconds, maxIdleSeconds, attribute, pageSize);
+        userIndex.scan(userName, afterUserName, afterSessionId, scan);
         
-        // Server node info
-        try {
-            InetAddress localhost = InetAddress.getLocalHost();
-            info.setServerNode("Helidon MP (" + localhost.getHostName() + ")");
-        } catch (Exception e) {
-            info.setServerNode("Helidon MP Server");
+        SessionQueryResult result = new SessionQueryResult();
+        result.setSessions(scan.matches);
+        result.setScanned(scan.scanned);
+        if (scan.truncated) {
+            String position = scan.lastUserName + '\0' + scan.lastSessionId;
+            result.setNextCursor(Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(position.getBytes(StandardCharsets.UTF_8)));
         }
-        
-        return info;
+        return result;
     }
     
     /**
-     * Internal session representation
+     * Look up and touch a session; one that has timed out but has not been reaped yet is missing
      */
-    private static class InternalSession {
-        private final String id;
-        private final Instant creationTime;
-        private Instant lastAccessedTime;
-        private long visitCount;
-        private String userName;
-        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
-        
-        InternalSession(String id) {
-            this.id = id;
-            this.creationTime = Instant.now();
-            this.lastAccessedTime = Instant.now();
-            this.visitCount = 0;
-        }
-        
-        void touch() {
-            this.lastAccessedTime = Instant.now();
+    private SessionRecord findLiveSession(String sessionId, boolean countVisit) {
+        if (sessionId == null) {
+            return null;
         }
-        
-        void incrementVisitCount() {
-            this.visitCount++;
+        SessionRecord session = store.access(sessionId, countVisit);
+        if (session == null) {
+            lookupMisses.inc();
+        } else {
+            lookupHits.inc();
+            for (SessionChangeListener changeListener : changeListeners) {
+                changeListener.touched(sessionId, session.getLastAccessedTime(), session.getVisitCount());
+            }
         }
-        
-        String getId() {
-            return id;
+        return session;
+    }
+    
+    private void notifyRemoved(String sessionId, boolean invalidated) {
+        for (SessionChangeListener changeListener : changeListeners) {
+            changeListener.removed(sessionId, invalidated);
         }
+    }
+    
+    /**
+     * Visitor for one page of querySessions(); stops at the page size or the scan budget
+     */
+    private final class QueryScan implements BiPredicate<String, String> {
+        private final long now;
+        private final Long minIdleSeconds;
+        private final Long maxIdleSeconds;
+        private final String attribute;
+        private final int pageSize;
+        private final List<SessionInfo> matches = new ArrayList<>();
+        private int scanned;
+        private boolean truncated;
+        private String lastUserName;
+        private String lastSessionId;
         
-        Instant getCreationTime() {
-            return creationTime;
+        QueryScan(long now, Long minIdleSeconds, Long maxIdleSeconds, String attribute, int pageSize) {
+            this.now = now;
+            this.minIdleSeconds = minIdleSeconds;
+            this.maxIdleSeconds = maxIdleSeconds;
+            this.attribute = attribute;
+            this.pageSize = pageSize;
         }
         
-        Instant getLastAccessedTime() {
-            return lastAccessedTime;
+        @Override
+        public boolean test(String userName, String sessionId) {
+            if (matches.size() == pageSize || scanned == queryMaxScan) {
+                truncated = true;
+                return false;
+            }
+            scanned++;
+            lastUserName = userName;
+            lastSessionId = sessionId;
+            
+            // The index is updated after the store, so confirm the entry is still current
+            SessionRecord session = store.peek(sessionId);
+            if (session == null || !userName.equals(session.getUserName())) {
+                return true;
+            }
+            long idleSeconds = (now - session.getLastAccessedTime()) / 1000;
+            if ((minIdleSeconds != null && idleSeconds < minIdleSeconds)
+                    || (maxIdleSeconds != null && idleSeconds > maxIdleSeconds)
+                    || (attribute != null && !session.getAttributes().containsKey(attribute))) {
+                return true;
+            }
+            matches.add(buildSessionInfo(session, false));
+            return true;
         }
-        
-        long getVisitCount() {
-            return visitCount;
+    }
+    
+    /**
+     * "Helidon MP (host name)", from the resolver's cache; never waits for DNS once the name is known
+     */
+    private String getServerNode() {
+        String hostName = hostNameResolver.getLocalHostName(null);
+        ServerNode current = serverNode;
+        if (hostName != null && !hostName.equals(current.hostName)) {
+            current = new ServerNode(hostName, "Helidon MP (" + hostName + ")");
+            serverNode = current;
         }
+        return current.label;
+    }
+    
+    /**
+     * Build SessionInfo DTO from a session record
+     */
+    private SessionInfo buildSessionInfo(SessionRecord session, boolean isNew) {
+        SessionInfo info = new SessionInfo();
+        info.setSessionId(session.getId());
+        info.setCreationTime(Instant.ofEpochMilli(session.getCreationTime()).toString());
+        info.setLastAccessedTime(Instant.ofEpochMilli(session.getLastAccessedTime()).toString());
+        info.setMaxInactiveInterval(maxInactiveInterval);
+        info.setNew(isNew);
+        info.setVisitCount(session.getVisitCount());
+        info.setUserName(session.getUserName());
+        info.setAttributes(session.getAttributes());
         
-        String getUserName() {
-            return userName;
-        }
+        // Calculate times
+        long now = System.currentTimeMillis();
+        long sessionAge = (now - session.getCreationTime()) / 1000;
+        long idleTime = (now - session.getLastAccessedTime()) / 1000;
+        long remainingTime = Math.max(0, maxInactiveInterval - idleTime);
         
-        void setUserName(String userName) {
-            this.userName = userName;
-        }
+        info.setSessionAgeSeconds(sessionAge);
+        info.setIdleTimeSeconds(idleTime);
+        info.setRemainingTimeSeconds(remainingTime);
         
-        Map<String, Object> getAttributes() {
-            return attributes;
-        }
+        info.setServerNode(getServerNode());
         
-        void setAttribute(String key, Object value) {
-            attributes.put(key, value);
-        }
+        return info;
+    }
+    
+    /**
+     * Server node label and the host name it was built from
+     */
+    private static final class ServerNode {
+        private final String hostName;
+        private final String label;
         
-        void removeAttribute(String key) {
-            attributes.remove(key);
+        ServerNode(String hostName, String label) {
+            this.hostName = hostName;
+            this.label = label;
         }
     }
 }
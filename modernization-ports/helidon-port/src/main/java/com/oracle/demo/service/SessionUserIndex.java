@@ -0,0 +1,110 @@
+package com.oracle.demo.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiPredicate;
+
+/**
+ * Secondary index of sessions by user name, for the admin session query
+ *
+ * Kept up to date as a SessionChangeListener: setting a user name moves the
+ * session to the new user, and any removal drops it. Sessions without a user name
+ * are not indexed, so the index costs nothing for anonymous traffic.
+ *
+ * All changes to one session run inside a ConcurrentHashMap.compute() on its ID,
+ * and all changes to one user's set inside a compute() on the user name, so they
+ * never interleave. Readers walk the concurrent sorted sets without locking and
+ * see a weakly consistent view; callers confirm each hit against the store.
+ * The (user name, session ID) order is what the query cursor points into.
+ */
+final class SessionUserIndex implements SessionChangeListener {
+
+    private final Map<String, String> userNameBySession = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<String>> sessionsByUser = new ConcurrentHashMap<>();
+    // User names in order, changed only inside compute() of the same user name
+    private final NavigableSet<String> userNames = new ConcurrentSkipListSet<>();
+
+    @Override
+    public void userNameSet(String sessionId, String userName) {
+        userNameBySession.compute(sessionId, (id, previous) -> {
+            if (previous != null && !previous.equals(userName)) {
+                unlink(previous, id);
+            }
+            if (userName != null) {
+                link(userName, id);
+            }
+            return userName;
+        });
+    }
+
+    @Override
+    public void removed(String sessionId, boolean invalidated) {
+        userNameBySession.computeIfPresent(sessionId, (id, previous) -> {
+            unlink(previous, id);
+            return null;
+        });
+    }
+
+    /**
+     * Number of sessions with a user name
+     */
+    int size() {
+        return userNameBySession.size();
+    }
+
+    /**
+     * Visit (user name, session ID) pairs in order, starting after a cursor position
+     *
+     * @param userName Only this user's sessions, or null for all users
+     * @param afterUserName User name of the cursor, or null to start at the beginning
+     * @param afterSessionId Session ID of the cursor
+     * @param visitor Returns false to stop
+     */
+    void scan(String userName, String afterUserName, String afterSessionId, BiPredicate<String, String> visitor) {
+        Iterable<String> users;
+        if (userName != null) {
+            users = afterUserName == null || afterUserName.compareTo(userName) <= 0 ? List.of(userName) : List.of();
+        } else {
+            users = afterUserName == null ? userNames : userNames.tailSet(afterUserName, true);
+        }
+        for (String user : users) {
+            NavigableSet<String> sessionIds = sessionsByUser.get(user);
+            if (sessionIds == null) {
+                continue;
+            }
+            if (user.equals(afterUserName)) {
+                sessionIds = sessionIds.tailSet(afterSessionId, false);
+            }
+            for (String sessionId : sessionIds) {
+                if (!visitor.test(user, sessionId)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void link(String userName, String sessionId) {
+        sessionsByUser.compute(userName, (user, sessionIds) -> {
+            if (sessionIds == null) {
+                sessionIds = new ConcurrentSkipListSet<>();
+                userNames.add(user);
+            }
+            sessionIds.add(sessionId);
+            return sessionIds;
+        });
+    }
+
+    private void unlink(String userName, String sessionId) {
+        sessionsByUser.computeIfPresent(userName, (user, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            if (sessionIds.isEmpty()) {
+                userNames.remove(user);
+                return null;
+            }
+            return sessionIds;
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.oracle.demo.service;
+
+import java.util.UUID;
+
+/**
+ * Random UUIDs (122 random bits, 36 characters), the original session ID format
+ *
+ * Every call goes through the one SecureRandom shared by UUID.randomUUID(), so
+ * concurrent session creation contends on it. Not a bean; kept as the baseline of
+ * SessionIdBenchmark and for deployments that need the UUID format.
+ */
+public final class UuidSessionIdGenerator implements SessionIdGenerator {
+
+    @Override
+    public String newSessionId() {
+        return UUID.randomUUID().toString();
+    }
+}
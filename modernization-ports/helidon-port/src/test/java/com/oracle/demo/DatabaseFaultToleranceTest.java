@@ -0,0 +1,86 @@
+package com.oracle.demo;
+
+import com.oracle.demo.model.DatabaseInfo;
+import com.oracle.demo.service.StubDatabaseDriver;
+import io.helidon.microprofile.tests.junit5.AddConfig;
+import io.helidon.microprofile.tests.junit5.HelidonTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for the fault tolerance policies of the database endpoint, against a stand-in database
+ *
+ * The circuit breaker keeps its state for the whole container, so the tests run in order.
+ * The snapshot refresher is off, so every round trip comes from a probe request.
+ */
+@HelidonTest
+@AddConfig(key = "app.database.mock-mode", value = "false")
+@AddConfig(key = "app.database.url", value = "jdbc:stub:latency-ms=0")
+@AddConfig(key = "app.database.pool.minimum-idle", value = "1")
+@AddConfig(key = "app.database.refresh.interval-millis", value = "0")
+@AddConfig(key = "com.oracle.demo.service.DatabaseService/getDatabaseInfoAsync/Timeout/value", value = "300")
+@AddConfig(key = "com.oracle.demo.service.DatabaseService/getDatabaseInfoAsync/CircuitBreaker/requestVolumeThreshold", value = "4")
+@AddConfig(key = "com.oracle.demo.service.DatabaseService/getDatabaseInfoAsync/CircuitBreaker/delay", value = "60000")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class DatabaseFaultToleranceTest {
+
+    @Inject
+    private WebTarget target;
+
+    @BeforeAll
+    static void registerDriver() {
+        StubDatabaseDriver.register();
+    }
+
+    @AfterEach
+    void restoreDatabase() {
+        StubDatabaseDriver.reset();
+    }
+
+    @Test
+    @Order(1)
+    void testSlowDatabaseTimesOutToLastGoodInfo() {
+        assertThat(probe().getStatus(), is("CONNECTED"));
+
+        StubDatabaseDriver.stall(2000);
+        long start = System.currentTimeMillis();
+        DatabaseInfo info = probe();
+        assertThat("Answered by the fallback, not the database", System.currentTimeMillis() - start, lessThan(1500L));
+        assertThat(info.getStatus(), is("STALE"));
+        assertThat(info.getDatabaseProductName(), is("Stub Database"));
+    }
+
+    @Test
+    @Order(2)
+    void testFailingDatabaseOpensTheCircuit() {
+        StubDatabaseDriver.fail(true);
+        for (int i = 0; i < 4; i++) {
+            assertThat(probe().getStatus(), is("STALE"));
+        }
+
+        StubDatabaseDriver.reset();
+        DatabaseInfo info = probe();
+        assertThat("Circuit is open although the database is back", info.getStatus(), is("STALE"));
+        assertThat("Database is not called while the circuit is open", StubDatabaseDriver.getMaxConcurrentRoundTrips(), is(0));
+    }
+
+    private DatabaseInfo probe() {
+        Response response = target.path("/api/database-info/test")
+                .queryParam("probe", true)
+                .request(MediaType.APPLICATION_JSON)
+                .get();
+        assertThat("Response status", response.getStatus(), is(200));
+        return response.readEntity(DatabaseInfo.class);
+    }
+}
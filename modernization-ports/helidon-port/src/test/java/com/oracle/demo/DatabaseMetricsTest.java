@@ -0,0 +1,47 @@
+package com.oracle.demo;
+
+import com.oracle.demo.service.StubDatabaseDriver;
+import io.helidon.microprofile.tests.junit5.AddConfig;
+import io.helidon.microprofile.tests.junit5.HelidonTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests that the connection pool reports to /metrics, against a stand-in database
+ */
+@HelidonTest
+@AddConfig(key = "app.database.mock-mode", value = "false")
+@AddConfig(key = "app.database.url", value = "jdbc:stub:latency-ms=0")
+@AddConfig(key = "app.database.pool.minimum-idle", value = "1")
+class DatabaseMetricsTest {
+
+    @Inject
+    private WebTarget target;
+
+    @BeforeAll
+    static void registerDriver() {
+        StubDatabaseDriver.register();
+    }
+
+    @Test
+    void testPoolMetricsAppearNextToRequestTimers() {
+        for (int i = 0; i < 3; i++) {
+            target.path("/api/database-info/test").queryParam("probe", true)
+                    .request(MediaType.APPLICATION_JSON).get(String.class);
+        }
+
+        String metrics = target.path("/metrics").request(MediaType.TEXT_PLAIN).get(String.class);
+        assertThat(metrics, containsString("application_database_pool_acquire_seconds_count{pool=\"database\"}"));
+        assertThat(metrics, containsString("application_database_pool_usage_seconds_count{pool=\"database\"}"));
+        assertThat(metrics, containsString("application_database_pool_creation_seconds_count{pool=\"database\"}"));
+        assertThat(metrics, containsString("application_database_pool_timeouts_total{pool=\"database\"} 0"));
+        assertThat(metrics, containsString("application_database_pool_pending{pool=\"database\"} 0"));
+        assertThat(metrics, containsString("base_REST_request_seconds_count"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.oracle.demo;
+
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.model.SessionQueryResult;
+import com.oracle.demo.service.SessionAdminAccess;
+import io.helidon.microprofile.tests.junit5.AddConfig;
+import io.helidon.microprofile.tests.junit5.HelidonTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.client.WebTarget;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Tests for the access control of the session admin endpoints
+ */
+@HelidonTest
+@AddConfig(key = "app.session.admin.secret", value = "test-admin-secret")
+class SessionResourceTest {
+
+    @Inject
+    private WebTarget target;
+
+    @Test
+    void testQueryWithoutAdminSecretIsUnauthorized() {
+        Response response = target.path("/api/session-info/query")
+                .request(MediaType.APPLICATION_JSON)
+                .get();
+
+        assertThat("Response status", response.getStatus(), is(401));
+    }
+
+    @Test
+    void testQueryWithWrongAdminSecretIsUnauthorized() {
+        Response response = target.path("/api/session-info/query")
+                .request(MediaType.APPLICATION_JSON)
+                .header(SessionAdminAccess.ADMIN_HEADER, "test-admin-secret-2")
+                .get();
+
+        assertThat("Response status", response.getStatus(), is(401));
+    }
+
+    @Test
+    void testQueryWithAdminSecret() {
+        Response response = target.path("/api/session-info/query")
+                .request(MediaType.APPLICATION_JSON)
+                .header(SessionAdminAccess.ADMIN_HEADER, "test-admin-secret")
+                .get();
+
+        assertThat("Response status", response.getStatus(), is(200));
+
+        SessionQueryResult result = response.readEntity(SessionQueryResult.class);
+        assertThat("Sessions are not null", result.getSessions(), is(notNullValue()));
+    }
+
+    @Test
+    void testUnfilteredEventStreamWithoutAdminSecretIsUnauthorized() {
+        Response response = target.path("/api/session-info/events")
+                .request(MediaType.SERVER_SENT_EVENTS)
+                .get();
+
+        assertThat("Response status", response.getStatus(), is(401));
+    }
+
+    @Test
+    void testEventStreamOfSeveralSessionsWithoutAdminSecretIsUnauthorized() {
+        String first = createSession();
+        String second = createSession();
+        Response response = target.path("/api/session-info/events")
+                .queryParam("sessionId", first + "," + second)
+                .request(MediaType.SERVER_SENT_EVENTS)
+                .get();
+
+        assertThat("Response status", response.getStatus(), is(401));
+    }
+
+    @Test
+    void testEventStreamOfUnknownSessionIsNotFound() {
+        Response response = target.path("/api/session-info/events")
+                .queryParam("sessionId", "no-such-session")
+                .request(MediaType.SERVER_SENT_EVENTS)
+                .get();
+
+        assertThat("Response status", response.getStatus(), is(404));
+    }
+
+    private String createSession() {
+        SessionInfo session = target.path("/api/session-info")
+                .request(MediaType.APPLICATION_JSON)
+                .get(SessionInfo.class);
+        return session.getSessionId();
+    }
+}
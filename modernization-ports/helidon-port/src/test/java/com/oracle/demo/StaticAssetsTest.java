@@ -0,0 +1,66 @@
+package com.oracle.demo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the preloaded static files and their encoded variants
+ */
+class StaticAssetsTest {
+
+    private final StaticAssets assets = new StaticAssets(getClass().getClassLoader(), "static",
+            List.of("index.html", "swagger-ui.html", "missing.html"));
+
+    @Test
+    void testGzipVariantIsChosenByAcceptEncodingAndDecodesToTheFile() throws IOException {
+        StaticAssets.Variant identity = assets.select("index.html", null);
+        StaticAssets.Variant gzip = assets.select("index.html", "br;q=0, gzip, deflate");
+
+        assertThat(identity.getContentType(), is("text/html; charset=UTF-8"));
+        assertThat(identity.getContentEncoding(), is(nullValue()));
+        assertThat(gzip.getContentEncoding(), is("gzip"));
+        assertThat(gzip.getBody().length, lessThan(identity.getBody().length));
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.getBody()))) {
+            assertThat(in.readAllBytes(), is(identity.getBody()));
+        }
+        assertThat("Each variant has its own tag", gzip.getEtag(), is(not(identity.getEtag())));
+        assertThat(assets.select("index.html", "gzip;q=0, identity"), is(sameInstance(identity)));
+        assertThat(assets.select("index.html", "*"), is(sameInstance(gzip)));
+        assertThat(assets.select("missing.html", "gzip"), is(nullValue()));
+    }
+
+    @Test
+    void testIfNoneMatchUsesTheSelectedVariantsTag() {
+        StaticAssets.Variant identity = assets.select("swagger-ui.html", "");
+        StaticAssets.Variant gzip = assets.select("swagger-ui.html", "gzip");
+
+        assertThat(identity.getEtag(), startsWith("\""));
+        assertThat(identity.matches(identity.getEtag()), is(true));
+        assertThat(identity.matches("\"other\", W/" + identity.getEtag()), is(true));
+        assertThat(identity.matches("*"), is(true));
+        assertThat(identity.matches(gzip.getEtag()), is(false));
+        assertThat(gzip.matches(identity.getEtag()), is(false));
+        assertThat(identity.matches(null), is(false));
+    }
+
+    @Test
+    void testAcceptEncodingParsing() {
+        assertThat(StaticAssets.accepts("gzip, deflate, br", "br"), is(true));
+        assertThat(StaticAssets.accepts("GZIP", "gzip"), is(true));
+        assertThat(StaticAssets.accepts("gzip;q=0.5", "gzip"), is(true));
+        assertThat(StaticAssets.accepts("gzip ; q=0.0", "gzip"), is(false));
+        assertThat(StaticAssets.accepts("x-gzip", "gzip"), is(false));
+        assertThat(StaticAssets.accepts("*;q=0", "gzip"), is(false));
+        assertThat(StaticAssets.accepts("br, *", "gzip"), is(true));
+        assertThat(StaticAssets.accepts("gzip;q=0, *", "gzip"), is(false));
+        assertThat(StaticAssets.accepts("", "gzip"), is(false));
+    }
+}
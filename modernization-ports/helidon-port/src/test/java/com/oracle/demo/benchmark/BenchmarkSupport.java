@@ -0,0 +1,134 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.service.HostNameResolver;
+import org.eclipse.microprofile.metrics.Counter;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates CDI services outside the container for JMH benchmarks
+ *
+ * The services use field injection, so the benchmarks set the
+ * @ConfigProperty fields by name, replace injected MP Metrics counters with
+ * a plain LongAdder-based counter, and call the @PostConstruct method by hand.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Instantiate a service, inject the given field values and initialize it
+     *
+     * @param type Service class
+     * @param fields Field name to value; unset Counter fields get a SimpleCounter
+     * @param postConstruct Name of the @PostConstruct method, or null
+     */
+    static <T> T create(Class<T> type, Map<String, Object> fields, String postConstruct) {
+        try {
+            T service = type.getDeclaredConstructor().newInstance();
+            for (Field field : type.getDeclaredFields()) {
+                field.setAccessible(true);
+                if (fields.containsKey(field.getName())) {
+                    field.set(service, fields.get(field.getName()));
+                } else if (field.getType() == Counter.class) {
+                    field.set(service, new SimpleCounter());
+                }
+            }
+            if (postConstruct != null) {
+                Method method = type.getDeclaredMethod(postConstruct);
+                method.setAccessible(true);
+                method.invoke(service);
+            }
+            return service;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Call a @PreDestroy method
+     */
+    static void destroy(Object service, String preDestroy) {
+        try {
+            Method method = service.getClass().getDeclaredMethod(preDestroy);
+            method.setAccessible(true);
+            method.invoke(service);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot destroy " + service.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Host name resolver with the default configuration, for services that show the host name
+     */
+    static HostNameResolver hostNameResolver() {
+        return create(HostNameResolver.class, Map.of(
+                "timeoutMillis", 1000L, "positiveTtlSeconds", 300L, "negativeTtlSeconds", 10L), "initialize");
+    }
+
+    /**
+     * Read a field of a created service, e.g. a hook to wrap
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T get(Object service, String fieldName) {
+        try {
+            Field field = service.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            return (T) field.get(service);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No field " + fieldName, e);
+        }
+    }
+
+    /**
+     * Replace a field of a created service
+     */
+    static void set(Object service, String fieldName, Object value) {
+        try {
+            Field field = service.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(service, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No field " + fieldName, e);
+        }
+    }
+
+    /**
+     * Read an injected counter back, e.g. to report evictions after a run
+     */
+    static long count(Object service, String counterField) {
+        try {
+            Field field = service.getClass().getDeclaredField(counterField);
+            field.setAccessible(true);
+            return ((Counter) field.get(service)).getCount();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No counter " + counterField, e);
+        }
+    }
+
+    /**
+     * Counter without a metrics registry
+     */
+    static final class SimpleCounter implements Counter {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void inc() {
+            count.increment();
+        }
+
+        @Override
+        public void inc(long n) {
+            count.add(n);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+}
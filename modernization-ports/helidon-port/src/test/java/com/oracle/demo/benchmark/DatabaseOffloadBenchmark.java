@@ -0,0 +1,141 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.model.DatabaseInfo;
+import com.oracle.demo.service.DatabaseService;
+import com.oracle.demo.service.StubDatabaseDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * JMH benchmark of blocking vs offloaded JDBC calls vs snapshots on a small server thread pool
+ *
+ * A fixed pool of serverThreads stands in for the server's request threads.
+ * Background clients keep `clients` database requests in flight against a
+ * StubDatabaseDriver that sleeps `latencyMillis` per round trip. In "direct" mode
+ * each request holds a server thread for the whole borrow and round trips, as
+ * DatabaseResource did before; in "offload" mode it only starts
+ * getDatabaseInfoAsync() and releases the thread; in "snapshot" mode it reads the
+ * refresher's latest DatabaseInfo, as DatabaseResource does now.
+ *
+ * ping measures how long a request that needs no database waits for a server
+ * thread; databaseInfo measures one database request end to end. The teardown
+ * prints the database requests completed by the background clients.
+ *
+ * Run with: ./benchmark.sh DatabaseOffloadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class DatabaseOffloadBenchmark {
+
+    @Param({"direct", "offload", "snapshot"})
+    private String mode;
+
+    @Param({"64"})
+    private int clients;
+
+    @Param({"8"})
+    private int serverThreads;
+
+    @Param({"2"})
+    private long latencyMillis;
+
+    private DatabaseService databaseService;
+    private ExecutorService server;
+    private final List<Thread> clientThreads = new ArrayList<>();
+    private final LongAdder completed = new LongAdder();
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger.getLogger(DatabaseService.class.getName()).setLevel(java.util.logging.Level.WARNING);
+        StubDatabaseDriver.register();
+
+        databaseService = BenchmarkSupport.create(DatabaseService.class, Map.of(
+                "mockMode", false,
+                "databaseUrl", StubDatabaseDriver.url(latencyMillis),
+                "username", "stub",
+                "password", "stub",
+                "serviceName", "stub",
+                "walletLocation", "",
+                "maxPoolSize", 10,
+                "minIdle", 10,
+                "pinningMonitorEnabled", false,
+                "refreshIntervalMillis", 1000L), "initialize");
+        server = Executors.newFixedThreadPool(serverThreads);
+
+        running = true;
+        for (int i = 0; i < clients; i++) {
+            Thread client = new Thread(() -> {
+                while (running) {
+                    try {
+                        databaseRequest();
+                        completed.increment();
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            }, "client-" + i);
+            client.setDaemon(true);
+            client.start();
+            clientThreads.add(client);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (Thread client : clientThreads) {
+            client.join(5000);
+        }
+        System.out.printf("%n%s: %d background database requests completed%n", mode, completed.sum());
+        server.shutdownNow();
+        BenchmarkSupport.destroy(databaseService, "cleanup");
+    }
+
+    @Benchmark
+    public Integer ping() throws ExecutionException, InterruptedException {
+        return server.submit(() -> 1).get();
+    }
+
+    @Benchmark
+    public DatabaseInfo databaseInfo() throws ExecutionException, InterruptedException {
+        return databaseRequest();
+    }
+
+    private DatabaseInfo databaseRequest() throws ExecutionException, InterruptedException {
+        if ("direct".equals(mode)) {
+            return server.submit(() -> databaseService.probeDatabaseInfo()).get();
+        }
+        if ("snapshot".equals(mode)) {
+            return server.submit(() -> databaseService.getDatabaseInfo()).get();
+        }
+        return server.submit(() -> databaseService.getDatabaseInfoAsync()).get().toCompletableFuture().get();
+    }
+}
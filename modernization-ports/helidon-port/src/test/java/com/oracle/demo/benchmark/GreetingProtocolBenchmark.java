@@ -0,0 +1,113 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.grpc.GreetReply;
+import com.oracle.demo.grpc.GreetRequest;
+import com.oracle.demo.grpc.GreetingServiceGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.helidon.microprofile.server.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Load harness comparing the REST and gRPC greeting endpoints on a local server
+ *
+ * The trial starts the whole application in this JVM, on a free HTTP port and a
+ * free gRPC port, in database mock mode. rest calls GET /helidon/api/greet with
+ * the JDK HttpClient (HTTP/1.1, JSON; concurrent threads open more connections).
+ * grpc calls Greet with a blocking stub over one shared channel (HTTP/2,
+ * protobuf; calls are multiplexed). Both end in the same GreetingServiceImpl
+ * call, so the difference is the protocol: parsing, serialization and transport.
+ *
+ * Concurrency is the number of JMH threads, each with one call in flight.
+ * Throughput gives calls per second; SampleTime gives the latency percentiles.
+ * Client and server share the machine, so compare the two protocols with each
+ * other rather than with a remote deployment.
+ *
+ * Run with: for t in 1 8 64; do ./benchmark.sh GreetingProtocolBenchmark -t $t; done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(1)
+public class GreetingProtocolBenchmark {
+
+    private Server server;
+    private HttpClient httpClient;
+    private HttpRequest restRequest;
+    private ManagedChannel channel;
+    private GreetingServiceGrpc.GreetingServiceBlockingStub grpcStub;
+    private GreetRequest grpcRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Request logging of a loaded server would dominate the measurement
+        LogManager.getLogManager().reset();
+        int grpcPort = freePort();
+        System.setProperty("grpc.port", String.valueOf(grpcPort));
+        System.setProperty("app.database.mock-mode", "true");
+        server = Server.builder().port(0).build().start();
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        restRequest = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.port() + "/helidon/api/greet?name=Benchmark"))
+                .header("Accept", "application/json")
+                .build();
+        channel = ManagedChannelBuilder.forAddress("localhost", grpcPort).usePlaintext().build();
+        grpcStub = GreetingServiceGrpc.newBlockingStub(channel);
+        grpcRequest = GreetRequest.newBuilder().setName("Benchmark").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        server.stop();
+    }
+
+    @Benchmark
+    public String rest() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(restRequest, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("REST greeting failed: " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    @Benchmark
+    public String grpc() {
+        GreetReply reply = grpcStub.greet(grpcRequest);
+        return reply.getMessage();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
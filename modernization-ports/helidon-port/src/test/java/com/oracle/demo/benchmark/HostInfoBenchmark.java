@@ -0,0 +1,70 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.model.HostInfo;
+import com.oracle.demo.service.HostInfoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of assembling host information per request
+ *
+ * hostInfo and hostInfoJson are the request path: the snapshot plus memory
+ * figures and server time, as a HostInfo or as JSON from the precomputed
+ * fragment. refresh collects everything again (host name lookup, interface
+ * enumeration, system properties), which is what every request did before the
+ * snapshot and what the watcher now does only when the network changes.
+ *
+ * Run with: ./benchmark.sh HostInfoBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class HostInfoBenchmark {
+
+    private HostInfoService hostInfoService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hostInfoService = BenchmarkSupport.create(HostInfoService.class, Map.of(
+                "watchIntervalSeconds", 0L,
+                "hostNameResolver", BenchmarkSupport.hostNameResolver()), "initialize");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.destroy(hostInfoService, "cleanup");
+    }
+
+    @Benchmark
+    public HostInfo hostInfo() {
+        return hostInfoService.getHostInfo();
+    }
+
+    @Benchmark
+    public String hostInfoJson() {
+        return hostInfoService.getHostInfoJson();
+    }
+
+    @Benchmark
+    public void refresh() {
+        hostInfoService.refresh();
+    }
+}
@@ -0,0 +1,118 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.service.HostInfoService;
+import com.oracle.demo.service.HostMetricsSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * JMH benchmark of one update interval for many clients watching host memory
+ *
+ * polling is what each of the clients costs the server when it polls
+ * /api/host-info: the host information JSON, encoded to bytes, once per client.
+ * streaming is one tick of HostMetricsSampler with as many SSE subscribers at
+ * that interval: one JVM sample, one delta encoding, and the bytes of the event
+ * for each subscriber. The heap figure only moves when a TLAB is refilled, so
+ * the sample is bumped on every tick: each tick then sends an event to every
+ * subscriber, the worst case for the stream.
+ *
+ * Both leave out the network; polling also leaves out parsing and routing one
+ * HTTP request per client, which the stream does not need, so the measured gap
+ * understates the difference. Single-threaded, the time per operation is the
+ * CPU time of one interval.
+ *
+ * Run with: ./benchmark.sh HostMetricsStreamBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class HostMetricsStreamBenchmark {
+
+    @Param({"500"})
+    private int clients;
+
+    private HostInfoService hostInfoService;
+    private HostMetricsSampler sampler;
+    private long bytes;
+    private long ticks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        hostInfoService = BenchmarkSupport.create(HostInfoService.class, Map.of(
+                "watchIntervalSeconds", 0L,
+                "hostNameResolver", BenchmarkSupport.hostNameResolver()), "initialize");
+        // No sampler thread: every publish() is a tick at which all subscribers are due
+        sampler = BenchmarkSupport.create(HostMetricsSampler.class, Map.of(
+                "tickMillis", 0L, "maxSubscribers", clients), "initialize");
+        Supplier<long[]> jvm = BenchmarkSupport.get(sampler, "probe");
+        BenchmarkSupport.set(sampler, "probe", (Supplier<long[]>) () -> {
+            long[] sample = jvm.get();
+            // heapUsedBytes
+            sample[0] += ++ticks;
+            return sample;
+        });
+        CompletionStage<Object> written = CompletableFuture.completedFuture(null);
+        for (int i = 0; i < clients; i++) {
+            sampler.subscribe(1000, new HostMetricsSampler.Sink() {
+                @Override
+                public CompletionStage<?> send(String json) {
+                    bytes += json.getBytes(StandardCharsets.UTF_8).length;
+                    return written;
+                }
+
+                @Override
+                public CompletionStage<?> heartbeat() {
+                    return written;
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nEvents: %d, samples: %d, bytes: %d%n",
+                sampler.getEventCount(), sampler.getSampleCount(), bytes);
+        BenchmarkSupport.destroy(sampler, "cleanup");
+        BenchmarkSupport.destroy(hostInfoService, "cleanup");
+    }
+
+    @Benchmark
+    public long polling() {
+        for (int i = 0; i < clients; i++) {
+            bytes += hostInfoService.getHostInfoJson().getBytes(StandardCharsets.UTF_8).length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public int streaming() {
+        return sampler.publish();
+    }
+}
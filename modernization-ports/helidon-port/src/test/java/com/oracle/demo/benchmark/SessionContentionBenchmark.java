@@ -0,0 +1,97 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.service.SecureSessionIdGenerator;
+import com.oracle.demo.service.SessionEventBroadcaster;
+import com.oracle.demo.service.SessionRouter;
+import com.oracle.demo.service.SessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * JMH benchmark of the SessionService hot path with 64 threads on a few hot sessions
+ *
+ * All threads hit the same handful of sessions, so every request races on the
+ * same access timestamps and visit counters. This is the path made lock-free by
+ * the atomic store operations; the correctness side is SessionConcurrencyTest.
+ *
+ * Run with: ./benchmark.sh SessionContentionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class SessionContentionBenchmark {
+
+    @Param({"heap", "off-heap"})
+    private String store;
+
+    @Param({"8"})
+    private int hotSessions;
+
+    private SessionService sessionService;
+    private String[] sessionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger.getLogger(SessionService.class.getName()).setLevel(java.util.logging.Level.WARNING);
+
+        sessionService = BenchmarkSupport.create(SessionService.class, Map.of(
+                "maxInactiveInterval", 1800,
+                "expiryTickMillis", 1000L,
+                "maxSessions", 100_000,
+                "maxAttributeBytes", 64L * 1024 * 1024,
+                "storeType", store,
+                "offHeapSlabBytes", 1 << 20,
+                "sessionIdGenerator", BenchmarkSupport.create(SecureSessionIdGenerator.class, Map.of(
+                        "entropyBits", 128, "reseedSeconds", 600L, "nodePrefix", "none"), "initialize"),
+                "sessionRouter", BenchmarkSupport.create(SessionRouter.class, Map.of(), "initialize"),
+                "sessionEvents", BenchmarkSupport.create(SessionEventBroadcaster.class, Map.of(
+                        "queueSize", 65536, "subscriberBuffer", 256, "coalesceMillis", 500L,
+                        "maxSubscribers", 1000, "deliveryThreads", 4), "initialize"),
+                "hostNameResolver", BenchmarkSupport.hostNameResolver()), "initialize");
+        sessionIds = new String[hotSessions];
+        for (int i = 0; i < hotSessions; i++) {
+            sessionIds[i] = sessionService.getOrCreateSession(null).getSessionId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.destroy(sessionService, "cleanup");
+    }
+
+    @Benchmark
+    public SessionInfo getOrCreateSession() {
+        return sessionService.getOrCreateSession(randomSessionId());
+    }
+
+    @Benchmark
+    public SessionInfo getSession() {
+        return sessionService.getSession(randomSessionId());
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+}
@@ -0,0 +1,142 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.model.SessionEvent;
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.service.SecureSessionIdGenerator;
+import com.oracle.demo.service.SessionEventBroadcaster;
+import com.oracle.demo.service.SessionRouter;
+import com.oracle.demo.service.SessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * JMH load test of session request latency with hundreds of event stream subscribers
+ *
+ * Compares the latency distribution (SampleTime) of session requests with no
+ * subscriber and with many. Half of the subscribers are slow clients that take a
+ * millisecond per event, so their buffers overflow and the broadcaster drops
+ * events for them. Request latency should not depend on the subscriber count.
+ * The teardown prints how many events were delivered and dropped.
+ *
+ * Run with: ./benchmark.sh SessionEventsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class SessionEventsBenchmark {
+
+    @Param({"0", "500"})
+    private int subscribers;
+
+    @Param({"1000"})
+    private int population;
+
+    private SessionEventBroadcaster sessionEvents;
+    private SessionService sessionService;
+    private String[] sessionIds;
+    private final LongAdder delivered = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger.getLogger(SessionService.class.getName()).setLevel(java.util.logging.Level.WARNING);
+
+        sessionEvents = BenchmarkSupport.create(SessionEventBroadcaster.class, Map.of(
+                "queueSize", 65536, "subscriberBuffer", 256, "coalesceMillis", 500L,
+                "maxSubscribers", 1000, "deliveryThreads", 4), "initialize");
+        sessionService = BenchmarkSupport.create(SessionService.class, Map.of(
+                "maxInactiveInterval", 1800,
+                "expiryTickMillis", 1000L,
+                "maxSessions", 100_000,
+                "maxAttributeBytes", 64L * 1024 * 1024,
+                "storeType", "heap",
+                "sessionIdGenerator", BenchmarkSupport.create(SecureSessionIdGenerator.class, Map.of(
+                        "entropyBits", 128, "reseedSeconds", 600L, "nodePrefix", "none"), "initialize"),
+                "sessionRouter", BenchmarkSupport.create(SessionRouter.class, Map.of(), "initialize"),
+                "sessionEvents", sessionEvents,
+                "hostNameResolver", BenchmarkSupport.hostNameResolver()), "initialize");
+        sessionIds = new String[population];
+        for (int i = 0; i < population; i++) {
+            sessionIds[i] = sessionService.getOrCreateSession(null).getSessionId();
+        }
+        for (int i = 0; i < subscribers; i++) {
+            sessionEvents.subscribe(null, null, new CountingSink(i % 2 == 0 ? 0 : 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nsubscribers %d, events published %d, delivered %d, dropped %d%n",
+                sessionEvents.getSubscriberCount(), sessionEvents.getPublishedEventCount(),
+                delivered.sum(), sessionEvents.getDroppedEventCount());
+        BenchmarkSupport.destroy(sessionService, "cleanup");
+        BenchmarkSupport.destroy(sessionEvents, "cleanup");
+    }
+
+    @Benchmark
+    public SessionInfo getSession() {
+        return sessionService.getOrCreateSession(randomSessionId());
+    }
+
+    @Benchmark
+    public void setAttribute() {
+        sessionService.setAttribute(randomSessionId(), "cart", "item-" + ThreadLocalRandom.current().nextInt(100));
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+
+    /**
+     * Subscriber that counts events, optionally completing each write after sendMillis like a slow client
+     */
+    private final class CountingSink implements SessionEventBroadcaster.Sink {
+        private final long sendMillis;
+
+        CountingSink(long sendMillis) {
+            this.sendMillis = sendMillis;
+        }
+
+        @Override
+        public CompletionStage<?> send(SessionEvent event) {
+            if (sendMillis == 0) {
+                delivered.increment();
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(delivered::increment,
+                    CompletableFuture.delayedExecutor(sendMillis, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public CompletionStage<?> heartbeat() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
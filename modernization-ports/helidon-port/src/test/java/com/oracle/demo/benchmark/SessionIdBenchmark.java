@@ -0,0 +1,89 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.service.SecureSessionIdGenerator;
+import com.oracle.demo.service.SessionEventBroadcaster;
+import com.oracle.demo.service.SessionIdGenerator;
+import com.oracle.demo.service.SessionRouter;
+import com.oracle.demo.service.SessionService;
+import com.oracle.demo.service.UuidSessionIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * JMH benchmark of session ID generation and session creation with 64 threads
+ *
+ * Compares UUID.randomUUID() (one shared SecureRandom) with the per-thread DRBGs
+ * of SecureSessionIdGenerator, both for the ID alone and for a full
+ * getOrCreateSession() that creates a session.
+ *
+ * Run with: ./benchmark.sh SessionIdBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class SessionIdBenchmark {
+
+    @Param({"uuid", "secure"})
+    private String generator;
+
+    private SessionIdGenerator sessionIdGenerator;
+    private SessionService sessionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger.getLogger(SessionService.class.getName()).setLevel(java.util.logging.Level.WARNING);
+
+        sessionIdGenerator = "uuid".equals(generator)
+                ? new UuidSessionIdGenerator()
+                : BenchmarkSupport.create(SecureSessionIdGenerator.class, Map.of(
+                        "entropyBits", 128, "reseedSeconds", 600L, "nodePrefix", "none"), "initialize");
+        sessionService = BenchmarkSupport.create(SessionService.class, Map.of(
+                "maxInactiveInterval", 1800,
+                "expiryTickMillis", 1000L,
+                "maxSessions", 100_000,
+                "maxAttributeBytes", 64L * 1024 * 1024,
+                "storeType", "heap",
+                "sessionIdGenerator", sessionIdGenerator,
+                "sessionRouter", BenchmarkSupport.create(SessionRouter.class, Map.of(), "initialize"),
+                "sessionEvents", BenchmarkSupport.create(SessionEventBroadcaster.class, Map.of(
+                        "queueSize", 65536, "subscriberBuffer", 256, "coalesceMillis", 500L,
+                        "maxSubscribers", 1000, "deliveryThreads", 4), "initialize"),
+                "hostNameResolver", BenchmarkSupport.hostNameResolver()), "initialize");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkSupport.destroy(sessionService, "cleanup");
+    }
+
+    @Benchmark
+    public String newSessionId() {
+        return sessionIdGenerator.newSessionId();
+    }
+
+    @Benchmark
+    public SessionInfo createSession() {
+        return sessionService.getOrCreateSession(null);
+    }
+}
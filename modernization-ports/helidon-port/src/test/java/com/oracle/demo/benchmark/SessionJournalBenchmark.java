@@ -0,0 +1,178 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.service.SessionJournal;
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.SessionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmark of the session journal: append throughput, write amplification and recovery time
+ *
+ * append: a request mix of 80% touches, 15% attribute writes, 4% new sessions and
+ * 1% invalidations over a working set of sessions. The teardown prints the write
+ * amplification (bytes written to segments, including framing and compaction
+ * snapshots, divided by the bytes of session state handed to the journal).
+ *
+ * recover: replay of a journal written by the same mix, into an empty heap store.
+ *
+ * Run with: ./benchmark.sh SessionJournalBenchmark
+ */
+@Fork(1)
+public class SessionJournalBenchmark {
+
+    private static final SessionStore.Listener NO_LISTENER = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class AppendState {
+
+        @Param({"10000"})
+        int workingSet;
+
+        @Param({"10"})
+        long groupCommitMillis;
+
+        Path directory;
+        SessionJournal journal;
+        String[] sessionIds;
+        String value = "/api/session-info?page=".repeat(4);
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("session-journal-bench");
+            journal = new SessionJournal(directory, 16 << 20, groupCommitMillis, 4);
+            SessionStore store = new HeapSessionStore(1800, 1000, workingSet * 2, Long.MAX_VALUE, NO_LISTENER);
+            journal.recover(store, 1800);
+            journal.start(store);
+            sessionIds = new String[workingSet];
+            for (int i = 0; i < workingSet; i++) {
+                sessionIds[i] = "session-" + i;
+                store.create(sessionIds[i]);
+                store.setAttribute(sessionIds[i], "lastPage", value);
+                journal.created(sessionIds[i], System.currentTimeMillis());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            System.out.printf("%nwrite amplification %.2f (%d MB written for %d MB of session state)%n",
+                    (double) journal.getWrittenBytes() / Math.max(1, journal.getLogicalBytes()),
+                    journal.getWrittenBytes() >> 20, journal.getLogicalBytes() >> 20);
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RecoveryState {
+
+        @Param({"100000"})
+        int sessions;
+
+        @Param({"1000000"})
+        int mutations;
+
+        Path directory;
+        SessionStore store;
+
+        @Setup(Level.Trial)
+        public void write() throws IOException {
+            directory = Files.createTempDirectory("session-journal-bench");
+            SessionJournal journal = new SessionJournal(directory, 16 << 20, 10, Integer.MAX_VALUE);
+            journal.recover(new HeapSessionStore(0, 1000, 1, 1, NO_LISTENER), 0);
+            journal.start(null);
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < sessions; i++) {
+                journal.created("session-" + i, now);
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < mutations; i++) {
+                String sessionId = "session-" + random.nextInt(sessions);
+                if (random.nextInt(100) < 80) {
+                    journal.touched(sessionId, now + i, i);
+                } else {
+                    journal.attributeSet(sessionId, "lastPage", "/api/greeting/" + i);
+                }
+            }
+            journal.close();
+        }
+
+        @Setup(Level.Invocation)
+        public void newStore() {
+            store = new HeapSessionStore(1800, 1000, sessions * 2, Long.MAX_VALUE, NO_LISTENER);
+        }
+
+        @TearDown(Level.Invocation)
+        public void closeStore() {
+            store.close();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public void append(AppendState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(state.workingSet);
+        String sessionId = state.sessionIds[index];
+        int roll = random.nextInt(100);
+        if (roll < 80) {
+            state.journal.touched(sessionId, System.currentTimeMillis(), roll);
+        } else if (roll < 95) {
+            state.journal.attributeSet(sessionId, "lastPage", state.value);
+        } else if (roll < 99) {
+            state.journal.created(sessionId, System.currentTimeMillis());
+        } else {
+            state.journal.removed(sessionId, true);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int recover(RecoveryState state) throws IOException {
+        return new SessionJournal(state.directory, 16 << 20, 10, Integer.MAX_VALUE).recover(state.store, 1800);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
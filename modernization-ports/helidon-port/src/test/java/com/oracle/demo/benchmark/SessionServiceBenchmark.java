@@ -0,0 +1,162 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.service.SecureSessionIdGenerator;
+import com.oracle.demo.service.SessionEventBroadcaster;
+import com.oracle.demo.service.SessionRouter;
+import com.oracle.demo.service.SessionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * JMH benchmark of SessionService lookups under skewed (Zipf) access
+ *
+ * A population of session IDs is accessed with a Zipf distribution. When the
+ * population is larger than app.session.max-sessions, the capacity policy has
+ * to evict. A client whose session was evicted gets a new one, like a browser
+ * replacing its cookie. The teardown prints the hit ratio and eviction count,
+ * so runs with different populations show how well the frequently used
+ * sessions stay resident.
+ *
+ * Run with: ./benchmark.sh SessionServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SessionServiceBenchmark {
+
+    private static final int SAMPLES = 1 << 20;
+
+    @Param({"100000"})
+    private int maxSessions;
+
+    @Param({"50000", "400000"})
+    private int population;
+
+    @Param({"1.0"})
+    private double skew;
+
+    private SessionService sessionService;
+    private String[] sessionIds;
+    private int[] accessOrder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // One INFO line per created session would dominate the measurement
+        Logger.getLogger(SessionService.class.getName()).setLevel(java.util.logging.Level.WARNING);
+
+        sessionService = BenchmarkSupport.create(SessionService.class, Map.of(
+                "maxInactiveInterval", 1800,
+                "expiryTickMillis", 1000L,
+                "maxSessions", maxSessions,
+                "maxAttributeBytes", 64L * 1024 * 1024,
+                "storeType", "heap",
+                "sessionIdGenerator", BenchmarkSupport.create(SecureSessionIdGenerator.class, Map.of(
+                        "entropyBits", 128, "reseedSeconds", 600L, "nodePrefix", "none"), "initialize"),
+                "sessionRouter", BenchmarkSupport.create(SessionRouter.class, Map.of(), "initialize"),
+                "sessionEvents", BenchmarkSupport.create(SessionEventBroadcaster.class, Map.of(
+                        "queueSize", 65536, "subscriberBuffer", 256, "coalesceMillis", 500L,
+                        "maxSubscribers", 1000, "deliveryThreads", 4), "initialize"),
+                "hostNameResolver", BenchmarkSupport.hostNameResolver()), "initialize");
+
+        sessionIds = new String[population];
+        for (int i = 0; i < population; i++) {
+            sessionIds[i] = sessionService.getOrCreateSession(null).getSessionId();
+        }
+        accessOrder = zipf(population, skew, SAMPLES, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long hits = BenchmarkSupport.count(sessionService, "lookupHits");
+        long misses = BenchmarkSupport.count(sessionService, "lookupMisses");
+        System.out.printf("%nhit ratio %.2f%%, evicted %d, live %d%n",
+                hits * 100.0 / Math.max(1, hits + misses),
+                BenchmarkSupport.count(sessionService, "evictedSessions"),
+                sessionService.getLiveSessionCount());
+        BenchmarkSupport.destroy(sessionService, "cleanup");
+    }
+
+    /**
+     * Per-thread position in the shared access sequence
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            position = (int) (Thread.currentThread().getId() * 7919) & (SAMPLES - 1);
+        }
+
+        int next() {
+            position = (position + 1) & (SAMPLES - 1);
+            return position;
+        }
+    }
+
+    @Benchmark
+    public SessionInfo getOrCreateSession(Cursor cursor) {
+        int index = accessOrder[cursor.next()];
+        SessionInfo info = sessionService.getOrCreateSession(sessionIds[index]);
+        if (info.isNew()) {
+            sessionIds[index] = info.getSessionId();
+        }
+        return info;
+    }
+
+    @Benchmark
+    public SessionInfo getSession(Cursor cursor) {
+        return sessionService.getSession(sessionIds[accessOrder[cursor.next()]]);
+    }
+
+    /**
+     * Sample indices 0..n-1 with probability proportional to 1 / (rank ^ skew)
+     */
+    static int[] zipf(int n, double skew, int samples, long seed) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1.0 / Math.pow(i + 1, skew);
+            cumulative[i] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] result = new int[samples];
+        for (int s = 0; s < samples; s++) {
+            double target = random.nextDouble() * sum;
+            int low = 0;
+            int high = n - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < target) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            result[s] = low;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.OffHeapSessionStore;
+import com.oracle.demo.session.SessionRecord;
+import com.oracle.demo.session.SessionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the heap and off-heap session stores holding a large number of sessions
+ *
+ * The store is filled with one million sessions, each with a user name and two
+ * string attributes. The benchmarks then read and update random sessions.
+ * Besides throughput, the trial prints:
+ *   - heap used after a full GC with all sessions loaded (and the direct memory of the off-heap store)
+ *   - the duration of that full GC, as a proxy for the worst-case pause
+ *   - GC count and total GC time during the measured iterations
+ *
+ * Run with: ./benchmark.sh SessionStoreBenchmark -jvmArgs -Xmx4g
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Threads(4)
+public class SessionStoreBenchmark {
+
+    private static final SessionStore.Listener NO_LISTENER = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+        }
+    };
+
+    @Param({"heap", "off-heap"})
+    private String store;
+
+    @Param({"1000000"})
+    private int sessions;
+
+    private SessionStore sessionStore;
+    private String[] sessionIds;
+    private long gcCountBefore;
+    private long gcTimeBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionStore = "heap".equals(store)
+                ? new HeapSessionStore(1800, 1000, sessions, Long.MAX_VALUE, NO_LISTENER)
+                : new OffHeapSessionStore(1800, 1000, sessions, Long.MAX_VALUE, 1 << 20, NO_LISTENER);
+        sessionIds = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            String sessionId = UUID.randomUUID().toString();
+            sessionIds[i] = sessionId;
+            sessionStore.create(sessionId);
+            sessionStore.setUserName(sessionId, "user" + i);
+            sessionStore.setAttribute(sessionId, "theme", "dark");
+            sessionStore.setAttribute(sessionId, "lastPage", "/api/session-info?page=" + i);
+        }
+
+        long start = System.nanoTime();
+        System.gc();
+        long fullGcMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        System.out.printf("%n%s store, %d sessions: heap used %d MB after full GC (%d ms)",
+                store, sessionStore.size(), heapUsed >> 20, fullGcMillis);
+        if (sessionStore instanceof OffHeapSessionStore) {
+            System.out.printf(", direct memory %d MB", ((OffHeapSessionStore) sessionStore).getReservedBytes() >> 20);
+        }
+        System.out.println();
+
+        gcCountBefore = gcCount();
+        gcTimeBefore = gcTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s store: %d GCs, %d ms total GC time during the run%n",
+                store, gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+        sessionStore.close();
+    }
+
+    @Benchmark
+    public SessionRecord access() {
+        return sessionStore.access(randomSessionId(), true);
+    }
+
+    @Benchmark
+    public boolean setAttribute() {
+        return sessionStore.setAttribute(randomSessionId(), "lastPage", "/api/greeting");
+    }
+
+    private String randomSessionId() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(sessionIds.length)];
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+}
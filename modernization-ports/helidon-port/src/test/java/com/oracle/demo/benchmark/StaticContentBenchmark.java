@@ -0,0 +1,89 @@
+package com.oracle.demo.benchmark;
+
+import com.oracle.demo.StaticAssets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the work behind one static file response
+ *
+ * "classpath" is what StaticContentResource did before: open the file on the
+ * classpath and copy it to the response for every request, uncompressed.
+ * "preloaded" is StaticAssets: pick the variant for the request headers, check
+ * If-None-Match and write the shared byte array. The response stream discards
+ * the bytes, so only the server-side work is measured, not JAX-RS or the network.
+ *
+ * fullResponse is a browser's first visit (Accept-Encoding with gzip);
+ * revalidation sends the ETag back and, preloaded, needs no body at all.
+ * Run with -prof gc to see the bytes allocated per request.
+ *
+ * Run with: ./benchmark.sh StaticContentBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class StaticContentBenchmark {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate, br";
+
+    @Param({"classpath", "preloaded"})
+    private String mode;
+
+    @Param({"index.html"})
+    private String file;
+
+    private final OutputStream response = OutputStream.nullOutputStream();
+    private StaticAssets assets;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        assets = new StaticAssets(getClass().getClassLoader(), "static", List.of(file));
+        etag = assets.select(file, ACCEPT_ENCODING).getEtag();
+    }
+
+    @Benchmark
+    public int fullResponse() throws IOException {
+        return serve(ACCEPT_ENCODING, null);
+    }
+
+    @Benchmark
+    public int revalidation() throws IOException {
+        return serve(ACCEPT_ENCODING, etag);
+    }
+
+    private int serve(String acceptEncoding, String ifNoneMatch) throws IOException {
+        if ("classpath".equals(mode)) {
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream("static/" + file)) {
+                return (int) in.transferTo(response);
+            }
+        }
+        StaticAssets.Variant variant = assets.select(file, acceptEncoding);
+        if (variant.matches(ifNoneMatch)) {
+            return 0;
+        }
+        response.write(variant.getBody());
+        return variant.getBody().length;
+    }
+}
@@ -0,0 +1,104 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.grpc.GreetBatchReply;
+import com.oracle.demo.grpc.GreetEachRequest;
+import com.oracle.demo.grpc.GreetReply;
+import com.oracle.demo.grpc.GreetRequest;
+import com.oracle.demo.service.GreetingServiceImpl;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the gRPC greeting endpoint, without a server
+ */
+class GreetingGrpcServiceTest {
+
+    private GreetingGrpcService grpcService;
+
+    @BeforeEach
+    void setUp() {
+        grpcService = new GreetingGrpcService(new GreetingServiceImpl(), 3);
+    }
+
+    @Test
+    void testUnaryGreetingMatchesRest() {
+        RecordingObserver<GreetReply> replies = new RecordingObserver<>();
+        grpcService.greet(GreetRequest.newBuilder().setName(" gRPC ").build(), replies);
+
+        assertThat(replies.completed, is(true));
+        assertThat(replies.values.get(0).getMessage(), is("Hello, gRPC!"));
+        assertThat(replies.values.get(0).getServiceInfo(), is(new GreetingServiceImpl().getServiceInfo()));
+        assertThat(replies.values.get(0).getTimestamp(), is(not(isEmptyString())));
+
+        RecordingObserver<GreetReply> guest = new RecordingObserver<>();
+        grpcService.greet(GreetRequest.getDefaultInstance(), guest);
+        assertThat(guest.values.get(0).getMessage(), is("Hello, Guest!"));
+    }
+
+    @Test
+    void testServerStreamingSendsOneReplyPerName() {
+        RecordingObserver<GreetReply> replies = new RecordingObserver<>();
+        grpcService.greetEach(GreetEachRequest.newBuilder().addNames("Ada").addNames("Linus").build(), replies);
+
+        assertThat(replies.values.size(), is(2));
+        assertThat(replies.values.get(1).getMessage(), is("Hello, Linus!"));
+        assertThat(replies.completed, is(true));
+    }
+
+    @Test
+    void testClientStreamingAnswersTheBatchOnCompletion() {
+        RecordingObserver<GreetBatchReply> reply = new RecordingObserver<>();
+        StreamObserver<GreetRequest> requests = grpcService.greetBatch(reply);
+        requests.onNext(GreetRequest.newBuilder().setName("Ada").build());
+        requests.onNext(GreetRequest.newBuilder().setName("Grace").build());
+        assertThat("Nothing is sent before the client completes", reply.values, is(empty()));
+
+        requests.onCompleted();
+        assertThat(reply.values.get(0).getRepliesCount(), is(2));
+        assertThat(reply.values.get(0).getReplies(1).getMessage(), is("Hello, Grace!"));
+        assertThat(reply.completed, is(true));
+    }
+
+    @Test
+    void testOversizedBatchFailsWithResourceExhausted() {
+        RecordingObserver<GreetBatchReply> reply = new RecordingObserver<>();
+        StreamObserver<GreetRequest> requests = grpcService.greetBatch(reply);
+        for (int i = 0; i < 5; i++) {
+            requests.onNext(GreetRequest.newBuilder().setName("n" + i).build());
+        }
+        requests.onCompleted();
+
+        assertThat(Status.fromThrowable(reply.error).getCode(), is(Status.Code.RESOURCE_EXHAUSTED));
+        assertThat(reply.values, is(empty()));
+        assertThat(reply.completed, is(false));
+    }
+
+    private static final class RecordingObserver<T> implements StreamObserver<T> {
+        private final List<T> values = new ArrayList<>();
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onNext(T value) {
+            values.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.oracle.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for session ownership on the consistent-hash ring
+ */
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+    private static final List<String> MEMBERS = List.of(
+            "10.0.0.1:8081", "10.0.0.2:8081", "10.0.0.3:8081", "10.0.0.4:8081", "10.0.0.5:8081");
+
+    @Test
+    void testKeysAreSpreadEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 160);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.ownerOf(UUID.randomUUID().toString()), 1, Integer::sum);
+        }
+        assertThat(counts.keySet(), containsInAnyOrder(MEMBERS.toArray()));
+        for (int count : counts.values()) {
+            assertThat("Share within 20% of 1/n", (double) count, closeTo(KEYS / 5.0, KEYS / 5.0 * 0.2));
+        }
+    }
+
+    @Test
+    void testOnlyKeysOfTheChangedMemberMove() {
+        ConsistentHashRing before = new ConsistentHashRing(MEMBERS, 160);
+        List<String> grown = new ArrayList<>(MEMBERS);
+        grown.add("10.0.0.6:8081");
+        ConsistentHashRing after = new ConsistentHashRing(grown, 160);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = UUID.randomUUID().toString();
+            String oldOwner = before.ownerOf(key);
+            String newOwner = after.ownerOf(key);
+            if (!oldOwner.equals(newOwner)) {
+                moved++;
+                assertThat("Keys only move to the new member", newOwner, is("10.0.0.6:8081"));
+            }
+        }
+        assertThat("About 1/6 of the keys move", (double) moved, closeTo(KEYS / 6.0, KEYS / 6.0 * 0.25));
+
+        ConsistentHashRing shrunk = new ConsistentHashRing(MEMBERS.subList(1, 5), 160);
+        for (int i = 0; i < KEYS; i++) {
+            String key = UUID.randomUUID().toString();
+            if (!before.ownerOf(key).equals("10.0.0.1:8081")) {
+                assertThat("Keys of remaining members stay", shrunk.ownerOf(key), is(before.ownerOf(key)));
+            }
+        }
+    }
+
+    @Test
+    void testOwnershipDoesNotDependOnMemberOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(MEMBERS, 64);
+        ConsistentHashRing reversed = new ConsistentHashRing(List.of(
+                "10.0.0.5:8081", "10.0.0.4:8081", "10.0.0.3:8081", "10.0.0.2:8081", "10.0.0.1:8081", "10.0.0.1:8081"), 64);
+        for (int i = 0; i < 1000; i++) {
+            String key = "session-" + i;
+            assertThat(reversed.ownerOf(key), is(ring.ownerOf(key)));
+        }
+        assertThat(new ConsistentHashRing(List.of(), 64).ownerOf("session-1"), nullValue());
+    }
+}
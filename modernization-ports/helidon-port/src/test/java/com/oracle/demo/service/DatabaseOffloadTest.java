@@ -0,0 +1,79 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.DatabaseInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the bounded offload of blocking JDBC work, against a stand-in database
+ *
+ * These call the bean directly, so the fault tolerance interceptors are not involved;
+ * DatabaseFaultToleranceTest covers them in the container.
+ */
+class DatabaseOffloadTest {
+
+    private DatabaseService databaseService;
+
+    @BeforeEach
+    void setUp() {
+        StubDatabaseDriver.register();
+        StubDatabaseDriver.reset();
+        databaseService = new DatabaseService(false, StubDatabaseDriver.url(100), "stub", "stub", "stub", "",
+                2, 2, false, 0);
+        databaseService.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseService.cleanup();
+    }
+
+    @Test
+    void testRequestsWaitForTheDatabaseOffTheCallerThread() throws Exception {
+        List<CompletableFuture<DatabaseInfo>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            results.add(databaseService.getDatabaseInfoAsync().toCompletableFuture());
+        }
+        assertThat("Submitting does not wait for the database", System.nanoTime() - start, lessThan(50_000_000L));
+        assertThat(databaseService.getOffloadedTaskCount(), is(6));
+
+        for (CompletableFuture<DatabaseInfo> result : results) {
+            assertThat(result.get().getStatus(), is("CONNECTED"));
+            assertThat(result.get().getDatabaseProductName(), is("Stub Database"));
+        }
+        assertThat("No more round trips than pooled connections", StubDatabaseDriver.getMaxConcurrentRoundTrips(), is(2));
+        assertThat(databaseService.getOffloadedTaskCount(), is(0));
+    }
+
+    @Test
+    void testFailureCompletesExceptionallyAndFallbackServesLastGoodInfo() throws Exception {
+        assertThat(databaseService.getLastGoodDatabaseInfo().toCompletableFuture().get().getStatus(), is("UNAVAILABLE"));
+        assertThat(databaseService.getDatabaseInfoAsync().toCompletableFuture().get().getStatus(), is("CONNECTED"));
+
+        StubDatabaseDriver.fail(true);
+        try {
+            CompletableFuture<DatabaseInfo> failed = databaseService.getDatabaseInfoAsync().toCompletableFuture();
+            ExecutionException e = assertThrows(ExecutionException.class, failed::get);
+            assertThat(e.getCause(), instanceOf(SQLException.class));
+            assertThat(databaseService.probeDatabaseInfo().getStatus(), is("ERROR"));
+
+            DatabaseInfo fallback = databaseService.getLastGoodDatabaseInfo().toCompletableFuture().get();
+            assertThat(fallback.getStatus(), is("STALE"));
+            assertThat(fallback.getDatabaseProductName(), is("Stub Database"));
+        } finally {
+            StubDatabaseDriver.fail(false);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.DatabaseInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the database information snapshots kept by the background refresher
+ */
+class DatabaseSnapshotTest {
+
+    private DatabaseService databaseService;
+
+    @BeforeEach
+    void setUp() {
+        StubDatabaseDriver.register();
+        StubDatabaseDriver.reset();
+        databaseService = new DatabaseService(false, StubDatabaseDriver.url(0), "stub", "stub", "stub", "",
+                2, 1, false, 50);
+        databaseService.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseService.cleanup();
+        StubDatabaseDriver.reset();
+    }
+
+    @Test
+    void testRequestsReadTheSnapshotWithoutTouchingThePool() throws Exception {
+        DatabaseInfo info = databaseService.getDatabaseInfo();
+        assertThat("First snapshot is taken on startup", info.getStatus(), is("CONNECTED"));
+        assertThat(info.getDatabaseProductName(), is("Stub Database"));
+        assertThat(info.getPoolStatistics().getMaxPoolSize(), is(2));
+
+        Thread.sleep(300);
+        int roundTrips = StubDatabaseDriver.getRoundTrips();
+        // 4 metadata calls once, then one validation per refresh
+        assertThat(roundTrips, lessThan(4 + 300 / 50 + 2));
+        assertThat("Refresher replaced the snapshot", databaseService.getDatabaseInfo(), is(not(sameInstance(info))));
+
+        int before = StubDatabaseDriver.getRoundTrips();
+        for (int i = 0; i < 1000; i++) {
+            databaseService.getDatabaseInfo();
+        }
+        assertThat("Requests do not reach the database", StubDatabaseDriver.getRoundTrips() - before, lessThan(3));
+    }
+
+    @Test
+    void testRefresherReportsOutagesAndRecovery() throws Exception {
+        StubDatabaseDriver.fail(true);
+        assertThat(awaitStatus("ERROR").getDatabaseProductName(), is("Stub Database"));
+        assertThat("A forced probe sees the outage too", databaseService.probeDatabaseInfo().getStatus(), is("ERROR"));
+
+        StubDatabaseDriver.fail(false);
+        assertThat(awaitStatus("CONNECTED").getCheckedAt(), is(notNullValue()));
+    }
+
+    private DatabaseInfo awaitStatus(String status) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        DatabaseInfo info = databaseService.getDatabaseInfo();
+        while (!status.equals(info.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            info = databaseService.getDatabaseInfo();
+        }
+        assertThat(info.getStatus(), is(status));
+        return info;
+    }
+}
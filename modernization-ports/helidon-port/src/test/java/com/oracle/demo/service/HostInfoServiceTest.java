@@ -0,0 +1,138 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.HostInfo;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonReader;
+import jakarta.json.JsonValue;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the host information snapshot and its precomputed JSON
+ */
+class HostInfoServiceTest {
+
+    private HostNameResolver hostNameResolver;
+    private HostInfoService hostInfoService;
+
+    @BeforeEach
+    void setUp() {
+        hostNameResolver = HostNameResolverTest.createResolver(InetAddress::getLocalHost, 300);
+        hostInfoService = new HostInfoService(hostNameResolver, 0);
+        hostInfoService.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hostInfoService.cleanup();
+        hostNameResolver.cleanup();
+    }
+
+    @Test
+    void testStaticPartsAreSharedAndMemoryIsPerCall() {
+        HostInfo first = hostInfoService.getHostInfo();
+        HostInfo second = hostInfoService.getHostInfo();
+
+        assertThat(first.getServerName(), is("Helidon MP Server"));
+        assertThat(first.getServerTime(), is(notNullValue()));
+        assertThat(first.getJavaInfo().getVersion(), is(System.getProperty("java.version")));
+        assertThat(first.getOsInfo().getProcessors(), is(Runtime.getRuntime().availableProcessors()));
+        assertThat(second.getOsInfo(), is(sameInstance(first.getOsInfo())));
+        assertThat(second.getNetworkInterfaces(), is(sameInstance(first.getNetworkInterfaces())));
+        assertThat(second.getMemoryInfo(), is(not(sameInstance(first.getMemoryInfo()))));
+        assertThat("Unchanged interfaces keep the snapshot", hostInfoService.refreshIfChanged(), is(false));
+    }
+
+    @Test
+    void testJsonHasEveryField() {
+        HostInfo hostInfo = hostInfoService.getHostInfo();
+        String json = hostInfoService.getHostInfoJson();
+
+        assertThat(json, startsWith("{"));
+        assertThat(json, endsWith("}}"));
+        assertThat(json, containsString("\"serverName\":\"Helidon MP Server\""));
+        assertThat(json, containsString("\"javaInfo\":{\"home\":" + HostInfoService.quote(System.getProperty("java.home"))));
+        assertThat(json, containsString("\"processors\":" + Runtime.getRuntime().availableProcessors()));
+        assertThat(json, containsString("\"workingDirectory\":" + HostInfoService.quote(System.getProperty("user.dir"))));
+        assertThat(json, containsString("\"memoryInfo\":{\"freeMemoryMB\":"));
+        if (hostInfo.getHostname() != null) {
+            assertThat(json, containsString("\"hostname\":" + HostInfoService.quote(hostInfo.getHostname())));
+        }
+        for (Map.Entry<String, String> entry : hostInfo.getNetworkInterfaces().entrySet()) {
+            assertThat(json, containsString(HostInfoService.quote(entry.getKey()) + ":" + HostInfoService.quote(entry.getValue())));
+        }
+    }
+
+    @Test
+    void testJsonMatchesJsonbFieldForField() throws Exception {
+        String expected;
+        try (Jsonb jsonb = JsonbBuilder.create()) {
+            expected = jsonb.toJson(hostInfoService.getHostInfo());
+        }
+        JsonObject jsonb = parse(expected);
+        JsonObject handWritten = parse(hostInfoService.getHostInfoJson());
+
+        assertThat(handWritten.keySet(), is(jsonb.keySet()));
+        for (String name : jsonb.keySet()) {
+            if (name.equals("serverTime")) {
+                continue;
+            }
+            if (name.equals("memoryInfo")) {
+                // Values change between the two calls
+                assertThat(name, handWritten.getJsonObject(name).keySet(), is(jsonb.getJsonObject(name).keySet()));
+                continue;
+            }
+            assertThat(name, handWritten.get(name), is(jsonb.get(name)));
+        }
+        assertThat(handWritten.get("serverTime").getValueType(), is(JsonValue.ValueType.STRING));
+    }
+
+    @Test
+    void testHostNameComesFromTheResolver() throws Exception {
+        // Entries expire at once, so every check looks the name up again in the background
+        AtomicReference<InetAddress> answer = new AtomicReference<>(
+                InetAddress.getByAddress("initial.example", new byte[] {10, 0, 0, 6}));
+        hostInfoService.cleanup();
+        hostNameResolver.cleanup();
+        hostNameResolver = HostNameResolverTest.createResolver(answer::get, 0);
+        hostInfoService = new HostInfoService(hostNameResolver, 0);
+        hostInfoService.initialize();
+        assertThat(hostInfoService.getHostInfo().getHostname(), is("initial.example"));
+
+        answer.set(InetAddress.getByAddress("resolved.example", new byte[] {10, 0, 0, 7}));
+        boolean rebuilt = false;
+        for (int i = 0; i < 100 && !rebuilt; i++) {
+            rebuilt = hostInfoService.refreshIfChanged();
+            Thread.sleep(20);
+        }
+        assertThat("A new host name rebuilds the snapshot", rebuilt, is(true));
+        assertThat(hostInfoService.getHostInfo().getHostname(), is("resolved.example"));
+        assertThat(hostInfoService.getHostInfo().getHostAddress(), is("10.0.0.7"));
+        assertThat(hostInfoService.getHostInfoJson(), containsString("\"hostname\":\"resolved.example\""));
+        assertThat(hostInfoService.refreshIfChanged(), is(false));
+    }
+
+    @Test
+    void testQuoteEscapesJsonSpecialCharacters() {
+        assertThat(HostInfoService.quote("C:\\Users\\\"me\"\n\u0001"), is("\"C:\\\\Users\\\\\\\"me\\\"\\n\\u0001\""));
+        assertThat(HostInfoService.quote(null), is(nullValue()));
+    }
+
+    private static JsonObject parse(String json) {
+        try (JsonReader reader = Json.createReader(new StringReader(json))) {
+            return reader.readObject();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.oracle.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the shared sampler behind the host metrics stream
+ */
+class HostMetricsSamplerTest {
+
+    private HostMetricsSampler sampler;
+    private long[] sample;
+
+    @BeforeEach
+    void setUp() {
+        sample = new long[] {1000, 4000, 500, 2, 30, 12, 125};
+        // No sampler thread: each publish() is one tick
+        sampler = new HostMetricsSampler(0, 3, () -> sample.clone());
+        sampler.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sampler.cleanup();
+    }
+
+    @Test
+    void testFirstEventHasEveryFieldAndLaterOnesOnlyChanges() {
+        RecordingSink sink = new RecordingSink();
+        assertThat(sampler.subscribe(1000, sink), is(true));
+
+        sampler.publish();
+        assertThat(sink.events.get(0), startsWith("{\"heapUsedBytes\":1000,\"heapCommittedBytes\":4000,"
+                + "\"nonHeapUsedBytes\":500,\"gcCount\":2,\"gcTimeMillis\":30,\"threadCount\":12,"
+                + "\"processCpuLoad\":0.125,\"time\":"));
+
+        sampler.publish();
+        assertThat("Nothing changed, nothing sent", sink.events.size(), is(1));
+
+        sample[HostMetricsSampler.HEAP_USED] = 2000;
+        sample[HostMetricsSampler.GC_COUNT] = 3;
+        sampler.publish();
+        assertThat(sink.events.get(1), startsWith("{\"heapUsedBytes\":2000,\"gcCount\":3,\"time\":"));
+        assertThat(sampler.getSampleCount(), is(3L));
+    }
+
+    @Test
+    void testSubscribersAtTheSameRateShareOneSampleAndOneEncoding() {
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        sampler.subscribe(1000, first);
+        sampler.subscribe(1000, second);
+
+        sampler.publish();
+        sample[HostMetricsSampler.THREAD_COUNT] = 13;
+        sampler.publish();
+
+        assertThat(sampler.getSampleCount(), is(2L));
+        assertThat(second.events.get(1), is(sameInstance(first.events.get(1))));
+        assertThat(sampler.getEventCount(), is(4L));
+    }
+
+    @Test
+    void testBusyClientSkipsTicksAndThenGetsEverythingThatChanged() {
+        RecordingSink sink = new RecordingSink();
+        sampler.subscribe(1000, sink);
+        sampler.publish();
+
+        sink.pending = new CompletableFuture<>();
+        sample[HostMetricsSampler.HEAP_USED] = 2000;
+        sampler.publish();
+        sample[HostMetricsSampler.THREAD_COUNT] = 20;
+        sampler.publish();
+        assertThat(sampler.getSkippedCount(), is(1L));
+
+        CompletableFuture<Object> written = sink.pending;
+        sink.pending = null;
+        written.complete(null);
+        sampler.publish();
+        assertThat(sink.events.get(2), startsWith("{\"threadCount\":20,\"time\":"));
+    }
+
+    @Test
+    void testFailedWriteEndsTheSubscriptionAndFreesTheSlot() {
+        RecordingSink failing = new RecordingSink();
+        failing.pending = CompletableFuture.failedFuture(new IOException("gone"));
+        sampler.subscribe(1000, failing);
+        sampler.subscribe(1000, new RecordingSink());
+        sampler.subscribe(1000, new RecordingSink());
+        assertThat("max-subscribers reached", sampler.subscribe(1000, new RecordingSink()), is(false));
+
+        sampler.publish();
+        assertThat(failing.closed, is(true));
+        assertThat(sampler.getSubscriberCount(), is(2));
+        assertThat(sampler.subscribe(1000, new RecordingSink()), is(true));
+    }
+
+    @Test
+    void testCpuLoadIsFormattedAsAFractionAndOmittedWhenUnknown() {
+        long[] previous = sample.clone();
+        sample[HostMetricsSampler.PROCESS_CPU_LOAD] = 1000;
+        assertThat(HostMetricsSampler.toJson(previous, sample, 7), is("{\"processCpuLoad\":1.000,\"time\":7}"));
+        sample[HostMetricsSampler.PROCESS_CPU_LOAD] = 7;
+        assertThat(HostMetricsSampler.toJson(previous, sample, 7), is("{\"processCpuLoad\":0.007,\"time\":7}"));
+        sample[HostMetricsSampler.PROCESS_CPU_LOAD] = -1;
+        assertThat(HostMetricsSampler.toJson(previous, sample, 7), is(nullValue()));
+    }
+
+    /**
+     * Records events; writes complete at once unless pending is set
+     */
+    private static final class RecordingSink implements HostMetricsSampler.Sink {
+        private final List<String> events = new ArrayList<>();
+        private CompletableFuture<Object> pending;
+        private boolean closed;
+
+        @Override
+        public CompletionStage<?> send(String json) {
+            events.add(json);
+            return pending != null ? pending : CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletionStage<?> heartbeat() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
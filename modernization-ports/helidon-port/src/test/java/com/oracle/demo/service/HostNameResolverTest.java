@@ -0,0 +1,113 @@
+package com.oracle.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the cached, asynchronous host name resolver
+ */
+class HostNameResolverTest {
+
+    private HostNameResolver resolver;
+
+    @AfterEach
+    void tearDown() {
+        if (resolver != null) {
+            resolver.cleanup();
+        }
+    }
+
+    @Test
+    void testSlowLookupTimesOutToTheFallbackAndStillFillsTheCache() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        resolver = createResolver(() -> {
+            release.await();
+            return address("slow.example");
+        }, 300);
+
+        long start = System.nanoTime();
+        assertThat(resolver.getLocalHostName("fallback"), is("fallback"));
+        assertThat("Caller waits at most the timeout",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1000L));
+        assertThat(resolver.getTimeoutCount(), is(1L));
+
+        release.countDown();
+        awaitName("slow.example");
+        assertThat(resolver.getLocalHostName("fallback"), is("slow.example"));
+        assertThat(resolver.getLocalHostAddress("fallback"), is("10.0.0.1"));
+        assertThat(resolver.getHitCount(), greaterThanOrEqualTo(2L));
+    }
+
+    @Test
+    void testFailedLookupIsCachedForTheNegativeTtl() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        resolver = createResolver(() -> {
+            lookups.incrementAndGet();
+            throw new UnknownHostException("no such host");
+        }, 300);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(resolver.getLocalHostName("fallback"), is("fallback"));
+        }
+        assertThat("Negative result is not looked up again", lookups.get(), is(1));
+        assertThat(resolver.getFailureCount(), is(1L));
+        assertThat("Fallbacks are not hits", resolver.getHitCount(), is(0L));
+        assertThat(resolver.getNegativeHitCount() + resolver.getMissCount(), is(10L));
+    }
+
+    @Test
+    void testExpiredEntryIsServedWhileRefreshing() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        resolver = createResolver(() -> {
+            if (lookups.incrementAndGet() > 1) {
+                release.await();
+                return address("new.example");
+            }
+            return address("old.example");
+        }, 0);
+        awaitName("old.example");
+
+        // The entry expired at once; the refresh is blocked, yet callers do not wait
+        for (int i = 0; i < 100; i++) {
+            assertThat(resolver.getLocalHostName("fallback"), is("old.example"));
+        }
+        Thread.sleep(100);
+        assertThat("One refresh in flight at a time", lookups.get(), is(2));
+        assertThat(resolver.getStaleHitCount(), greaterThanOrEqualTo(100L));
+
+        release.countDown();
+        awaitName("new.example");
+    }
+
+    /**
+     * Initialized resolver with a replaced lookup, a 200 ms timeout and a 10 s negative TTL
+     */
+    static HostNameResolver createResolver(Callable<InetAddress> lookup, long positiveTtlSeconds) {
+        HostNameResolver resolver = new HostNameResolver(200, positiveTtlSeconds, 10);
+        resolver.lookup = lookup;
+        resolver.initialize();
+        return resolver;
+    }
+
+    private void awaitName(String expected) throws InterruptedException {
+        for (int i = 0; i < 100 && !expected.equals(resolver.getLocalHostName(null)); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(resolver.getLocalHostName(null), is(expected));
+    }
+
+    private static InetAddress address(String name) throws UnknownHostException {
+        return InetAddress.getByAddress(name, new byte[] {10, 0, 0, 1});
+    }
+}
@@ -0,0 +1,48 @@
+package com.oracle.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the default session ID format
+ */
+class SecureSessionIdGeneratorTest {
+
+    @Test
+    void testIdsAreUrlSafeAndSizedByEntropy() throws Exception {
+        SecureSessionIdGenerator generator = newGenerator(128, "none");
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = generator.newSessionId();
+            assertThat(id, id.matches("[A-Za-z0-9_-]{22}"), is(true));
+            ids.add(id);
+        }
+        assertThat("No duplicates", ids.size(), is(10_000));
+
+        assertThat(newGenerator(256, "none").newSessionId().length(), is(43));
+    }
+
+    @Test
+    void testNodePrefixIsSeparatedByADot() throws Exception {
+        String id = newGenerator(96, "pod-2").newSessionId();
+        assertThat(id, id.matches("pod-2\\.[A-Za-z0-9_-]{16}"), is(true));
+    }
+
+    @Test
+    void testWeakOrUnsafeSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> newGenerator(32, "none"));
+        assertThrows(IllegalArgumentException.class, () -> newGenerator(128, "pod/2"));
+    }
+
+    private static SecureSessionIdGenerator newGenerator(int entropyBits, String nodePrefix) {
+        SecureSessionIdGenerator generator = new SecureSessionIdGenerator(entropyBits, 600, nodePrefix);
+        generator.initialize();
+        return generator;
+    }
+}
@@ -0,0 +1,40 @@
+package com.oracle.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the admin secret check of the session admin endpoints
+ */
+class SessionAdminAccessTest {
+
+    @Test
+    void testNoSecretDisablesAdminAccess() {
+        SessionAdminAccess access = newAccess("");
+
+        assertThat(access.isEnabled(), is(false));
+        assertThat(access.isAdmin(null), is(false));
+        assertThat("An empty header does not match an empty secret", access.isAdmin(""), is(false));
+    }
+
+    @Test
+    void testOnlyTheExactSecretIsAdmin() {
+        SessionAdminAccess access = newAccess("s3cret");
+
+        assertThat(access.isEnabled(), is(true));
+        assertThat(access.isAdmin("s3cret"), is(true));
+        assertThat("Missing header", access.isAdmin(null), is(false));
+        assertThat(access.isAdmin(""), is(false));
+        assertThat("Prefix", access.isAdmin("s3cre"), is(false));
+        assertThat("Longer", access.isAdmin("s3cret2"), is(false));
+        assertThat(access.isAdmin("S3CRET"), is(false));
+    }
+
+    private static SessionAdminAccess newAccess(String secret) {
+        SessionAdminAccess access = new SessionAdminAccess(secret);
+        access.initialize();
+        return access;
+    }
+}
@@ -0,0 +1,195 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.OffHeapSessionStore;
+import com.oracle.demo.session.SessionStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Stress tests of the session stores under contention, in the style of jcstress:
+ * many threads race on one session, then the outcome is checked against the only
+ * result a correct implementation can produce
+ */
+class SessionConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int ROUNDS = 200;
+    private static final List<String> STORE_TYPES = List.of("heap", "off-heap");
+
+    private static final SessionStore.Listener NO_LISTENER = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+        }
+    };
+
+    @Test
+    void testConcurrentVisitsAreNeverLost() throws Exception {
+        for (String type : STORE_TYPES) {
+            checkConcurrentVisitsAreNeverLost(type);
+        }
+    }
+
+    private void checkConcurrentVisitsAreNeverLost(String type) throws Exception {
+        SessionStore store = newStore(type);
+        try {
+            store.create("hot");
+            int visitsPerThread = 2000;
+            AtomicReference<String> violation = new AtomicReference<>();
+            race(THREADS, thread -> {
+                long lastSeen = 0;
+                for (int i = 0; i < visitsPerThread; i++) {
+                    long accessed = store.access("hot", true).getLastAccessedTime();
+                    if (accessed < lastSeen) {
+                        violation.set("access time went back from " + lastSeen + " to " + accessed);
+                    }
+                    lastSeen = accessed;
+                }
+            });
+            assertThat(violation.get(), nullValue());
+            assertThat(store.access("hot", false).getVisitCount(), is(1L + (long) THREADS * visitsPerThread));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testOnlyOneCreateOfAnIdWins() throws Exception {
+        for (String type : STORE_TYPES) {
+            checkOnlyOneCreateOfAnIdWins(type);
+        }
+    }
+
+    private void checkOnlyOneCreateOfAnIdWins(String type) throws Exception {
+        SessionStore store = newStore(type);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                String sessionId = "contended-" + round;
+                AtomicInteger created = new AtomicInteger();
+                race(8, thread -> {
+                    if (store.create(sessionId) != null) {
+                        created.incrementAndGet();
+                    }
+                });
+                assertThat("Round " + round, created.get(), is(1));
+            }
+            assertThat(store.size(), is(ROUNDS));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testCreateOfATakenIdEvictsNothing() throws Exception {
+        for (String type : STORE_TYPES) {
+            checkCreateOfATakenIdEvictsNothing(type);
+        }
+    }
+
+    private void checkCreateOfATakenIdEvictsNothing(String type) throws Exception {
+        AtomicInteger evictions = new AtomicInteger();
+        SessionStore.Listener listener = new SessionStore.Listener() {
+            @Override
+            public void onExpired(String sessionId) {
+            }
+
+            @Override
+            public void onEvicted(String sessionId) {
+                evictions.incrementAndGet();
+            }
+        };
+        SessionStore store = "heap".equals(type)
+                ? new HeapSessionStore(1800, 1000, 100, Long.MAX_VALUE, listener)
+                : new OffHeapSessionStore(1800, 1000, 100, Long.MAX_VALUE, 1 << 20, listener);
+        try {
+            for (int i = 0; i < 100; i++) {
+                store.create("s" + i);
+            }
+            race(16, thread -> {
+                for (int i = 0; i < 100; i++) {
+                    assertThat(store.create("s" + i), is(nullValue()));
+                }
+            });
+            assertThat(type, evictions.get(), is(0));
+            assertThat(type, store.size(), is(100));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void testRestoreReplacesAtomically() throws Exception {
+        for (String type : STORE_TYPES) {
+            checkRestoreReplacesAtomically(type);
+        }
+    }
+
+    private void checkRestoreReplacesAtomically(String type) throws Exception {
+        SessionStore store = newStore(type);
+        try {
+            store.create("s1");
+            race(16, thread -> {
+                for (int i = 0; i < 200; i++) {
+                    SessionDelta snapshot = SessionDelta.snapshotOfNew("s1", System.currentTimeMillis());
+                    snapshot.key = "user" + thread;
+                    store.restore(snapshot.asRecord());
+                }
+            });
+            assertThat("One session, whichever restore came last", store.size(), is(1));
+            assertThat(store.access("s1", false).getUserName(), startsWith("user"));
+        } finally {
+            store.close();
+        }
+    }
+
+    private static SessionStore newStore(String type) {
+        return "heap".equals(type)
+                ? new HeapSessionStore(1800, 1000, 100_000, Long.MAX_VALUE, NO_LISTENER)
+                : new OffHeapSessionStore(1800, 1000, 100_000, Long.MAX_VALUE, 1 << 20, NO_LISTENER);
+    }
+
+    /**
+     * Start all threads at once and wait for them; rethrows the first failure
+     */
+    private static void race(int threads, Actor actor) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> started = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    actor.run(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            worker.start();
+            started.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : started) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    private interface Actor {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,192 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.SessionEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the fan-out of session events to SSE subscribers
+ */
+class SessionEventBroadcasterTest {
+
+    private SessionEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = createBroadcaster(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broadcaster.cleanup();
+    }
+
+    @Test
+    void testSubscribersOnlyReceiveWhatTheirFilterAccepts() throws Exception {
+        RecordingSink all = new RecordingSink(0);
+        RecordingSink invalidations = new RecordingSink(0);
+        assertThat(broadcaster.subscribe(null, null, all), is(true));
+        assertThat(broadcaster.subscribe(EnumSet.of(SessionEvent.Type.INVALIDATED), Set.of("s2"), invalidations), is(true));
+        assertThat("Limited to max-subscribers", broadcaster.subscribe(null, null, new RecordingSink(0)), is(false));
+
+        broadcaster.created("s1", 1);
+        broadcaster.attributeSet("s1", "cart", "x");
+        broadcaster.removed("s1", true);
+        broadcaster.removed("s2", true);
+
+        all.await(4);
+        invalidations.await(1);
+        assertThat(all.describe(), contains("created s1", "attribute-set s1", "invalidated s1", "invalidated s2"));
+        assertThat(invalidations.describe(), contains("invalidated s2"));
+    }
+
+    @Test
+    void testRapidTouchesAreCoalesced() throws Exception {
+        RecordingSink sink = new RecordingSink(0);
+        broadcaster.subscribe(null, null, sink);
+
+        broadcaster.created("s1", 1);
+        for (int visit = 1; visit <= 1000; visit++) {
+            broadcaster.touched("s1", 1000 + visit, visit);
+        }
+        broadcaster.created("s2", 2);
+        broadcaster.touched("s2", 5000, 1);
+        broadcaster.removed("s2", false);
+
+        sink.await(4);
+        Thread.sleep(300);
+        assertThat(sink.describe(), contains("created s1", "created s2", "removed s2", "touched s1"));
+        assertThat("Last touch wins", sink.events.get(3).getVisitCount(), is(1000L));
+    }
+
+    @Test
+    void testSlowSubscriberLosesEventsWithoutBlockingPublishers() throws Exception {
+        RecordingSink slow = new RecordingSink(50);
+        RecordingSink fast = new RecordingSink(0);
+        broadcaster.subscribe(null, null, slow);
+        broadcaster.subscribe(null, null, fast);
+
+        // Bursts of 10 per 5 ms: fits the fast client's buffer, not the slow one's
+        long publishNanos = 0;
+        for (int i = 0; i < 500; i++) {
+            long start = System.nanoTime();
+            broadcaster.attributeSet("s1", "k" + i, i);
+            publishNanos += System.nanoTime() - start;
+            if (i % 10 == 9) {
+                Thread.sleep(5);
+            }
+        }
+        long publishMillis = TimeUnit.NANOSECONDS.toMillis(publishNanos);
+
+        fast.await(500);
+        assertThat("Publishing does not wait for subscribers", publishMillis, lessThan(500L));
+        assertThat(fast.events.size(), is(500));
+        assertThat(slow.events.size(), lessThan(500));
+        assertThat(broadcaster.getDroppedEventCount(), greaterThan(0L));
+    }
+
+    @Test
+    void testStalledSubscribersDoNotHoldDeliveryThreads() throws Exception {
+        broadcaster.cleanup();
+        broadcaster = createBroadcaster(3);
+        // As many stalled clients as delivery threads; a blocking write would park both threads
+        StalledSink stalled1 = new StalledSink();
+        StalledSink stalled2 = new StalledSink();
+        RecordingSink fast = new RecordingSink(0);
+        broadcaster.subscribe(null, null, stalled1);
+        broadcaster.subscribe(null, null, stalled2);
+        broadcaster.subscribe(null, null, fast);
+
+        for (int i = 0; i < 100; i++) {
+            broadcaster.attributeSet("s1", "k" + i, i);
+        }
+
+        fast.await(100);
+        assertThat(fast.events.size(), is(100));
+        assertThat("One write in flight per stalled client", stalled1.sends.get(), is(1));
+        assertThat(stalled2.sends.get(), is(1));
+    }
+
+    /**
+     * Records events, optionally completing each write after sendMillis like a slow client
+     */
+    private static SessionEventBroadcaster createBroadcaster(int maxSubscribers) {
+        SessionEventBroadcaster broadcaster = new SessionEventBroadcaster(1024, 256, 100, maxSubscribers, 2);
+        broadcaster.initialize();
+        return broadcaster;
+    }
+
+    private static final class RecordingSink implements SessionEventBroadcaster.Sink {
+        private final long sendMillis;
+        private final List<SessionEvent> events = new CopyOnWriteArrayList<>();
+
+        RecordingSink(long sendMillis) {
+            this.sendMillis = sendMillis;
+        }
+
+        @Override
+        public CompletionStage<?> send(SessionEvent event) {
+            if (sendMillis == 0) {
+                events.add(event);
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(() -> events.add(event),
+                    CompletableFuture.delayedExecutor(sendMillis, TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public CompletionStage<?> heartbeat() {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        void await(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (events.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        List<String> describe() {
+            return events.stream().map(event -> event.getType().eventName() + " " + event.getSessionId()).toList();
+        }
+    }
+
+    /**
+     * Client whose writes never complete, e.g. one that stopped reading
+     */
+    private static final class StalledSink implements SessionEventBroadcaster.Sink {
+        private final AtomicInteger sends = new AtomicInteger();
+
+        @Override
+        public CompletionStage<?> send(SessionEvent event) {
+            sends.incrementAndGet();
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public CompletionStage<?> heartbeat() {
+            return new CompletableFuture<>();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
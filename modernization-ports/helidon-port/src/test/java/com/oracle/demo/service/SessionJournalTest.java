@@ -0,0 +1,180 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.SessionRecord;
+import com.oracle.demo.session.SessionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the session journal: replay, torn writes, compaction and directory access
+ */
+class SessionJournalTest {
+
+    private static final SessionStore.Listener NO_LISTENER = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void testMutationsSurviveRestart() throws IOException {
+        SessionStore store = newStore();
+        SessionJournal journal = newJournal(1 << 20, 4);
+        journal.recover(store, 1800);
+        journal.start(store);
+
+        for (int i = 0; i < 100; i++) {
+            SessionRecord session = store.create("s" + i);
+            journal.created(session.getId(), session.getCreationTime());
+        }
+        store.setUserName("s1", "alice");
+        journal.userNameSet("s1", "alice");
+        store.setAttribute("s1", "cart", List.of("book"));
+        journal.attributeSet("s1", "cart", List.of("book"));
+        store.setAttribute("s1", "theme", "dark");
+        journal.attributeSet("s1", "theme", "dark");
+        store.removeAttribute("s1", "theme");
+        journal.attributeRemoved("s1", "theme");
+        SessionRecord touched = store.access("s1", true);
+        journal.touched("s1", touched.getLastAccessedTime(), touched.getVisitCount());
+        store.invalidate("s2");
+        journal.removed("s2", true);
+        journal.close();
+
+        SessionStore restarted = newStore();
+        int restored = newJournal(1 << 20, 4).recover(restarted, 1800);
+
+        assertThat(restored, is(99));
+        assertThat(restarted.access("s2", false), is(nullValue()));
+        SessionRecord session = restarted.access("s1", false);
+        assertThat(session.getUserName(), is("alice"));
+        assertThat(session.getVisitCount(), is(2L));
+        assertThat(session.getAttributes(), is(Map.of("cart", List.of("book"))));
+    }
+
+    @Test
+    void testTornRecordEndsReplayOfItsSegment() throws IOException {
+        SessionStore store = newStore();
+        SessionJournal journal = newJournal(1 << 20, 4);
+        journal.recover(store, 1800);
+        journal.start(store);
+        journal.created("first", System.currentTimeMillis());
+        journal.created("second", System.currentTimeMillis());
+        journal.close();
+
+        // Flip a byte inside the second record, as if the write was cut short
+        Path segment = segments().get(0);
+        long firstFrame = 8 + 1 + 4 + "first".length() + 8;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(firstFrame + 8 + 3);
+            file.write(file.read() ^ 0xff);
+        }
+
+        SessionStore restarted = newStore();
+        assertThat(newJournal(1 << 20, 4).recover(restarted, 1800), is(1));
+        assertThat(restarted.access("first", false), is(notNullValue()));
+    }
+
+    @Test
+    void testCompactionDropsOldSegmentsAndKeepsState() throws Exception {
+        SessionStore store = newStore();
+        SessionJournal journal = newJournal(1 << 20, 2);
+        journal.recover(store, 1800);
+        journal.start(store);
+
+        String value = "x".repeat(1000);
+        for (int i = 0; i < 5000; i++) {
+            String sessionId = "s" + (i % 500);
+            if (i < 500) {
+                store.create(sessionId);
+                journal.created(sessionId, System.currentTimeMillis());
+            }
+            store.setAttribute(sessionId, "data", value + i);
+            journal.attributeSet(sessionId, "data", value + i);
+            if (i % 500 == 499) {
+                // Let the writer catch up so that segments roll and compaction runs
+                Thread.sleep(100);
+            }
+        }
+        journal.close();
+
+        assertThat("Old segments deleted", segments().size(), is(lessThan(5)));
+        assertThat("Written bytes include snapshots", journal.getWrittenBytes(), is(greaterThan(journal.getLogicalBytes())));
+
+        SessionStore restarted = newStore();
+        assertThat(newJournal(1 << 20, 2).recover(restarted, 1800), is(500));
+        assertThat(restarted.access("s7", false).getAttributes().get("data"), is(value + 4507));
+    }
+
+    @Test
+    void testMissingDirectoryIsCreatedOwnerOnly() throws IOException {
+        Path journalDirectory = directory.resolve("data").resolve("session-journal");
+        SessionJournal journal = new SessionJournal(journalDirectory, 1 << 20, 10, 4);
+        resources.add(journal);
+        journal.recover(newStore(), 1800);
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(journalDirectory)), is("rwx------"));
+    }
+
+    @Test
+    void testDirectoryWritableByOthersIsRefused() throws IOException {
+        Path shared = Files.createDirectory(directory.resolve("shared"));
+        Files.setPosixFilePermissions(shared, PosixFilePermissions.fromString("rwxrwxrwx"));
+        SessionJournal journal = new SessionJournal(shared, 1 << 20, 10, 4);
+        resources.add(journal);
+
+        IOException e = assertThrows(IOException.class, () -> journal.recover(newStore(), 1800));
+        assertThat(e.getMessage(), containsString("writable by group or others"));
+    }
+
+    private SessionStore newStore() {
+        SessionStore store = new HeapSessionStore(1800, 1000, 10_000, Long.MAX_VALUE, NO_LISTENER);
+        resources.add(store::close);
+        return store;
+    }
+
+    private SessionJournal newJournal(int segmentBytes, int compactAfterSegments) {
+        SessionJournal journal = new SessionJournal(directory, segmentBytes, 10, compactAfterSegments);
+        resources.add(journal);
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.session.AttributeCodec;
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.SessionRecord;
+import com.oracle.demo.session.SessionStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * In-process replication between two nodes: a primary that takes the requests and
+ * the backup it replicates to
+ */
+class SessionReplicationTest {
+
+    private static final String SECRET = "replication-test-secret";
+
+    private static final SessionStore.Listener NO_LISTENER = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+        }
+    };
+
+    private final List<AutoCloseable> resources = new ArrayList<>();
+
+    @AfterEach
+    void close() throws Exception {
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    @Test
+    void testBackupServesSessionsAfterPrimaryFails() throws Exception {
+        Node backup = new Node(0, null);
+        Node primary = new Node(-1, backup.address());
+
+        int sessions = 2000;
+        for (int i = 0; i < sessions; i++) {
+            primary.create("s" + i);
+            primary.setUserName("s" + i, "user" + i);
+            primary.setAttribute("s" + i, "cart", List.of("book", "pen"));
+            primary.setAttribute("s" + i, "theme", "dark");
+            primary.access("s" + i);
+        }
+        for (int i = 0; i < sessions; i += 10) {
+            primary.removeAttribute("s" + i, "theme");
+            primary.invalidate("s" + (i + 1));
+        }
+        await(() -> backup.store.size() == primary.store.size()
+                && backup.store.access("s" + (sessions - 2), false) != null
+                && backup.store.access("s" + (sessions - 2), false).getVisitCount() == 2);
+
+        assertThat(backup.replicator.getReceivedBytes(), is(primary.replicator.getSentBytes()));
+
+        primary.close();
+
+        SessionRecord session = backup.store.access("s10", true);
+        assertThat(session, notNullValue());
+        assertThat(session.getUserName(), is("user10"));
+        assertThat(session.getAttributes(), hasEntry("cart", (Object) List.of("book", "pen")));
+        assertThat(session.getAttributes(), not(hasKey("theme")));
+        assertThat(session.getVisitCount(), is(3L));
+        assertThat(backup.store.access("s12", false).getAttributes(), hasEntry("theme", (Object) "dark"));
+        assertThat(backup.store.access("s11", false), nullValue());
+    }
+
+    @Test
+    void testRestartedBackupIsResynced() throws Exception {
+        Node backup = new Node(0, null);
+        int port = backup.replicator.getListenPort();
+        Node primary = new Node(-1, backup.address());
+
+        for (int i = 0; i < 100; i++) {
+            primary.create("s" + i);
+            primary.setAttribute("s" + i, "n", i);
+        }
+        await(() -> backup.store.size() == 100);
+
+        backup.close();
+        for (int i = 100; i < 200; i++) {
+            primary.create("s" + i);
+        }
+        primary.setUserName("s5", "alice");
+        primary.invalidate("s6");
+
+        Node restarted = new Node(port, null);
+        await(() -> restarted.store.size() == 199 && restarted.store.access("s5", false) != null
+                && "alice".equals(restarted.store.access("s5", false).getUserName()));
+        assertThat(restarted.store.access("s6", false), nullValue());
+        assertThat(restarted.store.access("s42", false).getAttributes(), hasEntry("n", (Object) 42));
+
+        // Deltas that were in flight during the resync carry versions the backup already has
+        primary.setAttribute("s7", "n", -7);
+        await(() -> Integer.valueOf(-7).equals(restarted.store.access("s7", false).getAttributes().get("n")));
+        assertThat(restarted.store.size(), is(199));
+    }
+
+    @Test
+    void testSenderWithAnotherSecretIsRejected() throws Exception {
+        Node backup = new Node(0, null);
+        Node primary = new Node(-1, backup.address(), "another-secret", "localhost");
+
+        primary.create("s1");
+        await(() -> backup.replicator.getRejectedConnections() > 0);
+        assertThat(backup.store.size(), is(0));
+        assertThat(primary.store.size(), is(1));
+    }
+
+    @Test
+    void testUnknownSenderIsRejected() throws Exception {
+        // 192.0.2.1 is reserved for documentation, so the local sender never matches it
+        Node backup = new Node(0, null, SECRET, "192.0.2.1");
+        Node primary = new Node(-1, backup.address());
+
+        primary.create("s1");
+        await(() -> backup.replicator.getRejectedConnections() > 0);
+        assertThat(backup.store.size(), is(0));
+        assertThat(backup.replicator.getReceivedBytes(), is(0L));
+    }
+
+    @Test
+    void testAttributesOnlyDecodeAllowedClasses() {
+        Object cart = List.of("book", 3, Map.of("pen", 2L));
+        assertThat(AttributeCodec.decode(AttributeCodec.encode("cart", cart)), is(cart));
+
+        byte[] file = AttributeCodec.encode("file", new File("/etc/passwd"));
+        IllegalStateException rejected = assertThrows(IllegalStateException.class, () -> AttributeCodec.decode(file));
+        assertThat(rejected.getCause(), instanceOf(InvalidClassException.class));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertThat("replication did not converge in time", System.currentTimeMillis() < deadline, is(true));
+            Thread.sleep(20);
+        }
+    }
+
+    /**
+     * A store with its replicator, fed the way SessionService feeds them
+     */
+    private class Node implements AutoCloseable {
+
+        final SessionStore store = new HeapSessionStore(1800, 1000, 100_000, Long.MAX_VALUE, NO_LISTENER);
+        final SessionReplicator replicator;
+        private boolean closed;
+
+        Node(int listenPort, InetSocketAddress peer) throws IOException {
+            this(listenPort, peer, SECRET, "localhost");
+        }
+
+        Node(int listenPort, InetSocketAddress peer, String secret, String sender) throws IOException {
+            replicator = new SessionReplicator(store, listenPort >= 0 ? new InetSocketAddress("127.0.0.1", listenPort) : null,
+                    List.of(sender), peer, secret, 5);
+            replicator.start();
+            resources.add(this);
+        }
+
+        InetSocketAddress address() {
+            return new InetSocketAddress("127.0.0.1", replicator.getListenPort());
+        }
+
+        void create(String sessionId) {
+            replicator.created(sessionId, store.create(sessionId).getCreationTime());
+        }
+
+        void access(String sessionId) {
+            SessionRecord session = store.access(sessionId, true);
+            replicator.touched(sessionId, session.getLastAccessedTime(), session.getVisitCount());
+        }
+
+        void setUserName(String sessionId, String userName) {
+            store.setUserName(sessionId, userName);
+            replicator.userNameSet(sessionId, userName);
+        }
+
+        void setAttribute(String sessionId, String key, Object value) {
+            store.setAttribute(sessionId, key, value);
+            replicator.attributeSet(sessionId, key, value);
+        }
+
+        void removeAttribute(String sessionId, String key) {
+            store.removeAttribute(sessionId, key);
+            replicator.attributeRemoved(sessionId, key);
+        }
+
+        void invalidate(String sessionId) {
+            store.invalidate(sessionId);
+            replicator.removed(sessionId, true);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                replicator.close();
+                store.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.oracle.demo.service;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.metrics.Counter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the signed header of forwarded session requests: two routers
+ * on one ring, the owner's HTTP side played by a JDK HttpServer
+ */
+class SessionRouterTest {
+
+    private static final String SECRET = "routing-test-secret";
+    private static final String PATH = "/helidon/api/session-info/abc?name=x";
+
+    private HttpServer owner;
+    private final AtomicReference<String> receivedHeader = new AtomicReference<>();
+    private String ownerMember;
+    private String forwarderMember;
+    private SessionRouter forwarder;
+    private SessionRouter ownerRouter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        owner = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        owner.createContext("/", exchange -> {
+            receivedHeader.set(exchange.getRequestHeaders().getFirst(SessionRouter.FORWARDED_HEADER));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        owner.start();
+        ownerMember = "127.0.0.1:" + owner.getAddress().getPort();
+        // Never contacted, only named on the ring
+        forwarderMember = "127.0.0.1:1";
+        forwarder = newRouter(forwarderMember, SECRET);
+        ownerRouter = newRouter(ownerMember, SECRET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        forwarder.cleanup();
+        ownerRouter.cleanup();
+        owner.stop(0);
+    }
+
+    @Test
+    void testOwnerTrustsTheHeaderOfAMember() throws Exception {
+        String header = forward("GET");
+        assertThat(header, startsWith(forwarderMember + ";"));
+        assertThat(ownerRouter.isForwardedByMember(header, "GET", ownerUri(PATH)), is(true));
+    }
+
+    @Test
+    void testHeaderOnlyCoversTheRequestItWasSignedFor() throws Exception {
+        String header = forward("GET");
+        assertThat(ownerRouter.isForwardedByMember(header, "DELETE", ownerUri(PATH)), is(false));
+        assertThat(ownerRouter.isForwardedByMember(header, "GET", ownerUri("/helidon/api/session-info/other")), is(false));
+    }
+
+    @Test
+    void testClientSetHeadersAreNotTrusted() throws Exception {
+        String header = forward("GET");
+        String[] parts = header.split(";");
+        URI uri = ownerUri(PATH);
+
+        assertThat(ownerRouter.isForwardedByMember(forwarderMember, "GET", uri), is(false));
+        assertThat(ownerRouter.isForwardedByMember("127.0.0.1:2;" + parts[1] + ";" + parts[2], "GET", uri), is(false));
+        assertThat(ownerRouter.isForwardedByMember(
+                forwarderMember + ";" + (Long.parseLong(parts[1]) + 1) + ";" + parts[2], "GET", uri), is(false));
+        assertThat(ownerRouter.isForwardedByMember(forwarderMember + ";0;" + parts[2], "GET", uri), is(false));
+        assertThat(ownerRouter.isForwardedByMember(forwarderMember + ";x;!", "GET", uri), is(false));
+
+        SessionRouter otherSecret = newRouter(ownerMember, "another-secret");
+        try {
+            assertThat(otherSecret.isForwardedByMember(header, "GET", uri), is(false));
+        } finally {
+            otherSecret.cleanup();
+        }
+    }
+
+    /**
+     * Forward a request from the forwarder to the owner and return the header the owner received
+     */
+    private String forward(String method) throws Exception {
+        Response response = forwarder.forward(ownerMember, method, new URI("http://" + forwarderMember + PATH));
+        assertThat(response, notNullValue());
+        assertThat(response.getStatus(), is(200));
+        return receivedHeader.get();
+    }
+
+    private URI ownerUri(String pathAndQuery) throws Exception {
+        return new URI("http://" + ownerMember + pathAndQuery);
+    }
+
+    private SessionRouter newRouter(String self, String secret) {
+        SessionRouter router = new SessionRouter(true, forwarderMember + "," + ownerMember, "none", 8081, self,
+                160, 10, 2000, secret, new CountingCounter(), new CountingCounter(), new CountingCounter());
+        router.initialize();
+        return router;
+    }
+
+    private static final class CountingCounter implements Counter {
+        private final LongAdder count = new LongAdder();
+
+        @Override
+        public void inc() {
+            count.increment();
+        }
+
+        @Override
+        public void inc(long n) {
+            count.add(n);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+}
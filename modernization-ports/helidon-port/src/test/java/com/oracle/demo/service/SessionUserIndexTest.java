@@ -0,0 +1,80 @@
+package com.oracle.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the user name index behind the admin session query
+ */
+class SessionUserIndexTest {
+
+    @Test
+    void testUserNameChangesAndRemovalsKeepTheIndexCurrent() {
+        SessionUserIndex index = new SessionUserIndex();
+        index.userNameSet("s1", "alice");
+        index.userNameSet("s2", "alice");
+        index.userNameSet("s3", "bob");
+
+        index.userNameSet("s2", "bob");
+        index.removed("s3", true);
+        index.userNameSet("s4", "carol");
+        index.userNameSet("s4", null);
+
+        assertThat(scan(index, "alice", null, null, 100), contains("alice/s1"));
+        assertThat(scan(index, "bob", null, null, 100), contains("bob/s2"));
+        assertThat(scan(index, "carol", null, null, 100), empty());
+        assertThat(index.size(), is(2));
+    }
+
+    @Test
+    void testScanResumesAfterTheCursorInOrder() {
+        SessionUserIndex index = new SessionUserIndex();
+        index.userNameSet("b", "bob");
+        index.userNameSet("a2", "alice");
+        index.userNameSet("a1", "alice");
+        index.userNameSet("c1", "carol");
+
+        assertThat(scan(index, null, null, null, 2), contains("alice/a1", "alice/a2"));
+        assertThat(scan(index, null, "alice", "a2", 2), contains("bob/b", "carol/c1"));
+        assertThat(scan(index, null, "alice", "a1", 100), contains("alice/a2", "bob/b", "carol/c1"));
+        assertThat(scan(index, "alice", "alice", "a1", 100), contains("alice/a2"));
+        assertThat(scan(index, "alice", "bob", "b", 100), empty());
+    }
+
+    @Test
+    void testScanDoesNotBlockConcurrentWriters() throws Exception {
+        SessionUserIndex index = new SessionUserIndex();
+        for (int i = 0; i < 1000; i++) {
+            index.userNameSet("s" + i, "user" + (i % 10));
+        }
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                index.userNameSet("s" + i, "other" + (i % 10));
+                index.removed("s" + i, false);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            scan(index, null, null, null, Integer.MAX_VALUE);
+        }
+        writer.join();
+
+        assertThat(index.size(), is(0));
+        assertThat(scan(index, null, null, null, Integer.MAX_VALUE), empty());
+    }
+
+    private static List<String> scan(SessionUserIndex index, String userName, String afterUserName,
+                                     String afterSessionId, int limit) {
+        List<String> entries = new ArrayList<>();
+        index.scan(userName, afterUserName, afterSessionId, (user, sessionId) -> {
+            entries.add(user + "/" + sessionId);
+            return entries.size() < limit;
+        });
+        return entries;
+    }
+}
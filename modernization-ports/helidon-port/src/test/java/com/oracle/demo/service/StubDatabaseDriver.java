@@ -0,0 +1,227 @@
+package com.oracle.demo.service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Stand-in JDBC driver for tests and benchmarks of DatabaseService without a database
+ *
+ * URLs look like jdbc:stub:latency-ms=5. Every DatabaseMetaData call and every
+ * isValid() sleeps for the latency, like a round trip to a remote database.
+ * Connections are dynamic proxies that accept whatever HikariCP calls on them.
+ * stall() and fail() make the database hang or fail on demand; reset() restores it.
+ */
+public final class StubDatabaseDriver implements Driver {
+
+    private static final String PREFIX = "jdbc:stub:";
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+
+    private static final AtomicInteger openConnections = new AtomicInteger();
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+    private static final AtomicInteger roundTrips = new AtomicInteger();
+    private static volatile long stallMillis;
+    private static volatile boolean failing;
+
+    /**
+     * Register the driver with DriverManager, once
+     */
+    public static void register() {
+        if (REGISTERED.compareAndSet(false, true)) {
+            try {
+                DriverManager.registerDriver(new StubDatabaseDriver());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static String url(long latencyMillis) {
+        return PREFIX + "latency-ms=" + latencyMillis;
+    }
+
+    /**
+     * Connections opened and not yet closed, across all pools
+     */
+    public static int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    /**
+     * Round trips started since the last reset()
+     */
+    public static int getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    /**
+     * Round trips in progress at the same time, at most, since the last reset()
+     */
+    public static int getMaxConcurrentRoundTrips() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Make every following round trip take an extra stallMillis
+     */
+    public static void stall(long millis) {
+        stallMillis = millis;
+    }
+
+    /**
+     * Make new connections, metadata calls and validation fail, or succeed again
+     */
+    public static void fail(boolean fail) {
+        failing = fail;
+    }
+
+    public static void reset() {
+        stallMillis = 0;
+        failing = false;
+        maxInFlight.set(0);
+        roundTrips.set(0);
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        if (failing) {
+            throw new SQLException("Stub database is failing", "08001");
+        }
+        long latencyMillis = Long.parseLong(url.substring(url.indexOf('=') + 1));
+        openConnections.incrementAndGet();
+        return newConnection(latencyMillis);
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static Connection newConnection(long latencyMillis) {
+        AtomicBoolean closed = new AtomicBoolean();
+        Connection[] connection = new Connection[1];
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (proxy, method, args) -> {
+            roundTrip(latencyMillis);
+            switch (method.getName()) {
+                case "getDatabaseProductName":
+                    return "Stub Database";
+                case "getDatabaseProductVersion":
+                case "getDriverVersion":
+                    return "1.0";
+                case "getDriverName":
+                    return StubDatabaseDriver.class.getSimpleName();
+                case "getConnection":
+                    return connection[0];
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+        connection[0] = proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getMetaData":
+                    return metaData;
+                case "isValid":
+                    try {
+                        roundTrip(latencyMillis);
+                    } catch (SQLException e) {
+                        return false;
+                    }
+                    return !closed.get();
+                case "isClosed":
+                    return closed.get();
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        openConnections.decrementAndGet();
+                    }
+                    return null;
+                case "getAutoCommit":
+                    return true;
+                case "getTransactionIsolation":
+                    return Connection.TRANSACTION_READ_COMMITTED;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "StubConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+        return connection[0];
+    }
+
+    private static void roundTrip(long latencyMillis) throws InterruptedException, SQLException {
+        roundTrips.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            long millis = latencyMillis + stallMillis;
+            if (millis > 0) {
+                Thread.sleep(millis);
+            }
+            if (failing) {
+                throw new SQLException("Stub database is failing", "08006");
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubDatabaseDriver.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
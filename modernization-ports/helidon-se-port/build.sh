@@ -0,0 +1,299 @@
+#!/bin/bash
+
+# Build script for Helidon SE Host Information Application
+# Builds JAR, Docker image, and provides Docker Compose testing
+
+set -e
+
+APP_NAME="hostinfo"
+IMAGE_NAME="hostinfo-helidon-se"
+IMAGE_TAG="helidon-se"
+DOCKER_BUILD=false
+DOCKER_COMPOSE_UP=false
+DOCKER_COMPOSE_DOWN=false
+BUILD_JAR=false
+RUN_APP=false
+
+# Show help if no arguments provided
+if [ $# -eq 0 ]; then
+    echo "Usage: ./build.sh [OPTIONS]"
+    echo ""
+    echo "Options:"
+    echo "  --jar          Build JAR file with Maven"
+    echo "  --docker       Build Docker image after Maven build"
+    echo "  --compose-up   Start application with docker-compose"
+    echo "  --compose-down Stop application started by docker-compose"
+    echo "  --run          Build and run the application"
+    echo "  --help         Show this help message"
+    echo ""
+    echo "Examples:"
+    echo "  ./build.sh --jar              # Build JAR only"
+    echo "  ./build.sh --docker           # Build JAR and Docker image"
+    echo "  ./build.sh --compose-up       # Build and start with docker-compose"
+    echo "  ./build.sh --run              # Build and run locally"
+    exit 0
+fi
+
+# Parse command line arguments
+while [[ $# -gt 0 ]]; do
+    case $1 in
+        --jar)
+            BUILD_JAR=true
+            shift
+            ;;
+        --docker)
+            BUILD_JAR=true
+            DOCKER_BUILD=true
+            shift
+            ;;
+        --compose-up)
+            BUILD_JAR=true
+            DOCKER_COMPOSE_UP=true
+            shift
+            ;;
+        --compose-down)
+            DOCKER_COMPOSE_DOWN=true
+            shift
+            ;;
+        --run)
+            BUILD_JAR=true
+            RUN_APP=true
+            shift
+            ;;
+        --help)
+            echo "Usage: ./build.sh [OPTIONS]"
+            echo ""
+            echo "Options:"
+            echo "  --jar          Build JAR file with Maven"
+            echo "  --docker       Build Docker image after Maven build"
+            echo "  --compose-up   Start application with docker-compose"
+            echo "  --compose-down Stop application started by docker-compose"
+            echo "  --run          Build and run the application"
+            echo "  --help         Show this help message"
+            echo ""
+            echo "Examples:"
+            echo "  ./build.sh --jar              # Build JAR only"
+            echo "  ./build.sh --docker           # Build JAR and Docker image"
+            echo "  ./build.sh --compose-up       # Build and start with docker-compose"
+            echo "  ./build.sh --run              # Build and run locally"
+            exit 0
+            ;;
+        *)
+            echo "Unknown option: $1"
+            echo "Run './build.sh --help' for usage information"
+            exit 1
+            ;;
+    esac
+done
+
+# Build JAR if requested
+if [ "$BUILD_JAR" = true ]; then
+    echo "================================================"
+    echo "Building Helidon SE Host Information Application"
+    echo "================================================"
+    echo ""
+
+    # Check if Maven is installed
+    if ! command -v mvn &> /dev/null; then
+        echo "ERROR: Maven is not installed or not in PATH"
+        exit 1
+    fi
+
+    # The Helidon 4 web server needs Java 21 (virtual threads)
+    JAVA_MAJOR=$(java -version 2>&1 | head -1 | sed -E 's/.*version "([0-9]+).*/\1/')
+    if [ "${JAVA_MAJOR:-0}" -lt 21 ]; then
+        echo "ERROR: Java 21 or later is required, found Java ${JAVA_MAJOR}"
+        exit 1
+    fi
+
+    echo "Maven version:"
+    mvn --version
+    echo ""
+
+    # Install the shared session store first
+    echo "Installing ../session-store..."
+    (cd ../session-store && mvn -q install -DskipTests)
+
+    # Clean and build the project
+    echo "Running Maven clean package..."
+    mvn clean package -DskipTests
+
+    # Check if build was successful
+    if [ $? -eq 0 ]; then
+        echo ""
+        echo "================================================"
+        echo "BUILD SUCCESSFUL!"
+        echo "================================================"
+        echo ""
+        echo "JAR file location: target/hostinfo.jar"
+        echo "Dependencies: target/libs/"
+        echo ""
+    else
+        echo ""
+        echo "================================================"
+        echo "BUILD FAILED!"
+        echo "================================================"
+        exit 1
+    fi
+fi
+
+# Stop with docker-compose if requested
+if [ "$DOCKER_COMPOSE_DOWN" = true ]; then
+    echo ""
+    echo "================================================"
+    echo "Stopping Application with Docker Compose"
+    echo "================================================"
+    echo ""
+
+    if command -v podman-compose &> /dev/null; then
+        COMPOSE_CMD="podman-compose"
+    elif docker compose version &> /dev/null 2>&1; then
+        COMPOSE_CMD="docker compose"
+    elif command -v docker-compose &> /dev/null; then
+        COMPOSE_CMD="docker-compose"
+    else
+        echo "ERROR: No compose tool found (podman-compose, docker compose, or docker-compose)"
+        echo "Install with: sudo yum install -y podman-compose"
+        echo "Or use pip: pip3 install --user podman-compose"
+        exit 1
+    fi
+
+    echo "Using compose command: ${COMPOSE_CMD}"
+
+    ${COMPOSE_CMD} down
+
+    if [ $? -eq 0 ]; then
+        echo ""
+        echo "Application stopped successfully!"
+        echo ""
+    else
+        echo "ERROR: Failed to stop with docker-compose"
+        exit 1
+    fi
+
+    exit 0
+fi
+
+# Build Docker image if requested
+if [ "$DOCKER_BUILD" = true ] || [ "$DOCKER_COMPOSE_UP" = true ]; then
+    echo ""
+    echo "================================================"
+    echo "Building Docker Image"
+    echo "================================================"
+    echo ""
+    
+    if ! command -v docker &> /dev/null; then
+        echo "ERROR: Docker is not installed or not in PATH"
+        exit 1
+    fi
+    
+    docker build -t ${IMAGE_NAME}:${IMAGE_TAG} .
+    
+    if [ $? -eq 0 ]; then
+        echo ""
+        echo "Docker image built successfully: ${IMAGE_NAME}:${IMAGE_TAG}"
+        echo ""
+        echo "To run with Docker:"
+        echo "  docker run -p 8082:8082 ${IMAGE_NAME}:${IMAGE_TAG}"
+        echo ""
+        echo "To run with environment variables:"
+        echo "  docker run -p 8082:8082 -e JAVA_OPTS='-Dapp.database.mock-mode=false -Dapp.database.url=...' ${IMAGE_NAME}:${IMAGE_TAG}"
+        echo ""
+    else
+        echo "ERROR: Docker build failed!"
+        exit 1
+    fi
+fi
+
+# Start with docker-compose if requested
+if [ "$DOCKER_COMPOSE_UP" = true ]; then
+    echo ""
+    echo "================================================"
+    echo "Starting Application with Docker Compose"
+    echo "================================================"
+    echo ""
+    
+    # Detect compose command (podman-compose, docker compose, or docker-compose)
+    if command -v podman-compose &> /dev/null; then
+        COMPOSE_CMD="podman-compose"
+    elif docker compose version &> /dev/null 2>&1; then
+        COMPOSE_CMD="docker compose"
+    elif command -v docker-compose &> /dev/null; then
+        COMPOSE_CMD="docker-compose"
+    else
+        echo "ERROR: No compose tool found (podman-compose, docker compose, or docker-compose)"
+        echo "Install with: sudo yum install -y podman-compose"
+        echo "Or use pip: pip3 install --user podman-compose"
+        exit 1
+    fi
+    
+    echo "Using compose command: ${COMPOSE_CMD}"
+    
+    ${COMPOSE_CMD} up -d
+    
+    if [ $? -eq 0 ]; then
+        echo ""
+        echo "================================================"
+        echo "✅ Helidon SE Application Started Successfully!"
+        echo "================================================"
+        echo ""
+        echo "📡 REST API Endpoints:"
+        echo "   GET  http://localhost:8082/helidon/api/host-info              - Host Information"
+        echo "   GET  http://localhost:8082/helidon/api/database-info          - Database Status"
+        echo "   GET  http://localhost:8082/helidon/api/database-info/test     - Test DB Connection"
+        echo "   GET  http://localhost:8082/helidon/api/session-info           - Get/Create Session"
+        echo "   GET  http://localhost:8082/helidon/api/session-info/{id}      - Get Session by ID"
+        echo "   PUT  http://localhost:8082/helidon/api/session-info/{id}/attribute  - Set Attribute"
+        echo "   POST http://localhost:8082/helidon/api/session-info/{id}/user - Set Username"
+        echo "   DEL  http://localhost:8082/helidon/api/session-info/{id}      - Invalidate Session"
+        echo "   GET  http://localhost:8082/helidon/api/greet?name=X           - Greeting"
+        echo "   GET  http://localhost:8082/helidon/api/greet/welcome          - Welcome Message"
+        echo "   GET  http://localhost:8082/helidon/api/greet/info             - Service Info"
+        echo ""
+        echo "📚 Health:"
+        echo "   http://localhost:8082/observe/health                          - Health Check"
+        echo "   http://localhost:8082/observe/health/ready                    - Readiness"
+        echo "   http://localhost:8082/observe/health/live                     - Liveness"
+        echo ""
+        echo "🔧 Management:"
+        echo "   View logs:  ${COMPOSE_CMD} logs -f"
+        echo "   Stop app:   ${COMPOSE_CMD} down"
+        echo ""
+    else
+        echo "ERROR: Failed to start with docker-compose"
+        exit 1
+    fi
+fi
+
+# Run application if requested
+if [ "$RUN_APP" = true ]; then
+    echo ""
+    echo "================================================"
+    echo "Starting Helidon SE Application"
+    echo "================================================"
+    echo ""
+    
+    echo "Access the application at:"
+    echo "  http://localhost:8082/helidon/api/host-info"
+    echo ""
+    echo "Health check:"
+    echo "  http://localhost:8082/observe/health"
+    echo ""
+    echo "Press Ctrl+C to stop the application"
+    echo ""
+    
+    java -jar target/hostinfo.jar
+else
+    echo "To run the application:"
+    echo "  java -jar target/hostinfo.jar"
+    echo ""
+    echo "Access the application at:"
+    echo "  http://localhost:8082/helidon/api/host-info"
+    echo ""
+    echo "Health check:"
+    echo "  http://localhost:8082/observe/health"
+    echo ""
+    echo "Startup time, RSS and throughput against the Helidon MP port:"
+    echo "  ./compare.sh"
+    echo ""
+fi
@@ -0,0 +1,104 @@
+#!/bin/bash
+
+# Startup time, RSS and throughput of the Helidon SE port against the Helidon MP port
+#
+# Starts each application in turn on this machine, in database mock mode, and reports:
+#   - startup: milliseconds from launching the JVM to the first 200 from /helidon/api/greet
+#   - RSS after startup, and after the load below (ps, in MB)
+#   - requests/s and p50/p99 latency for GET /helidon/api/greet and /helidon/api/host-info,
+#     from compare/LoadGenerator.java with THREADS client threads for SECONDS seconds
+#
+# Both run with the same java and JAVA_OPTS. The SE port needs Java 21, so use a
+# Java 21 JDK for both. The load generator shares the machine with the server:
+# compare the two ports with each other, not with a remote deployment.
+#
+# Usage: ./compare.sh [threads] [seconds]
+#   JAVA_OPTS   JVM options for both applications (default -Xmx512m)
+#   RUNS        startups per application; the startup time is the median (default 5)
+
+set -e
+
+cd "$(dirname "$0")"
+
+THREADS=${1:-64}
+SECONDS_PER_RUN=${2:-30}
+RUNS=${RUNS:-5}
+JAVA_OPTS=${JAVA_OPTS:--Xmx512m}
+MP_DIR=../helidon-port
+SE_DIR=.
+MP_PORT=18081
+SE_PORT=18082
+
+# Install the shared session store first
+(cd ../session-store && mvn -q install -DskipTests)
+for dir in "$MP_DIR" "$SE_DIR"; do
+    if [ ! -f "$dir/target/hostinfo.jar" ]; then
+        echo "Building $dir..."
+        (cd "$dir" && mvn -q clean package -DskipTests)
+    fi
+done
+
+# Start an application and wait for its first greeting; sets PID and STARTUP_MS
+start_app() {
+    local dir=$1 port=$2 name=$3
+    local started=$(date +%s%N)
+    java $JAVA_OPTS -Dserver.port=$port -Dapp.database.mock-mode=true \
+        -jar "$dir/target/hostinfo.jar" > "target/compare-$name.log" 2>&1 &
+    PID=$!
+    until curl -sf -o /dev/null "http://localhost:$port/helidon/api/greet"; do
+        if ! kill -0 $PID 2> /dev/null; then
+            echo "ERROR: $name did not start, see target/compare-$name.log"
+            exit 1
+        fi
+        sleep 0.01
+    done
+    STARTUP_MS=$(( ($(date +%s%N) - started) / 1000000 ))
+}
+
+stop_app() {
+    kill $PID
+    wait $PID 2> /dev/null || true
+}
+
+rss_mb() {
+    echo $(( $(ps -o rss= -p $PID) / 1024 ))
+}
+
+measure() {
+    local dir=$1 port=$2 name=$3
+    local startups=()
+
+    for run in $(seq 1 $RUNS); do
+        start_app "$dir" $port "$name"
+        startups+=($STARTUP_MS)
+        if [ $run -lt $RUNS ]; then
+            stop_app
+        fi
+    done
+    local median=$(printf '%s\n' "${startups[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")
+    local rss_started=$(rss_mb)
+
+    local greet=$(java compare/LoadGenerator.java "http://localhost:$port/helidon/api/greet" $THREADS $SECONDS_PER_RUN 10)
+    local hostinfo=$(java compare/LoadGenerator.java "http://localhost:$port/helidon/api/host-info" $THREADS $SECONDS_PER_RUN 10)
+    local rss_loaded=$(rss_mb)
+    stop_app
+
+    echo "| $name | $median ms | $rss_started MB | $rss_loaded MB |" >> target/compare-summary.md
+    echo "$name: $greet" >> target/compare-load.txt
+    echo "$name: $hostinfo" >> target/compare-load.txt
+}
+
+mkdir -p target
+rm -f target/compare-summary.md target/compare-load.txt
+echo "| Port | Startup (median of $RUNS) | RSS after startup | RSS after load |" > target/compare-summary.md
+echo "|------|---------|-----------|--------|" >> target/compare-summary.md
+
+echo "Java: $(java -version 2>&1 | head -1), JAVA_OPTS: $JAVA_OPTS, $THREADS threads, ${SECONDS_PER_RUN}s per endpoint"
+# MP also starts its gRPC server; keep it off the default port
+JAVA_OPTS="$JAVA_OPTS -Dgrpc.port=11408" measure "$MP_DIR" $MP_PORT "Helidon MP"
+measure "$SE_DIR" $SE_PORT "Helidon SE"
+
+echo ""
+cat target/compare-summary.md
+echo ""
+cat target/compare-load.txt
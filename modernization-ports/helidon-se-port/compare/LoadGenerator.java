@@ -0,0 +1,137 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Closed-loop HTTP load for compare.sh: a fixed number of client threads, each
+ * with one GET in flight, for a fixed time after a warm-up
+ *
+ * Prints one line: requests per second, 50th/99th percentile latency in
+ * milliseconds, and the number of failed requests (connection errors or a
+ * status other than 200). Run as a single-file program, no build needed:
+ *
+ *   java compare/LoadGenerator.java http://localhost:8082/helidon/api/greet 64 30 10
+ *
+ * Arguments: URL, threads, measured seconds, warm-up seconds.
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: java LoadGenerator.java <url> <threads> <seconds> [warmup-seconds]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int threads = Integer.parseInt(args[1]);
+        long seconds = Long.parseLong(args[2]);
+        long warmupSeconds = args.length > 3 ? Long.parseLong(args[3]) : 10;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", "application/json").build();
+
+        run(client, request, threads, warmupSeconds);
+        Result result = run(client, request, threads, seconds);
+
+        long[] latencies = result.latencies();
+        Arrays.sort(latencies);
+        System.out.printf("%s threads=%d requests/s=%.0f p50=%.2fms p99=%.2fms errors=%d%n",
+                uri.getPath(), threads, latencies.length / (double) seconds,
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6, result.errors());
+    }
+
+    /**
+     * Send requests from the given number of threads for the given time
+     */
+    private static Result run(HttpClient client, HttpRequest request, int threads, long seconds)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(client, request, running, done);
+            Thread thread = new Thread(workers[i], "load-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000);
+        running.set(false);
+        done.await();
+
+        int total = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            total += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        return new Result(latencies, errors);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(fraction * sorted.length) - 1)];
+    }
+
+    private record Result(long[] latencies, long errors) {
+    }
+
+    /**
+     * One client thread; records the latency of every successful request
+     */
+    private static final class Worker implements Runnable {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final AtomicBoolean running;
+        private final CountDownLatch done;
+        private long[] latencies = new long[1 << 16];
+        private int count;
+        private long errors;
+
+        Worker(HttpClient client, HttpRequest request, AtomicBoolean running, CountDownLatch done) {
+            this.client = client;
+            this.request = request;
+            this.running = running;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running.get()) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors++;
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors++;
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                }
+            } finally {
+                done.countDown();
+            }
+        }
+    }
+}
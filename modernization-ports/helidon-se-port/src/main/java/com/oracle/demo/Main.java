@@ -0,0 +1,70 @@
+package com.oracle.demo;
+
+import com.oracle.demo.resource.DatabaseResource;
+import com.oracle.demo.resource.GreetingResource;
+import com.oracle.demo.resource.HostInfoResource;
+import com.oracle.demo.resource.SessionResource;
+import com.oracle.demo.service.DatabaseService;
+import com.oracle.demo.service.GreetingServiceImpl;
+import com.oracle.demo.service.HostInfoService;
+import com.oracle.demo.service.SessionService;
+import io.helidon.config.Config;
+import io.helidon.logging.common.LogConfig;
+import io.helidon.webserver.WebServer;
+import io.helidon.webserver.http.HttpRouting;
+
+import java.util.logging.Logger;
+
+/**
+ * Helidon SE entry point
+ *
+ * The services are plain objects, created once here and handed to the routes
+ * through their constructors: no CDI container, no bean discovery and no
+ * JAX-RS resource scanning at startup. The Helidon 4 web server runs every
+ * request on its own virtual thread, so the routes call the services, JDBC
+ * included, with plain blocking code.
+ *
+ * The routes have the same paths as the Helidon MP port, under /helidon, so
+ * both can be compared with the same requests (see compare.sh).
+ */
+public final class Main {
+
+    private static final Logger LOGGER = Logger.getLogger(Main.class.getName());
+
+    static final String CONTEXT_ROOT = "/helidon";
+
+    private Main() {
+    }
+
+    public static void main(String[] args) {
+        LogConfig.configureRuntime();
+
+        Config config = Config.create();
+
+        WebServer server = WebServer.builder()
+                .config(config.get("server"))
+                .routing(routing -> routing(routing, config))
+                .build()
+                .start();
+
+        LOGGER.info("Helidon SE Host Information Application started at http://localhost:"
+                + server.port() + CONTEXT_ROOT + "/api/host-info");
+    }
+
+    /**
+     * Create the services and register their routes
+     *
+     * Each service is closed by the route that owns it when the server stops.
+     */
+    static void routing(HttpRouting.Builder routing, Config config) {
+        GreetingServiceImpl greetingService = new GreetingServiceImpl();
+        HostInfoService hostInfoService = new HostInfoService(config.get("app.host-info"));
+        DatabaseService databaseService = new DatabaseService(config.get("app.database"));
+        SessionService sessionService = new SessionService(config.get("app.session"), hostInfoService);
+
+        routing.register(CONTEXT_ROOT + "/api/greet", new GreetingResource(greetingService))
+                .register(CONTEXT_ROOT + "/api/host-info", new HostInfoResource(hostInfoService))
+                .register(CONTEXT_ROOT + "/api/database-info", new DatabaseResource(databaseService))
+                .register(CONTEXT_ROOT + "/api/session-info", new SessionResource(sessionService));
+    }
+}
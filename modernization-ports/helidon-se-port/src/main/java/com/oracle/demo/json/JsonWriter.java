@@ -0,0 +1,167 @@
+package com.oracle.demo.json;
+
+import java.util.Map;
+
+/**
+ * Minimal JSON writer for the response bodies
+ *
+ * Replaces JSON-B of the Helidon MP port: the models write their own members,
+ * so there is no reflection or provider lookup per request. Like JSON-B,
+ * members with a null value are left out; the models add their members in
+ * lexicographic order, so the output matches the MP port byte for byte.
+ *
+ * Not thread-safe; use one writer per response.
+ */
+public final class JsonWriter {
+
+    private final StringBuilder json;
+    // Whether the next member or element needs a separating comma
+    private boolean comma;
+
+    public JsonWriter() {
+        this(256);
+    }
+
+    public JsonWriter(int capacity) {
+        json = new StringBuilder(capacity);
+    }
+
+    public JsonWriter beginObject() {
+        separate();
+        json.append('{');
+        comma = false;
+        return this;
+    }
+
+    public JsonWriter endObject() {
+        json.append('}');
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Start an object-valued member
+     */
+    public JsonWriter beginObject(String name) {
+        name(name);
+        json.append('{');
+        comma = false;
+        return this;
+    }
+
+    public JsonWriter member(String name, String value) {
+        if (value != null) {
+            name(name);
+            quote(json, value);
+            comma = true;
+        }
+        return this;
+    }
+
+    public JsonWriter member(String name, long value) {
+        name(name);
+        json.append(value);
+        comma = true;
+        return this;
+    }
+
+    public JsonWriter member(String name, boolean value) {
+        name(name);
+        json.append(value);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Member whose value is already JSON, or left out when it is null
+     */
+    public JsonWriter rawMember(String name, String jsonValue) {
+        if (jsonValue != null) {
+            name(name);
+            json.append(jsonValue);
+            comma = true;
+        }
+        return this;
+    }
+
+    /**
+     * Object-valued member with the map's entries, in the map's iteration order
+     *
+     * Strings are quoted, numbers and booleans written as such, other values as
+     * their toString(); entries with a null value are left out.
+     */
+    public JsonWriter member(String name, Map<String, ?> values) {
+        if (values == null) {
+            return this;
+        }
+        beginObject(name);
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                name(entry.getKey());
+                json.append(value);
+                comma = true;
+            } else if (value != null) {
+                member(entry.getKey(), value.toString());
+            }
+        }
+        return endObject();
+    }
+
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+
+    /**
+     * JSON string literal of a value
+     */
+    public static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2);
+        quote(quoted, value);
+        return quoted.toString();
+    }
+
+    private void name(String name) {
+        separate();
+        quote(json, name);
+        json.append(':');
+    }
+
+    private void separate() {
+        if (comma) {
+            json.append(',');
+        }
+    }
+
+    private static void quote(StringBuilder target, String value) {
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    target.append("\\\"");
+                    break;
+                case '\\':
+                    target.append("\\\\");
+                    break;
+                case '\n':
+                    target.append("\\n");
+                    break;
+                case '\r':
+                    target.append("\\r");
+                    break;
+                case '\t':
+                    target.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        target.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        target.append(c);
+                    }
+            }
+        }
+        target.append('"');
+    }
+}
@@ -0,0 +1,228 @@
+package com.oracle.demo.model;
+
+import com.oracle.demo.json.JsonWriter;
+
+/**
+ * Data Transfer Object for database connection information
+ * Migrated from WebLogic to Helidon SE
+ */
+public class DatabaseInfo {
+    
+    private boolean mockMode;
+    private boolean configured;
+    private String status;
+    private String message;
+    private String error;
+    private String databaseUrl;
+    private String username;
+    private String serviceName;
+    private String walletLocation;
+    private String databaseProductName;
+    private String databaseProductVersion;
+    private String driverName;
+    private String driverVersion;
+    private PoolStatistics poolStatistics;
+    private String checkedAt;
+
+    public DatabaseInfo() {
+    }
+
+    public boolean isMockMode() {
+        return mockMode;
+    }
+
+    public void setMockMode(boolean mockMode) {
+        this.mockMode = mockMode;
+    }
+
+    public boolean isConfigured() {
+        return configured;
+    }
+
+    public void setConfigured(boolean configured) {
+        this.configured = configured;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getDatabaseUrl() {
+        return databaseUrl;
+    }
+
+    public void setDatabaseUrl(String databaseUrl) {
+        this.databaseUrl = databaseUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getWalletLocation() {
+        return walletLocation;
+    }
+
+    public void setWalletLocation(String walletLocation) {
+        this.walletLocation = walletLocation;
+    }
+
+    public String getDatabaseProductName() {
+        return databaseProductName;
+    }
+
+    public void setDatabaseProductName(String databaseProductName) {
+        this.databaseProductName = databaseProductName;
+    }
+
+    public String getDatabaseProductVersion() {
+        return databaseProductVersion;
+    }
+
+    public void setDatabaseProductVersion(String databaseProductVersion) {
+        this.databaseProductVersion = databaseProductVersion;
+    }
+
+    public String getDriverName() {
+        return driverName;
+    }
+
+    public void setDriverName(String driverName) {
+        this.driverName = driverName;
+    }
+
+    public String getDriverVersion() {
+        return driverVersion;
+    }
+
+    public void setDriverVersion(String driverVersion) {
+        this.driverVersion = driverVersion;
+    }
+
+    public PoolStatistics getPoolStatistics() {
+        return poolStatistics;
+    }
+
+    public void setPoolStatistics(PoolStatistics poolStatistics) {
+        this.poolStatistics = poolStatistics;
+    }
+
+    /**
+     * When this information was taken (ISO-8601), which may be before the request
+     */
+    public String getCheckedAt() {
+        return checkedAt;
+    }
+
+    public void setCheckedAt(String checkedAt) {
+        this.checkedAt = checkedAt;
+    }
+
+    /**
+     * This information as JSON, in the member order of the MP port's JSON-B output
+     */
+    public String toJson() {
+        JsonWriter json = new JsonWriter(640).beginObject()
+                .member("checkedAt", checkedAt)
+                .member("configured", configured)
+                .member("databaseProductName", databaseProductName)
+                .member("databaseProductVersion", databaseProductVersion)
+                .member("databaseUrl", databaseUrl)
+                .member("driverName", driverName)
+                .member("driverVersion", driverVersion)
+                .member("error", error)
+                .member("message", message)
+                .member("mockMode", mockMode);
+        if (poolStatistics != null) {
+            json.beginObject("poolStatistics")
+                    .member("activeConnections", poolStatistics.activeConnections)
+                    .member("idleConnections", poolStatistics.idleConnections)
+                    .member("maxPoolSize", poolStatistics.maxPoolSize)
+                    .member("totalConnections", poolStatistics.totalConnections)
+                    .endObject();
+        }
+        return json.member("serviceName", serviceName)
+                .member("status", status)
+                .member("username", username)
+                .member("walletLocation", walletLocation)
+                .endObject()
+                .toString();
+    }
+
+    /**
+     * Connection pool statistics
+     */
+    public static class PoolStatistics {
+        private int activeConnections;
+        private int idleConnections;
+        private int totalConnections;
+        private int maxPoolSize;
+
+        public PoolStatistics() {
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public void setActiveConnections(int activeConnections) {
+            this.activeConnections = activeConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public void setIdleConnections(int idleConnections) {
+            this.idleConnections = idleConnections;
+        }
+
+        public int getTotalConnections() {
+            return totalConnections;
+        }
+
+        public void setTotalConnections(int totalConnections) {
+            this.totalConnections = totalConnections;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.oracle.demo.model;
+
+import com.oracle.demo.json.JsonWriter;
+
+/**
+ * Data Transfer Object for greeting responses
+ * Migrated from WebLogic SOAP to Helidon SE REST
+ */
+public class GreetingResponse {
+    
+    private String message;
+    private String timestamp;
+    private String serviceInfo;
+
+    public GreetingResponse() {
+    }
+
+    public GreetingResponse(String message) {
+        this.message = message;
+        this.timestamp = java.time.Instant.now().toString();
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getServiceInfo() {
+        return serviceInfo;
+    }
+
+    public void setServiceInfo(String serviceInfo) {
+        this.serviceInfo = serviceInfo;
+    }
+
+    /**
+     * This response as JSON, in the member order of the MP port's JSON-B output
+     */
+    public String toJson() {
+        return new JsonWriter(192).beginObject()
+                .member("message", message)
+                .member("serviceInfo", serviceInfo)
+                .member("timestamp", timestamp)
+                .endObject()
+                .toString();
+    }
+}
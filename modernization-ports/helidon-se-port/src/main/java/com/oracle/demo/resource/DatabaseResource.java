@@ -0,0 +1,59 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.service.DatabaseService;
+import io.helidon.webserver.http.HttpRules;
+import io.helidon.webserver.http.HttpService;
+import io.helidon.webserver.http.ServerRequest;
+import io.helidon.webserver.http.ServerResponse;
+
+/**
+ * Routes for database information
+ * Migrated from DatabaseInfoServlet to Helidon SE REST
+ *
+ * Before (WebLogic Servlet):
+ *   @WebServlet("/database")
+ *   public class DatabaseInfoServlet extends HttpServlet
+ *   - Used Oracle UCP for connection pooling
+ *
+ * After (Helidon SE):
+ *   routing.register("/helidon/api/database-info", new DatabaseResource(databaseService))
+ *
+ * A probe blocks the request's virtual thread on the pool and the database;
+ * unlike the MP port, nothing has to be offloaded or resumed asynchronously.
+ */
+public class DatabaseResource implements HttpService {
+
+    private final DatabaseService databaseService;
+
+    public DatabaseResource(DatabaseService databaseService) {
+        this.databaseService = databaseService;
+    }
+
+    @Override
+    public void routing(HttpRules rules) {
+        rules.get("/", this::getDatabaseInfo)
+                .get("/test", this::testConnection);
+    }
+
+    @Override
+    public void afterStop() {
+        databaseService.close();
+    }
+
+    /**
+     * Get database connection information, as of the last refresh
+     */
+    private void getDatabaseInfo(ServerRequest request, ServerResponse response) {
+        JsonResponses.send(response, databaseService.getDatabaseInfo().toJson());
+    }
+
+    /**
+     * Test database connectivity: the latest check, or a check now with probe=true
+     */
+    private void testConnection(ServerRequest request, ServerResponse response) {
+        boolean probe = Boolean.parseBoolean(request.query().first("probe").orElse("false"));
+        JsonResponses.send(response, probe
+                ? databaseService.probeDatabaseInfo().toJson()
+                : databaseService.getDatabaseInfo().toJson());
+    }
+}
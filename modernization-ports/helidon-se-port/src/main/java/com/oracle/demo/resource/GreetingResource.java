@@ -0,0 +1,65 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.model.GreetingResponse;
+import com.oracle.demo.service.GreetingServiceImpl;
+import io.helidon.webserver.http.HttpRules;
+import io.helidon.webserver.http.HttpService;
+import io.helidon.webserver.http.ServerRequest;
+import io.helidon.webserver.http.ServerResponse;
+
+import java.time.Instant;
+
+/**
+ * Routes for greeting operations
+ * Migrated from WebServiceDemoServlet and EJB @WebService to Helidon SE REST
+ *
+ * Before (WebLogic EJB + SOAP):
+ *   @Stateless
+ *   @WebService(name = "GreetingService", ...)
+ *   public class GreetingServiceBean
+ *
+ * After (Helidon SE):
+ *   routing.register("/helidon/api/greet", new GreetingResource(greetingService))
+ */
+public class GreetingResource implements HttpService {
+
+    private final GreetingServiceImpl greetingService;
+
+    public GreetingResource(GreetingServiceImpl greetingService) {
+        this.greetingService = greetingService;
+    }
+
+    @Override
+    public void routing(HttpRules rules) {
+        rules.get("/", this::greet)
+                .get("/welcome", this::getWelcomeMessage)
+                .get("/info", this::getServiceInfo);
+    }
+
+    /**
+     * Get a greeting message, for the optional name query parameter
+     */
+    private void greet(ServerRequest request, ServerResponse response) {
+        String name = request.query().first("name").orElse(null);
+        JsonResponses.send(response, greetingService.getGreetingResponse(name).toJson());
+    }
+
+    /**
+     * Get welcome message
+     */
+    private void getWelcomeMessage(ServerRequest request, ServerResponse response) {
+        GreetingResponse greeting = new GreetingResponse(greetingService.getWelcomeMessage());
+        greeting.setServiceInfo(greetingService.getServiceInfo());
+        JsonResponses.send(response, greeting.toJson());
+    }
+
+    /**
+     * Get service info
+     */
+    private void getServiceInfo(ServerRequest request, ServerResponse response) {
+        GreetingResponse greeting = new GreetingResponse();
+        greeting.setServiceInfo(greetingService.getServiceInfo());
+        greeting.setTimestamp(Instant.now().toString());
+        JsonResponses.send(response, greeting.toJson());
+    }
+}
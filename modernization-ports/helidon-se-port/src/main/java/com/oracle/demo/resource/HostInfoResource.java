@@ -0,0 +1,44 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.service.HostInfoService;
+import io.helidon.webserver.http.HttpRules;
+import io.helidon.webserver.http.HttpService;
+import io.helidon.webserver.http.ServerRequest;
+import io.helidon.webserver.http.ServerResponse;
+
+/**
+ * Routes for host information
+ * Migrated from HostInfoServlet to Helidon SE REST
+ *
+ * Before (WebLogic Servlet):
+ *   @WebServlet("/hostinfo")
+ *   public class HostInfoServlet extends HttpServlet
+ *
+ * After (Helidon SE):
+ *   routing.register("/helidon/api/host-info", new HostInfoResource(hostInfoService))
+ */
+public class HostInfoResource implements HttpService {
+
+    private final HostInfoService hostInfoService;
+
+    public HostInfoResource(HostInfoService hostInfoService) {
+        this.hostInfoService = hostInfoService;
+    }
+
+    @Override
+    public void routing(HttpRules rules) {
+        rules.get("/", this::getHostInfo);
+    }
+
+    @Override
+    public void afterStop() {
+        hostInfoService.close();
+    }
+
+    /**
+     * Get host information, the snapshot's JSON with the current memory figures
+     */
+    private void getHostInfo(ServerRequest request, ServerResponse response) {
+        JsonResponses.send(response, hostInfoService.getHostInfoJson());
+    }
+}
@@ -0,0 +1,36 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.json.JsonWriter;
+import io.helidon.http.HeaderValues;
+import io.helidon.http.Status;
+import io.helidon.webserver.http.ServerResponse;
+
+/**
+ * Sends the JSON bodies the models and services write themselves
+ */
+final class JsonResponses {
+
+    private JsonResponses() {
+    }
+
+    static void send(ServerResponse response, String json) {
+        response.header(HeaderValues.CONTENT_TYPE_JSON);
+        response.send(json);
+    }
+
+    static void send(ServerResponse response, Status status, String json) {
+        response.status(status);
+        send(response, json);
+    }
+
+    /**
+     * {"error":..., "sessionId":...}, leaving out a null session ID
+     */
+    static void error(ServerResponse response, Status status, String error, String sessionId) {
+        send(response, status, new JsonWriter(128).beginObject()
+                .member("error", error)
+                .member("sessionId", sessionId)
+                .endObject()
+                .toString());
+    }
+}
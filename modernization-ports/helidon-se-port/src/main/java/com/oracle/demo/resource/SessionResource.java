@@ -0,0 +1,108 @@
+package com.oracle.demo.resource;
+
+import com.oracle.demo.json.JsonWriter;
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.service.SessionService;
+import io.helidon.http.Status;
+import io.helidon.webserver.http.HttpRules;
+import io.helidon.webserver.http.HttpService;
+import io.helidon.webserver.http.ServerRequest;
+import io.helidon.webserver.http.ServerResponse;
+
+/**
+ * Routes for session management
+ * Migrated from SessionManagerServlet to Helidon SE REST
+ *
+ * Before (WebLogic Servlet):
+ *   @WebServlet("/session")
+ *   public class SessionManagerServlet extends HttpServlet
+ *   - Used HttpSession with WebLogic in-memory replication
+ *
+ * After (Helidon SE):
+ *   routing.register("/helidon/api/session-info", new SessionResource(sessionService))
+ *   - Session ID in the query or the path, as in the MP port
+ */
+public class SessionResource implements HttpService {
+
+    private static final String ERROR_SESSION_NOT_FOUND = "Session not found";
+
+    private final SessionService sessionService;
+
+    public SessionResource(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Override
+    public void routing(HttpRules rules) {
+        rules.get("/", this::getOrCreateSession)
+                .get("/{sessionId}", this::getSession)
+                .put("/{sessionId}/attribute", this::setAttribute)
+                .post("/{sessionId}/user", this::setUserName)
+                .delete("/{sessionId}", this::invalidateSession);
+    }
+
+    @Override
+    public void afterStop() {
+        sessionService.close();
+    }
+
+    /**
+     * Get or create session, for the optional sessionId query parameter
+     */
+    private void getOrCreateSession(ServerRequest request, ServerResponse response) {
+        String sessionId = request.query().first("sessionId").orElse(null);
+        JsonResponses.send(response, sessionService.getOrCreateSession(sessionId).toJson());
+    }
+
+    /**
+     * Get session by ID
+     */
+    private void getSession(ServerRequest request, ServerResponse response) {
+        String sessionId = request.path().pathParameters().get("sessionId");
+        send(response, sessionId, sessionService.getSession(sessionId));
+    }
+
+    /**
+     * Set session attribute from the key and value query parameters
+     */
+    private void setAttribute(ServerRequest request, ServerResponse response) {
+        String sessionId = request.path().pathParameters().get("sessionId");
+        String key = request.query().first("key").orElse(null);
+        if (key == null) {
+            JsonResponses.error(response, Status.BAD_REQUEST_400, "Missing key", sessionId);
+            return;
+        }
+        sessionService.setAttribute(sessionId, key, request.query().first("value").orElse(null));
+        send(response, sessionId, sessionService.getSession(sessionId));
+    }
+
+    /**
+     * Set username for session from the userName query parameter
+     */
+    private void setUserName(ServerRequest request, ServerResponse response) {
+        String sessionId = request.path().pathParameters().get("sessionId");
+        sessionService.setUserName(sessionId, request.query().first("userName").orElse(null));
+        send(response, sessionId, sessionService.getSession(sessionId));
+    }
+
+    /**
+     * Invalidate session
+     */
+    private void invalidateSession(ServerRequest request, ServerResponse response) {
+        String sessionId = request.path().pathParameters().get("sessionId");
+        sessionService.invalidateSession(sessionId);
+        JsonResponses.send(response, new JsonWriter(128).beginObject()
+                .member("message", "Session invalidated")
+                .member("sessionId", sessionId)
+                .endObject()
+                .toString());
+    }
+
+    private static void send(ServerResponse response, String sessionId, SessionInfo session) {
+        if (session == null) {
+            JsonResponses.error(response, Status.NOT_FOUND_404, ERROR_SESSION_NOT_FOUND, sessionId);
+        } else {
+            JsonResponses.send(response, session.toJson());
+        }
+    }
+}
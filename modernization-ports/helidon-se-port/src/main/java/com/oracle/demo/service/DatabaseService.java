@@ -0,0 +1,295 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.DatabaseInfo;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.helidon.config.Config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service for database connectivity using HikariCP
+ * Ported from the Helidon MP DatabaseService
+ *
+ * Before (WebLogic):
+ *   - Custom singleton using Oracle UCP
+ *   - DatabaseConnectionManager with PoolDataSource
+ *
+ * After (Helidon SE):
+ *   - Plain object created once in Main from the app.database configuration
+ *   - HikariCP connection pool
+ *
+ * Snapshots (getDatabaseInfo):
+ *   As in the MP port, product and driver metadata are read once, and a
+ *   background refresher checks connectivity and reads the pool statistics every
+ *   app.database.refresh.interval-millis. Requests return that snapshot without
+ *   touching the pool; probeDatabaseInfo() checks the database on demand.
+ *
+ * Blocking calls:
+ *   Every request runs on its own virtual thread, so probeDatabaseInfo() blocks
+ *   on the pool and the JDBC round trips directly. A waiting request parks its
+ *   virtual thread and releases the carrier; HikariCP's connection timeout bounds
+ *   the wait and the pool size bounds the concurrent database work. The MP port's
+ *   offload executor, semaphore and fault tolerance annotations are not needed.
+ */
+public class DatabaseService implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(DatabaseService.class.getName());
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final boolean mockMode;
+    private final String databaseUrl;
+    private final String username;
+    private final String password;
+    private final String serviceName;
+    private final String walletLocation;
+    private final int maxPoolSize;
+    private final int minIdle;
+
+    private HikariDataSource dataSource;
+
+    // Product and driver metadata, read on the first successful probe of the pool
+    private volatile ProductMetadata productMetadata;
+
+    // Latest probe of the refresher, served to requests; null when the refresher is disabled
+    private volatile DatabaseInfo snapshot;
+    private ScheduledExecutorService refresher;
+
+    /**
+     * @param config The app.database configuration node
+     */
+    public DatabaseService(Config config) {
+        mockMode = config.get("mock-mode").asBoolean().orElse(true);
+        databaseUrl = config.get("url").asString().orElse("jdbc:oracle:thin:@localhost:1521/mockdb");
+        username = config.get("username").asString().orElse("ADMIN");
+        password = config.get("password").asString().orElse("");
+        serviceName = config.get("service-name").asString().orElse("mock_adb_high");
+        walletLocation = config.get("wallet-location").asString().orElse("");
+        maxPoolSize = config.get("pool.maximum-pool-size").asInt().orElse(10);
+        minIdle = config.get("pool.minimum-idle").asInt().orElse(2);
+        long refreshIntervalMillis = config.get("refresh.interval-millis").asLong().orElse(5000L);
+
+        LOGGER.info("Initializing database service...");
+        LOGGER.info("Mock mode: " + mockMode);
+
+        if (!mockMode) {
+            initializeConnectionPool();
+        } else {
+            LOGGER.info("Running in MOCK mode - no real database connection");
+        }
+
+        if (refreshIntervalMillis > 0) {
+            // The first snapshot is taken before the service is used
+            refreshSnapshot();
+            if (dataSource != null) {
+                refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "database-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                refresher.scheduleWithFixedDelay(this::refreshSnapshot,
+                        refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+        if (dataSource != null && !dataSource.isClosed()) {
+            LOGGER.info("Closing HikariCP connection pool...");
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Initialize HikariCP connection pool
+     */
+    private void initializeConnectionPool() {
+        try {
+            HikariConfig config = new HikariConfig();
+
+            config.setJdbcUrl(databaseUrl);
+            config.setUsername(username);
+            config.setPassword(password);
+            if (databaseUrl.startsWith("jdbc:oracle:")) {
+                config.setDriverClassName("oracle.jdbc.OracleDriver");
+            }
+
+            // Pool settings
+            config.setMaximumPoolSize(maxPoolSize);
+            config.setMinimumIdle(minIdle);
+            config.setConnectionTimeout(30000);
+            config.setIdleTimeout(600000);
+            config.setMaxLifetime(1800000);
+
+            // Oracle ADB specific settings
+            if (walletLocation != null && !walletLocation.isEmpty()) {
+                System.setProperty("oracle.net.tns_admin", walletLocation);
+                System.setProperty("oracle.net.wallet_location", walletLocation);
+                LOGGER.info("Wallet location set to: " + walletLocation);
+            }
+
+            config.addDataSourceProperty("oracle.jdbc.fanEnabled", "false");
+            config.setPoolName("database");
+
+            dataSource = new HikariDataSource(config);
+            LOGGER.info("HikariCP connection pool initialized successfully");
+
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error initializing HikariCP pool", e);
+        }
+    }
+
+    /**
+     * Latest database information, as of the last refresh
+     *
+     * A memory read when the refresher is enabled; otherwise the same as probeDatabaseInfo().
+     * The returned object is shared and must not be modified.
+     */
+    public DatabaseInfo getDatabaseInfo() {
+        DatabaseInfo current = snapshot;
+        return current != null ? current : probeDatabaseInfo();
+    }
+
+    /**
+     * Test database connectivity now and return information
+     */
+    public DatabaseInfo probeDatabaseInfo() {
+        try {
+            return probe();
+        } catch (SQLException e) {
+            return errorInfo(e);
+        }
+    }
+
+    /**
+     * Probe the database and publish the result to requests
+     */
+    private void refreshSnapshot() {
+        try {
+            snapshot = probeDatabaseInfo();
+        } catch (RuntimeException e) {
+            // Keep the refresher scheduled
+            LOGGER.log(Level.WARNING, "Database snapshot refresh failed", e);
+        }
+    }
+
+    /**
+     * Borrow a connection, check it and read the pool statistics
+     *
+     * The product metadata round trips happen only on the first successful probe.
+     */
+    private DatabaseInfo probe() throws SQLException {
+        DatabaseInfo info = newDatabaseInfo();
+
+        if (mockMode) {
+            info.setStatus("MOCK MODE");
+            info.setMessage("Application is running in mock mode. Configure real ADB credentials to connect.");
+            return info;
+        }
+
+        if (dataSource == null) {
+            info.setStatus("NOT CONFIGURED");
+            info.setMessage("Connection pool is not initialized");
+            return info;
+        }
+
+        ProductMetadata metadata;
+        try (Connection conn = dataSource.getConnection()) {
+            metadata = productMetadata;
+            if (metadata == null) {
+                metadata = new ProductMetadata(conn.getMetaData());
+                productMetadata = metadata;
+            } else if (!conn.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection validation failed");
+            }
+        }
+
+        info.setStatus("CONNECTED");
+        info.setMessage("Successfully connected to Oracle Autonomous Database");
+        metadata.copyTo(info);
+        info.setPoolStatistics(poolStatistics());
+        return info;
+    }
+
+    private DatabaseInfo.PoolStatistics poolStatistics() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        DatabaseInfo.PoolStatistics stats = new DatabaseInfo.PoolStatistics();
+        stats.setActiveConnections(pool.getActiveConnections());
+        stats.setIdleConnections(pool.getIdleConnections());
+        stats.setTotalConnections(pool.getTotalConnections());
+        stats.setMaxPoolSize(maxPoolSize);
+        return stats;
+    }
+
+    private DatabaseInfo errorInfo(SQLException e) {
+        DatabaseInfo info = newDatabaseInfo();
+        info.setStatus("ERROR");
+        info.setMessage("Failed to connect: " + e.getMessage());
+        info.setError(e.toString());
+        ProductMetadata metadata = productMetadata;
+        if (metadata != null) {
+            metadata.copyTo(info);
+        }
+        if (dataSource != null) {
+            info.setPoolStatistics(poolStatistics());
+        }
+        return info;
+    }
+
+    /**
+     * DatabaseInfo with the configuration fields filled in
+     */
+    private DatabaseInfo newDatabaseInfo() {
+        DatabaseInfo info = new DatabaseInfo();
+        info.setMockMode(mockMode);
+        info.setConfigured(dataSource != null || mockMode);
+        info.setDatabaseUrl(databaseUrl);
+        info.setUsername(username);
+        info.setServiceName(serviceName);
+        info.setWalletLocation(walletLocation);
+        info.setCheckedAt(Instant.now().toString());
+        return info;
+    }
+
+    public boolean isMockMode() {
+        return mockMode;
+    }
+
+    /**
+     * Database product and driver, fixed for the lifetime of the pool
+     */
+    private static final class ProductMetadata {
+        private final String productName;
+        private final String productVersion;
+        private final String driverName;
+        private final String driverVersion;
+
+        ProductMetadata(DatabaseMetaData metaData) throws SQLException {
+            productName = metaData.getDatabaseProductName();
+            productVersion = metaData.getDatabaseProductVersion();
+            driverName = metaData.getDriverName();
+            driverVersion = metaData.getDriverVersion();
+        }
+
+        void copyTo(DatabaseInfo info) {
+            info.setDatabaseProductName(productName);
+            info.setDatabaseProductVersion(productVersion);
+            info.setDriverName(driverName);
+            info.setDriverVersion(driverVersion);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.json.JsonWriter;
+import io.helidon.config.Config;
+
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.UnknownHostException;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service for host information
+ * Migrated from HostInfoServlet to a plain object, ported from the Helidon MP HostInfoService
+ *
+ * Snapshot:
+ *   Host name and address, network interfaces, OS, Java and user properties do
+ *   not change between requests. They are collected once into an immutable
+ *   snapshot, together with their JSON. A watcher looks up the host and
+ *   enumerates the network interfaces every app.host-info.watch-interval-seconds
+ *   and rebuilds the snapshot only when something changed, so no request waits
+ *   for a name lookup. A request adds the memory figures and the server time
+ *   (formatted once per second) to the snapshot.
+ *
+ * The JSON has the same members, in the same order, as the MP port's.
+ */
+public class HostInfoService implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(HostInfoService.class.getName());
+
+    private static final String SERVER_NAME = "Helidon SE Server";
+
+    private volatile HostSnapshot snapshot;
+    private volatile ServerTime serverTime = new ServerTime(Long.MIN_VALUE, null);
+    private final ScheduledExecutorService watcher;
+
+    /**
+     * @param config The app.host-info configuration node
+     */
+    public HostInfoService(Config config) {
+        long watchIntervalSeconds = config.get("watch-interval-seconds").asLong().orElse(10L);
+        refresh();
+        if (watchIntervalSeconds > 0) {
+            watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "host-info-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watcher.scheduleWithFixedDelay(this::refreshIfChanged,
+                    watchIntervalSeconds, watchIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            watcher = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Host name of the latest snapshot, or null if it could not be resolved
+     */
+    public String getHostName() {
+        return snapshot.hostname;
+    }
+
+    /**
+     * Host information as JSON, built from the snapshot's precomputed JSON
+     */
+    public String getHostInfoJson() {
+        HostSnapshot current = snapshot;
+        Runtime runtime = Runtime.getRuntime();
+        long maxMemory = runtime.maxMemory() / (1024 * 1024);
+        long totalMemory = runtime.totalMemory() / (1024 * 1024);
+        long freeMemory = runtime.freeMemory() / (1024 * 1024);
+        String time = getServerTime();
+
+        StringBuilder json = new StringBuilder(current.json.length() + time.length() + 160);
+        json.append('{').append(current.json)
+                .append(",\"serverName\":\"").append(SERVER_NAME)
+                .append("\",\"serverTime\":\"").append(time)
+                .append("\",\"memoryInfo\":{\"freeMemoryMB\":").append(freeMemory)
+                .append(",\"maxMemoryMB\":").append(maxMemory)
+                .append(",\"totalMemoryMB\":").append(totalMemory)
+                .append(",\"usedMemoryMB\":").append(totalMemory - freeMemory)
+                .append("}}");
+        return json.toString();
+    }
+
+    /**
+     * Rebuild the snapshot now
+     */
+    public void refresh() {
+        InetAddress localHost = getLocalHost();
+        Map<String, String> interfaces = getNetworkInterfaces();
+        snapshot = new HostSnapshot(localHost == null ? null : localHost.getHostName(),
+                localHost == null ? null : localHost.getHostAddress(), interfaces);
+        LOGGER.fine("Host information snapshot built, interfaces " + interfaces);
+    }
+
+    /**
+     * Rebuild the snapshot if the network interfaces, their addresses or the host changed
+     *
+     * @return whether the snapshot was rebuilt
+     */
+    boolean refreshIfChanged() {
+        try {
+            HostSnapshot current = snapshot;
+            InetAddress localHost = getLocalHost();
+            if (getNetworkInterfaces().equals(current.networkInterfaces)
+                    && Objects.equals(localHost == null ? null : localHost.getHostName(), current.hostname)
+                    && Objects.equals(localHost == null ? null : localHost.getHostAddress(), current.hostAddress)) {
+                return false;
+            }
+            LOGGER.info("Network interfaces or host name changed, rebuilding host information");
+            refresh();
+            return true;
+        } catch (RuntimeException e) {
+            // Keep the watcher scheduled
+            LOGGER.log(Level.WARNING, "Error refreshing host info", e);
+            return false;
+        }
+    }
+
+    /**
+     * Date.toString() of the current time, formatted at most once per second
+     */
+    private String getServerTime() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        ServerTime current = serverTime;
+        if (current.second != second) {
+            current = new ServerTime(second, new Date(now).toString());
+            serverTime = current;
+        }
+        return current.text;
+    }
+
+    private static InetAddress getLocalHost() {
+        try {
+            return InetAddress.getLocalHost();
+        } catch (UnknownHostException e) {
+            LOGGER.log(Level.WARNING, "Cannot resolve the local host", e);
+            return null;
+        }
+    }
+
+    /**
+     * Get all network interfaces
+     */
+    private static Map<String, String> getNetworkInterfaces() {
+        Map<String, String> interfaces = new LinkedHashMap<>();
+
+        try {
+            Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
+            while (networkInterfaces.hasMoreElements()) {
+                NetworkInterface ni = networkInterfaces.nextElement();
+                if (ni.isUp() && !ni.isLoopback()) {
+                    Enumeration<InetAddress> addresses = ni.getInetAddresses();
+                    while (addresses.hasMoreElements()) {
+                        InetAddress addr = addresses.nextElement();
+                        if (!addr.isLoopbackAddress() && addr.getHostAddress().indexOf(':') == -1) {
+                            interfaces.put(ni.getName(), addr.getHostAddress());
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Error getting network interfaces", e);
+        }
+
+        return interfaces;
+    }
+
+    /**
+     * The parts of the host information that only change with the network configuration
+     */
+    private static final class HostSnapshot {
+        private final String hostname;
+        private final String hostAddress;
+        private final Map<String, String> networkInterfaces;
+        // The members above and the OS, Java and user properties as JSON, without braces
+        private final String json;
+
+        HostSnapshot(String hostname, String hostAddress, Map<String, String> interfaces) {
+            this.hostname = hostname;
+            this.hostAddress = hostAddress;
+            networkInterfaces = Map.copyOf(interfaces);
+            json = toJson(interfaces);
+        }
+
+        private String toJson(Map<String, String> interfaces) {
+            String object = new JsonWriter(1024).beginObject()
+                    .member("hostAddress", hostAddress)
+                    .member("hostname", hostname)
+                    .beginObject("javaInfo")
+                    .member("home", System.getProperty("java.home"))
+                    .member("vendor", System.getProperty("java.vendor"))
+                    .member("version", System.getProperty("java.version"))
+                    .endObject()
+                    .member("networkInterfaces", interfaces)
+                    .beginObject("osInfo")
+                    .member("architecture", System.getProperty("os.arch"))
+                    .member("name", System.getProperty("os.name"))
+                    .member("processors", Runtime.getRuntime().availableProcessors())
+                    .member("version", System.getProperty("os.version"))
+                    .endObject()
+                    .beginObject("userInfo")
+                    .member("home", System.getProperty("user.home"))
+                    .member("name", System.getProperty("user.name"))
+                    .member("workingDirectory", System.getProperty("user.dir"))
+                    .endObject()
+                    .endObject()
+                    .toString();
+            // getHostInfoJson() appends the per-request members inside the braces
+            return object.substring(1, object.length() - 1);
+        }
+    }
+
+    /**
+     * Formatted server time and the second it stands for
+     */
+    private static final class ServerTime {
+        private final long second;
+        private final String text;
+
+        ServerTime(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
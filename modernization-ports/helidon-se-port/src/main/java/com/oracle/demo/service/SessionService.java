@@ -0,0 +1,211 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.SessionInfo;
+import com.oracle.demo.session.HeapSessionStore;
+import com.oracle.demo.session.SessionRecord;
+import com.oracle.demo.session.SessionStore;
+import io.helidon.config.Config;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Service for session management
+ * Migrated from WebLogic HttpSession, ported from the Helidon MP SessionService
+ *
+ * Before (WebLogic):
+ *   - HttpSession with in-memory replication
+ *   - weblogic.xml session-descriptor
+ *
+ * After (Helidon SE):
+ *   - Plain object created once in Main from the app.session configuration
+ *   - Sessions in the HeapSessionStore of the shared session-store module, the
+ *     same store as the MP port's default (app.session.store=heap)
+ *
+ * Same session semantics and JSON as the MP port's heap store:
+ *   app.session.max-inactive-interval, visit counting on get-or-create, and the
+ *   app.session.max-sessions / max-attribute-bytes capacity. Expired sessions are
+ *   removed by the store's timing wheel every app.session.expiry-tick-millis. When
+ *   the capacity is reached, the W-TinyLFU policy evicts the least frequently used
+ *   sessions, so new sessions are never refused. The MP port's off-heap store,
+ *   journal, replication, routing, admin query and event stream are not ported.
+ */
+public class SessionService implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SessionService.class.getName());
+
+    private static final int SESSION_ID_BYTES = 16;
+
+    private final int maxInactiveInterval;
+    private final HostInfoService hostInfoService;
+
+    private final SessionStore store;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile ServerNode serverNode = new ServerNode(null, "Helidon SE");
+
+    /**
+     * @param config The app.session configuration node
+     * @param hostInfoService Source of the host name in serverNode
+     */
+    public SessionService(Config config, HostInfoService hostInfoService) {
+        this.hostInfoService = hostInfoService;
+        maxInactiveInterval = config.get("max-inactive-interval").asInt().orElse(1800);
+        int maxSessions = config.get("max-sessions").asInt().orElse(100000);
+        long maxAttributeBytes = config.get("max-attribute-bytes").asLong().orElse(67108864L);
+        long expiryTickMillis = config.get("expiry-tick-millis").asLong().orElse(1000L);
+
+        store = new HeapSessionStore(maxInactiveInterval, expiryTickMillis, maxSessions, maxAttributeBytes,
+                new SessionStore.Listener() {
+                    @Override
+                    public void onExpired(String sessionId) {
+                        LOGGER.fine("Expired session: " + sessionId);
+                    }
+
+                    @Override
+                    public void onEvicted(String sessionId) {
+                        LOGGER.fine("Evicted session: " + sessionId);
+                    }
+                });
+        LOGGER.info("Session service initialized, max inactive interval " + maxInactiveInterval
+                + " s, capacity " + maxSessions + " sessions, " + maxAttributeBytes + " attribute bytes");
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * Live sessions
+     */
+    public int getSessionCount() {
+        return store.size();
+    }
+
+    /**
+     * Get or create a session
+     */
+    public SessionInfo getOrCreateSession(String sessionId) {
+        SessionRecord session = sessionId != null ? store.access(sessionId, true) : null;
+        if (session != null) {
+            return buildSessionInfo(session, false);
+        }
+
+        // create() claims the ID atomically; draw another one in the unlikely case it is taken
+        do {
+            session = store.create(newSessionId());
+        } while (session == null);
+        LOGGER.info("Created new session: " + session.getId());
+        return buildSessionInfo(session, true);
+    }
+
+    /**
+     * Get session by ID
+     */
+    public SessionInfo getSession(String sessionId) {
+        SessionRecord session = sessionId != null ? store.access(sessionId, false) : null;
+        return session != null ? buildSessionInfo(session, false) : null;
+    }
+
+    /**
+     * Set session attribute
+     */
+    public void setAttribute(String sessionId, String key, Object value) {
+        if (sessionId != null) {
+            store.setAttribute(sessionId, key, value);
+        }
+    }
+
+    /**
+     * Set username for session
+     */
+    public void setUserName(String sessionId, String userName) {
+        if (sessionId != null) {
+            store.setUserName(sessionId, userName);
+        }
+    }
+
+    /**
+     * Remove session attribute
+     */
+    public void removeAttribute(String sessionId, String key) {
+        if (sessionId != null) {
+            store.removeAttribute(sessionId, key);
+        }
+    }
+
+    /**
+     * Invalidate session
+     */
+    public void invalidateSession(String sessionId) {
+        if (sessionId != null && store.invalidate(sessionId)) {
+            LOGGER.info("Invalidated session: " + sessionId);
+        }
+    }
+
+    private String newSessionId() {
+        byte[] bytes = new byte[SESSION_ID_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Server node label, rebuilt when the host name of the host information snapshot changes
+     */
+    private String getServerNode() {
+        String hostName = hostInfoService.getHostName();
+        ServerNode current = serverNode;
+        if (hostName != null && !hostName.equals(current.hostName)) {
+            current = new ServerNode(hostName, "Helidon SE (" + hostName + ")");
+            serverNode = current;
+        }
+        return current.label;
+    }
+
+    /**
+     * Build SessionInfo DTO from a session record
+     */
+    private SessionInfo buildSessionInfo(SessionRecord session, boolean isNew) {
+        SessionInfo info = new SessionInfo();
+        info.setSessionId(session.getId());
+        info.setCreationTime(Instant.ofEpochMilli(session.getCreationTime()).toString());
+        info.setLastAccessedTime(Instant.ofEpochMilli(session.getLastAccessedTime()).toString());
+        info.setMaxInactiveInterval(maxInactiveInterval);
+        info.setNew(isNew);
+        info.setVisitCount(session.getVisitCount());
+        info.setUserName(session.getUserName());
+        // The heap store returns live records; the JSON is written after this returns
+        info.setAttributes(new LinkedHashMap<>(session.getAttributes()));
+
+        // Calculate times
+        long now = System.currentTimeMillis();
+        long sessionAge = (now - session.getCreationTime()) / 1000;
+        long idleTime = (now - session.getLastAccessedTime()) / 1000;
+        long remainingTime = Math.max(0, maxInactiveInterval - idleTime);
+
+        info.setSessionAgeSeconds(sessionAge);
+        info.setIdleTimeSeconds(idleTime);
+        info.setRemainingTimeSeconds(remainingTime);
+
+        info.setServerNode(getServerNode());
+
+        return info;
+    }
+
+    /**
+     * Server node label and the host name it was built from
+     */
+    private static final class ServerNode {
+        private final String hostName;
+        private final String label;
+
+        ServerNode(String hostName, String label) {
+            this.hostName = hostName;
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.oracle.demo;
+
+import io.helidon.config.Config;
+import io.helidon.http.Status;
+import io.helidon.webclient.api.ClientResponseTyped;
+import io.helidon.webclient.http1.Http1Client;
+import io.helidon.webserver.http.HttpRouting;
+import io.helidon.webserver.testing.junit5.ServerTest;
+import io.helidon.webserver.testing.junit5.SetUpRoute;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Routes of the Helidon SE port on a test server, with the configuration in application.yaml
+ */
+@ServerTest
+class MainTest {
+
+    private final Http1Client client;
+
+    MainTest(Http1Client client) {
+        this.client = client;
+    }
+
+    @SetUpRoute
+    static void routing(HttpRouting.Builder routing) {
+        Main.routing(routing, Config.create());
+    }
+
+    @Test
+    void testGreet() {
+        ClientResponseTyped<String> response = client.get("/helidon/api/greet")
+                .queryParam("name", "SE")
+                .request(String.class);
+
+        assertThat(response.status(), is(Status.OK_200));
+        assertThat(response.headers().contentType().orElseThrow().text(), startsWith("application/json"));
+        assertThat(response.entity(), containsString("\"message\":\"Hello, SE!\""));
+    }
+
+    @Test
+    void testHostInfo() {
+        ClientResponseTyped<String> response = client.get("/helidon/api/host-info").request(String.class);
+
+        assertThat(response.status(), is(Status.OK_200));
+        assertThat(response.entity(), containsString("\"serverName\":\"Helidon SE Server\""));
+        assertThat(response.entity(), containsString("\"memoryInfo\":{"));
+    }
+
+    @Test
+    void testDatabaseInfoInMockMode() {
+        ClientResponseTyped<String> response = client.get("/helidon/api/database-info/test")
+                .queryParam("probe", "true")
+                .request(String.class);
+
+        assertThat(response.status(), is(Status.OK_200));
+        assertThat(response.entity(), containsString("\"status\":\"MOCK MODE\""));
+    }
+
+    @Test
+    void testSessionLifecycle() {
+        String created = client.get("/helidon/api/session-info").request(String.class).entity();
+        assertThat(created, containsString("\"new\":true"));
+        String sessionId = created.replaceFirst(".*\"sessionId\":\"([^\"]+)\".*", "$1");
+
+        ClientResponseTyped<String> user = client.post("/helidon/api/session-info/" + sessionId + "/user")
+                .queryParam("userName", "ada")
+                .request(String.class);
+        assertThat(user.status(), is(Status.OK_200));
+        assertThat(user.entity(), containsString("\"userName\":\"ada\""));
+
+        client.delete("/helidon/api/session-info/" + sessionId).request(String.class);
+        ClientResponseTyped<String> gone = client.get("/helidon/api/session-info/" + sessionId)
+                .request(String.class);
+        assertThat(gone.status(), is(Status.NOT_FOUND_404));
+        assertThat(gone.entity(), containsString("\"error\":\"Session not found\""));
+    }
+}
@@ -0,0 +1,60 @@
+package com.oracle.demo.json;
+
+import com.oracle.demo.model.DatabaseInfo;
+import com.oracle.demo.model.GreetingResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the hand-written JSON of the responses
+ */
+class JsonWriterTest {
+
+    @Test
+    void testMembersAreSeparatedAndNullsLeftOut() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("theme", "dark");
+        attributes.put("count", 3);
+        attributes.put("missing", null);
+
+        String json = new JsonWriter().beginObject()
+                .member("a", "x")
+                .member("skipped", (String) null)
+                .beginObject("nested")
+                .endObject()
+                .member("attributes", attributes)
+                .member("flag", true)
+                .endObject()
+                .toString();
+
+        assertThat(json, is("{\"a\":\"x\",\"nested\":{},\"attributes\":{\"theme\":\"dark\",\"count\":3},\"flag\":true}"));
+    }
+
+    @Test
+    void testStringsAreEscaped() {
+        assertThat(JsonWriter.quote("a\"b\\c\nd\u0001"), is("\"a\\\"b\\\\c\\nd\\u0001\""));
+    }
+
+    @Test
+    void testModelsWriteTheMpPortMembers() {
+        GreetingResponse greeting = new GreetingResponse("Hello, SE!");
+        greeting.setServiceInfo("info");
+        assertThat(greeting.toJson(), is("{\"message\":\"Hello, SE!\",\"serviceInfo\":\"info\",\"timestamp\":\""
+                + greeting.getTimestamp() + "\"}"));
+
+        DatabaseInfo info = new DatabaseInfo();
+        info.setStatus("MOCK MODE");
+        info.setMockMode(true);
+        DatabaseInfo.PoolStatistics stats = new DatabaseInfo.PoolStatistics();
+        stats.setMaxPoolSize(10);
+        info.setPoolStatistics(stats);
+        assertThat(info.toJson(), is("{\"configured\":false,\"mockMode\":true,\"poolStatistics\":"
+                + "{\"activeConnections\":0,\"idleConnections\":0,\"maxPoolSize\":10,\"totalConnections\":0},"
+                + "\"status\":\"MOCK MODE\"}"));
+    }
+}
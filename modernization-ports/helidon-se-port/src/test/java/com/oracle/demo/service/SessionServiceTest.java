@@ -0,0 +1,100 @@
+package com.oracle.demo.service;
+
+import com.oracle.demo.model.SessionInfo;
+import io.helidon.config.Config;
+import io.helidon.config.ConfigSources;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the Helidon SE session service, without a server
+ */
+class SessionServiceTest {
+
+    private HostInfoService hostInfoService;
+    private SessionService sessionService;
+
+    @BeforeEach
+    void setUp() {
+        hostInfoService = new HostInfoService(config(Map.of("watch-interval-seconds", "0")));
+        sessionService = new SessionService(config(Map.of(
+                "max-inactive-interval", "1",
+                "max-sessions", "2",
+                "expiry-tick-millis", "100")), hostInfoService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionService.close();
+        hostInfoService.close();
+    }
+
+    @Test
+    void testCreateThenVisit() {
+        SessionInfo created = sessionService.getOrCreateSession(null);
+        assertThat(created.isNew(), is(true));
+        assertThat("A new session counts as visited once", created.getVisitCount(), is(1L));
+        assertThat(created.getServerNode(), startsWith("Helidon SE"));
+
+        SessionInfo visited = sessionService.getOrCreateSession(created.getSessionId());
+        assertThat(visited.getSessionId(), is(created.getSessionId()));
+        assertThat(visited.isNew(), is(false));
+        assertThat(visited.getVisitCount(), is(2L));
+
+        assertThat("A lookup is not a visit",
+                sessionService.getSession(created.getSessionId()).getVisitCount(), is(2L));
+    }
+
+    @Test
+    void testAttributesUserNameAndInvalidation() {
+        String sessionId = sessionService.getOrCreateSession(null).getSessionId();
+        sessionService.setAttribute(sessionId, "theme", "dark");
+        sessionService.setUserName(sessionId, "ada");
+
+        SessionInfo session = sessionService.getSession(sessionId);
+        assertThat(session.getAttributes(), hasEntry("theme", (Object) "dark"));
+        assertThat(session.getUserName(), is("ada"));
+        assertThat(session.toJson(), containsString("\"userName\":\"ada\""));
+
+        sessionService.invalidateSession(sessionId);
+        assertThat(sessionService.getSession(sessionId), is(nullValue()));
+        assertThat(sessionService.getSessionCount(), is(0));
+    }
+
+    @Test
+    void testExpiredSessionsAreNotReturned() throws InterruptedException {
+        String sessionId = sessionService.getOrCreateSession(null).getSessionId();
+        Thread.sleep(1100);
+
+        assertThat(sessionService.getSession(sessionId), is(nullValue()));
+        SessionInfo replacement = sessionService.getOrCreateSession(sessionId);
+        assertThat(replacement.isNew(), is(true));
+        assertThat(replacement.getSessionId(), is(not(sessionId)));
+    }
+
+    @Test
+    void testSessionsBeyondTheLimitEvictTheLeastUsed() {
+        String active = sessionService.getOrCreateSession(null).getSessionId();
+        for (int visit = 0; visit < 5; visit++) {
+            sessionService.getOrCreateSession(active);
+        }
+
+        // One-shot sessions are created beyond max-sessions instead of being refused
+        for (int i = 0; i < 10; i++) {
+            assertThat(sessionService.getOrCreateSession(null).isNew(), is(true));
+        }
+        assertThat(sessionService.getSessionCount(), lessThanOrEqualTo(2));
+        assertThat("The frequently used session survives",
+                sessionService.getSession(active), is(notNullValue()));
+    }
+
+    private static Config config(Map<String, String> values) {
+        return Config.just(ConfigSources.create(values));
+    }
+}
@@ -0,0 +1,76 @@
+package com.oracle.demo.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary form of session attribute values, shared by the off-heap store, the journal and replication
+ *
+ * The first byte is a type tag: strings follow as UTF-8, any other value with
+ * Java serialization.
+ *
+ * Encoded values come back from the off-heap store, the journal on disk and
+ * replication peers, so decoding only accepts strings, boxed primitives and
+ * java.util types (collections of them). Any other class in the stream is
+ * rejected before it is instantiated.
+ */
+public final class AttributeCodec {
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_SERIALIZED = 1;
+
+    private static final ObjectInputFilter ALLOWED_CLASSES = ObjectInputFilter.Config.createFilter(
+            "maxdepth=16;maxrefs=100000;maxarray=100000;"
+            // java.lang.Object for the Object[] inside serialized List.of() and Map.of()
+            + "java.lang.Object;java.lang.String;java.lang.Boolean;java.lang.Character;java.lang.Number;"
+            + "java.lang.Byte;java.lang.Short;java.lang.Integer;java.lang.Long;java.lang.Float;java.lang.Double;"
+            + "java.util.*;!*");
+
+    private AttributeCodec() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is neither a String nor Serializable
+     */
+    public static byte[] encode(String key, Object value) {
+        if (value instanceof String) {
+            byte[] text = ((String) value).getBytes(StandardCharsets.UTF_8);
+            byte[] encoded = new byte[text.length + 1];
+            encoded[0] = TYPE_STRING;
+            System.arraycopy(text, 0, encoded, 1, text.length);
+            return encoded;
+        }
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Attribute " + key + " is not serializable: " + value.getClass().getName());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(TYPE_SERIALIZED);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize attribute " + key, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IllegalStateException if the value cannot be read or contains a class that is not allowed
+     */
+    public static Object decode(byte[] encoded) {
+        if (encoded[0] == TYPE_STRING) {
+            return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(encoded, 1, encoded.length - 1))) {
+            in.setObjectInputFilter(ALLOWED_CLASSES);
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Cannot deserialize session attribute", e);
+        }
+    }
+}
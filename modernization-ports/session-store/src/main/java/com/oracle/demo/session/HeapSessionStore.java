@@ -0,0 +1,456 @@
+package com.oracle.demo.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Session store keeping one Java object per session on the heap (app.session.store=heap)
+ *
+ * Expiry:
+ *   Sessions idle for longer than the max inactive interval are removed by a single
+ *   reaper thread driving a hierarchical TimingWheel. New sessions are handed to the
+ *   reaper through a lock-free queue. An access only records the access time, so it
+ *   never contends on the wheel. When a session comes due, the reaper checks the real
+ *   idle time and either removes the session or re-files it at its new deadline. Each
+ *   session is therefore re-filed at most a few times per timeout period, however
+ *   often it is touched.
+ *
+ * Capacity:
+ *   The number of sessions and their total attribute size are bounded by a
+ *   WindowTinyLfuPolicy. A burst of new sessions competes for space by access
+ *   frequency, so one-shot sessions (e.g. from bots) are evicted before the sessions
+ *   of active users.
+ */
+public final class HeapSessionStore implements SessionStore {
+
+    private static final Logger LOGGER = Logger.getLogger(HeapSessionStore.class.getName());
+
+    private final int maxInactiveInterval;
+    private final Listener listener;
+
+    private final Map<String, InternalSession> sessions = new ConcurrentHashMap<>();
+
+    // Sessions created since the last reaper tick, filed into the wheel by the reaper
+    private final Queue<InternalSession> newSessions = new ConcurrentLinkedQueue<>();
+
+    private final WindowTinyLfuPolicy<InternalSession> capacityPolicy;
+    private final TimingWheel<InternalSession> expiryWheel;
+    private final ScheduledExecutorService reaper;
+
+    /**
+     * @param maxInactiveInterval Idle timeout in seconds, expiry is disabled if <= 0
+     * @param expiryTickMillis Resolution of the expiry wheel
+     * @param maxSessions Maximum number of sessions
+     * @param maxAttributeBytes Maximum estimated size of all attributes
+     * @param listener Notified of expired and evicted sessions
+     */
+    public HeapSessionStore(int maxInactiveInterval, long expiryTickMillis, int maxSessions,
+                            long maxAttributeBytes, Listener listener) {
+        this.maxInactiveInterval = maxInactiveInterval;
+        this.listener = listener;
+        this.capacityPolicy = new WindowTinyLfuPolicy<>(maxSessions, maxAttributeBytes);
+
+        if (maxInactiveInterval <= 0) {
+            expiryWheel = null;
+            reaper = null;
+            return;
+        }
+        expiryWheel = new TimingWheel<>(expiryTickMillis, System.currentTimeMillis());
+        reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reaper.scheduleAtFixedRate(this::reap, expiryTickMillis, expiryTickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SessionRecord create(String sessionId) {
+        long now = System.currentTimeMillis();
+        InternalSession internalSession = new InternalSession(sessionId, now, now);
+        internalSession.incrementVisitCount();
+        return admit(internalSession, false) ? internalSession : null;
+    }
+
+    @Override
+    public void restore(SessionRecord session) {
+        InternalSession internalSession = new InternalSession(
+                session.getId(), session.getCreationTime(), session.getLastAccessedTime());
+        internalSession.visitCount = session.getVisitCount();
+        internalSession.setUserName(session.getUserName());
+        internalSession.getAttributes().putAll(session.getAttributes());
+        admit(internalSession, true);
+    }
+
+    @Override
+    public void forEach(Consumer<SessionRecord> action) {
+        sessions.values().forEach(action);
+    }
+
+    @Override
+    public SessionRecord access(String sessionId, boolean countVisit) {
+        InternalSession internalSession = findLiveSession(sessionId);
+        if (internalSession == null) {
+            return null;
+        }
+        internalSession.touch();
+        if (countVisit) {
+            internalSession.incrementVisitCount();
+        }
+        return internalSession;
+    }
+
+    @Override
+    public SessionRecord peek(String sessionId) {
+        InternalSession internalSession = sessions.get(sessionId);
+        if (internalSession == null || internalSession.isExpired(maxInactiveInterval, System.currentTimeMillis())) {
+            return null;
+        }
+        return internalSession;
+    }
+
+    @Override
+    public boolean touch(String sessionId, long lastAccessedTime, long visitCount) {
+        InternalSession internalSession = findLiveSession(sessionId);
+        if (internalSession == null) {
+            return false;
+        }
+        internalSession.touch(lastAccessedTime, visitCount);
+        return true;
+    }
+
+    @Override
+    public boolean setUserName(String sessionId, String userName) {
+        InternalSession internalSession = findLiveSession(sessionId);
+        if (internalSession == null) {
+            return false;
+        }
+        internalSession.setUserName(userName);
+        return updateWeight(internalSession);
+    }
+
+    @Override
+    public boolean setAttribute(String sessionId, String key, Object value) {
+        InternalSession internalSession = findLiveSession(sessionId);
+        if (internalSession == null) {
+            return false;
+        }
+        internalSession.setAttribute(key, value);
+        return updateWeight(internalSession);
+    }
+
+    @Override
+    public boolean removeAttribute(String sessionId, String key) {
+        InternalSession internalSession = findLiveSession(sessionId);
+        if (internalSession == null) {
+            return false;
+        }
+        internalSession.removeAttribute(key);
+        return updateWeight(internalSession);
+    }
+
+    @Override
+    public boolean invalidate(String sessionId) {
+        InternalSession removed = sessions.remove(sessionId);
+        if (removed == null) {
+            return false;
+        }
+        // The reaper drops the wheel entry when it comes due
+        removed.invalidate();
+        capacityPolicy.remove(removed.getPolicyNode());
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public int getScheduledExpiryCount() {
+        return expiryWheel != null ? expiryWheel.size() : 0;
+    }
+
+    @Override
+    public long getAttributeBytes() {
+        return capacityPolicy.weightedSize();
+    }
+
+    @Override
+    public void close() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
+
+    /**
+     * Publish a session with one map operation (putIfAbsent for a new session, put to
+     * replace), then add it to the capacity policy and the expiry wheel
+     *
+     * The ID is claimed before the policy sees the session, so a colliding create
+     * evicts nothing.
+     *
+     * @return false if the ID was taken and replace is false, or if the session was
+     *         invalidated or evicted before it was published
+     */
+    private boolean admit(InternalSession internalSession, boolean replace) {
+        internalSession.setPolicyNode(capacityPolicy.newNode(internalSession, internalSession.getId().hashCode(),
+                internalSession.estimateAttributeBytes()));
+        InternalSession existing = replace
+                ? sessions.put(internalSession.getId(), internalSession)
+                : sessions.putIfAbsent(internalSession.getId(), internalSession);
+        if (existing != null && !replace) {
+            return false;
+        }
+        if (existing != null) {
+            // The reaper drops the wheel entry of the replaced session when it comes due
+            existing.invalidate();
+            capacityPolicy.remove(existing.getPolicyNode());
+        }
+        List<InternalSession> evicted = new ArrayList<>(0);
+        capacityPolicy.add(internalSession.getPolicyNode(), evicted);
+        evict(evicted);
+        if (internalSession.isInvalidated()) {
+            // Invalidated by a concurrent request, or evicted to make room for itself
+            sessions.remove(internalSession.getId(), internalSession);
+            capacityPolicy.remove(internalSession.getPolicyNode());
+            return false;
+        }
+        if (expiryWheel != null) {
+            newSessions.add(internalSession);
+        }
+        return true;
+    }
+
+    /**
+     * Look up a session, treating one that has timed out but has not been reaped yet as missing
+     */
+    private InternalSession findLiveSession(String sessionId) {
+        InternalSession internalSession = sessions.get(sessionId);
+        if (internalSession == null) {
+            return null;
+        }
+        if (internalSession.isExpired(maxInactiveInterval, System.currentTimeMillis())) {
+            expire(internalSession);
+            return null;
+        }
+        capacityPolicy.recordAccess(internalSession.getPolicyNode());
+        return internalSession;
+    }
+
+    /**
+     * Report the new attribute size of a session to the capacity policy
+     *
+     * @return false if the session itself was evicted to make room for its new size;
+     *         the Listener has been told, so callers report a removal, not the change
+     */
+    private boolean updateWeight(InternalSession internalSession) {
+        List<InternalSession> evicted = new ArrayList<>(0);
+        capacityPolicy.updateWeight(internalSession.getPolicyNode(), internalSession.estimateAttributeBytes(), evicted);
+        evict(evicted);
+        return !evicted.contains(internalSession);
+    }
+
+    /**
+     * Drop sessions chosen for eviction by the capacity policy
+     */
+    private void evict(List<InternalSession> evicted) {
+        for (InternalSession victim : evicted) {
+            // Invalidate first: a victim still being admitted is then dropped by admit()
+            victim.invalidate();
+            sessions.remove(victim.getId(), victim);
+            listener.onEvicted(victim.getId());
+        }
+    }
+
+    /**
+     * Reaper tick: file new sessions, then fire every session whose deadline has passed
+     */
+    private void reap() {
+        try {
+            long now = System.currentTimeMillis();
+            InternalSession created;
+            while ((created = newSessions.poll()) != null) {
+                expiryWheel.schedule(created, created.getDeadlineMillis(maxInactiveInterval));
+            }
+            expiryWheel.advance(now, this::onDeadline);
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            LOGGER.log(Level.WARNING, "Session reaper tick failed", e);
+        }
+    }
+
+    /**
+     * Called by the wheel for each session that came due
+     *
+     * @return New deadline if the session was touched in the meantime, 0 to drop it
+     */
+    private long onDeadline(InternalSession internalSession, long nowMillis) {
+        if (internalSession.isInvalidated()) {
+            return 0;
+        }
+        long deadline = internalSession.getDeadlineMillis(maxInactiveInterval);
+        if (deadline > nowMillis) {
+            return deadline;
+        }
+        expire(internalSession);
+        return 0;
+    }
+
+    private void expire(InternalSession internalSession) {
+        // Only the caller that actually removes the session reports it
+        if (sessions.remove(internalSession.getId(), internalSession)) {
+            internalSession.invalidate();
+            capacityPolicy.remove(internalSession.getPolicyNode());
+            listener.onExpired(internalSession.getId());
+        }
+    }
+
+    /**
+     * Internal session representation
+     *
+     * Mutated by any number of request threads without locks: the visit count is
+     * incremented atomically, and the access time only ever moves forward. Most
+     * requests arrive in the same millisecond as the last access to a busy session,
+     * so touch() usually just reads the field and skips the write.
+     */
+    private static class InternalSession extends TimingWheel.Entry<InternalSession> implements SessionRecord {
+        private static final AtomicLongFieldUpdater<InternalSession> LAST_ACCESSED_TIME =
+                AtomicLongFieldUpdater.newUpdater(InternalSession.class, "lastAccessedTime");
+        private static final AtomicLongFieldUpdater<InternalSession> VISIT_COUNT =
+                AtomicLongFieldUpdater.newUpdater(InternalSession.class, "visitCount");
+
+        private final String id;
+        private final long creationTime;
+        private volatile long lastAccessedTime;
+        private volatile boolean invalidated;
+        private WindowTinyLfuPolicy.Node<InternalSession> policyNode;
+        private volatile long visitCount;
+        private volatile String userName;
+        private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+        InternalSession(String id, long creationTime, long lastAccessedTime) {
+            this.id = id;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.visitCount = 0;
+        }
+
+        void touch() {
+            advance(LAST_ACCESSED_TIME, System.currentTimeMillis());
+        }
+
+        void touch(long lastAccessedTime, long visitCount) {
+            advance(LAST_ACCESSED_TIME, lastAccessedTime);
+            advance(VISIT_COUNT, visitCount);
+        }
+
+        void incrementVisitCount() {
+            VISIT_COUNT.incrementAndGet(this);
+        }
+
+        /**
+         * Raise a field to value unless it is already there or beyond
+         */
+        private void advance(AtomicLongFieldUpdater<InternalSession> field, long value) {
+            long current;
+            do {
+                current = field.get(this);
+                if (current >= value) {
+                    return;
+                }
+            } while (!field.compareAndSet(this, current, value));
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getCreationTime() {
+            return creationTime;
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            return lastAccessedTime;
+        }
+
+        long getDeadlineMillis(int maxInactiveInterval) {
+            return lastAccessedTime + maxInactiveInterval * 1000L;
+        }
+
+        boolean isExpired(int maxInactiveInterval, long nowMillis) {
+            return maxInactiveInterval > 0 && getDeadlineMillis(maxInactiveInterval) <= nowMillis;
+        }
+
+        void invalidate() {
+            this.invalidated = true;
+        }
+
+        boolean isInvalidated() {
+            return invalidated;
+        }
+
+        WindowTinyLfuPolicy.Node<InternalSession> getPolicyNode() {
+            return policyNode;
+        }
+
+        void setPolicyNode(WindowTinyLfuPolicy.Node<InternalSession> policyNode) {
+            this.policyNode = policyNode;
+        }
+
+        /**
+         * Estimated size of the user name and attributes: two bytes per character of
+         * keys and string values, a flat 64 bytes for other value types
+         */
+        long estimateAttributeBytes() {
+            long bytes = userName != null ? 2L * userName.length() : 0;
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                Object value = attribute.getValue();
+                bytes += 2L * attribute.getKey().length()
+                        + (value instanceof String ? 2L * ((String) value).length() : 64);
+            }
+            return bytes;
+        }
+
+        @Override
+        public long getVisitCount() {
+            return visitCount;
+        }
+
+        @Override
+        public String getUserName() {
+            return userName;
+        }
+
+        void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        void setAttribute(String key, Object value) {
+            attributes.put(key, value);
+        }
+
+        void removeAttribute(String key) {
+            attributes.remove(key);
+        }
+    }
+}
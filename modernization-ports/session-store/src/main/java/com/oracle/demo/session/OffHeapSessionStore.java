@@ -0,0 +1,937 @@
+package com.oracle.demo.session;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Session store keeping session records outside the Java heap (app.session.store=off-heap)
+ *
+ * With hundreds of thousands of sessions, the heap store holds several objects
+ * per session (session, map, entries, policy node) that every full GC has to
+ * trace. This store keeps them in direct memory instead:
+ *
+ * - records: one chunk per session in a SlabAllocator, holding the timestamps,
+ *   visit count, ID, user name and attributes (strings as UTF-8, other values
+ *   Java-serialized)
+ * - index: 64 segments, each with its own lock and an open-addressing table
+ *   (linear probing, tombstones) of record addresses in direct memory
+ * - capacity: max-sessions and max-attribute-bytes are global limits. While
+ *   the store is over either one, the segments take turns evicting the
+ *   session with the lowest FrequencySketch estimate among a small sample
+ *   (sampled LFU, oldest access breaks ties). Concurrent creates can exceed
+ *   the limit briefly, by at most one session each.
+ * - expiry: a sweeper thread scans the segments once per tick, and lookups
+ *   drop timed-out records they run into
+ *
+ * Only decoded copies reach the heap: access() returns a SessionRecord built
+ * from the record bytes, and changes go through the store. The attribute size
+ * is exact (encoded bytes), not estimated.
+ */
+public final class OffHeapSessionStore implements SessionStore {
+
+    private static final Logger LOGGER = Logger.getLogger(OffHeapSessionStore.class.getName());
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int EVICTION_SAMPLES = 8;
+
+    // Index slot: record address (8 bytes), hash (4 bytes), unused (4 bytes)
+    private static final int SLOT_BYTES = 16;
+    private static final long EMPTY = -1L;
+    private static final long DELETED = -2L;
+    private static final long NO_EXCLUSION = Long.MIN_VALUE;
+
+    // Record header; the size class byte at offset 0 belongs to the allocator
+    private static final int ID_LENGTH = 2;
+    private static final int PAYLOAD_LENGTH = 4;
+    private static final int CREATED = 8;
+    private static final int ACCESSED = 16;
+    private static final int VISITS = 24;
+    private static final int HEADER_BYTES = 32;
+
+    private final long timeoutMillis;
+    private final int maxSessions;
+    private final long maxAttributeBytes;
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private final AtomicLong attributeBytes = new AtomicLong();
+    private final AtomicInteger evictionSegment = new AtomicInteger();
+    private final Listener listener;
+    private final SlabAllocator allocator;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * @param maxInactiveInterval Idle timeout in seconds, expiry is disabled if <= 0
+     * @param expiryTickMillis Interval between sweeps
+     * @param maxSessions Maximum number of sessions
+     * @param maxAttributeBytes Maximum encoded size of all user names and attributes
+     * @param slabBytes Size of each direct memory slab, also the largest possible record
+     * @param listener Notified of expired and evicted sessions
+     */
+    public OffHeapSessionStore(int maxInactiveInterval, long expiryTickMillis, int maxSessions,
+                               long maxAttributeBytes, int slabBytes, Listener listener) {
+        if (maxSessions <= 0 || maxAttributeBytes <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + maxSessions + " / " + maxAttributeBytes);
+        }
+        this.timeoutMillis = maxInactiveInterval > 0 ? maxInactiveInterval * 1000L : 0;
+        this.maxSessions = maxSessions;
+        this.maxAttributeBytes = maxAttributeBytes;
+        this.listener = listener;
+        this.allocator = new SlabAllocator(slabBytes);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(Math.max(1, maxSessions / SEGMENTS));
+        }
+
+        if (timeoutMillis == 0) {
+            sweeper = null;
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::sweep, expiryTickMillis, expiryTickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SessionRecord create(String sessionId) {
+        long now = System.currentTimeMillis();
+        if (!insert(sessionId, now, now, 1, new Payload(), false)) {
+            return null;
+        }
+        return new DecodedSession(sessionId, now, now, 1, null, Collections.emptyMap());
+    }
+
+    @Override
+    public void restore(SessionRecord session) {
+        Payload payload = new Payload();
+        if (session.getUserName() != null) {
+            payload.userName = session.getUserName().getBytes(StandardCharsets.UTF_8);
+        }
+        for (Map.Entry<String, Object> attribute : session.getAttributes().entrySet()) {
+            payload.attributes.put(attribute.getKey(), AttributeCodec.encode(attribute.getKey(), attribute.getValue()));
+        }
+        insert(session.getId(), session.getCreationTime(), session.getLastAccessedTime(), session.getVisitCount(),
+                payload, true);
+    }
+
+    @Override
+    public void forEach(Consumer<SessionRecord> action) {
+        List<byte[]> copies = new ArrayList<>();
+        for (Segment segment : segments) {
+            copies.clear();
+            segment.lock.lock();
+            try {
+                for (int slot = 0; slot <= segment.mask; slot++) {
+                    long address = segment.addressAt(slot);
+                    if (address >= 0) {
+                        copies.add(copyRecord(allocator.slab(address), SlabAllocator.offset(address)));
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+            for (byte[] copy : copies) {
+                action.accept(DecodedSession.decode(copy));
+            }
+        }
+    }
+
+    @Override
+    public SessionRecord access(String sessionId, boolean countVisit) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sessionId);
+        Segment segment = segmentFor(hash);
+        long now = System.currentTimeMillis();
+        byte[] copy;
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hash, id);
+            if (slot < 0) {
+                return null;
+            }
+            long address = segment.addressAt(slot);
+            ByteBuffer slab = allocator.slab(address);
+            int base = SlabAllocator.offset(address);
+            if (isExpired(slab.getLong(base + ACCESSED), now)) {
+                segment.remove(slot);
+                copy = null;
+            } else {
+                slab.putLong(base + ACCESSED, now);
+                if (countVisit) {
+                    slab.putLong(base + VISITS, slab.getLong(base + VISITS) + 1);
+                }
+                segment.sketch.increment(hash);
+                copy = copyRecord(slab, base);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        if (copy == null) {
+            listener.onExpired(sessionId);
+            return null;
+        }
+        // Deserialize outside the segment lock
+        return DecodedSession.decode(copy);
+    }
+
+    @Override
+    public SessionRecord peek(String sessionId) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sessionId);
+        Segment segment = segmentFor(hash);
+        byte[] copy;
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hash, id);
+            if (slot < 0) {
+                return null;
+            }
+            long address = segment.addressAt(slot);
+            ByteBuffer slab = allocator.slab(address);
+            int base = SlabAllocator.offset(address);
+            if (isExpired(slab.getLong(base + ACCESSED), System.currentTimeMillis())) {
+                // Read-only: the sweeper removes it
+                return null;
+            }
+            copy = copyRecord(slab, base);
+        } finally {
+            segment.lock.unlock();
+        }
+        return DecodedSession.decode(copy);
+    }
+
+    @Override
+    public boolean touch(String sessionId, long lastAccessedTime, long visitCount) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sessionId);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hash, id);
+            if (slot < 0) {
+                return false;
+            }
+            long address = segment.addressAt(slot);
+            ByteBuffer slab = allocator.slab(address);
+            int base = SlabAllocator.offset(address);
+            slab.putLong(base + ACCESSED, Math.max(slab.getLong(base + ACCESSED), lastAccessedTime));
+            slab.putLong(base + VISITS, Math.max(slab.getLong(base + VISITS), visitCount));
+            segment.sketch.increment(hash);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean setUserName(String sessionId, String userName) {
+        byte[] encoded = userName != null ? userName.getBytes(StandardCharsets.UTF_8) : null;
+        return update(sessionId, payload -> payload.userName = encoded);
+    }
+
+    @Override
+    public boolean setAttribute(String sessionId, String key, Object value) {
+        Objects.requireNonNull(key, "key");
+        byte[] encoded = AttributeCodec.encode(key, Objects.requireNonNull(value, "value"));
+        return update(sessionId, payload -> payload.attributes.put(key, encoded));
+    }
+
+    @Override
+    public boolean removeAttribute(String sessionId, String key) {
+        return update(sessionId, payload -> payload.attributes.remove(key));
+    }
+
+    @Override
+    public boolean invalidate(String sessionId) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sessionId);
+        Segment segment = segmentFor(hash);
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hash, id);
+            if (slot < 0) {
+                return false;
+            }
+            segment.remove(slot);
+            return true;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return liveSessions.get();
+    }
+
+    @Override
+    public int getScheduledExpiryCount() {
+        // Every live record is visited by the sweeper
+        return timeoutMillis > 0 ? size() : 0;
+    }
+
+    @Override
+    public long getAttributeBytes() {
+        return attributeBytes.get();
+    }
+
+    /**
+     * Direct memory reserved by the slabs (records only, not the index)
+     */
+    public long getReservedBytes() {
+        return allocator.getReservedBytes();
+    }
+
+    /**
+     * Direct memory in chunks that currently hold a record
+     */
+    public long getUsedBytes() {
+        return allocator.getUsedBytes();
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * Write a new record and index it, replacing or keeping a record with the same ID
+     *
+     * @return false if the ID was taken and replace is false
+     */
+    private boolean insert(String sessionId, long created, long accessed, long visits, Payload payload,
+                           boolean replace) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sessionId);
+        long address = allocator.allocate(HEADER_BYTES + id.length + payload.size());
+        writeRecord(address, id, created, accessed, visits, payload);
+
+        Segment segment = segmentFor(hash);
+        List<String> evicted = new ArrayList<>(0);
+        segment.lock.lock();
+        try {
+            int existing = segment.find(hash, id);
+            if (existing >= 0) {
+                if (!replace) {
+                    allocator.free(address);
+                    return false;
+                }
+                segment.remove(existing);
+            }
+            while (segment.count >= segment.maxCount && segment.evictOne(NO_EXCLUSION, evicted)) {
+                // Index of this segment is full (very uneven hashing)
+            }
+            segment.insert(hash, address);
+            attributeBytes.addAndGet(payload.size());
+            segment.sketch.increment(hash);
+        } finally {
+            segment.lock.unlock();
+        }
+        enforceCapacity(NO_EXCLUSION, evicted);
+        notifyEvicted(evicted);
+        return true;
+    }
+
+    /**
+     * Decode the user name and attributes of a live session, apply a change and
+     * write them back, moving the record to a larger or smaller chunk if needed
+     */
+    private boolean update(String sessionId, PayloadEdit edit) {
+        byte[] id = sessionId.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(sessionId);
+        Segment segment = segmentFor(hash);
+        long now = System.currentTimeMillis();
+        List<String> evicted = new ArrayList<>(0);
+        boolean expired = false;
+        segment.lock.lock();
+        try {
+            int slot = segment.find(hash, id);
+            if (slot < 0) {
+                return false;
+            }
+            long address = segment.addressAt(slot);
+            ByteBuffer slab = allocator.slab(address);
+            int base = SlabAllocator.offset(address);
+            if (isExpired(slab.getLong(base + ACCESSED), now)) {
+                segment.remove(slot);
+                expired = true;
+            } else {
+                Payload payload = Payload.read(slab, base + HEADER_BYTES + id.length);
+                int oldSize = slab.getInt(base + PAYLOAD_LENGTH);
+                edit.apply(payload);
+                int recordBytes = HEADER_BYTES + id.length + payload.size();
+                if (recordBytes > allocator.chunkSize(address) || recordBytes <= allocator.chunkSize(address) / 4) {
+                    long moved = allocator.allocate(recordBytes);
+                    writeRecord(moved, id, slab.getLong(base + CREATED), slab.getLong(base + ACCESSED),
+                            slab.getLong(base + VISITS), payload);
+                    segment.setAddressAt(slot, moved);
+                    allocator.free(address);
+                } else {
+                    slab.putInt(base + PAYLOAD_LENGTH, payload.size());
+                    payload.write(slab, base + HEADER_BYTES + id.length);
+                }
+                attributeBytes.addAndGet(payload.size() - oldSize);
+                segment.sketch.increment(hash);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        if (expired) {
+            listener.onExpired(sessionId);
+            return false;
+        }
+        // Make room, but never evict the session being written
+        enforceCapacity(hash, evicted);
+        notifyEvicted(evicted);
+        return true;
+    }
+
+    /**
+     * Sweeper tick: remove every record whose idle time exceeds the timeout
+     */
+    private void sweep() {
+        try {
+            List<String> expired = new ArrayList<>();
+            for (Segment segment : segments) {
+                long now = System.currentTimeMillis();
+                segment.lock.lock();
+                try {
+                    for (int slot = 0; slot <= segment.mask; slot++) {
+                        long address = segment.addressAt(slot);
+                        if (address >= 0
+                                && isExpired(allocator.slab(address).getLong(SlabAllocator.offset(address) + ACCESSED), now)) {
+                            expired.add(readId(address));
+                            segment.remove(slot);
+                        }
+                    }
+                } finally {
+                    segment.lock.unlock();
+                }
+            }
+            for (String sessionId : expired) {
+                listener.onExpired(sessionId);
+            }
+        } catch (RuntimeException e) {
+            // Never let an exception cancel the periodic task
+            LOGGER.log(Level.WARNING, "Session sweeper tick failed", e);
+        }
+    }
+
+    /**
+     * Evict sessions, one segment at a time, while the store is over a limit
+     *
+     * @param excludedHash Hash of a session that must not be evicted, or NO_EXCLUSION
+     */
+    private void enforceCapacity(long excludedHash, List<String> evicted) {
+        int emptySegments = 0;
+        while ((liveSessions.get() > maxSessions || attributeBytes.get() > maxAttributeBytes)
+                && emptySegments < SEGMENTS) {
+            Segment segment = segments[evictionSegment.getAndIncrement() & (SEGMENTS - 1)];
+            segment.lock.lock();
+            try {
+                emptySegments = segment.evictOne(excludedHash, evicted) ? 0 : emptySegments + 1;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    private boolean isExpired(long lastAccessedTime, long nowMillis) {
+        return timeoutMillis > 0 && lastAccessedTime + timeoutMillis <= nowMillis;
+    }
+
+    private void notifyEvicted(List<String> evicted) {
+        for (String sessionId : evicted) {
+            listener.onEvicted(sessionId);
+        }
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[hash >>> (Integer.SIZE - SEGMENT_BITS)];
+    }
+
+    private void writeRecord(long address, byte[] id, long created, long accessed, long visits, Payload payload) {
+        ByteBuffer slab = allocator.slab(address);
+        int base = SlabAllocator.offset(address);
+        slab.putShort(base + ID_LENGTH, (short) id.length);
+        slab.putInt(base + PAYLOAD_LENGTH, payload.size());
+        slab.putLong(base + CREATED, created);
+        slab.putLong(base + ACCESSED, accessed);
+        slab.putLong(base + VISITS, visits);
+        slab.put(base + HEADER_BYTES, id);
+        payload.write(slab, base + HEADER_BYTES + id.length);
+    }
+
+    private String readId(long address) {
+        ByteBuffer slab = allocator.slab(address);
+        int base = SlabAllocator.offset(address);
+        byte[] id = new byte[slab.getShort(base + ID_LENGTH)];
+        slab.get(base + HEADER_BYTES, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] copyRecord(ByteBuffer slab, int base) {
+        byte[] copy = new byte[HEADER_BYTES + slab.getShort(base + ID_LENGTH) + slab.getInt(base + PAYLOAD_LENGTH)];
+        slab.get(base, copy);
+        return copy;
+    }
+
+    private static int hash(String sessionId) {
+        int h = sessionId.hashCode();
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+
+    /**
+     * One lock, one index table and one frequency sketch
+     * All methods require the lock.
+     */
+    private final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final FrequencySketch sketch;
+        final ByteBuffer index;
+        final int mask;
+        final int maxCount;
+        int count;
+        int tombstones;
+        int evictionCursor;
+
+        /**
+         * @param expectedSessions This segment's share of max-sessions
+         */
+        Segment(int expectedSessions) {
+            this.sketch = new FrequencySketch(expectedSessions);
+            // About half full at the expected size, so probe sequences stay short. The
+            // hard limit leaves room for segments that receive more than their share.
+            int slots = Math.max(16, Integer.highestOneBit(expectedSessions * 2 - 1) << 1);
+            this.mask = slots - 1;
+            this.maxCount = slots / 8 * 5;
+            this.index = ByteBuffer.allocateDirect(slots * SLOT_BYTES);
+            for (int slot = 0; slot < slots; slot++) {
+                index.putLong(slot * SLOT_BYTES, EMPTY);
+            }
+        }
+
+        long addressAt(int slot) {
+            return index.getLong(slot * SLOT_BYTES);
+        }
+
+        void setAddressAt(int slot, long address) {
+            index.putLong(slot * SLOT_BYTES, address);
+        }
+
+        int hashAt(int slot) {
+            return index.getInt(slot * SLOT_BYTES + 8);
+        }
+
+        /**
+         * @return Slot of the record with this ID, or -1
+         */
+        int find(int hash, byte[] id) {
+            int slot = hash & mask;
+            while (true) {
+                long address = addressAt(slot);
+                if (address == EMPTY) {
+                    return -1;
+                }
+                if (address != DELETED && hashAt(slot) == hash && idEquals(address, id)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        void insert(int hash, long address) {
+            int slot = hash & mask;
+            while (addressAt(slot) >= 0) {
+                slot = (slot + 1) & mask;
+            }
+            if (addressAt(slot) == DELETED) {
+                tombstones--;
+            }
+            setAddressAt(slot, address);
+            index.putInt(slot * SLOT_BYTES + 8, hash);
+            count++;
+            liveSessions.incrementAndGet();
+            if ((count + tombstones) * 4L > (mask + 1) * 3L) {
+                purgeTombstones();
+            }
+        }
+
+        /**
+         * Unlink a record and free its chunk
+         */
+        void remove(int slot) {
+            long address = addressAt(slot);
+            attributeBytes.addAndGet(-allocator.slab(address).getInt(SlabAllocator.offset(address) + PAYLOAD_LENGTH));
+            allocator.free(address);
+            count--;
+            liveSessions.decrementAndGet();
+            if (addressAt((slot + 1) & mask) == EMPTY) {
+                // End of a probe sequence, no tombstone needed
+                setAddressAt(slot, EMPTY);
+            } else {
+                setAddressAt(slot, DELETED);
+                tombstones++;
+            }
+        }
+
+        /**
+         * Evict the least frequently used of a few live records, starting where the last search stopped
+         *
+         * @param excludedHash Hash of a session that must not be evicted, or NO_EXCLUSION
+         * @return false if there was nothing to evict
+         */
+        boolean evictOne(long excludedHash, List<String> evicted) {
+            int victim = -1;
+            int victimFrequency = Integer.MAX_VALUE;
+            long victimAccess = Long.MAX_VALUE;
+            int sampled = 0;
+            int slot = evictionCursor;
+            for (int scanned = 0; scanned <= mask && sampled < EVICTION_SAMPLES; scanned++) {
+                long address = addressAt(slot);
+                if (address >= 0 && hashAt(slot) != excludedHash) {
+                    sampled++;
+                    int frequency = sketch.frequency(hashAt(slot));
+                    long accessed = allocator.slab(address).getLong(SlabAllocator.offset(address) + ACCESSED);
+                    if (frequency < victimFrequency || (frequency == victimFrequency && accessed < victimAccess)) {
+                        victim = slot;
+                        victimFrequency = frequency;
+                        victimAccess = accessed;
+                    }
+                }
+                slot = (slot + 1) & mask;
+            }
+            evictionCursor = slot;
+            if (victim < 0) {
+                return false;
+            }
+            evicted.add(readId(addressAt(victim)));
+            remove(victim);
+            return true;
+        }
+
+        /**
+         * Re-insert every live entry so that probe sequences no longer pass over tombstones
+         */
+        private void purgeTombstones() {
+            int slots = mask + 1;
+            long[] addresses = new long[count];
+            int[] hashes = new int[count];
+            int live = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                long address = addressAt(slot);
+                if (address >= 0) {
+                    addresses[live] = address;
+                    hashes[live++] = hashAt(slot);
+                }
+                setAddressAt(slot, EMPTY);
+            }
+            tombstones = 0;
+            for (int i = 0; i < live; i++) {
+                int slot = hashes[i] & mask;
+                while (addressAt(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                setAddressAt(slot, addresses[i]);
+                index.putInt(slot * SLOT_BYTES + 8, hashes[i]);
+            }
+        }
+
+        private boolean idEquals(long address, byte[] id) {
+            ByteBuffer slab = allocator.slab(address);
+            int base = SlabAllocator.offset(address);
+            if (slab.getShort(base + ID_LENGTH) != id.length) {
+                return false;
+            }
+            for (int i = 0; i < id.length; i++) {
+                if (slab.get(base + HEADER_BYTES + i) != id[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Fixed-size chunks carved from direct memory slabs
+     *
+     * Chunk sizes are powers of two from 64 bytes up to the slab size. Each slab
+     * is carved into chunks of a single size when that size runs out, and freed
+     * chunks go onto a per-size free list linked through the chunks themselves.
+     * Slabs are never returned; the store keeps the memory of its peak size.
+     *
+     * Addresses are (slab index << 32) | offset. The first byte of a chunk holds
+     * its size class.
+     */
+    static final class SlabAllocator {
+        private static final int MIN_CHUNK_SHIFT = 6;
+        private static final int MIN_SLAB_BYTES = 1 << 16;
+        private static final long NONE = -1L;
+
+        private final int slabBytes;
+        private final Object[] classLocks;
+        private final long[] freeLists;
+        private final LongAdder usedBytes = new LongAdder();
+        private volatile ByteBuffer[] slabs = new ByteBuffer[0];
+
+        SlabAllocator(int slabBytes) {
+            int size = Math.max(MIN_SLAB_BYTES, slabBytes);
+            this.slabBytes = Integer.bitCount(size) == 1 ? size : Integer.highestOneBit(size) << 1;
+            int classes = Integer.numberOfTrailingZeros(this.slabBytes) - MIN_CHUNK_SHIFT + 1;
+            this.classLocks = new Object[classes];
+            this.freeLists = new long[classes];
+            for (int i = 0; i < classes; i++) {
+                classLocks[i] = new Object();
+                freeLists[i] = NONE;
+            }
+        }
+
+        long allocate(int bytes) {
+            if (bytes > slabBytes) {
+                throw new IllegalArgumentException("Session record of " + bytes
+                        + " bytes exceeds the off-heap slab size of " + slabBytes + " bytes");
+            }
+            int sizeClass = Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(bytes - 1) - MIN_CHUNK_SHIFT);
+            synchronized (classLocks[sizeClass]) {
+                if (freeLists[sizeClass] == NONE) {
+                    carve(sizeClass);
+                }
+                long address = freeLists[sizeClass];
+                ByteBuffer slab = slab(address);
+                int offset = offset(address);
+                freeLists[sizeClass] = slab.getLong(offset + 8);
+                slab.put(offset, (byte) sizeClass);
+                usedBytes.add(1L << (sizeClass + MIN_CHUNK_SHIFT));
+                return address;
+            }
+        }
+
+        void free(long address) {
+            ByteBuffer slab = slab(address);
+            int offset = offset(address);
+            int sizeClass = slab.get(offset);
+            synchronized (classLocks[sizeClass]) {
+                slab.putLong(offset + 8, freeLists[sizeClass]);
+                freeLists[sizeClass] = address;
+            }
+            usedBytes.add(-(1L << (sizeClass + MIN_CHUNK_SHIFT)));
+        }
+
+        int chunkSize(long address) {
+            return 1 << (slab(address).get(offset(address)) + MIN_CHUNK_SHIFT);
+        }
+
+        ByteBuffer slab(long address) {
+            return slabs[(int) (address >>> 32)];
+        }
+
+        static int offset(long address) {
+            return (int) address;
+        }
+
+        long getReservedBytes() {
+            return (long) slabs.length * slabBytes;
+        }
+
+        long getUsedBytes() {
+            return usedBytes.sum();
+        }
+
+        /**
+         * Add a slab and push all of its chunks onto the free list of one size class
+         */
+        private void carve(int sizeClass) {
+            ByteBuffer slab = ByteBuffer.allocateDirect(slabBytes);
+            long slabIndex;
+            synchronized (this) {
+                ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+                grown[slabs.length] = slab;
+                slabIndex = slabs.length;
+                slabs = grown;
+            }
+            int chunk = 1 << (sizeClass + MIN_CHUNK_SHIFT);
+            long head = freeLists[sizeClass];
+            for (int offset = slabBytes - chunk; offset >= 0; offset -= chunk) {
+                slab.put(offset, (byte) sizeClass);
+                slab.putLong(offset + 8, head);
+                head = (slabIndex << 32) | offset;
+            }
+            freeLists[sizeClass] = head;
+        }
+    }
+
+    /**
+     * User name and attributes of a record, with attribute values still encoded
+     */
+    private static final class Payload {
+        byte[] userName;
+        final Map<String, byte[]> attributes = new LinkedHashMap<>();
+
+        static Payload read(ByteBuffer buffer, int position) {
+            Payload payload = new Payload();
+            int userNameLength = buffer.getInt(position);
+            position += 4;
+            if (userNameLength >= 0) {
+                payload.userName = new byte[userNameLength];
+                buffer.get(position, payload.userName);
+                position += userNameLength;
+            }
+            int attributeCount = buffer.getInt(position);
+            position += 4;
+            for (int i = 0; i < attributeCount; i++) {
+                byte[] key = new byte[buffer.getInt(position)];
+                buffer.get(position + 4, key);
+                position += 4 + key.length;
+                byte[] value = new byte[buffer.getInt(position)];
+                buffer.get(position + 4, value);
+                position += 4 + value.length;
+                payload.attributes.put(new String(key, StandardCharsets.UTF_8), value);
+            }
+            return payload;
+        }
+
+        int size() {
+            int size = 8 + (userName != null ? userName.length : 0);
+            for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                size += 8 + utf8Length(attribute.getKey()) + attribute.getValue().length;
+            }
+            return size;
+        }
+
+        void write(ByteBuffer buffer, int position) {
+            buffer.putInt(position, userName != null ? userName.length : -1);
+            position += 4;
+            if (userName != null) {
+                buffer.put(position, userName);
+                position += userName.length;
+            }
+            buffer.putInt(position, attributes.size());
+            position += 4;
+            for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                byte[] key = attribute.getKey().getBytes(StandardCharsets.UTF_8);
+                buffer.putInt(position, key.length);
+                buffer.put(position + 4, key);
+                position += 4 + key.length;
+                byte[] value = attribute.getValue();
+                buffer.putInt(position, value.length);
+                buffer.put(position + 4, value);
+                position += 4 + value.length;
+            }
+        }
+
+        private static int utf8Length(String text) {
+            int length = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PayloadEdit {
+        void apply(Payload payload);
+    }
+
+    /**
+     * Heap copy of a record; changes to it are not written back
+     */
+    private static final class DecodedSession implements SessionRecord {
+        private final String id;
+        private final long creationTime;
+        private final long lastAccessedTime;
+        private final long visitCount;
+        private final String userName;
+        private final Map<String, Object> attributes;
+
+        DecodedSession(String id, long creationTime, long lastAccessedTime, long visitCount,
+                       String userName, Map<String, Object> attributes) {
+            this.id = id;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.visitCount = visitCount;
+            this.userName = userName;
+            this.attributes = attributes;
+        }
+
+        static DecodedSession decode(byte[] record) {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            int idLength = buffer.getShort(ID_LENGTH);
+            Payload payload = Payload.read(buffer, HEADER_BYTES + idLength);
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            for (Map.Entry<String, byte[]> attribute : payload.attributes.entrySet()) {
+                attributes.put(attribute.getKey(), AttributeCodec.decode(attribute.getValue()));
+            }
+            return new DecodedSession(
+                    new String(record, HEADER_BYTES, idLength, StandardCharsets.UTF_8),
+                    buffer.getLong(CREATED),
+                    buffer.getLong(ACCESSED),
+                    buffer.getLong(VISITS),
+                    payload.userName != null ? new String(payload.userName, StandardCharsets.UTF_8) : null,
+                    Collections.unmodifiableMap(attributes));
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public long getCreationTime() {
+            return creationTime;
+        }
+
+        @Override
+        public long getLastAccessedTime() {
+            return lastAccessedTime;
+        }
+
+        @Override
+        public long getVisitCount() {
+            return visitCount;
+        }
+
+        @Override
+        public String getUserName() {
+            return userName;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+}
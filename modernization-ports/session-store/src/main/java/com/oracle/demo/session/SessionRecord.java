@@ -0,0 +1,27 @@
+package com.oracle.demo.session;
+
+import java.util.Map;
+
+/**
+ * Read-only view of one session as returned by a SessionStore
+ */
+public interface SessionRecord {
+
+    String getId();
+
+    /**
+     * Creation time in epoch milliseconds
+     */
+    long getCreationTime();
+
+    /**
+     * Last access time in epoch milliseconds
+     */
+    long getLastAccessedTime();
+
+    long getVisitCount();
+
+    String getUserName();
+
+    Map<String, Object> getAttributes();
+}
@@ -0,0 +1,109 @@
+package com.oracle.demo.session;
+
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for the SessionService of the Helidon MP and Helidon SE ports
+ *
+ * Implementations own expiry (app.session.max-inactive-interval) and capacity
+ * (app.session.max-sessions / max-attribute-bytes) and report removals through
+ * the Listener.
+ *
+ * - HeapSessionStore: one object per session, timing-wheel expiry, W-TinyLFU eviction
+ * - OffHeapSessionStore: session records in direct memory slabs, decoded on access
+ */
+public interface SessionStore {
+
+    /**
+     * Create a session. A new session counts as visited once.
+     *
+     * @return The new session, or null if a session with this ID exists
+     */
+    SessionRecord create(String sessionId);
+
+    /**
+     * Look up a live session and record the access
+     *
+     * @param countVisit Whether to increment the visit count
+     * @return The session, or null if it is unknown, expired or evicted
+     */
+    SessionRecord access(String sessionId, boolean countVisit);
+
+    /**
+     * Look up a live session without recording an access, e.g. for admin queries
+     *
+     * @return The session, or null if it is unknown, expired or evicted
+     */
+    SessionRecord peek(String sessionId);
+
+    /**
+     * Apply an access made on another node. Neither value moves backwards.
+     *
+     * @return false if the session does not exist
+     */
+    boolean touch(String sessionId, long lastAccessedTime, long visitCount);
+
+    /**
+     * @return false if the session does not exist, or was evicted by the change
+     */
+    boolean setUserName(String sessionId, String userName);
+
+    /**
+     * Set an attribute. A store may evict the session itself when the new size does
+     * not fit; it then reports the eviction to the Listener and returns false.
+     *
+     * @return false if the session does not exist, or was evicted by the change
+     */
+    boolean setAttribute(String sessionId, String key, Object value);
+
+    /**
+     * @return false if the session does not exist, or was evicted by the change
+     */
+    boolean removeAttribute(String sessionId, String key);
+
+    /**
+     * @return false if the session did not exist
+     */
+    boolean invalidate(String sessionId);
+
+    /**
+     * Re-create a session with all of its state, e.g. from the journal on startup.
+     * Atomically replaces a session with the same ID.
+     */
+    void restore(SessionRecord session);
+
+    /**
+     * Visit every live session. The records may be copies, or live views that change while visited.
+     */
+    void forEach(Consumer<SessionRecord> action);
+
+    /**
+     * Number of live sessions
+     */
+    int size();
+
+    /**
+     * Sessions tracked by the expiry mechanism
+     */
+    int getScheduledExpiryCount();
+
+    /**
+     * Size of all user names and attributes, estimated or exact depending on the store
+     */
+    long getAttributeBytes();
+
+    /**
+     * Stop background threads and release memory
+     */
+    void close();
+
+    /**
+     * Notified when the store removes a session on its own
+     */
+    interface Listener {
+
+        void onExpired(String sessionId);
+
+        void onEvicted(String sessionId);
+    }
+}
@@ -0,0 +1,166 @@
+package com.oracle.demo.session;
+
+/**
+ * Hierarchical timing wheel for session expiry
+ *
+ * Four levels of 64 slots each. Level 0 has one slot per tick, and each
+ * higher level covers 64 times the range of the level below it. With the
+ * default tick of one second the wheel spans about 64 seconds, 68 minutes,
+ * 3 days and 194 days. Deadlines further out are clamped to the last slot
+ * and re-filed when they come due.
+ *
+ * - schedule() is O(1): it picks a level and slot, then pushes onto the slot list
+ * - entries are intrusive (the link lives in the entry), so filing allocates nothing
+ * - advance() processes one slot per elapsed tick and cascades higher-level slots
+ *   down whenever the lower level wraps around
+ *
+ * The wheel is not thread-safe. It is owned by a single reaper thread; other
+ * threads hand new entries to that thread instead of calling schedule() directly.
+ */
+public final class TimingWheel<E extends TimingWheel.Entry<E>> {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Object[][] slots = new Object[LEVELS][SLOTS];
+    private long currentTick;
+    private volatile int size;
+
+    /**
+     * @param tickMillis Resolution of the wheel in milliseconds
+     * @param nowMillis Current time, the wheel starts at this tick
+     */
+    public TimingWheel(long tickMillis, long nowMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * File an entry to fire at or after the given deadline.
+     * The entry must not already be in the wheel.
+     */
+    public void schedule(E entry, long deadlineMillis) {
+        long deadlineTick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        file(entry, deadlineTick);
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the given time and fire every entry whose deadline has passed.
+     *
+     * @param nowMillis Current time
+     * @param handler Called for each due entry
+     * @return Number of entries handed to the handler
+     */
+    public int advance(long nowMillis, ExpiryHandler<E> handler) {
+        long nowTick = nowMillis / tickMillis;
+        int fired = 0;
+        while (currentTick < nowTick) {
+            currentTick++;
+            cascade();
+            fired += fire(nowMillis, handler);
+        }
+        return fired;
+    }
+
+    /**
+     * Number of entries currently filed
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void file(E entry, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if (delta > MAX_DELTA_TICKS) {
+            deadlineTick = currentTick + MAX_DELTA_TICKS;
+            delta = MAX_DELTA_TICKS;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        entry.deadlineTick = deadlineTick;
+        entry.wheelNext = head(level, slot);
+        slots[level][slot] = entry;
+    }
+
+    /**
+     * Move the entries of higher-level slots that come due within the next
+     * revolution of the level below
+     */
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) != 0) {
+                return;
+            }
+            int slot = (int) ((currentTick >>> shift) & SLOT_MASK);
+            E entry = head(level, slot);
+            slots[level][slot] = null;
+            while (entry != null) {
+                E next = entry.wheelNext;
+                file(entry, entry.deadlineTick);
+                entry = next;
+            }
+        }
+    }
+
+    private int fire(long nowMillis, ExpiryHandler<E> handler) {
+        int slot = (int) (currentTick & SLOT_MASK);
+        E entry = head(0, slot);
+        slots[0][slot] = null;
+        int fired = 0;
+        while (entry != null) {
+            E next = entry.wheelNext;
+            entry.wheelNext = null;
+            size--;
+            fired++;
+            long rescheduleAt = handler.onDeadline(entry, nowMillis);
+            if (rescheduleAt > 0) {
+                schedule(entry, rescheduleAt);
+            }
+            entry = next;
+        }
+        return fired;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E head(int level, int slot) {
+        return (E) slots[level][slot];
+    }
+
+    /**
+     * Base class for objects filed in the wheel
+     */
+    public abstract static class Entry<E extends Entry<E>> {
+        E wheelNext;
+        long deadlineTick;
+    }
+
+    /**
+     * Callback for entries whose deadline has passed
+     */
+    @FunctionalInterface
+    public interface ExpiryHandler<E> {
+
+        /**
+         * @param entry Entry that came due
+         * @param nowMillis Current time
+         * @return New deadline to re-file the entry at, or 0 to drop it
+         */
+        long onDeadline(E entry, long nowMillis);
+    }
+}
@@ -0,0 +1,388 @@
+package com.oracle.demo.session;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * W-TinyLFU eviction policy that bounds the number of sessions and their total
+ * attribute weight
+ *
+ * Regions:
+ *   - window (1% of the capacity, LRU): every new session enters here unconditionally
+ *   - probation (main, LRU): sessions that left the window, or were demoted
+ *   - protected (80% of main, LRU): sessions accessed again while on probation
+ *
+ * When the policy is over capacity, the session leaving the window (candidate)
+ * competes with the least recently used probation session (victim). The one
+ * FrequencySketch considers less popular is evicted, and a tie evicts the candidate.
+ * A flood of one-shot sessions therefore mostly evicts itself and cannot push
+ * out the frequently used sessions of active users.
+ *
+ * Accesses happen on every request, so they are recorded in small striped ring
+ * buffers instead of taking the lock. The buffers are lossy: when one is full
+ * the access is dropped, which costs a little precision but never blocks.
+ * They are drained by whichever thread next holds the lock. Additions,
+ * removals and weight changes take the lock directly; they are much rarer and
+ * have to be applied in order.
+ */
+public final class WindowTinyLfuPolicy<V> {
+
+    private static final byte WINDOW = 1;
+    private static final byte PROBATION = 2;
+    private static final byte PROTECTED = 3;
+    private static final byte REMOVED = 0;
+    private static final byte NEW = -1;
+
+    private static final int BUFFER_SIZE = 64;
+    private static final int BUFFER_MASK = BUFFER_SIZE - 1;
+    private static final int DRAIN_THRESHOLD = BUFFER_SIZE / 2;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final int maximumSize;
+    private final long maximumWeight;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+
+    private final Queue<V> window = new Queue<>();
+    private final Queue<V> probation = new Queue<>();
+    private final Queue<V> protectedQueue = new Queue<>();
+    private final ReadBuffer<V>[] readBuffers;
+
+    private volatile int size;
+    private volatile long weightedSize;
+
+    /**
+     * @param maximumSize Maximum number of entries
+     * @param maximumWeight Maximum total weight of all entries
+     */
+    @SuppressWarnings("unchecked")
+    public WindowTinyLfuPolicy(int maximumSize, long maximumWeight) {
+        if (maximumSize <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + maximumSize + " / " + maximumWeight);
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (int) ((maximumSize - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    /**
+     * Create the handle of an entry without tracking it yet
+     *
+     * The handle can be published before add(); until then accesses and weight
+     * changes only update it, and remove() keeps add() from tracking it at all.
+     *
+     * @param value Entry to track
+     * @param hash Stable hash of the entry key
+     * @param weight Initial weight
+     * @return Handle used to add the entry, report accesses, weight changes and removal
+     */
+    public Node<V> newNode(V value, int hash, long weight) {
+        return new Node<>(value, hash, weight);
+    }
+
+    /**
+     * Admit a new entry into the window and evict as needed to stay within capacity
+     *
+     * @param node Handle from newNode()
+     * @param evicted Receives the values evicted to make room, possibly including this entry
+     * @return false if the entry was removed before it was added
+     */
+    public boolean add(Node<V> node, List<V> evicted) {
+        lock.lock();
+        try {
+            if (node.queue != NEW) {
+                return false;
+            }
+            drainReadBuffers();
+            sketch.increment(node.hash);
+            node.queue = WINDOW;
+            window.addLast(node);
+            size++;
+            weightedSize += node.weight;
+            evict(evicted);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record an access. Never blocks; the access may be dropped under contention.
+     */
+    public void recordAccess(Node<V> node) {
+        ReadBuffer<V> buffer = readBuffers[(int) Thread.currentThread().getId() & (readBuffers.length - 1)];
+        int pending = buffer.offer(node);
+        if (pending >= DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Change the weight of an entry and evict as needed
+     *
+     * @param evicted Receives the values evicted to make room, possibly including this entry
+     */
+    public void updateWeight(Node<V> node, long weight, List<V> evicted) {
+        lock.lock();
+        try {
+            if (node.queue == REMOVED) {
+                return;
+            }
+            if (node.queue == NEW) {
+                node.weight = weight;
+                return;
+            }
+            weightedSize += weight - node.weight;
+            node.weight = weight;
+            drainReadBuffers();
+            evict(evicted);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop tracking an entry (invalidated or expired)
+     */
+    public void remove(Node<V> node) {
+        lock.lock();
+        try {
+            unlink(node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long weightedSize() {
+        return weightedSize;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer<V> buffer : readBuffers) {
+            Node<V> node;
+            while ((node = buffer.poll()) != null) {
+                onAccess(node);
+            }
+        }
+    }
+
+    private void onAccess(Node<V> node) {
+        if (node.queue == REMOVED || node.queue == NEW) {
+            return;
+        }
+        sketch.increment(node.hash);
+        if (node.queue == WINDOW) {
+            window.moveToLast(node);
+        } else if (node.queue == PROBATION) {
+            probation.remove(node);
+            node.queue = PROTECTED;
+            protectedQueue.addLast(node);
+            while (protectedQueue.count > protectedMaximum) {
+                Node<V> demoted = protectedQueue.removeFirst();
+                demoted.queue = PROBATION;
+                probation.addLast(demoted);
+            }
+        } else {
+            protectedQueue.moveToLast(node);
+        }
+    }
+
+    private void evict(List<V> evicted) {
+        // Window overflow becomes candidates at the MRU end of probation
+        int candidates = 0;
+        while (window.count > windowMaximum) {
+            Node<V> node = window.removeFirst();
+            node.queue = PROBATION;
+            probation.addLast(node);
+            candidates++;
+        }
+
+        while (size > maximumSize || weightedSize > maximumWeight) {
+            Node<V> victim = probation.first != null ? probation.first
+                    : protectedQueue.first != null ? protectedQueue.first : window.first;
+            Node<V> candidate = candidates > 0 ? probation.last : null;
+            if (victim == null) {
+                return;
+            }
+
+            Node<V> loser;
+            if (candidate == null || candidate == victim) {
+                loser = victim;
+            } else {
+                loser = sketch.frequency(candidate.hash) > sketch.frequency(victim.hash) ? victim : candidate;
+            }
+            if (loser == candidate) {
+                candidates--;
+            }
+            unlink(loser);
+            evicted.add(loser.value);
+        }
+    }
+
+    private void unlink(Node<V> node) {
+        switch (node.queue) {
+            case NEW:
+                node.queue = REMOVED;
+                return;
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node);
+                break;
+            default:
+                return;
+        }
+        node.queue = REMOVED;
+        size--;
+        weightedSize -= node.weight;
+    }
+
+    /**
+     * Policy bookkeeping for one entry
+     */
+    public static final class Node<V> {
+        private final V value;
+        private final int hash;
+        private long weight;
+        private byte queue;
+        private Node<V> prev;
+        private Node<V> next;
+
+        Node(V value, int hash, long weight) {
+            this.value = value;
+            this.hash = hash;
+            this.weight = weight;
+            this.queue = NEW;
+        }
+
+        public V getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Intrusive doubly-linked LRU list, least recently used first
+     */
+    private static final class Queue<V> {
+        private Node<V> first;
+        private Node<V> last;
+        private int count;
+
+        void addLast(Node<V> node) {
+            node.prev = last;
+            node.next = null;
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+            }
+            last = node;
+            count++;
+        }
+
+        Node<V> removeFirst() {
+            Node<V> node = first;
+            remove(node);
+            return node;
+        }
+
+        void moveToLast(Node<V> node) {
+            if (node != last) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void remove(Node<V> node) {
+            if (node.prev == null) {
+                first = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                last = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            count--;
+        }
+    }
+
+    /**
+     * Lossy multi-producer ring buffer of accesses, drained under the policy lock
+     */
+    private static final class ReadBuffer<V> {
+        private final AtomicReferenceArray<Node<V>> slots = new AtomicReferenceArray<>(BUFFER_SIZE);
+        private final AtomicLong writeCounter = new AtomicLong();
+        private volatile long readCounter;
+
+        /**
+         * @return Number of pending accesses after this offer
+         */
+        int offer(Node<V> node) {
+            long head = readCounter;
+            long tail = writeCounter.get();
+            long pending = tail - head;
+            if (pending >= BUFFER_SIZE) {
+                return BUFFER_SIZE;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                slots.lazySet((int) (tail & BUFFER_MASK), node);
+                return (int) pending + 1;
+            }
+            return (int) pending;
+        }
+
+        /**
+         * Single consumer (lock holder)
+         */
+        Node<V> poll() {
+            long head = readCounter;
+            if (head == writeCounter.get()) {
+                return null;
+            }
+            int index = (int) (head & BUFFER_MASK);
+            Node<V> node = slots.get(index);
+            if (node == null) {
+                // Slot claimed but not yet published
+                return null;
+            }
+            slots.lazySet(index, null);
+            readCounter = head + 1;
+            return node;
+        }
+    }
+}
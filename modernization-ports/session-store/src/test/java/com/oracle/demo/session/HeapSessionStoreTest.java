@@ -0,0 +1,50 @@
+package com.oracle.demo.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the heap session store
+ */
+class HeapSessionStoreTest {
+
+    private final List<String> evicted = new ArrayList<>();
+    private final SessionStore.Listener listener = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+            evicted.add(sessionId);
+        }
+    };
+
+    private HeapSessionStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void testWriteThatEvictsItsOwnSessionIsNotReportedAsApplied() {
+        store = new HeapSessionStore(0, 1000, 1000, 1024, listener);
+        store.create("s1");
+        assertThat(store.setAttribute("s1", "theme", "dark"), is(true));
+
+        // Larger than the whole attribute budget, so the session being written is the only victim
+        assertThat(store.setAttribute("s1", "blob", "x".repeat(4096)), is(false));
+        assertThat(evicted, contains("s1"));
+        assertThat(store.access("s1", false), is(nullValue()));
+        assertThat("Unknown session", store.setUserName("s1", "ada"), is(false));
+    }
+}
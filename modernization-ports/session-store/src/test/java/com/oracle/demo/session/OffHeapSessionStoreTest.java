@@ -0,0 +1,143 @@
+package com.oracle.demo.session;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the off-heap session store
+ */
+class OffHeapSessionStoreTest {
+
+    private final List<String> expired = new ArrayList<>();
+    private final List<String> evicted = new ArrayList<>();
+    private final SessionStore.Listener listener = new SessionStore.Listener() {
+        @Override
+        public void onExpired(String sessionId) {
+            expired.add(sessionId);
+        }
+
+        @Override
+        public void onEvicted(String sessionId) {
+            evicted.add(sessionId);
+        }
+    };
+
+    private OffHeapSessionStore store;
+
+    @AfterEach
+    void close() {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    void testRecordRoundTrip() {
+        store = new OffHeapSessionStore(0, 1000, 1000, 1 << 20, 1 << 16, listener);
+        store.create("s1");
+        assertThat(store.setUserName("s1", "j\u00fcrgen"), is(true));
+        assertThat(store.setAttribute("s1", "theme", "dark"), is(true));
+        assertThat(store.setAttribute("s1", "cart", new ArrayList<>(List.of(1, 2, 3))), is(true));
+
+        SessionRecord session = store.access("s1", true);
+        assertThat(session.getId(), is("s1"));
+        assertThat(session.getVisitCount(), is(2L));
+        assertThat(session.getUserName(), is("j\u00fcrgen"));
+        assertThat(session.getAttributes(), is(Map.of("theme", "dark", "cart", List.of(1, 2, 3))));
+
+        store.removeAttribute("s1", "cart");
+        assertThat(store.access("s1", false).getAttributes(), is(Map.of("theme", "dark")));
+        assertThat("Unknown session", store.setAttribute("nope", "k", "v"), is(false));
+    }
+
+    @Test
+    void testRecordMovesBetweenChunkSizes() {
+        store = new OffHeapSessionStore(0, 1000, 1000, 1 << 20, 1 << 16, listener);
+        store.create("s1");
+        String large = "x".repeat(5000);
+        store.setAttribute("s1", "large", large);
+        assertThat(store.access("s1", false).getAttributes().get("large"), is(large));
+        long grown = store.getUsedBytes();
+
+        store.removeAttribute("s1", "large");
+        assertThat(store.access("s1", false).getAttributes().isEmpty(), is(true));
+        assertThat("Shrunk back into a small chunk", store.getUsedBytes(), is(lessThan(grown)));
+        assertThat(store.getAttributeBytes(), is(8L));
+    }
+
+    @Test
+    void testSessionCountIsBounded() {
+        store = new OffHeapSessionStore(0, 1000, 640, 1 << 20, 1 << 16, listener);
+        for (int i = 0; i < 10_000; i++) {
+            store.create("session-" + i);
+        }
+        assertThat(store.size(), is(640));
+        assertThat(evicted.size(), is(10_000 - 640));
+    }
+
+    @Test
+    void testFrequentlyUsedSessionsSurviveAFlood() {
+        store = new OffHeapSessionStore(0, 1000, 6400, 1 << 24, 1 << 16, listener);
+        for (int i = 0; i < 640; i++) {
+            store.create("active-" + i);
+            for (int access = 0; access < 5; access++) {
+                store.access("active-" + i, true);
+            }
+        }
+        for (int i = 0; i < 50_000; i++) {
+            store.create("bot-" + i);
+        }
+        int survivors = 0;
+        for (int i = 0; i < 640; i++) {
+            if (store.access("active-" + i, false) != null) {
+                survivors++;
+            }
+        }
+        assertThat("Most active sessions kept", survivors, is(greaterThan(600)));
+    }
+
+    @Test
+    void testAttributeBytesAreBounded() {
+        store = new OffHeapSessionStore(0, 1000, 6400, 64 * 4096, 1 << 16, listener);
+        for (int i = 0; i < 1000; i++) {
+            store.create("s" + i);
+            store.setAttribute("s" + i, "data", "y".repeat(1000));
+        }
+        assertThat(store.getAttributeBytes(), is(lessThanOrEqualTo(64L * 4096)));
+        assertThat(evicted, is(not(empty())));
+    }
+
+    @Test
+    void testTimedOutSessionIsMissing() throws InterruptedException {
+        store = new OffHeapSessionStore(1, 60_000, 1000, 1 << 20, 1 << 16, listener);
+        store.create("s1");
+        Thread.sleep(1100);
+        assertThat(store.access("s1", false), is(nullValue()));
+        assertThat(expired, contains("s1"));
+        assertThat(store.size(), is(0));
+    }
+
+    @Test
+    void testChurnKeepsIndexUsable() {
+        store = new OffHeapSessionStore(0, 1000, 64 * 16, 1 << 20, 1 << 16, listener);
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 500; i++) {
+                store.create(round + "-" + i);
+            }
+            for (int i = 0; i < 500; i++) {
+                store.invalidate(round + "-" + i);
+            }
+        }
+        assertThat(store.size(), is(0));
+        assertThat(store.getUsedBytes(), is(0L));
+        store.create("last");
+        assertThat(store.access("last", false), is(notNullValue()));
+    }
+}
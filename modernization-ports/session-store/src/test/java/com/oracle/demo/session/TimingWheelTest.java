@@ -0,0 +1,105 @@
+package com.oracle.demo.session;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Unit tests for the session expiry timing wheel
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 1000;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void testEntriesFireAtTheirDeadlineOnEveryLevel() {
+        TimingWheel<Timer> wheel = new TimingWheel<>(TICK, START);
+        long[] delays = {1, 2, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 1_000_000};
+        List<Timer> timers = new ArrayList<>();
+        for (long delay : delays) {
+            Timer timer = new Timer(START + delay * TICK);
+            timers.add(timer);
+            wheel.schedule(timer, timer.deadline);
+        }
+        assertThat("All entries filed", wheel.size(), is(delays.length));
+
+        List<Long> firedAt = new ArrayList<>();
+        for (long tick = 1; tick <= 1_000_000; tick++) {
+            long now = START + tick * TICK;
+            wheel.advance(now, (timer, nowMillis) -> {
+                firedAt.add(nowMillis);
+                assertThat("Never fires early", nowMillis, is(greaterThanOrEqualTo(timer.deadline)));
+                return 0;
+            });
+        }
+
+        assertThat("Every entry fired", firedAt.size(), is(delays.length));
+        for (int i = 0; i < delays.length; i++) {
+            assertThat("Fired exactly on its tick", firedAt.get(i), is(timers.get(i).deadline));
+        }
+        assertThat("Wheel is empty", wheel.size(), is(0));
+    }
+
+    @Test
+    void testRescheduledEntryFiresAgain() {
+        TimingWheel<Timer> wheel = new TimingWheel<>(TICK, START);
+        Timer timer = new Timer(START + 10 * TICK);
+        wheel.schedule(timer, timer.deadline);
+
+        // Simulate a touch: the first deadline re-files the entry 100 ticks later
+        int[] calls = {0};
+        for (long tick = 1; tick <= 200; tick++) {
+            wheel.advance(START + tick * TICK, (entry, nowMillis) -> {
+                calls[0]++;
+                return calls[0] == 1 ? nowMillis + 100 * TICK : 0;
+            });
+        }
+
+        assertThat("Handled twice", calls[0], is(2));
+        assertThat("Dropped after the second deadline", wheel.size(), is(0));
+    }
+
+    @Test
+    void testDeadlineBeyondRangeIsClampedAndRefiled() {
+        TimingWheel<Timer> wheel = new TimingWheel<>(TICK, START);
+        long farAway = START + (1L << 25) * TICK;
+        wheel.schedule(new Timer(farAway), farAway);
+
+        long[] firstCall = {0};
+        wheel.advance(START + (1L << 24) * TICK, (entry, nowMillis) -> {
+            firstCall[0] = nowMillis;
+            return entry.deadline;
+        });
+
+        assertThat("Clamped entry surfaced at the end of the range", firstCall[0], is(greaterThan(0L)));
+        assertThat("Re-filed for its real deadline", wheel.size(), is(1));
+    }
+
+    @Test
+    void testCatchUpAfterPause() {
+        TimingWheel<Timer> wheel = new TimingWheel<>(TICK, START);
+        for (int i = 1; i <= 100_000; i++) {
+            Timer timer = new Timer(START + (i % 7200) * TICK + TICK);
+            wheel.schedule(timer, timer.deadline);
+        }
+
+        // One large jump, e.g. after a long GC pause or a suspended container
+        int fired = wheel.advance(START + 7201 * TICK, (entry, nowMillis) -> 0);
+
+        assertThat("Everything due has fired", fired, is(100_000));
+        assertThat("Wheel is empty", wheel.size(), is(0));
+    }
+
+    private static final class Timer extends TimingWheel.Entry<Timer> {
+        private final long deadline;
+
+        Timer(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+}
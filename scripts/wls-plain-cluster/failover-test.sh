@@ -0,0 +1,87 @@
+#!/bin/bash
+
+################################################################################
+# WebLogic Cluster Failover Test - Centralized Lab Script
+# 
+# This is a wrapper script that runs the failover load driver against the cluster
+# Location: scripts/wls-plain-cluster/failover-test.sh (centralized)
+# Backend: standard-wls-deployment/perf-harness/run-harness.sh FailoverLoadDriver
+#
+# Usage: ./failover-test.sh [--server ms1|ms2] [driver options]
+#   Kills the given managed server (default ms1) with SIGKILL after --kill-after
+#   seconds unless an explicit --kill-command is passed.
+################################################################################
+
+# Determine script location
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+WORKSPACE_ROOT="$(cd "$SCRIPT_DIR/../.." && pwd)"
+
+# Backend script location
+BACKEND_SCRIPT="$WORKSPACE_ROOT/standard-wls-deployment/perf-harness/run-harness.sh"
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Check if backend script exists
+if [ ! -f "$BACKEND_SCRIPT" ]; then
+    echo -e "${RED}ERROR: Backend script not found at: $BACKEND_SCRIPT${NC}"
+    echo -e "${YELLOW}Expected location: standard-wls-deployment/perf-harness/run-harness.sh${NC}"
+    exit 1
+fi
+
+# Check if backend script is executable
+if [ ! -x "$BACKEND_SCRIPT" ]; then
+    echo -e "${YELLOW}Making backend script executable...${NC}"
+    chmod +x "$BACKEND_SCRIPT"
+fi
+
+# Member to kill, unless the caller provides its own --kill-command
+TARGET_SERVER="ms1"
+KILL_COMMAND_GIVEN=false
+DRIVER_ARGS=()
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --server)
+            TARGET_SERVER="$2"
+            shift 2
+            ;;
+        --kill-command)
+            KILL_COMMAND_GIVEN=true
+            DRIVER_ARGS+=("$1" "$2")
+            shift 2
+            ;;
+        *)
+            DRIVER_ARGS+=("$1")
+            shift
+            ;;
+    esac
+done
+
+if [ "$KILL_COMMAND_GIVEN" = false ]; then
+    DRIVER_ARGS+=("--kill-command" "pkill -9 -f 'weblogic.Name=${TARGET_SERVER}'")
+fi
+
+# Make sure the cluster is up before measuring anything
+if ! pgrep -f "weblogic.Name=${TARGET_SERVER}" > /dev/null 2>&1; then
+    echo -e "${RED}ERROR: ${TARGET_SERVER} is not running${NC}"
+    echo -e "${YELLOW}Start the cluster first: ./start-cluster.sh${NC}"
+    exit 1
+fi
+
+# Display information
+echo -e "${BLUE}=========================================${NC}"
+echo -e "${BLUE}WebLogic Cluster Failover Test (Lab)${NC}"
+echo -e "${BLUE}=========================================${NC}"
+echo -e "${GREEN}Calling backend script...${NC}"
+echo -e "${YELLOW}Backend: $BACKEND_SCRIPT${NC}"
+if [ "$KILL_COMMAND_GIVEN" = false ]; then
+    echo -e "${YELLOW}Member to kill: ${TARGET_SERVER}${NC}"
+fi
+echo ""
+
+# Call the backend script with the remaining arguments
+"$BACKEND_SCRIPT" FailoverLoadDriver "${DRIVER_ARGS[@]}"
@@ -0,0 +1,73 @@
+#!/bin/bash
+
+# Performance harness runner for the WebLogic Host Info Application
+# Compiles the application classes and the harness sources, then runs one harness
+#
+# Usage: ./run-harness.sh <HarnessClass> [harness options]
+#   e.g. ./run-harness.sh GreetingEncodingBenchmark --iterations 5000
+
+# Set JAVA_HOME if not already set (JDK 8 - the harnesses use the JDK's bundled JAX-WS runtime)
+export JAVA_HOME="${JAVA_HOME:-/opt/jdk}"
+
+# Colors for output
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Determine script location
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+PROJECT_DIR="$(cd "$SCRIPT_DIR/.." && pwd)"
+OUTPUT_DIR="${PROJECT_DIR}/target/perf-harness"
+
+if [ $# -eq 0 ]; then
+    echo "Usage: ./run-harness.sh <HarnessClass> [harness options]"
+    echo ""
+    echo "Available harnesses:"
+    for source in "${SCRIPT_DIR}"/src/com/oracle/demo/perf/*.java; do
+        echo "  $(basename "${source}" .java)"
+    done
+    exit 0
+fi
+
+HARNESS_CLASS="$1"
+shift
+
+if [ ! -f "${SCRIPT_DIR}/src/com/oracle/demo/perf/${HARNESS_CLASS}.java" ]; then
+    echo -e "${RED}ERROR: Harness not found: ${HARNESS_CLASS}${NC}"
+    exit 1
+fi
+
+if [ ! -x "${JAVA_HOME}/bin/javac" ]; then
+    echo -e "${RED}ERROR: javac not found under JAVA_HOME=${JAVA_HOME}${NC}"
+    echo "Please set JAVA_HOME to a JDK 8 installation"
+    exit 1
+fi
+
+echo -e "${BLUE}=========================================${NC}"
+echo -e "${BLUE}Running harness: ${HARNESS_CLASS}${NC}"
+echo -e "${BLUE}=========================================${NC}"
+
+# Application classes (the harnesses publish or call the real beans and servlets)
+echo -e "${YELLOW}Compiling application classes...${NC}"
+(cd "${PROJECT_DIR}" && mvn -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt)
+if [ $? -ne 0 ]; then
+    echo -e "${RED}ERROR: Maven compile failed${NC}"
+    exit 1
+fi
+
+CLASSPATH="${PROJECT_DIR}/target/classes:$(cat "${PROJECT_DIR}/target/classpath.txt")"
+
+echo -e "${YELLOW}Compiling harness sources...${NC}"
+mkdir -p "${OUTPUT_DIR}"
+"${JAVA_HOME}/bin/javac" -nowarn -cp "${CLASSPATH}" -d "${OUTPUT_DIR}" \
+    "${SCRIPT_DIR}"/src/com/oracle/demo/perf/*.java
+if [ $? -ne 0 ]; then
+    echo -e "${RED}ERROR: Harness compilation failed${NC}"
+    exit 1
+fi
+
+echo -e "${GREEN}Starting ${HARNESS_CLASS}...${NC}"
+echo ""
+"${JAVA_HOME}/bin/java" -cp "${OUTPUT_DIR}:${CLASSPATH}" "com.oracle.demo.perf.${HARNESS_CLASS}" "$@"
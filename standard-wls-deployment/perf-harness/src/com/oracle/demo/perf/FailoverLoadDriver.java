@@ -0,0 +1,424 @@
+package com.oracle.demo.perf;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures what session-bearing traffic experiences when a cluster member dies.
+ *
+ * N sticky sessions (one closed-loop client thread each, with its own JSESSIONID cookie)
+ * hit /hostinfo/session through the proxy. Every response is checked for continuity:
+ * the visit count must be exactly the previous value + 1, otherwise the session state
+ * was lost (reset). After --kill-after seconds the --kill-command is executed (or the
+ * operator is asked to kill a member by hand) and the driver keeps going until
+ * --duration has elapsed.
+ *
+ * The report contains a per-second timeline around the kill and a summary with
+ * baseline vs. failover error rate, the p99 spike and the recovery time, i.e. the time
+ * from the kill until the first of --stable-seconds consecutive healthy seconds
+ * (no errors, no resets, p99 within --recovery-factor of the baseline p99).
+ *
+ * Usage:
+ *   ./run-harness.sh FailoverLoadDriver [--proxy-url http://localhost/hostinfo] [--sessions N]
+ *                                       [--think-time MILLIS] [--duration SECONDS]
+ *                                       [--kill-after SECONDS] [--kill-command "..."]
+ *                                       [--recovery-factor X] [--stable-seconds N]
+ */
+public class FailoverLoadDriver {
+
+    private static final Pattern VISIT_COUNT = Pattern.compile("<div class='stat-value'>(\\d+)</div>");
+    private static final Pattern PRIMARY_SERVER = Pattern.compile("<td>Primary Server Node</td><td>([^<( ]*)");
+
+    private static final byte OK = 0;
+    private static final byte ERROR = 1;
+    private static final byte RESET = 2;
+
+    public static void main(String[] args) throws Exception {
+        String proxyUrl = "http://localhost/hostinfo";
+        int sessionCount = 50;
+        int thinkTimeMillis = 100;
+        int durationSeconds = 180;
+        int killAfterSeconds = 60;
+        String killCommand = null;
+        double recoveryFactor = 2.0;
+        int stableSeconds = 5;
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--proxy-url".equals(args[i])) {
+                proxyUrl = args[++i];
+            } else if ("--sessions".equals(args[i])) {
+                sessionCount = Integer.parseInt(args[++i]);
+            } else if ("--think-time".equals(args[i])) {
+                thinkTimeMillis = Integer.parseInt(args[++i]);
+            } else if ("--duration".equals(args[i])) {
+                durationSeconds = Integer.parseInt(args[++i]);
+            } else if ("--kill-after".equals(args[i])) {
+                killAfterSeconds = Integer.parseInt(args[++i]);
+            } else if ("--kill-command".equals(args[i])) {
+                killCommand = args[++i];
+            } else if ("--recovery-factor".equals(args[i])) {
+                recoveryFactor = Double.parseDouble(args[++i]);
+            } else if ("--stable-seconds".equals(args[i])) {
+                stableSeconds = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(1);
+            }
+        }
+        if (killAfterSeconds >= durationSeconds) {
+            System.err.println("--kill-after must be smaller than --duration");
+            System.exit(1);
+        }
+
+        final URL sessionUrl = new URL(proxyUrl + "/session");
+        System.out.println("Target: " + sessionUrl + ", sessions: " + sessionCount
+                + ", think time: " + thinkTimeMillis + " ms, duration: " + durationSeconds
+                + "s, kill after: " + killAfterSeconds + "s");
+
+        final long startNanos = System.nanoTime();
+        final long endNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        final SessionClient[] clients = new SessionClient[sessionCount];
+        final CountDownLatch done = new CountDownLatch(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            final SessionClient client = new SessionClient(sessionUrl, startNanos, endNanos, thinkTimeMillis);
+            clients[i] = client;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        client.run();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "session-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // Inject the failure
+        Thread.sleep(TimeUnit.SECONDS.toMillis(killAfterSeconds));
+        long killNanos = System.nanoTime();
+        if (killCommand != null) {
+            System.out.println("Killing member: " + killCommand);
+            Process process = new ProcessBuilder("bash", "-c", killCommand).inheritIO().start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                System.out.println("WARNING: kill command exited with " + exitCode);
+            }
+        } else {
+            System.out.println(">>> Kill a cluster member NOW (t=" + killAfterSeconds + "s) <<<");
+        }
+        done.await();
+
+        new Report(clients, startNanos, killNanos, durationSeconds, recoveryFactor, stableSeconds).print();
+    }
+
+    /**
+     * Client-side view of one sticky session, driven by its own thread.
+     * Samples are stored as parallel arrays (offset from start, latency, outcome).
+     */
+    private static class SessionClient {
+        private final URL url;
+        private final long startNanos;
+        private final long endNanos;
+        private final int thinkTimeMillis;
+        private final byte[] buffer = new byte[8192];
+
+        private String cookie;
+        private long visitCount;
+        private String server;
+        private int serverSwitches;
+        private boolean lastFailed;
+
+        private long[] offsets = new long[1024];
+        private long[] latencies = new long[1024];
+        private byte[] outcomes = new byte[1024];
+        private int count;
+
+        SessionClient(URL url, long startNanos, long endNanos, int thinkTimeMillis) {
+            this.url = url;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.thinkTimeMillis = thinkTimeMillis;
+        }
+
+        void run() {
+            while (System.nanoTime() < endNanos) {
+                long start = System.nanoTime();
+                byte outcome;
+                try {
+                    outcome = visit();
+                } catch (IOException e) {
+                    outcome = ERROR;
+                }
+                record(start - startNanos, System.nanoTime() - start, outcome);
+                lastFailed = outcome == ERROR;
+                if (thinkTimeMillis > 0) {
+                    try {
+                        Thread.sleep(thinkTimeMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private byte visit() throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(30000);
+            if (cookie != null) {
+                connection.setRequestProperty("Cookie", cookie);
+            }
+            int status = connection.getResponseCode();
+            if (status >= 400) {
+                read(connection.getErrorStream());
+                throw new IOException("HTTP " + status);
+            }
+            updateCookie(connection.getHeaderFields());
+            String body = read(connection.getInputStream());
+
+            Matcher visits = VISIT_COUNT.matcher(body);
+            if (!visits.find()) {
+                throw new IOException("No visit count in response");
+            }
+            long current = Long.parseLong(visits.group(1));
+            // A failed request may still have been counted by the server
+            boolean continuous = visitCount == 0 || current == visitCount + 1
+                    || (lastFailed && current > visitCount);
+            visitCount = current;
+
+            Matcher primary = PRIMARY_SERVER.matcher(body);
+            String currentServer = primary.find() ? primary.group(1) : null;
+            if (server != null && currentServer != null && !server.equals(currentServer)) {
+                serverSwitches++;
+            }
+            server = currentServer;
+
+            return continuous ? OK : RESET;
+        }
+
+        private void updateCookie(Map<String, List<String>> headers) {
+            List<String> setCookies = headers.get("Set-Cookie");
+            if (setCookies == null) {
+                return;
+            }
+            for (String setCookie : setCookies) {
+                if (setCookie.startsWith("JSESSIONID=")) {
+                    int end = setCookie.indexOf(';');
+                    cookie = end < 0 ? setCookie : setCookie.substring(0, end);
+                }
+            }
+        }
+
+        private String read(InputStream in) throws IOException {
+            if (in == null) {
+                return "";
+            }
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream stream = in) {
+                int n;
+                while ((n = stream.read(buffer)) != -1) {
+                    body.write(buffer, 0, n);
+                }
+            }
+            return new String(body.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        private void record(long offset, long latency, byte outcome) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                latencies = Arrays.copyOf(latencies, count * 2);
+                outcomes = Arrays.copyOf(outcomes, count * 2);
+            }
+            offsets[count] = offset;
+            latencies[count] = latency;
+            outcomes[count] = outcome;
+            count++;
+        }
+    }
+
+    /**
+     * Requests completed within one second of the run
+     */
+    private static class Bucket {
+        private long[] latencies = new long[256];
+        private int count;
+        private int errors;
+        private int resets;
+
+        void add(long latency, byte outcome) {
+            if (outcome == ERROR) {
+                errors++;
+                return;
+            }
+            if (outcome == RESET) {
+                resets++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        int requests() {
+            return count + errors;
+        }
+
+        long p99() {
+            return percentile(Arrays.copyOf(latencies, count), 0.99);
+        }
+    }
+
+    /**
+     * Timeline and failover summary
+     */
+    private static class Report {
+        private final Bucket[] buckets;
+        private final int killSecond;
+        private final double recoveryFactor;
+        private final int stableSeconds;
+        private final int sessions;
+        private int sessionsReset;
+        private int serverSwitches;
+
+        Report(SessionClient[] clients, long startNanos, long killNanos, int durationSeconds,
+               double recoveryFactor, int stableSeconds) {
+            this.killSecond = (int) TimeUnit.NANOSECONDS.toSeconds(killNanos - startNanos);
+            this.recoveryFactor = recoveryFactor;
+            this.stableSeconds = stableSeconds;
+            this.sessions = clients.length;
+
+            // Requests can finish slightly after the nominal end, keep a spare bucket
+            buckets = new Bucket[durationSeconds + 2];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+            }
+            for (SessionClient client : clients) {
+                boolean reset = false;
+                for (int i = 0; i < client.count; i++) {
+                    int second = (int) TimeUnit.NANOSECONDS.toSeconds(client.offsets[i] + client.latencies[i]);
+                    buckets[Math.min(second, buckets.length - 1)].add(client.latencies[i], client.outcomes[i]);
+                    reset |= client.outcomes[i] == RESET;
+                }
+                if (reset) {
+                    sessionsReset++;
+                }
+                serverSwitches += client.serverSwitches;
+            }
+        }
+
+        void print() {
+            System.out.println();
+            System.out.println(String.format("%6s %8s %7s %7s %9s", "t (s)", "req", "errors", "resets", "p99 ms"));
+            int from = Math.max(0, killSecond - 5);
+            for (int second = from; second < buckets.length; second++) {
+                Bucket bucket = buckets[second];
+                if (bucket.requests() == 0 && second > killSecond) {
+                    continue;
+                }
+                System.out.println(String.format("%6d %8d %7d %7d %9.1f%s", second, bucket.requests(),
+                        bucket.errors, bucket.resets, bucket.p99() / 1_000_000.0,
+                        second == killSecond ? "   <-- member killed" : ""));
+            }
+
+            Totals baseline = totals(0, killSecond);
+            Totals failover = totals(killSecond, buckets.length);
+            long baselineP99 = baseline.p99;
+            long peakP99 = 0;
+            for (int second = killSecond; second < buckets.length; second++) {
+                peakP99 = Math.max(peakP99, buckets[second].p99());
+            }
+            int recoverySecond = recoverySecond(baselineP99);
+
+            System.out.println();
+            System.out.println("Sessions:              " + sessions);
+            System.out.println("Sessions with reset:   " + sessionsReset + " (visitCount did not continue)");
+            System.out.println("Server switches:       " + serverSwitches);
+            System.out.println(String.format("Baseline error rate:   %.3f%% (%d/%d)",
+                    baseline.errorRate(), baseline.errors, baseline.requests));
+            System.out.println(String.format("Failover error rate:   %.3f%% (%d/%d)",
+                    failover.errorRate(), failover.errors, failover.requests));
+            System.out.println("Resets after kill:     " + failover.resets);
+            System.out.println(String.format("Baseline p99:          %.1f ms", baselineP99 / 1_000_000.0));
+            System.out.println(String.format("Peak p99 after kill:   %.1f ms (%.1fx baseline)",
+                    peakP99 / 1_000_000.0, baselineP99 == 0 ? 0.0 : (double) peakP99 / baselineP99));
+            if (recoverySecond < 0) {
+                System.out.println("Recovery time:         not recovered within the run");
+            } else {
+                System.out.println("Recovery time:         " + (recoverySecond - killSecond) + " s");
+            }
+        }
+
+        /**
+         * First second after the kill that starts a run of stableSeconds healthy seconds
+         */
+        private int recoverySecond(long baselineP99) {
+            long threshold = (long) (baselineP99 * recoveryFactor);
+            int healthyRun = 0;
+            for (int second = killSecond; second < buckets.length; second++) {
+                Bucket bucket = buckets[second];
+                boolean healthy = bucket.requests() > 0 && bucket.errors == 0 && bucket.resets == 0
+                        && bucket.p99() <= threshold;
+                healthyRun = healthy ? healthyRun + 1 : 0;
+                if (healthyRun == stableSeconds) {
+                    return second - stableSeconds + 1;
+                }
+            }
+            return -1;
+        }
+
+        private Totals totals(int from, int to) {
+            Totals totals = new Totals();
+            int latencyCount = 0;
+            for (int second = from; second < to; second++) {
+                latencyCount += buckets[second].count;
+            }
+            long[] all = new long[latencyCount];
+            int offset = 0;
+            for (int second = from; second < to; second++) {
+                Bucket bucket = buckets[second];
+                System.arraycopy(bucket.latencies, 0, all, offset, bucket.count);
+                offset += bucket.count;
+                totals.requests += bucket.requests();
+                totals.errors += bucket.errors;
+                totals.resets += bucket.resets;
+            }
+            totals.p99 = percentile(all, 0.99);
+            return totals;
+        }
+    }
+
+    private static class Totals {
+        private long requests;
+        private long errors;
+        private long resets;
+        private long p99;
+
+        double errorRate() {
+            return requests == 0 ? 0.0 : errors * 100.0 / requests;
+        }
+    }
+
+    private static long percentile(long[] values, double p) {
+        if (values.length == 0) {
+            return 0;
+        }
+        Arrays.sort(values);
+        int index = (int) Math.ceil(p * values.length) - 1;
+        return values[Math.max(0, Math.min(index, values.length - 1))];
+    }
+}
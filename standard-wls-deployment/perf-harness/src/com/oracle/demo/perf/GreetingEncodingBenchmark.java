@@ -0,0 +1,336 @@
+package com.oracle.demo.perf;
+
+import com.oracle.demo.GreetingServiceBean;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.Endpoint;
+import javax.xml.ws.Service;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Standalone harness comparing textual SOAP 1.1 XML with negotiated Fast Infoset
+ * for the GreetingService endpoint.
+ *
+ * By default GreetingServiceBean is published on a local JDK HTTP server (the JAX-WS
+ * runtime bundled with JDK 8), so the harness runs without a WebLogic domain. Request and
+ * response bytes and server-side CPU are measured with a filter on that HTTP context.
+ * With --url the harness targets a deployed endpoint instead and reports client-side
+ * figures only.
+ *
+ * Usage:
+ *   ./run-harness.sh GreetingEncodingBenchmark [--iterations N] [--warmup N] [--port P]
+ *                                              [--negotiation pessimistic|optimistic]
+ *                                              [--url http://localhost:7001/hostinfo/GreetingServiceBean]
+ *
+ * "pessimistic" sends XML with an Accept header for Fast Infoset and only the responses
+ * switch to FI; "optimistic" encodes requests as FI as well.
+ */
+public class GreetingEncodingBenchmark {
+
+    private static final String NAMESPACE = "http://demo.oracle.com/";
+    private static final QName SERVICE_NAME = new QName(NAMESPACE, "GreetingService");
+    private static final QName PORT_NAME = new QName(NAMESPACE, "GreetingServicePort");
+    private static final String CONTEXT_PATH = "/hostinfo/GreetingServiceBean";
+
+    // Request context key is the class name of ContentNegotiation, which differs between
+    // the JAX-WS RI shipped with WebLogic and the copy repackaged inside the JDK
+    private static final String[] CONTENT_NEGOTIATION_PROPERTIES = {
+        "com.sun.xml.ws.client.ContentNegotiation",
+        "com.sun.xml.internal.ws.client.ContentNegotiation"
+    };
+
+    private static final String[] PAYLOADS = {
+        "<dem:greet xmlns:dem=\"" + NAMESPACE + "\"><name>John</name></dem:greet>",
+        "<dem:getWelcomeMessage xmlns:dem=\"" + NAMESPACE + "\"/>",
+        "<dem:getServiceInfo xmlns:dem=\"" + NAMESPACE + "\"/>"
+    };
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 2000;
+        int warmup = 500;
+        int port = 18080;
+        String url = null;
+        String negotiation = "pessimistic";
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--iterations".equals(args[i])) {
+                iterations = Integer.parseInt(args[++i]);
+            } else if ("--warmup".equals(args[i])) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[++i]);
+            } else if ("--negotiation".equals(args[i])) {
+                negotiation = args[++i];
+            } else if ("--url".equals(args[i])) {
+                url = args[++i];
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(1);
+            }
+        }
+
+        WireCounter counter = null;
+        HttpServer server = null;
+        Endpoint endpoint = null;
+
+        if (url == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+            HttpContext context = server.createContext(CONTEXT_PATH);
+            counter = new WireCounter();
+            context.getFilters().add(counter);
+            endpoint = Endpoint.create(new GreetingServiceBean());
+            endpoint.publish(context);
+            server.start();
+            url = "http://localhost:" + port + CONTEXT_PATH;
+            System.out.println("Published GreetingServiceBean at " + url);
+        } else {
+            System.out.println("Targeting deployed endpoint at " + url + " (client-side figures only)");
+        }
+
+        try {
+            Service service = Service.create(new URL(url + "?wsdl"), SERVICE_NAME);
+
+            Result xml = run("XML", newDispatch(service, url, null), counter, warmup, iterations);
+            Result fastInfoset = run("FastInfoset", newDispatch(service, url, negotiation),
+                    counter, warmup, iterations);
+
+            System.out.println();
+            System.out.println(String.format("%-12s %10s %10s %12s %12s %9s %9s %10s %8s",
+                    "Encoding", "Req B", "Resp B", "Client CPU", "Server CPU",
+                    "p50 ms", "p99 ms", "req/s", "FI resp"));
+            xml.print();
+            fastInfoset.print();
+
+            if (counter != null && fastInfoset.fastInfosetResponses == 0) {
+                System.out.println();
+                System.out.println("WARNING: no Fast Infoset responses observed - negotiation did not take place");
+            }
+        } finally {
+            if (endpoint != null) {
+                endpoint.stop();
+            }
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    private static Dispatch<Source> newDispatch(Service service, String url, String negotiation) {
+        Dispatch<Source> dispatch = service.createDispatch(PORT_NAME, Source.class, Service.Mode.PAYLOAD);
+        Map<String, Object> requestContext = dispatch.getRequestContext();
+        requestContext.put(Dispatch.ENDPOINT_ADDRESS_PROPERTY, url);
+        if (negotiation != null) {
+            for (String property : CONTENT_NEGOTIATION_PROPERTIES) {
+                requestContext.put(property, negotiation);
+            }
+        }
+        return dispatch;
+    }
+
+    private static Result run(String label, Dispatch<Source> dispatch, WireCounter counter,
+                              int warmup, int iterations) throws Exception {
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+
+        for (int i = 0; i < warmup; i++) {
+            invoke(dispatch, transformer, i);
+        }
+
+        if (counter != null) {
+            counter.reset();
+        }
+
+        long[] latencies = new long[iterations];
+        long clientCpuStart = THREADS.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            invoke(dispatch, transformer, i);
+            latencies[i] = System.nanoTime() - start;
+        }
+
+        long wallNanos = System.nanoTime() - wallStart;
+        long clientCpuNanos = THREADS.getCurrentThreadCpuTime() - clientCpuStart;
+
+        Result result = new Result(label, latencies, wallNanos, clientCpuNanos);
+        if (counter != null) {
+            result.requestBytes = counter.requestBytes.get();
+            result.responseBytes = counter.responseBytes.get();
+            result.serverCpuNanos = counter.serverCpuNanos.get();
+            result.fastInfosetResponses = counter.fastInfosetResponses.get();
+        }
+        return result;
+    }
+
+    /**
+     * Invoke one operation and fully materialize the response so that parsing is
+     * included in the measurement for both encodings.
+     */
+    private static void invoke(Dispatch<Source> dispatch, Transformer transformer, int i) throws Exception {
+        Source response = dispatch.invoke(new StreamSource(new StringReader(PAYLOADS[i % PAYLOADS.length])));
+        transformer.transform(response, new DOMResult());
+    }
+
+    /**
+     * Aggregated figures for one encoding
+     */
+    private static class Result {
+        private final String label;
+        private final long[] latencies;
+        private final long wallNanos;
+        private final long clientCpuNanos;
+        private long requestBytes = -1;
+        private long responseBytes = -1;
+        private long serverCpuNanos = -1;
+        private long fastInfosetResponses = -1;
+
+        Result(String label, long[] latencies, long wallNanos, long clientCpuNanos) {
+            this.label = label;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.wallNanos = wallNanos;
+            this.clientCpuNanos = clientCpuNanos;
+        }
+
+        void print() {
+            int n = latencies.length;
+            System.out.println(String.format("%-12s %10s %10s %9.1f us %9s us %9.3f %9.3f %10.0f %8s",
+                    label,
+                    perCall(requestBytes, n),
+                    perCall(responseBytes, n),
+                    clientCpuNanos / 1000.0 / n,
+                    serverCpuNanos < 0 ? "n/a" : String.format("%.1f", serverCpuNanos / 1000.0 / n),
+                    percentile(0.50) / 1_000_000.0,
+                    percentile(0.99) / 1_000_000.0,
+                    n / (wallNanos / 1_000_000_000.0),
+                    fastInfosetResponses < 0 ? "n/a" : String.valueOf(fastInfosetResponses)));
+        }
+
+        private long percentile(double p) {
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+
+        private static String perCall(long total, int n) {
+            return total < 0 ? "n/a" : String.valueOf(total / n);
+        }
+    }
+
+    /**
+     * HTTP filter counting bytes on the wire and handler CPU time for the published endpoint
+     */
+    private static class WireCounter extends Filter {
+        private final AtomicLong requestBytes = new AtomicLong();
+        private final AtomicLong responseBytes = new AtomicLong();
+        private final AtomicLong serverCpuNanos = new AtomicLong();
+        private final AtomicLong fastInfosetResponses = new AtomicLong();
+
+        void reset() {
+            requestBytes.set(0);
+            responseBytes.set(0);
+            serverCpuNanos.set(0);
+            fastInfosetResponses.set(0);
+        }
+
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            // WSDL fetches are not part of the measurement
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                chain.doFilter(exchange);
+                return;
+            }
+
+            exchange.setStreams(
+                    new CountingInputStream(exchange.getRequestBody(), requestBytes),
+                    new CountingOutputStream(exchange.getResponseBody(), responseBytes));
+
+            long cpuStart = THREADS.getCurrentThreadCpuTime();
+            try {
+                chain.doFilter(exchange);
+            } finally {
+                serverCpuNanos.addAndGet(THREADS.getCurrentThreadCpuTime() - cpuStart);
+                String contentType = exchange.getResponseHeaders().getFirst("Content-Type");
+                if (contentType != null && contentType.contains("fastinfoset")) {
+                    fastInfosetResponses.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public String description() {
+            return "Counts SOAP request/response bytes and handler CPU time";
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counter.addAndGet(read);
+            }
+            return read;
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private final AtomicLong counter;
+
+        CountingOutputStream(OutputStream out, AtomicLong counter) {
+            super(out);
+            this.counter = counter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            counter.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            counter.addAndGet(length);
+        }
+    }
+}
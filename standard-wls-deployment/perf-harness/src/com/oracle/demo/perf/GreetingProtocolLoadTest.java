@@ -0,0 +1,262 @@
+package com.oracle.demo.perf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Side-by-side load test of the GreetingService SOAP port and the REST/JSON facade
+ * deployed in the same WAR. Both protocols invoke the same @Local GreetingService bean.
+ *
+ * Each protocol is driven by the same number of closed-loop client threads for the same
+ * duration; the report shows throughput, latency percentiles, bytes per call and errors.
+ *
+ * Usage:
+ *   ./run-harness.sh GreetingProtocolLoadTest [--base-url http://localhost:7001/hostinfo]
+ *                                             [--threads N] [--duration SECONDS] [--warmup SECONDS]
+ *                                             [--operation greet|info]
+ */
+public class GreetingProtocolLoadTest {
+
+    private static final String SOAP_GREET =
+        "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:dem=\"http://demo.oracle.com/\"><soapenv:Body>"
+            + "<dem:greet><name>John</name></dem:greet>"
+            + "</soapenv:Body></soapenv:Envelope>";
+
+    private static final String SOAP_SERVICE_INFO =
+        "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+            + "xmlns:dem=\"http://demo.oracle.com/\"><soapenv:Body>"
+            + "<dem:getServiceInfo/>"
+            + "</soapenv:Body></soapenv:Envelope>";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = "http://localhost:7001/hostinfo";
+        int threads = 16;
+        int durationSeconds = 30;
+        int warmupSeconds = 5;
+        String operation = "greet";
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--base-url".equals(args[i])) {
+                baseUrl = args[++i];
+            } else if ("--threads".equals(args[i])) {
+                threads = Integer.parseInt(args[++i]);
+            } else if ("--duration".equals(args[i])) {
+                durationSeconds = Integer.parseInt(args[++i]);
+            } else if ("--warmup".equals(args[i])) {
+                warmupSeconds = Integer.parseInt(args[++i]);
+            } else if ("--operation".equals(args[i])) {
+                operation = args[++i];
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(1);
+            }
+        }
+
+        boolean info = "info".equals(operation);
+        Protocol soap = new Protocol("SOAP", new URL(baseUrl + "/GreetingServiceBean"),
+                (info ? SOAP_SERVICE_INFO : SOAP_GREET).getBytes(StandardCharsets.UTF_8));
+        Protocol rest = new Protocol("REST/JSON",
+                new URL(baseUrl + (info ? "/api/greeting/info" : "/api/greeting?name=John")), null);
+
+        System.out.println("Operation: " + operation + ", threads: " + threads
+                + ", duration: " + durationSeconds + "s (+" + warmupSeconds + "s warm-up)");
+
+        List<Result> results = new ArrayList<>();
+        for (Protocol protocol : Arrays.asList(soap, rest)) {
+            System.out.println("Warming up " + protocol.name + "...");
+            drive(protocol, threads, warmupSeconds);
+            System.out.println("Measuring " + protocol.name + "...");
+            results.add(drive(protocol, threads, durationSeconds));
+        }
+
+        System.out.println();
+        System.out.println(String.format("%-10s %10s %9s %9s %9s %10s %10s %7s",
+                "Protocol", "req/s", "p50 ms", "p99 ms", "max ms", "Req B", "Resp B", "Errors"));
+        for (Result result : results) {
+            result.print();
+        }
+    }
+
+    private static Result drive(final Protocol protocol, int threads, int seconds) throws InterruptedException {
+        final long endAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        final Worker[] workers = new Worker[threads];
+        final CountDownLatch done = new CountDownLatch(threads);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            final Worker worker = new Worker(protocol, endAt);
+            workers[i] = worker;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        worker.run();
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }, "load-" + protocol.name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(protocol.name, workers, elapsed);
+    }
+
+    /**
+     * Target endpoint and request body (null body means GET)
+     */
+    private static class Protocol {
+        private final String name;
+        private final URL url;
+        private final byte[] body;
+
+        Protocol(String name, URL url, byte[] body) {
+            this.name = name;
+            this.url = url;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Closed-loop client thread recording per-request latency
+     */
+    private static class Worker {
+        private final Protocol protocol;
+        private final long endAt;
+        private final byte[] buffer = new byte[8192];
+        private long[] latencies = new long[1024];
+        private int count;
+        private long requestBytes;
+        private long responseBytes;
+        private long errors;
+
+        Worker(Protocol protocol, long endAt) {
+            this.protocol = protocol;
+            this.endAt = endAt;
+        }
+
+        void run() {
+            while (System.nanoTime() < endAt) {
+                long start = System.nanoTime();
+                try {
+                    call();
+                    record(System.nanoTime() - start);
+                } catch (IOException e) {
+                    errors++;
+                }
+            }
+        }
+
+        private void call() throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) protocol.url.openConnection();
+            if (protocol.body != null) {
+                connection.setRequestMethod("POST");
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
+                connection.setRequestProperty("SOAPAction", "\"\"");
+                connection.setFixedLengthStreamingMode(protocol.body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(protocol.body);
+                }
+                requestBytes += protocol.body.length;
+            } else {
+                connection.setRequestProperty("Accept", "application/json");
+            }
+
+            int status = connection.getResponseCode();
+            if (status >= 400) {
+                drain(connection.getErrorStream());
+                throw new IOException("HTTP " + status);
+            }
+            // Reading to EOF returns the connection to the keep-alive cache
+            responseBytes += drain(connection.getInputStream());
+        }
+
+        private long drain(InputStream in) throws IOException {
+            if (in == null) {
+                return 0;
+            }
+            long total = 0;
+            try (InputStream stream = in) {
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    total += read;
+                }
+            }
+            return total;
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * Aggregated figures for one protocol
+     */
+    private static class Result {
+        private final String name;
+        private final long[] latencies;
+        private final long elapsedNanos;
+        private long requestBytes;
+        private long responseBytes;
+        private long errors;
+
+        Result(String name, Worker[] workers, long elapsedNanos) {
+            this.name = name;
+            this.elapsedNanos = elapsedNanos;
+            int total = 0;
+            for (Worker worker : workers) {
+                total += worker.count;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Worker worker : workers) {
+                System.arraycopy(worker.latencies, 0, all, offset, worker.count);
+                offset += worker.count;
+                requestBytes += worker.requestBytes;
+                responseBytes += worker.responseBytes;
+                errors += worker.errors;
+            }
+            Arrays.sort(all);
+            this.latencies = all;
+        }
+
+        void print() {
+            int n = Math.max(1, latencies.length);
+            System.out.println(String.format("%-10s %10.0f %9.3f %9.3f %9.3f %10d %10d %7d",
+                    name,
+                    latencies.length / (elapsedNanos / 1_000_000_000.0),
+                    percentile(0.50) / 1_000_000.0,
+                    percentile(0.99) / 1_000_000.0,
+                    percentile(1.0) / 1_000_000.0,
+                    requestBytes / n,
+                    responseBytes / n,
+                    errors));
+        }
+
+        private long percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, Math.min(index, latencies.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.oracle.demo.perf;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Verifies session drain and rehydration across a restart of a single server.
+ *
+ * 1. Creates N sessions against one server (directly, not through the proxy, so no
+ *    cluster peer can serve the state) and records visit count and user name.
+ * 2. Triggers the admin export (POST /admin/sessions?action=export).
+ * 3. Restarts the server with --restart-command, or waits for Enter while the
+ *    operator restarts it, then polls until the application answers again.
+ * 4. Replays every session cookie and checks that the visit count continued and the
+ *    user name survived.
+ *
+ * Usage:
+ *   ./run-harness.sh SessionDrainVerifier [--server-url http://localhost:7003/hostinfo]
+ *                                         [--sessions N] [--restart-command "..."]
+ *                                         [--ready-timeout SECONDS] [--drain-secret SECRET]
+ *
+ * The admin endpoint requires the server's drain secret; it defaults to the
+ * SESSION_DRAIN_SECRET environment variable.
+ */
+public class SessionDrainVerifier {
+
+    private static final Pattern VISIT_COUNT = Pattern.compile("<div class='stat-value'>(\\d+)</div>");
+    private static final Pattern USER_NAME = Pattern.compile("<td>Current User</td><td>([^<]*)</td>");
+
+    public static void main(String[] args) throws Exception {
+        String serverUrl = "http://localhost:7003/hostinfo";
+        int sessionCount = 200;
+        String restartCommand = null;
+        int readyTimeoutSeconds = 300;
+        String drainSecret = System.getenv("SESSION_DRAIN_SECRET");
+
+        for (int i = 0; i < args.length; i++) {
+            if ("--server-url".equals(args[i])) {
+                serverUrl = args[++i];
+            } else if ("--sessions".equals(args[i])) {
+                sessionCount = Integer.parseInt(args[++i]);
+            } else if ("--restart-command".equals(args[i])) {
+                restartCommand = args[++i];
+            } else if ("--ready-timeout".equals(args[i])) {
+                readyTimeoutSeconds = Integer.parseInt(args[++i]);
+            } else if ("--drain-secret".equals(args[i])) {
+                drainSecret = args[++i];
+            } else {
+                System.err.println("Unknown argument: " + args[i]);
+                System.exit(1);
+            }
+        }
+        if (drainSecret == null || drainSecret.isEmpty()) {
+            System.err.println("The drain secret is required: --drain-secret or SESSION_DRAIN_SECRET");
+            System.exit(1);
+        }
+
+        // Phase 1: create sessions, two visits each
+        ClientSession[] sessions = new ClientSession[sessionCount];
+        for (int i = 0; i < sessionCount; i++) {
+            ClientSession session = new ClientSession("drain-user-" + i);
+            session.visit(serverUrl + "/session?action=setdata&userName="
+                    + URLEncoder.encode(session.userName, "UTF-8"));
+            session.visit(serverUrl + "/session");
+            sessions[i] = session;
+        }
+        System.out.println("Created " + sessionCount + " sessions");
+
+        // Phase 2: drain
+        System.out.println("Exporting sessions...");
+        System.out.print(request(serverUrl + "/admin/sessions?action=export", "POST", drainSecret));
+
+        // Phase 3: restart
+        long restartStart = System.nanoTime();
+        if (restartCommand != null) {
+            System.out.println("Running restart command: " + restartCommand);
+            Process process = new ProcessBuilder("bash", "-c", restartCommand).inheritIO().start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                System.out.println("WARNING: restart command exited with " + exitCode);
+            }
+        } else {
+            System.out.println("Restart the server now, then press Enter...");
+            new BufferedReader(new InputStreamReader(System.in)).readLine();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(readyTimeoutSeconds);
+        String status = null;
+        while (status == null && System.nanoTime() < deadline) {
+            try {
+                status = request(serverUrl + "/admin/sessions", "GET", drainSecret);
+            } catch (IOException e) {
+                Thread.sleep(1000);
+            }
+        }
+        if (status == null) {
+            System.out.println("FAILED: server did not come back within " + readyTimeoutSeconds + "s");
+            System.exit(1);
+        }
+        System.out.println("Server ready after " + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - restartStart) + "s");
+        System.out.print(status);
+
+        // Phase 4: verify
+        int survived = 0;
+        int lostVisitCount = 0;
+        int lostUserName = 0;
+        for (ClientSession session : sessions) {
+            long expected = session.visitCount + 1;
+            String previousUser = session.userName;
+            session.visit(serverUrl + "/session");
+            boolean countOk = session.visitCount == expected;
+            boolean userOk = previousUser.equals(session.lastUserName);
+            if (countOk && userOk) {
+                survived++;
+            }
+            if (!countOk) {
+                lostVisitCount++;
+            }
+            if (!userOk) {
+                lostUserName++;
+            }
+        }
+
+        System.out.println();
+        System.out.println("Sessions survived:  " + survived + "/" + sessionCount);
+        System.out.println("Visit count reset:  " + lostVisitCount);
+        System.out.println("User name lost:     " + lostUserName);
+        System.exit(survived == sessionCount ? 0 : 1);
+    }
+
+    /**
+     * Send an admin request without a session cookie and return the body
+     */
+    private static String request(String url, String method, String drainSecret) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("X-Session-Drain-Secret", drainSecret);
+        connection.setConnectTimeout(2000);
+        connection.setReadTimeout(10000);
+        int status = connection.getResponseCode();
+        if (status >= 400) {
+            throw new IOException("HTTP " + status + " from " + url);
+        }
+        return read(connection.getInputStream());
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream stream = in) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = stream.read(buffer)) != -1) {
+                body.write(buffer, 0, n);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Client-side view of one session: cookie plus the last values the server reported
+     */
+    private static class ClientSession {
+        private final String userName;
+        private String cookie;
+        private long visitCount;
+        private String lastUserName;
+
+        ClientSession(String userName) {
+            this.userName = userName;
+        }
+
+        void visit(String url) throws IOException {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setInstanceFollowRedirects(false);
+            if (cookie != null) {
+                connection.setRequestProperty("Cookie", cookie);
+            }
+            int status = connection.getResponseCode();
+            if (status >= 400) {
+                throw new IOException("HTTP " + status + " from " + url);
+            }
+            updateCookie(connection.getHeaderFields());
+            String body = read(connection.getInputStream());
+
+            Matcher visits = VISIT_COUNT.matcher(body);
+            visitCount = visits.find() ? Long.parseLong(visits.group(1)) : -1;
+            Matcher user = USER_NAME.matcher(body);
+            lastUserName = user.find() ? user.group(1) : null;
+        }
+
+        private void updateCookie(Map<String, List<String>> headers) {
+            List<String> setCookies = headers.get("Set-Cookie");
+            if (setCookies == null) {
+                return;
+            }
+            for (String setCookie : setCookies) {
+                if (setCookie.startsWith("JSESSIONID=")) {
+                    int end = setCookie.indexOf(';');
+                    cookie = end < 0 ? setCookie : setCookie.substring(0, end);
+                }
+            }
+        }
+    }
+}
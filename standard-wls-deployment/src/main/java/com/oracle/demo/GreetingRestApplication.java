@@ -0,0 +1,12 @@
+package com.oracle.demo;
+
+import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.core.Application;
+
+/**
+ * JAX-RS application exposing REST/JSON resources under /hostinfo/api.
+ * Resource classes are discovered automatically by WebLogic's Jersey runtime.
+ */
+@ApplicationPath("/api")
+public class GreetingRestApplication extends Application {
+}
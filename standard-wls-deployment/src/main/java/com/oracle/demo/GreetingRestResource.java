@@ -0,0 +1,116 @@
+package com.oracle.demo;
+
+import javax.ejb.EJB;
+import javax.ejb.Stateless;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * REST/JSON facade for the Greeting Service EJB.
+ * Delegates to the same @Local GreetingService used by the SOAP endpoint and the
+ * demo servlet, giving internal callers a lighter protocol than SOAP.
+ * 
+ * Endpoints (context root /hostinfo):
+ *   GET /api/greeting?name=John  -> {"message":"Hello, John!"}
+ *   GET /api/greeting/welcome    -> {"message":"Welcome to WebLogic Server. ..."}
+ *   GET /api/greeting/info       -> {"serviceInfo":"GreetingService v1.0 - ..."} (cacheable)
+ */
+@Stateless
+@Path("/greeting")
+@Produces(MediaType.APPLICATION_JSON)
+public class GreetingRestResource {
+    
+    /**
+     * Service information is static, so clients and proxies may cache it for an hour
+     */
+    private static final int SERVICE_INFO_MAX_AGE_SECONDS = 3600;
+    
+    @EJB
+    private GreetingService greetingService;
+    
+    @GET
+    public Response greet(@QueryParam("name") String name) {
+        return Response.ok(toJson("message", greetingService.greet(name)))
+                .cacheControl(noStore())
+                .build();
+    }
+    
+    @GET
+    @Path("/welcome")
+    public Response getWelcomeMessage() {
+        // Contains the current time, never cacheable
+        return Response.ok(toJson("message", greetingService.getWelcomeMessage()))
+                .cacheControl(noStore())
+                .build();
+    }
+    
+    @GET
+    @Path("/info")
+    public Response getServiceInfo(@Context Request request) {
+        String body = toJson("serviceInfo", greetingService.getServiceInfo());
+        EntityTag etag = new EntityTag(Integer.toHexString(body.hashCode()));
+        
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setMaxAge(SERVICE_INFO_MAX_AGE_SECONDS);
+        
+        // 304 Not Modified when the client already holds the current representation
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).tag(etag).build();
+        }
+        
+        return Response.ok(body)
+                .cacheControl(cacheControl)
+                .tag(etag)
+                .build();
+    }
+    
+    private static CacheControl noStore() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoStore(true);
+        return cacheControl;
+    }
+    
+    /**
+     * Build a single-field JSON object without pulling in a JSON binding provider
+     */
+    static String toJson(String field, String value) {
+        StringBuilder json = new StringBuilder(value.length() + field.length() + 8);
+        json.append("{\"").append(field).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append("\"}").toString();
+    }
+}
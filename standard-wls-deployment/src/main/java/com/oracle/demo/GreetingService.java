@@ -1,6 +1,7 @@
 package com.oracle.demo;
 
 import javax.ejb.Local;
+import java.util.concurrent.Future;
 
 /**
  * Local business interface for the Greeting Service EJB.
@@ -30,4 +31,29 @@ public interface GreetingService {
      * @return Service information including name and version
      */
     String getServiceInfo();
+    
+    /**
+     * Asynchronous variant of {@link #greet(String)}.
+     * 
+     * @param name The name to greet
+     * @param submittedAt Caller's System.nanoTime() at submission, used for wait-time instrumentation
+     * @return Future holding the greeting and its timing
+     */
+    Future<TimedResult<String>> greetAsync(String name, long submittedAt);
+    
+    /**
+     * Asynchronous variant of {@link #getWelcomeMessage()}.
+     * 
+     * @param submittedAt Caller's System.nanoTime() at submission, used for wait-time instrumentation
+     * @return Future holding the welcome message and its timing
+     */
+    Future<TimedResult<String>> getWelcomeMessageAsync(long submittedAt);
+    
+    /**
+     * Asynchronous variant of {@link #getServiceInfo()}.
+     * 
+     * @param submittedAt Caller's System.nanoTime() at submission, used for wait-time instrumentation
+     * @return Future holding the service information and its timing
+     */
+    Future<TimedResult<String>> getServiceInfoAsync(long submittedAt);
 }
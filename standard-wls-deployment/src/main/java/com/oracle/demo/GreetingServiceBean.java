@@ -1,13 +1,17 @@
 package com.oracle.demo;
 
+import javax.ejb.AsyncResult;
+import javax.ejb.Asynchronous;
 import javax.ejb.Stateless;
 import javax.jws.WebMethod;
 import javax.jws.WebParam;
 import javax.jws.WebService;
+import java.util.concurrent.Future;
 
 /**
  * Stateless Session Bean that exposes a web service operation.
  * Demonstrates EJB 3.x with JAX-WS web services in WebLogic Server.
+ * Fast Infoset encoding is negotiated per client (see WEB-INF/weblogic-webservices.xml).
  */
 @Stateless
 @WebService(
@@ -53,4 +57,48 @@ public class GreetingServiceBean implements GreetingService {
     public String getServiceInfo() {
         return "GreetingService v1.0 - A stateless session bean web service running on WebLogic Server 12.2.1.4";
     }
+    
+    /**
+     * Asynchronous greet. Runs on a container thread so callers can fan out
+     * several invocations in parallel. Not exposed as a web service operation.
+     * 
+     * @param name The name to greet
+     * @param submittedAt Caller's System.nanoTime() at submission
+     * @return Future holding the greeting and its timing
+     */
+    @Asynchronous
+    @WebMethod(exclude = true)
+    public Future<TimedResult<String>> greetAsync(String name, long submittedAt) {
+        long startedAt = System.nanoTime();
+        String result = greet(name);
+        return new AsyncResult<>(new TimedResult<>(result, submittedAt, startedAt, System.nanoTime()));
+    }
+    
+    /**
+     * Asynchronous welcome message. Not exposed as a web service operation.
+     * 
+     * @param submittedAt Caller's System.nanoTime() at submission
+     * @return Future holding the welcome message and its timing
+     */
+    @Asynchronous
+    @WebMethod(exclude = true)
+    public Future<TimedResult<String>> getWelcomeMessageAsync(long submittedAt) {
+        long startedAt = System.nanoTime();
+        String result = getWelcomeMessage();
+        return new AsyncResult<>(new TimedResult<>(result, submittedAt, startedAt, System.nanoTime()));
+    }
+    
+    /**
+     * Asynchronous service information. Not exposed as a web service operation.
+     * 
+     * @param submittedAt Caller's System.nanoTime() at submission
+     * @return Future holding the service information and its timing
+     */
+    @Asynchronous
+    @WebMethod(exclude = true)
+    public Future<TimedResult<String>> getServiceInfoAsync(long submittedAt) {
+        long startedAt = System.nanoTime();
+        String result = getServiceInfo();
+        return new AsyncResult<>(new TimedResult<>(result, submittedAt, startedAt, System.nanoTime()));
+    }
 }
@@ -0,0 +1,105 @@
+package com.oracle.demo;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Admin endpoint for draining sessions before a rolling restart.
+ *
+ *   GET  /admin/sessions                  - plain-text status
+ *   POST /admin/sessions?action=export    - write all local sessions to the snapshot file
+ *
+ * Callers must send the shared secret in the X-Session-Drain-Secret header. The
+ * secret comes from the hostinfo.session.drain.secret system property, or else the
+ * SESSION_DRAIN_SECRET environment variable; without one the endpoint is disabled.
+ * The caller's address is not trusted: a proxy on the same host makes every
+ * request look like it came from loopback.
+ *
+ * e.g. from the restart script:
+ *   curl -X POST -H "X-Session-Drain-Secret: $SESSION_DRAIN_SECRET" \
+ *        http://localhost:7003/hostinfo/admin/sessions?action=export
+ */
+public class SessionDrainServlet extends HttpServlet {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String SECRET_HEADER = "X-Session-Drain-Secret";
+    static final String SECRET_PROPERTY = "hostinfo.session.drain.secret";
+    static final String SECRET_ENV = "SESSION_DRAIN_SECRET";
+
+    private byte[] secret;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        String configured = System.getProperty(SECRET_PROPERTY, System.getenv(SECRET_ENV));
+        if (configured != null && !configured.trim().isEmpty()) {
+            secret = configured.trim().getBytes(StandardCharsets.UTF_8);
+        } else {
+            System.out.println("Session drain disabled: set -D" + SECRET_PROPERTY + " or " + SECRET_ENV);
+        }
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        if (!isAllowed(request, response)) {
+            return;
+        }
+
+        SessionRegistry registry = SessionRegistry.get(getServletContext());
+        response.setContentType("text/plain");
+        PrintWriter out = response.getWriter();
+        out.println("server=" + System.getProperty("weblogic.Name", "Unknown"));
+        out.println("activeSessions=" + registry.getActiveSessionCount());
+        out.println("pendingRehydration=" + registry.getPendingRehydrationCount());
+        out.println("snapshotFile=" + registry.getSnapshotFile());
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+
+        if (!isAllowed(request, response)) {
+            return;
+        }
+
+        if (!"export".equals(request.getParameter("action"))) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unknown action, expected action=export");
+            return;
+        }
+
+        SessionRegistry registry = SessionRegistry.get(getServletContext());
+        SessionRegistry.ExportResult result = registry.exportSnapshot();
+
+        response.setContentType("text/plain");
+        PrintWriter out = response.getWriter();
+        out.println("exportedSessions=" + result.getSessions());
+        out.println("skippedAttributes=" + result.getSkippedAttributes());
+        out.println("bytes=" + result.getBytes());
+        out.println("elapsedMillis=" + result.getElapsedMillis());
+        out.println("snapshotFile=" + registry.getSnapshotFile());
+    }
+
+    private boolean isAllowed(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (secret == null) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN,
+                    "Session drain is disabled: no " + SECRET_PROPERTY + " is configured");
+            return false;
+        }
+        String presented = request.getHeader(SECRET_HEADER);
+        // Constant-time comparison, so the secret cannot be guessed from response times
+        if (presented == null || !MessageDigest.isEqual(secret, presented.trim().getBytes(StandardCharsets.UTF_8))) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing or wrong " + SECRET_HEADER);
+            return false;
+        }
+        return true;
+    }
+}
@@ -33,6 +33,14 @@ public class SessionManagerServlet extends HttpServlet {
             // Get or create session
             HttpSession session = request.getSession(true);
             
+            // Restore state drained from this server before a rolling restart
+            if (session.isNew()) {
+                SessionRegistry registry = SessionRegistry.get(getServletContext());
+                if (registry != null && registry.rehydrate(request.getRequestedSessionId(), session)) {
+                    System.out.println("Rehydrated session " + request.getRequestedSessionId() + " as " + session.getId());
+                }
+            }
+            
             // Handle session operations based on parameters
             String action = request.getParameter("action");
             if ("invalidate".equals(action)) {
@@ -0,0 +1,246 @@
+package com.oracle.demo;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpSessionEvent;
+import javax.servlet.http.HttpSessionListener;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the HTTP sessions owned by this server and drains/rehydrates them
+ * around rolling restarts.
+ *
+ * - Export (admin-triggered via SessionDrainServlet) writes every local session to a
+ *   snapshot file using SessionSnapshotStore.
+ * - Import runs in contextInitialized, i.e. before WebLogic marks the application ready:
+ *   the whole snapshot is decoded in bulk and kept until each client's next request,
+ *   when SessionManagerServlet copies the state into the new HttpSession. No session
+ *   state has to be fetched from cluster peers.
+ *
+ * The snapshot defaults to servers/<server>/data/hostinfo/sessions.snapshot in the
+ * domain; the sessionSnapshotFile context-param overrides it.
+ *
+ * The Servlet API does not allow recreating a session with a given ID, so rehydrated
+ * sessions receive a new ID from the container; the client's cookie is updated on the
+ * first response.
+ */
+public class SessionRegistry implements ServletContextListener, HttpSessionListener {
+
+    public static final String CONTEXT_ATTRIBUTE = SessionRegistry.class.getName();
+    private static final String SNAPSHOT_FILE_PARAM = "sessionSnapshotFile";
+
+    private final Map<String, HttpSession> activeSessions = new ConcurrentHashMap<>();
+    private final Map<String, SessionSnapshotStore.Entry> pendingRehydration = new ConcurrentHashMap<>();
+    private volatile Path snapshotFile;
+
+    /**
+     * Look up the registry of the web application
+     */
+    public static SessionRegistry get(ServletContext context) {
+        return (SessionRegistry) context.getAttribute(CONTEXT_ATTRIBUTE);
+    }
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ServletContext context = event.getServletContext();
+        String configured = context.getInitParameter(SNAPSHOT_FILE_PARAM);
+        if (configured != null && !configured.trim().isEmpty()) {
+            snapshotFile = Paths.get(configured.trim());
+        } else {
+            // The server's own data directory in the domain, which only the domain's owner can write;
+            // the start scripts export DOMAIN_HOME and start the server in it
+            String domainHome = System.getenv("DOMAIN_HOME");
+            String serverName = System.getProperty("weblogic.Name", "standalone");
+            snapshotFile = Paths.get(domainHome != null ? domainHome : System.getProperty("user.dir"),
+                    "servers", serverName, "data", "hostinfo", "sessions.snapshot");
+        }
+        context.setAttribute(CONTEXT_ATTRIBUTE, this);
+
+        try {
+            importSnapshot();
+        } catch (IOException e) {
+            System.out.println("Session snapshot import failed, starting without drained sessions: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        event.getServletContext().removeAttribute(CONTEXT_ATTRIBUTE);
+        activeSessions.clear();
+        pendingRehydration.clear();
+    }
+
+    @Override
+    public void sessionCreated(HttpSessionEvent event) {
+        HttpSession session = event.getSession();
+        activeSessions.put(key(session.getId()), session);
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        activeSessions.remove(key(event.getSession().getId()));
+    }
+
+    /**
+     * Write all local sessions to the snapshot file
+     */
+    public ExportResult exportSnapshot() throws IOException {
+        long start = System.nanoTime();
+        List<SessionSnapshotStore.Entry> entries = new ArrayList<>(activeSessions.size());
+        int skippedAttributes = 0;
+
+        for (Map.Entry<String, HttpSession> active : activeSessions.entrySet()) {
+            HttpSession session = active.getValue();
+            try {
+                Map<String, byte[]> attributes = new LinkedHashMap<>();
+                Enumeration<String> names = session.getAttributeNames();
+                while (names.hasMoreElements()) {
+                    String name = names.nextElement();
+                    Object value = session.getAttribute(name);
+                    if (value instanceof Serializable) {
+                        attributes.put(name, SessionSnapshotStore.serialize((Serializable) value));
+                    } else {
+                        skippedAttributes++;
+                    }
+                }
+                entries.add(new SessionSnapshotStore.Entry(active.getKey(), session.getCreationTime(),
+                        session.getLastAccessedTime(), session.getMaxInactiveInterval(), attributes));
+            } catch (IllegalStateException e) {
+                // Invalidated while exporting
+                activeSessions.remove(active.getKey());
+            }
+        }
+
+        long bytes = SessionSnapshotStore.write(snapshotFile, entries);
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        System.out.println("Exported " + entries.size() + " sessions (" + bytes + " bytes) to "
+                + snapshotFile + " in " + elapsedMillis + " ms");
+        return new ExportResult(entries.size(), skippedAttributes, bytes, elapsedMillis);
+    }
+
+    /**
+     * Load the snapshot file, if present, into the pending rehydration map.
+     * The file is renamed afterwards so that a later restart does not resurrect stale state.
+     *
+     * @return Number of sessions waiting for rehydration
+     */
+    public int importSnapshot() throws IOException {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        List<SessionSnapshotStore.Entry> entries = SessionSnapshotStore.read(snapshotFile);
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (SessionSnapshotStore.Entry entry : entries) {
+            if (entry.isExpired(now)) {
+                expired++;
+            } else {
+                pendingRehydration.put(entry.getId(), entry);
+            }
+        }
+
+        Files.move(snapshotFile, snapshotFile.resolveSibling(snapshotFile.getFileName() + ".loaded"),
+                StandardCopyOption.REPLACE_EXISTING);
+        System.out.println("Imported " + (entries.size() - expired) + " sessions from " + snapshotFile
+                + " (" + expired + " already expired) in " + (System.nanoTime() - start) / 1000000 + " ms");
+        return pendingRehydration.size();
+    }
+
+    /**
+     * Restore drained state into a freshly created session.
+     *
+     * @param requestedSessionId Session ID sent by the client (from before the restart)
+     * @param session New container session for the request
+     * @return true if state from the snapshot was restored
+     */
+    public boolean rehydrate(String requestedSessionId, HttpSession session) {
+        if (requestedSessionId == null || pendingRehydration.isEmpty()) {
+            return false;
+        }
+        SessionSnapshotStore.Entry entry = pendingRehydration.remove(key(requestedSessionId));
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return false;
+        }
+
+        for (Map.Entry<String, byte[]> attribute : entry.getAttributes().entrySet()) {
+            try {
+                session.setAttribute(attribute.getKey(), SessionSnapshotStore.deserialize(attribute.getValue()));
+            } catch (IOException | ClassNotFoundException e) {
+                System.out.println("Could not restore session attribute " + attribute.getKey() + ": " + e);
+            }
+        }
+        if (entry.getMaxInactiveInterval() != 0) {
+            session.setMaxInactiveInterval(entry.getMaxInactiveInterval());
+        }
+        return true;
+    }
+
+    public int getActiveSessionCount() {
+        return activeSessions.size();
+    }
+
+    public int getPendingRehydrationCount() {
+        return pendingRehydration.size();
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * WebLogic appends !primary!secondary server IDs to the session ID; only the
+     * leading part identifies the session across restarts
+     */
+    private static String key(String sessionId) {
+        int separator = sessionId.indexOf('!');
+        return separator < 0 ? sessionId : sessionId.substring(0, separator);
+    }
+
+    /**
+     * Outcome of a snapshot export
+     */
+    public static final class ExportResult {
+        private final int sessions;
+        private final int skippedAttributes;
+        private final long bytes;
+        private final long elapsedMillis;
+
+        ExportResult(int sessions, int skippedAttributes, long bytes, long elapsedMillis) {
+            this.sessions = sessions;
+            this.skippedAttributes = skippedAttributes;
+            this.bytes = bytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getSessions() {
+            return sessions;
+        }
+
+        public int getSkippedAttributes() {
+            return skippedAttributes;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
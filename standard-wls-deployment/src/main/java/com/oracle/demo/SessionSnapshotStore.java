@@ -0,0 +1,303 @@
+package com.oracle.demo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads and writes compact, checksummed snapshot files of HTTP session state.
+ * Used to drain the sessions of a managed server before a rolling restart and
+ * rehydrate them on startup without re-replicating from cluster peers.
+ *
+ * File layout (big-endian):
+ *   int    magic ("HWSS")
+ *   short  format version
+ *   long   snapshot creation time (epoch millis)
+ *   int    number of sessions
+ *   int    length of the compressed body
+ *   long   CRC32 of the compressed body
+ *   byte[] deflated body: per session id, creation/last-accessed time, max inactive
+ *          interval and the Java-serialized attributes
+ *
+ * Attributes are deserialized with an allow-list: strings, boxed primitives, java.util
+ * types (collections of them) and arrays of these. A snapshot file that names any other
+ * class is rejected before that class is loaded.
+ */
+public final class SessionSnapshotStore {
+
+    private static final int MAGIC = 0x48575353;
+    private static final short VERSION = 1;
+    private static final int HEADER_LENGTH = 4 + 2 + 8 + 4 + 4 + 8;
+
+    private static final String JAVA_UTIL = "java.util.";
+    private static final Set<String> ALLOWED_CLASSES = new HashSet<>(Arrays.asList(
+            "java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Number",
+            "java.lang.Byte", "java.lang.Short", "java.lang.Integer", "java.lang.Long",
+            "java.lang.Float", "java.lang.Double", "java.lang.Enum", "java.lang.Object"));
+
+    private SessionSnapshotStore() {
+    }
+
+    /**
+     * Write the given sessions to the snapshot file.
+     * The file is written to a temporary sibling, forced to disk and then moved into place,
+     * so a crash during export never leaves a truncated snapshot behind.
+     *
+     * @return Number of bytes written
+     */
+    public static long write(Path file, List<Entry> entries) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(64 * 1024);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(compressed))) {
+            for (Entry entry : entries) {
+                out.writeUTF(entry.getId());
+                out.writeLong(entry.getCreationTime());
+                out.writeLong(entry.getLastAccessedTime());
+                out.writeInt(entry.getMaxInactiveInterval());
+                out.writeInt(entry.getAttributes().size());
+                for (Map.Entry<String, byte[]> attribute : entry.getAttributes().entrySet()) {
+                    out.writeUTF(attribute.getKey());
+                    out.writeInt(attribute.getValue().length);
+                    out.write(attribute.getValue());
+                }
+            }
+        }
+        byte[] body = compressed.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putLong(System.currentTimeMillis());
+        header.putInt(entries.size());
+        header.putInt(body.length);
+        header.putLong(crc.getValue());
+        header.flip();
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteBuffer[] buffers = { header, ByteBuffer.wrap(body) };
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return HEADER_LENGTH + body.length;
+    }
+
+    /**
+     * Read a snapshot file, verifying its header and checksum.
+     *
+     * @return Sessions contained in the snapshot
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static List<Entry> read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid session snapshot size: " + size);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading until the whole file is in memory
+            }
+            buffer.flip();
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a session snapshot: " + file);
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported session snapshot version: " + version);
+        }
+        buffer.getLong(); // creation time, informational only
+        int count = buffer.getInt();
+        int bodyLength = buffer.getInt();
+        long expectedCrc = buffer.getLong();
+        if (bodyLength != buffer.remaining()) {
+            throw new IOException("Truncated session snapshot: expected " + bodyLength
+                    + " body bytes, found " + buffer.remaining());
+        }
+
+        byte[] body = new byte[bodyLength];
+        buffer.get(body);
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("Session snapshot checksum mismatch: " + file);
+        }
+
+        List<Entry> entries = new ArrayList<>(count);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(body)))) {
+            for (int i = 0; i < count; i++) {
+                String id = in.readUTF();
+                long creationTime = in.readLong();
+                long lastAccessedTime = in.readLong();
+                int maxInactiveInterval = in.readInt();
+                int attributeCount = in.readInt();
+                Map<String, byte[]> attributes = new LinkedHashMap<>();
+                for (int a = 0; a < attributeCount; a++) {
+                    String name = in.readUTF();
+                    byte[] value = new byte[in.readInt()];
+                    in.readFully(value);
+                    attributes.put(name, value);
+                }
+                entries.add(new Entry(id, creationTime, lastAccessedTime, maxInactiveInterval, attributes));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Serialize a single attribute value
+     */
+    public static byte[] serialize(Serializable value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Deserialize a single attribute value
+     *
+     * @throws InvalidClassException if the value contains a class that is not allowed
+     */
+    public static Object deserialize(byte[] value) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new AllowListObjectInputStream(new ByteArrayInputStream(value))) {
+            return in.readObject();
+        }
+    }
+
+    /**
+     * Whether a serialized class may be loaded from a snapshot; arrays are checked by element type
+     */
+    static boolean isAllowed(String className) {
+        String element = className;
+        while (element.startsWith("[")) {
+            element = element.substring(1);
+        }
+        if (element.length() == 1) {
+            // Primitive array
+            return !element.equals(className);
+        }
+        if (element.startsWith("L") && element.endsWith(";")) {
+            element = element.substring(1, element.length() - 1);
+        }
+        return ALLOWED_CLASSES.contains(element)
+                || (element.startsWith(JAVA_UTIL) && element.indexOf('.', JAVA_UTIL.length()) < 0);
+    }
+
+    /**
+     * ObjectInputStream that refuses classes outside the allow-list and proxies.
+     * The application targets Java 8, which has no java.io.ObjectInputFilter.
+     */
+    private static final class AllowListObjectInputStream extends ObjectInputStream {
+
+        AllowListObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "not allowed in a session snapshot");
+            }
+            return super.resolveClass(desc);
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("Proxy classes are not allowed in a session snapshot");
+        }
+    }
+
+    /**
+     * State of one session in a snapshot. Attribute values are kept serialized
+     * until the session is actually rehydrated.
+     */
+    public static final class Entry {
+        private final String id;
+        private final long creationTime;
+        private final long lastAccessedTime;
+        private final int maxInactiveInterval;
+        private final Map<String, byte[]> attributes;
+
+        public Entry(String id, long creationTime, long lastAccessedTime, int maxInactiveInterval,
+                     Map<String, byte[]> attributes) {
+            this.id = id;
+            this.creationTime = creationTime;
+            this.lastAccessedTime = lastAccessedTime;
+            this.maxInactiveInterval = maxInactiveInterval;
+            this.attributes = Collections.unmodifiableMap(attributes);
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public long getCreationTime() {
+            return creationTime;
+        }
+
+        public long getLastAccessedTime() {
+            return lastAccessedTime;
+        }
+
+        public int getMaxInactiveInterval() {
+            return maxInactiveInterval;
+        }
+
+        public Map<String, byte[]> getAttributes() {
+            return attributes;
+        }
+
+        /**
+         * Whether the session would already have timed out at the given time
+         */
+        public boolean isExpired(long now) {
+            return maxInactiveInterval > 0 && lastAccessedTime + maxInactiveInterval * 1000L < now;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.oracle.demo;
+
+import java.io.Serializable;
+
+/**
+ * Result of an asynchronous EJB invocation together with its timing.
+ * Separates the time spent waiting for the container (async dispatch and
+ * bean pool checkout) from the time spent executing the business method.
+ *
+ * All timestamps are System.nanoTime() values, which is valid because the
+ * caller and the bean run in the same JVM (@Local interface).
+ */
+public class TimedResult<T extends Serializable> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final T value;
+    private final long submittedAt;
+    private final long startedAt;
+    private final long completedAt;
+
+    public TimedResult(T value, long submittedAt, long startedAt, long completedAt) {
+        this.value = value;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public long getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Time between the caller submitting the invocation and the bean method starting
+     */
+    public double getWaitMillis() {
+        return (startedAt - submittedAt) / 1000000.0;
+    }
+
+    /**
+     * Time spent inside the bean method
+     */
+    public double getExecutionMillis() {
+        return (completedAt - startedAt) / 1000000.0;
+    }
+}
@@ -9,14 +9,26 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.InetAddress;
 import java.util.Date;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Servlet that demonstrates EJB and Web Service integration.
  * Calls the stateless session bean to show EJB dependency injection.
+ * Bean methods are invoked asynchronously in parallel and joined under a deadline,
+ * so the page latency follows the slowest call instead of the sum of all calls.
  */
 public class WebServiceDemoServlet extends HttpServlet {
     
     private static final long serialVersionUID = 1L;
+    private static final long DEFAULT_ASYNC_TIMEOUT_MILLIS = 5000;
+    
+    /**
+     * Deadline for joining the parallel EJB invocations (init-param asyncTimeoutMillis)
+     */
+    private long asyncTimeoutMillis = DEFAULT_ASYNC_TIMEOUT_MILLIS;
     
     /**
      * Inject the stateless session bean using @EJB annotation.
@@ -25,6 +37,19 @@ public class WebServiceDemoServlet extends HttpServlet {
     @EJB
     private GreetingService greetingService;
     
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        String timeout = getInitParameter("asyncTimeoutMillis");
+        if (timeout != null && !timeout.trim().isEmpty()) {
+            try {
+                asyncTimeoutMillis = Long.parseLong(timeout.trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid asyncTimeoutMillis '" + timeout + "', using " + DEFAULT_ASYNC_TIMEOUT_MILLIS);
+            }
+        }
+    }
+    
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) 
             throws ServletException, IOException {
@@ -99,32 +124,64 @@ public class WebServiceDemoServlet extends HttpServlet {
         out.println("</div>");
         
         // EJB Invocation Results
-        if (name != null || "info".equals(action)) {
+        boolean greetRequested = name != null && !name.trim().isEmpty();
+        boolean infoRequested = "info".equals(action);
+        if (greetRequested || infoRequested) {
             out.println("<div class='info-section'>");
             out.println("<h2>EJB Method Invocation Results</h2>");
             
-            if (name != null && !name.trim().isEmpty()) {
-                String greetingResult = greetingService.greet(name);
-                String welcomeResult = greetingService.getWelcomeMessage();
-                
+            // Fan out all requested invocations before waiting on any of them
+            long submittedAt = System.nanoTime();
+            Future<TimedResult<String>> greetingFuture = 
+                    greetRequested ? greetingService.greetAsync(name, submittedAt) : null;
+            Future<TimedResult<String>> welcomeFuture = 
+                    greetRequested ? greetingService.getWelcomeMessageAsync(submittedAt) : null;
+            Future<TimedResult<String>> serviceInfoFuture = 
+                    infoRequested ? greetingService.getServiceInfoAsync(submittedAt) : null;
+            
+            // Join under a single deadline shared by all invocations
+            long deadline = submittedAt + TimeUnit.MILLISECONDS.toNanos(asyncTimeoutMillis);
+            TimedResult<String> greetingResult = join(greetingFuture, deadline);
+            TimedResult<String> welcomeResult = join(welcomeFuture, deadline);
+            TimedResult<String> serviceInfo = join(serviceInfoFuture, deadline);
+            double fanOutMillis = (System.nanoTime() - submittedAt) / 1000000.0;
+            
+            if (greetRequested) {
                 out.println("<div class='result-box'>");
                 out.println("<h3>Greet Method:</h3>");
-                out.println("<p class='result-text'>" + greetingResult + "</p>");
+                out.println("<p class='result-text'>" + resultText(greetingResult) + "</p>");
                 out.println("</div>");
                 
                 out.println("<div class='result-box'>");
                 out.println("<h3>Welcome Message Method:</h3>");
-                out.println("<p class='result-text'>" + welcomeResult + "</p>");
+                out.println("<p class='result-text'>" + resultText(welcomeResult) + "</p>");
                 out.println("</div>");
             }
             
-            if ("info".equals(action)) {
-                String serviceInfo = greetingService.getServiceInfo();
+            if (infoRequested) {
                 out.println("<div class='result-box'>");
                 out.println("<h3>Service Information:</h3>");
-                out.println("<p class='result-text'>" + serviceInfo + "</p>");
+                out.println("<p class='result-text'>" + resultText(serviceInfo) + "</p>");
                 out.println("</div>");
             }
+            
+            // Invocation timing: container wait (async dispatch + bean pool) vs. bean execution,
+            // only when at least one invocation returned a timing
+            if (greetingResult != null || welcomeResult != null || serviceInfo != null) {
+                out.println("<h3>Asynchronous Invocation Timing</h3>");
+                out.println("<table>");
+                out.println("<tr><td>Method</td><td>Pool Wait (ms) / Execution (ms)</td></tr>");
+                if (greetRequested) {
+                    out.println("<tr><td>greetAsync()</td><td>" + timingText(greetingResult) + "</td></tr>");
+                    out.println("<tr><td>getWelcomeMessageAsync()</td><td>" + timingText(welcomeResult) + "</td></tr>");
+                }
+                if (infoRequested) {
+                    out.println("<tr><td>getServiceInfoAsync()</td><td>" + timingText(serviceInfo) + "</td></tr>");
+                }
+                out.println("<tr><td>Parallel Fan-out Total</td><td>" + String.format("%.3f ms", fanOutMillis) + "</td></tr>");
+                out.println("<tr><td>Join Deadline</td><td>" + asyncTimeoutMillis + " ms</td></tr>");
+                out.println("</table>");
+            }
             out.println("</div>");
         }
         
@@ -199,6 +256,7 @@ public class WebServiceDemoServlet extends HttpServlet {
         out.println("<li><strong>Stateless Session Beans:</strong> No conversational state maintained between method calls</li>");
         out.println("<li><strong>Annotation-Based Configuration:</strong> @Stateless and @WebService annotations instead of XML</li>");
         out.println("<li><strong>Dependency Injection:</strong> @EJB annotation for automatic bean injection</li>");
+        out.println("<li><strong>Asynchronous Invocation:</strong> @Asynchronous methods returning Future, fanned out in parallel</li>");
         out.println("<li><strong>JAX-WS Integration:</strong> SOAP-based web services with automatic WSDL generation</li>");
         out.println("<li><strong>Container-Managed Lifecycle:</strong> WebLogic manages bean pooling and lifecycle</li>");
         out.println("<li><strong>Transaction Management:</strong> Built-in container-managed transactions</li>");
@@ -235,4 +293,38 @@ public class WebServiceDemoServlet extends HttpServlet {
         out.println("</body>");
         out.println("</html>");
     }
+    
+    /**
+     * Wait for an asynchronous invocation until the shared deadline.
+     * Cancels the invocation and returns null if it did not complete in time or failed.
+     */
+    private TimedResult<String> join(Future<TimedResult<String>> future, long deadline) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return null;
+        } catch (ExecutionException e) {
+            System.out.println("Asynchronous EJB invocation failed: " + e.getCause());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        }
+    }
+    
+    private String resultText(TimedResult<String> result) {
+        return result != null ? result.getValue() : "No result within " + asyncTimeoutMillis + " ms deadline";
+    }
+    
+    private String timingText(TimedResult<String> result) {
+        if (result == null) {
+            return "Timed out or failed";
+        }
+        return String.format("%.3f / %.3f", result.getWaitMillis(), result.getExecutionMillis());
+    }
 }